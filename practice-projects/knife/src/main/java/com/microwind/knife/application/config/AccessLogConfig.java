@@ -0,0 +1,89 @@
+package com.microwind.knife.application.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 访问日志配置类
+ * 用于配置访问日志的环形缓冲区、后台写入、文件滚动、采样等参数
+ */
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+@Data
+public class AccessLogConfig {
+
+    public static final String OVERFLOW_DROP = "drop";
+    public static final String OVERFLOW_BLOCK = "block";
+
+    /**
+     * 是否启用访问日志，默认：true
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 访问日志文件路径，滚动后的文件为 access.log.1、access.log.2 ...
+     */
+    private String file = "logs/access.log";
+
+    /**
+     * 环形缓冲区容量（向上取整为 2 的幂）
+     */
+    private Integer bufferSize = 8192;
+
+    /**
+     * 后台线程每批最多写入的条数
+     */
+    private Integer batchSize = 512;
+
+    /**
+     * 缓冲区为空时后台线程的轮询间隔（毫秒）
+     */
+    private Long flushInterval = 200L;
+
+    /**
+     * 缓冲区已满时的策略：
+     * - drop: 丢弃当前日志并计数（默认，不阻塞请求线程）
+     * - block: 等待后台线程腾出空间，超过 blockTimeout 仍然丢弃
+     */
+    private String overflowPolicy = OVERFLOW_DROP;
+
+    /**
+     * block 策略下的最长等待时间（毫秒）
+     */
+    private Long blockTimeout = 100L;
+
+    /**
+     * 采样率（0~1），只影响写入文件的日志，延迟直方图统计所有请求；5xx 响应始终记录
+     */
+    private Double sampleRate = 1.0;
+
+    /**
+     * 单个日志文件最大字节数，超过后滚动，默认：100MB
+     */
+    private Long maxFileSize = 100L * 1024 * 1024;
+
+    /**
+     * 保留的历史文件个数
+     */
+    private Integer maxHistory = 10;
+
+    /**
+     * 延迟直方图最多统计的路由数，超过后归入 OTHER
+     */
+    private Integer maxRoutes = 500;
+
+    /**
+     * 是否启用访问日志
+     */
+    public boolean isAccessLogEnabled() {
+        return !Boolean.FALSE.equals(enabled);
+    }
+
+    /**
+     * 缓冲区已满时是否阻塞等待
+     */
+    public boolean isBlockOnOverflow() {
+        return OVERFLOW_BLOCK.equalsIgnoreCase(overflowPolicy);
+    }
+}
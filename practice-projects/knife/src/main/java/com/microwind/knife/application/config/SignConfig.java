@@ -15,6 +15,10 @@ public class SignConfig {
 
     private static final long DEFAULT_DYNAMIC_SALT_TTL = 86400000L; // 24h
     private static final long DEFAULT_SIGNATURE_TTL = 600000L;      // 10min
+    private static final long DEFAULT_SECRET_KEY_CACHE_TTL = 300000L;          // 5min
+    private static final long DEFAULT_SECRET_KEY_CACHE_NEGATIVE_TTL = 30000L;  // 30s
+    private static final long DEFAULT_CACHED_BODY_MAX_SIZE = 10L * 1024 * 1024;        // 10MB
+    private static final long DEFAULT_CACHED_BODY_MEMORY_THRESHOLD = 1024L * 1024;     // 1MB
 
     public static final String CONFIG_MODE_DATABASE = "database";
     public static final String CONFIG_MODE_FILE = "file";
@@ -40,6 +44,11 @@ public class SignConfig {
      */
     private SignatureConfig signature = new SignatureConfig();
 
+    /**
+     * 秘钥与接口权限缓存配置（仅数据库模式生效）
+     */
+    private SecretKeyCacheConfig secretKeyCache = new SecretKeyCacheConfig();
+
     /**
      * 配置模式：database 或 file
      * - database: 通过数据库配置（适合大规模应用）
@@ -67,14 +76,19 @@ public class SignConfig {
     /**
      * 需要缓存请求体的路径模式列表
      * <p>
-     * 只有这些路径的请求才会被 CachedBodyFilter 缓存 body
+     * 配置后 CachedBodyFilter 只缓存这些路径的请求 body（在 @RequireSign 元数据判断的基础上进一步限定）
      * 支持 Ant 风格路径模式：
      * - /api/payment/** : 匹配 /api/payment 下所有路径
      * - /api/*\/sensitive : 匹配 /api/任意单层/sensitive
-     * - 留空则使用 header 检测模式（默认）
+     * - 留空则只按 header 和 @RequireSign 元数据判断（默认）
      */
     public java.util.List<String> cachedBodyPathPatterns;
 
+    /**
+     * 请求体缓存配置
+     */
+    private CachedBodyConfig cachedBody = new CachedBodyConfig();
+
     /**
      * 动态盐值配置
      */
@@ -92,6 +106,48 @@ public class SignConfig {
          * 默认：false
          */
         private Boolean validateFromDatabase = false;
+
+        /**
+         * 进程内盐值台账配置（数据库校验模式 + JDBC 仓库生效）
+         */
+        private SaltLedgerConfig ledger = new SaltLedgerConfig();
+    }
+
+    /**
+     * 进程内盐值台账配置
+     */
+    @Data
+    public static class SaltLedgerConfig {
+        /**
+         * 是否启用台账，默认：false
+         * 台账只在当前进程内有效，仅单实例部署（或盐值的生成与校验固定在同一实例）时开启
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 分段数（向上取 2 的幂）
+         */
+        private Integer shards = 16;
+
+        /**
+         * 最大条目数，超过后优先淘汰最早过期的时间桶
+         */
+        private Integer maxEntries = 100000;
+
+        /**
+         * 过期时间桶宽度（毫秒）
+         */
+        private Long bucketMillis = 60000L;
+
+        /**
+         * 异步批量落库间隔（毫秒）
+         */
+        private Long flushInterval = 500L;
+
+        /**
+         * 每批最多落库条数
+         */
+        private Integer batchSize = 500;
     }
 
     /**
@@ -113,6 +169,48 @@ public class SignConfig {
         private Boolean defaultWithParams = false;
     }
 
+    /**
+     * 秘钥与接口权限缓存配置
+     */
+    @Data
+    public static class SecretKeyCacheConfig {
+        /**
+         * 是否启用缓存，默认：true
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 每类缓存（秘钥 / 权限）的最大条目数
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 缓存有效期（毫秒），写入后超过该时间重新从数据库加载
+         */
+        private Long ttl = DEFAULT_SECRET_KEY_CACHE_TTL;
+
+        /**
+         * 未知应用、无权限等否定结果的缓存有效期（毫秒）
+         */
+        private Long negativeTtl = DEFAULT_SECRET_KEY_CACHE_NEGATIVE_TTL;
+    }
+
+    /**
+     * 请求体缓存配置
+     */
+    @Data
+    public static class CachedBodyConfig {
+        /**
+         * 请求体最大字节数，超过返回 413，默认：10MB
+         */
+        private Long maxSize = DEFAULT_CACHED_BODY_MAX_SIZE;
+
+        /**
+         * 堆内存缓存上限（字节），超过后写入临时文件并内存映射读取，默认：1MB
+         */
+        private Long memoryThreshold = DEFAULT_CACHED_BODY_MEMORY_THRESHOLD;
+    }
+
     /**
      * 获取动态盐值有效期（毫秒）
      */
@@ -134,6 +232,14 @@ public class SignConfig {
         return dynamicSalt != null && Boolean.TRUE.equals(dynamicSalt.getValidateFromDatabase());
     }
 
+    /**
+     * 是否启用进程内盐值台账
+     */
+    public boolean isSaltLedgerEnabled() {
+        return dynamicSalt != null && dynamicSalt.getLedger() != null
+                && Boolean.TRUE.equals(dynamicSalt.getLedger().getEnabled());
+    }
+
     /**
      * 是否使用 JdbcTemplate 方式（SignRepository）
      */
@@ -154,6 +260,27 @@ public class SignConfig {
     public boolean isDefaultWithParams() {
         return signature != null && Boolean.TRUE.equals(signature.getDefaultWithParams());
     }
-}
 
+    /**
+     * 是否启用秘钥与接口权限缓存
+     */
+    public boolean isSecretKeyCacheEnabled() {
+        return secretKeyCache != null && !Boolean.FALSE.equals(secretKeyCache.getEnabled());
+    }
+
+    /**
+     * 获取请求体最大字节数
+     */
+    public long getCachedBodyMaxSize() {
+        return cachedBody != null && cachedBody.getMaxSize() != null
+                ? cachedBody.getMaxSize() : DEFAULT_CACHED_BODY_MAX_SIZE;
+    }
 
+    /**
+     * 获取请求体堆内存缓存上限（字节）
+     */
+    public long getCachedBodyMemoryThreshold() {
+        return cachedBody != null && cachedBody.getMemoryThreshold() != null
+                ? cachedBody.getMemoryThreshold() : DEFAULT_CACHED_BODY_MEMORY_THRESHOLD;
+    }
+}
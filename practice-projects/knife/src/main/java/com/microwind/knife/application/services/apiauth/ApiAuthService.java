@@ -1,5 +1,6 @@
 package com.microwind.knife.application.services.apiauth;
 
+import com.microwind.knife.application.services.sign.strategy.secretkey.SecretKeyCache;
 import com.microwind.knife.domain.apiauth.ApiAuth;
 import com.microwind.knife.domain.repository.apiauth.ApiAuthJpaRepository;
 import com.microwind.knife.exception.ResourceNotFoundException;
@@ -18,6 +19,7 @@ import java.util.List;
 public class ApiAuthService {
 
     private final ApiAuthJpaRepository apiAuthJpaRepository;
+    private final SecretKeyCache secretKeyCache;
 
     /**
      * 检查权限是否有效
@@ -31,7 +33,9 @@ public class ApiAuthService {
      */
     @Transactional
     public ApiAuth createAuth(ApiAuth apiAuth) {
-        return apiAuthJpaRepository.save(apiAuth);
+        ApiAuth newAuth = apiAuthJpaRepository.save(apiAuth);
+        secretKeyCache.invalidatePermission(newAuth.getAppCode(), newAuth.getApiPath());
+        return newAuth;
     }
 
     /**
@@ -55,6 +59,8 @@ public class ApiAuthService {
     @Transactional
     public ApiAuth updateAuth(Long id, ApiAuth apiAuth) {
         ApiAuth existingAuth = getById(id);
+        String oldAppCode = existingAuth.getAppCode();
+        String oldApiPath = existingAuth.getApiPath();
         if (apiAuth.getAppCode() != null) {
             existingAuth.setAppCode(apiAuth.getAppCode());
         }
@@ -67,7 +73,11 @@ public class ApiAuthService {
         if (apiAuth.getExpireTime() != null) {
             existingAuth.setExpireTime(apiAuth.getExpireTime());
         }
-        return apiAuthJpaRepository.save(existingAuth);
+        ApiAuth newAuth = apiAuthJpaRepository.save(existingAuth);
+        // 权限状态、有效期或授权对象变化后失效缓存
+        secretKeyCache.invalidatePermission(oldAppCode, oldApiPath);
+        secretKeyCache.invalidatePermission(newAuth.getAppCode(), newAuth.getApiPath());
+        return newAuth;
     }
 
     /**
@@ -77,5 +87,6 @@ public class ApiAuthService {
     public void deleteAuth(Long id) {
         ApiAuth apiAuth = getById(id);
         apiAuthJpaRepository.delete(apiAuth);
+        secretKeyCache.invalidatePermission(apiAuth.getAppCode(), apiAuth.getApiPath());
     }
 }
@@ -1,5 +1,6 @@
 package com.microwind.knife.application.services.apiauth;
 
+import com.microwind.knife.application.services.sign.strategy.secretkey.SecretKeyCache;
 import com.microwind.knife.domain.apiauth.ApiInfo;
 import com.microwind.knife.domain.repository.apiauth.ApiInfoJpaRepository;
 import com.microwind.knife.exception.ResourceNotFoundException;
@@ -17,6 +18,7 @@ import java.util.List;
 public class ApiInfoService {
 
     private final ApiInfoJpaRepository apiInfoJpaRepository;
+    private final SecretKeyCache secretKeyCache;
 
     /**
      * 根据apiPath查询接口信息
@@ -31,7 +33,9 @@ public class ApiInfoService {
      */
     @Transactional
     public ApiInfo createApiInfo(ApiInfo apiInfo) {
-        return apiInfoJpaRepository.save(apiInfo);
+        ApiInfo newApiInfo = apiInfoJpaRepository.save(apiInfo);
+        secretKeyCache.invalidatePath(newApiInfo.getApiPath());
+        return newApiInfo;
     }
 
     /**
@@ -62,6 +66,7 @@ public class ApiInfoService {
     @Transactional
     public ApiInfo updateApiInfo(Long id, ApiInfo apiInfo) {
         ApiInfo existingApiInfo = getById(id);
+        String oldApiPath = existingApiInfo.getApiPath();
         if (apiInfo.getApiPath() != null) {
             existingApiInfo.setApiPath(apiInfo.getApiPath());
         }
@@ -83,7 +88,11 @@ public class ApiInfoService {
         if (apiInfo.getDescription() != null) {
             existingApiInfo.setDescription(apiInfo.getDescription());
         }
-        return apiInfoJpaRepository.save(existingApiInfo);
+        ApiInfo newApiInfo = apiInfoJpaRepository.save(existingApiInfo);
+        // 接口类型、状态或路径变化后失效相关权限缓存
+        secretKeyCache.invalidatePath(oldApiPath);
+        secretKeyCache.invalidatePath(newApiInfo.getApiPath());
+        return newApiInfo;
     }
 
     /**
@@ -93,5 +102,6 @@ public class ApiInfoService {
     public void deleteApiInfo(Long id) {
         ApiInfo apiInfo = getById(id);
         apiInfoJpaRepository.delete(apiInfo);
+        secretKeyCache.invalidatePath(apiInfo.getApiPath());
     }
 }
@@ -2,6 +2,7 @@ package com.microwind.knife.application.services.apiauth;
 
 import com.microwind.knife.application.dto.apiauth.ApiUserDTO;
 import com.microwind.knife.application.dto.apiauth.ApiUserMapper;
+import com.microwind.knife.application.services.sign.strategy.secretkey.SecretKeyCache;
 import com.microwind.knife.domain.apiauth.ApiUsers;
 import com.microwind.knife.domain.repository.apiauth.ApiUsersJpaRepository;
 import com.microwind.knife.exception.ResourceNotFoundException;
@@ -20,6 +21,7 @@ import java.util.List;
 public class ApiUsersService {
     private final ApiUserMapper apiUserMapper;
     private final ApiUsersJpaRepository apiUsersJpaRepository;
+    private final SecretKeyCache secretKeyCache;
 
     /**
      * 根据appCode查询用户
@@ -52,6 +54,8 @@ public class ApiUsersService {
     @Transactional
     public ApiUserDTO createApiUser(ApiUsers apiUsers) {
         ApiUsers newApiUsers = apiUsersJpaRepository.save(apiUsers);
+        // 清除该应用可能存在的"应用不存在"否定缓存
+        secretKeyCache.invalidateApp(newApiUsers.getAppCode());
         return apiUserMapper.toDTO(newApiUsers);
     }
 
@@ -83,6 +87,7 @@ public class ApiUsersService {
     @Transactional
     public ApiUserDTO updateApiUser(Long id, ApiUsers apiUsers) {
         ApiUsers existingUser = getByUserId(id);
+        String oldAppCode = existingUser.getAppCode();
         if (apiUsers.getAppCode() != null) {
             existingUser.setAppCode(apiUsers.getAppCode());
         }
@@ -102,6 +107,9 @@ public class ApiUsersService {
             existingUser.setExpireTime(apiUsers.getExpireTime());
         }
         ApiUsers newUser = apiUsersJpaRepository.save(existingUser);
+        // 秘钥、状态或 appCode 变化后失效缓存
+        secretKeyCache.invalidateApp(oldAppCode);
+        secretKeyCache.invalidateApp(newUser.getAppCode());
         return apiUserMapper.toDTO(newUser);
     }
 
@@ -112,5 +120,6 @@ public class ApiUsersService {
     public void deleteApiUser(Long id) {
         ApiUsers apiUsers = getByUserId(id);
         apiUsersJpaRepository.delete(apiUsers);
+        secretKeyCache.invalidateApp(apiUsers.getAppCode());
     }
 }
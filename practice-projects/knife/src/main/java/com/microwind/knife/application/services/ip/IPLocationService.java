@@ -1,23 +1,20 @@
 package com.microwind.knife.application.services.ip;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microwind.knife.application.config.DedicatedIPConfig;
 import com.microwind.knife.common.ApiResponse;
 import com.microwind.knife.domain.ip.IPRegion;
+import com.microwind.knife.utils.CidrIndex;
 import com.microwind.knife.utils.IPUtil;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -29,33 +26,52 @@ public class IPLocationService {
     @Autowired
     private IPUtil ipUtil;
 
-    @Value("${public.ip.service.url:https://api.vore.top/api/IPdata}")
-    private String publicIPServiceUrl;
+    @Autowired
+    private PublicIPCache publicIPCache;
 
-    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    // 编译后的专网网段索引，网段配置内容变化时整体替换
+    private volatile DedicatedIndex dedicatedIndex;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    public ApiResponse<IPRegion> getIPLocation(String ip) {
+        return resolve(ip).join();
+    }
 
-    @PreDestroy
-    public void close() {
-        try {
-            httpClient.close();
-        } catch (IOException ignored) {
+    /**
+     * 批量查询 IP 地理位置
+     * 公网查询并发执行，返回顺序与传入顺序一致（重复的 IP 只查询一次）
+     *
+     * @param ips IP 列表
+     * @return IP -> 查询结果
+     */
+    public Map<String, ApiResponse<IPRegion>> getIPLocations(List<String> ips) {
+        Map<String, CompletableFuture<ApiResponse<IPRegion>>> futures = new LinkedHashMap<>();
+        for (String ip : ips) {
+            futures.computeIfAbsent(ip, this::resolve);
         }
+        Map<String, ApiResponse<IPRegion>> results = new LinkedHashMap<>();
+        futures.forEach((ip, future) -> results.put(ip, future.join()));
+        return results;
     }
 
-    public ApiResponse<IPRegion> getIPLocation(String ip) {
+    /**
+     * 查询单个 IP：专网直接返回，公网异步查询（结果不会异常完成）
+     */
+    private CompletableFuture<ApiResponse<IPRegion>> resolve(String ip) {
         try {
+            if (!CidrIndex.isValidAddress(ip)) {
+                return CompletableFuture.completedFuture(ApiResponse.failure(400, "IP 格式错误：" + ip));
+            }
+
             // 优先查专网
             Optional<IPRegion> region = checkDedicatedIP(ip);
             if (region.isPresent()) {
                 log.info("IP {} 所属专网: {}", ip, region.get());
-                return ApiResponse.success(region.get(), "专网IP查询成功");
+                return CompletableFuture.completedFuture(ApiResponse.success(region.get(), "专网IP查询成功"));
             }
 
             // 专网IP查不到
             if (ipUtil.isPrivateIP(ip)) {
-                return ApiResponse.success(new IPRegion(), "专网配置中查不到：" + ip);
+                return CompletableFuture.completedFuture(ApiResponse.success(new IPRegion(), "专网配置中查不到：" + ip));
             }
 
             // 否则走公网
@@ -63,69 +79,99 @@ public class IPLocationService {
 
         } catch (Exception e) {
             log.error("IP 查询异常: {}", e.getMessage(), e);
-            return ApiResponse.failure(500, "服务器内部错误：" + e.getMessage());
+            return CompletableFuture.completedFuture(ApiResponse.failure(500, "服务器内部错误：" + e.getMessage()));
         }
     }
 
     /**
      * 判断 Dedicated 专网 IP
+     * 网段编译为 CidrIndex 后二分查找，多个网段重叠时取配置顺序中的第一个
      */
     private Optional<IPRegion> checkDedicatedIP(String ip) {
-        if (dedicatedIPConfig.getIpRanges() == null) {
+        DedicatedIPConfig.IPRange range = dedicatedIndex().lookup(ip);
+        if (range == null) {
             return Optional.empty();
         }
+        IPRegion region = new IPRegion();
+        region.setProvince(range.getProvince());
+        region.setCity(range.getCity());
+        region.setCountry("中国");
+        region.setIp(ip);
+        return Optional.of(region);
+    }
 
-        for (DedicatedIPConfig.IPRange range : dedicatedIPConfig.getIpRanges()) {
-            try {
-                if (ipUtil.isInRange(ip, range.getCidr())) {
-                    IPRegion region = new IPRegion();
-                    region.setProvince(range.getProvince());
-                    region.setCity(range.getCity());
-                    region.setCountry("中国");
-                    region.setIp(ip);
-                    return Optional.of(region);
+    /**
+     * 获取专网网段索引，配置的网段变化（列表重新绑定或网段被原地修改）后重新构建
+     */
+    private CidrIndex<DedicatedIPConfig.IPRange> dedicatedIndex() {
+        List<DedicatedIPConfig.IPRange> ranges = dedicatedIPConfig.getIpRanges();
+        DedicatedIndex current = dedicatedIndex;
+        if (current != null && current.isBuiltFrom(ranges)) {
+            return current.index();
+        }
+        synchronized (this) {
+            current = dedicatedIndex;
+            if (current == null || !current.isBuiltFrom(ranges)) {
+                current = DedicatedIndex.build(ranges);
+                dedicatedIndex = current;
+                log.info("专网网段索引已构建: {} 个网段", current.index().size());
+                if (!current.index().getInvalidCidrs().isEmpty()) {
+                    log.warn("CIDR 解析失败，已跳过: {}", current.index().getInvalidCidrs());
                 }
-            } catch (Exception e) {
-                log.warn("CIDR 解析失败: {} -> {}", range.getCidr(), e.getMessage());
             }
+            return current.index();
         }
-        return Optional.empty();
     }
 
     /**
-     * 公网 IP 查询
+     * 公网 IP 查询（经过缓存，同一 IP 的并发查询只请求一次上游）
      */
-    private ApiResponse<IPRegion> queryPublicIP(String ip) {
-
-        String url = publicIPServiceUrl + "?ip=" + ip;
-        HttpGet httpGet = new HttpGet(url);
-        httpGet.addHeader("Accept", "application/json");
-
-        try (var response = httpClient.execute(httpGet)) {
-
-            int code = response.getCode();
-            if (code != 200) {
-                return ApiResponse.failure(code, "公网接口错误: " + code);
+    private CompletableFuture<ApiResponse<IPRegion>> queryPublicIP(String ip) {
+        return publicIPCache.get(ip).handle((region, failure) -> {
+            if (failure == null) {
+                return ApiResponse.success(region, "公网IP查询成功");
             }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            log.warn("公网查询失败: {} -> {}", ip, cause.getMessage());
+            if (cause instanceof PublicIPClient.LookupException lookupException) {
+                return ApiResponse.failure(lookupException.getCode(), lookupException.getMessage());
+            }
+            return ApiResponse.failure(500, "公网API异常：" + cause.getMessage());
+        });
+    }
 
-            String body = EntityUtils.toString(response.getEntity());
-            ApiResponse<?> result = objectMapper.readValue(body, ApiResponse.class);
-            log.error("公网查询结果: {}", result.getData());
-            // 关键修复：反序列化 data 为 Map
-            Map<String, Object> data = objectMapper.convertValue(result.getData(), Map.class);
-
-            IPRegion region = new IPRegion();
-            region.setProvince((String) data.getOrDefault("province", ""));
-            region.setCity((String) data.getOrDefault("city", ""));
-            region.setDistrict((String) data.getOrDefault("district", ""));
-            region.setCountry((String) data.getOrDefault("country", "中国"));
-            region.setIp(ip);
+    /**
+     * 专网网段索引及构建时的网段内容快照
+     * 索引值使用快照中的副本，配置中的网段被原地修改时与快照不再相等，触发重新构建
+     */
+    private record DedicatedIndex(List<DedicatedIPConfig.IPRange> snapshot,
+                                  CidrIndex<DedicatedIPConfig.IPRange> index) {
+
+        static DedicatedIndex build(List<DedicatedIPConfig.IPRange> ranges) {
+            List<DedicatedIPConfig.IPRange> snapshot = ranges != null
+                    ? ranges.stream().map(DedicatedIndex::copyOf).toList() : List.of();
+            List<String> cidrs = snapshot.stream().map(DedicatedIPConfig.IPRange::getCidr).toList();
+            return new DedicatedIndex(snapshot, CidrIndex.build(cidrs, snapshot));
+        }
 
-            return ApiResponse.success(region, "公网IP查询成功");
+        /**
+         * 按内容比较（未变化时字段为同一个 String 实例，逐个比较引用即可）
+         */
+        boolean isBuiltFrom(List<DedicatedIPConfig.IPRange> ranges) {
+            return snapshot.equals(ranges != null ? ranges : List.of());
+        }
 
-        } catch (Exception e) {
-            log.error("公网查询失败: {}", e.getMessage());
-            return ApiResponse.failure(500, "公网API异常：" + e.getMessage());
+        private static DedicatedIPConfig.IPRange copyOf(DedicatedIPConfig.IPRange range) {
+            if (range == null) {
+                return null;
+            }
+            DedicatedIPConfig.IPRange copy = new DedicatedIPConfig.IPRange();
+            copy.setCidr(range.getCidr());
+            copy.setAlias(range.getAlias());
+            copy.setProvince(range.getProvince());
+            copy.setCity(range.getCity());
+            return copy;
         }
     }
 }
@@ -0,0 +1,131 @@
+package com.microwind.knife.application.services.ip;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.microwind.knife.domain.ip.IPRegion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 公网 IP 归属地缓存
+ * <p>
+ * 按 IP 缓存查询结果（CompletableFuture）：
+ * <ul>
+ *   <li>容量上限 + 写入后过期（TTL）</li>
+ *   <li>单飞：同一个 IP 并发未命中时共享同一个进行中的请求</li>
+ *   <li>否定缓存：查询失败的结果按较短的 TTL 缓存，避免上游异常时被重复请求打满</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class PublicIPCache {
+
+    private final Function<String, CompletableFuture<IPRegion>> loader;
+    private final long negativeTtl;
+    private final Cache<String, Lookup> cache;
+
+    @Autowired
+    public PublicIPCache(PublicIPClient publicIPClient,
+                         @Value("${public.ip.cache.maximum-size:100000}") long maximumSize,
+                         @Value("${public.ip.cache.ttl:3600000}") long ttl,
+                         @Value("${public.ip.cache.negative-ttl:60000}") long negativeTtl) {
+        this(publicIPClient::lookup, maximumSize, ttl, negativeTtl);
+    }
+
+    PublicIPCache(Function<String, CompletableFuture<IPRegion>> loader,
+                  long maximumSize, long ttl, long negativeTtl) {
+        this.loader = loader;
+        this.negativeTtl = negativeTtl;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 查询 IP 归属地（命中缓存或有进行中的请求时不访问上游）
+     *
+     * @param ip IP 地址
+     * @return 查询结果
+     */
+    public CompletableFuture<IPRegion> get(String ip) {
+        Lookup lookup = getOrLoad(ip);
+        if (lookup.isExpired()) {
+            // 否定结果过期：移除后重新查询（仅移除同一条目，避免误删并发加载的新结果）
+            cache.asMap().remove(ip, lookup);
+            lookup = getOrLoad(ip);
+        }
+        // 返回副本，调用方取消或修改 future 不影响其他共享该请求的调用方
+        return lookup.future.copy();
+    }
+
+    private Lookup getOrLoad(String ip) {
+        try {
+            return cache.get(ip, () -> new Lookup(load(ip), negativeTtl));
+        } catch (ExecutionException e) {
+            // load 不会抛出受检异常
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private CompletableFuture<IPRegion> load(String ip) {
+        try {
+            return loader.apply(ip);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public void invalidate(String ip) {
+        cache.invalidate(ip);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", cache.size());
+        map.put("hitCount", stats.hitCount());
+        map.put("missCount", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictionCount", stats.evictionCount());
+        return map;
+    }
+
+    /**
+     * 缓存条目：进行中或已完成的查询，失败时记录否定结果的过期时间
+     */
+    private static final class Lookup {
+        private final CompletableFuture<IPRegion> future;
+        private volatile long expireAt = Long.MAX_VALUE;
+
+        Lookup(CompletableFuture<IPRegion> future, long negativeTtl) {
+            this.future = future;
+            future.whenComplete((region, failure) -> {
+                if (failure != null) {
+                    expireAt = System.currentTimeMillis() + negativeTtl;
+                }
+            });
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expireAt;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.microwind.knife.application.services.ip;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microwind.knife.domain.ip.IPRegion;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 公网 IP 归属地查询客户端
+ * <p>
+ * 基于 httpclient5 异步客户端，连接池复用连接，所有请求都有连接、响应超时：
+ * <ul>
+ *   <li>返回 CompletableFuture，批量查询时多个请求并发执行，不占用业务线程</li>
+ *   <li>上游返回非 200、响应无法解析时以 {@link LookupException} 失败</li>
+ * </ul>
+ * </p>
+ */
+@Slf4j
+@Component
+public class PublicIPClient implements AutoCloseable {
+
+    private final String serviceUrl;
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public PublicIPClient(@Value("${public.ip.service.url:https://api.vore.top/api/IPdata}") String serviceUrl,
+                          @Value("${public.ip.service.connect-timeout:2000}") long connectTimeout,
+                          @Value("${public.ip.service.response-timeout:3000}") long responseTimeout,
+                          @Value("${public.ip.service.max-connections:200}") int maxConnections,
+                          @Value("${public.ip.service.max-connections-per-route:50}") int maxConnectionsPerRoute) {
+        this.serviceUrl = serviceUrl;
+
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // 连接池耗尽时等待连接的时间
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMinutes(1))
+                .build();
+        this.httpClient.start();
+    }
+
+    /**
+     * 异步查询 IP 归属地
+     *
+     * @param ip IP 地址
+     * @return 查询结果，失败时以 LookupException 完成
+     */
+    public CompletableFuture<IPRegion> lookup(String ip) {
+        CompletableFuture<IPRegion> future = new CompletableFuture<>();
+        URI uri;
+        try {
+            uri = new URIBuilder(serviceUrl).addParameter("ip", ip).build();
+        } catch (URISyntaxException e) {
+            future.completeExceptionally(new LookupException(500, "公网接口地址错误: " + e.getMessage()));
+            return future;
+        }
+
+        SimpleHttpRequest request = SimpleRequestBuilder.get(uri)
+                .addHeader("Accept", "application/json")
+                .build();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    future.complete(parse(ip, response));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(new LookupException(500, "公网API异常：" + e.getMessage()));
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new LookupException(500, "公网API请求已取消"));
+            }
+        });
+        return future;
+    }
+
+    private IPRegion parse(String ip, SimpleHttpResponse response) {
+        int code = response.getCode();
+        if (code != 200) {
+            throw new LookupException(code, "公网接口错误: " + code);
+        }
+
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(response.getBodyBytes()).path("data");
+        } catch (Exception e) {
+            throw new LookupException(500, "公网接口响应解析失败: " + e.getMessage());
+        }
+        log.debug("公网查询结果: {} -> {}", ip, data);
+        if (!data.isObject()) {
+            throw new LookupException(500, "公网接口未返回归属地数据");
+        }
+
+        IPRegion region = new IPRegion();
+        region.setProvince(data.path("province").asText(""));
+        region.setCity(data.path("city").asText(""));
+        region.setDistrict(data.path("district").asText(""));
+        region.setCountry(data.path("country").asText("中国"));
+        region.setIp(ip);
+        return region;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * 公网查询失败（携带返回给调用方的错误码）
+     */
+    public static class LookupException extends RuntimeException {
+        private final int code;
+
+        public LookupException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+}
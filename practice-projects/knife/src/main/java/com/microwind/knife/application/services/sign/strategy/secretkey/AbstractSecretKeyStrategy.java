@@ -47,4 +47,19 @@ public abstract class AbstractSecretKeyStrategy implements SecretKeyRetrievalStr
      * @throws IllegalArgumentException 应用不存在
      */
     protected abstract String doGetSecretKey(String appCode, String path);
+
+    /**
+     * 获取秘钥及其过期时间
+     * <p>
+     * 供 {@link SecretKeyCache} 按过期时间截止缓存，默认视为永不过期；
+     * 数据源中带有过期时间的子类应覆盖此方法
+     *
+     * @param appCode 应用编码
+     * @param path    接口路径
+     * @return 秘钥及过期时间
+     * @throws IllegalArgumentException 应用不存在
+     */
+    protected SecretKeyEntry loadSecretKey(String appCode, String path) {
+        return new SecretKeyEntry(doGetSecretKey(appCode, path), null);
+    }
 }
@@ -0,0 +1,26 @@
+package com.microwind.knife.application.services.sign.strategy.secretkey;
+
+/**
+ * 带缓存的秘钥获取策略（装饰器）
+ * <p>
+ * 包装数据库模式的秘钥获取策略，权限检查和秘钥查询结果通过 {@link SecretKeyCache} 缓存，
+ * 命中时签名校验不再访问数据库。由 {@link SecretKeyStrategyFactory} 在启用缓存时创建
+ */
+class CachingSecretKeyStrategy implements SecretKeyRetrievalStrategy {
+    private final AbstractSecretKeyStrategy delegate;
+    private final SecretKeyCache secretKeyCache;
+
+    CachingSecretKeyStrategy(AbstractSecretKeyStrategy delegate, SecretKeyCache secretKeyCache) {
+        this.delegate = delegate;
+        this.secretKeyCache = secretKeyCache;
+    }
+
+    @Override
+    public String getSecretKey(String appCode, String path) {
+        // 1. 检查权限（按 appCode + path 缓存）
+        secretKeyCache.checkPermission(appCode, path, () -> delegate.checkPermission(appCode, path));
+
+        // 2. 获取秘钥（按 appCode 缓存）
+        return secretKeyCache.getSecretKey(appCode, () -> delegate.loadSecretKey(appCode, path));
+    }
+}
@@ -44,10 +44,16 @@ public class JdbcSecretKeyStrategy extends AbstractSecretKeyStrategy {
 
     @Override
     protected String doGetSecretKey(String appCode, String path) {
+        return loadSecretKey(appCode, path).secretKey();
+    }
+
+    @Override
+    protected SecretKeyEntry loadSecretKey(String appCode, String path) {
         Optional<ApiUsers> apiUsersOpt = signRepository.findApiUserByAppCode(appCode);
         if (apiUsersOpt.isEmpty()) {
             throw new IllegalArgumentException("应用不存在，appCode：" + appCode);
         }
-        return apiUsersOpt.get().getSecretKey();
+        ApiUsers apiUsers = apiUsersOpt.get();
+        return new SecretKeyEntry(apiUsers.getSecretKey(), apiUsers.getExpireTime());
     }
 }
@@ -45,10 +45,15 @@ public class JpaSecretKeyStrategy extends AbstractSecretKeyStrategy {
 
     @Override
     protected String doGetSecretKey(String appCode, String path) {
+        return loadSecretKey(appCode, path).secretKey();
+    }
+
+    @Override
+    protected SecretKeyEntry loadSecretKey(String appCode, String path) {
         ApiUserDTO apiUserDTO = apiUsersService.getByAppCode(appCode);
         if (apiUserDTO.getAppCode() == null) {
             throw new IllegalArgumentException("应用不存在，appCode：" + appCode);
         }
-        return apiUserDTO.getSecretKey();
+        return new SecretKeyEntry(apiUserDTO.getSecretKey(), apiUserDTO.getExpireTime());
     }
 }
@@ -0,0 +1,287 @@
+package com.microwind.knife.application.services.sign.strategy.secretkey;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.microwind.knife.application.config.SignConfig;
+import com.microwind.knife.exception.ResourceNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 秘钥与接口权限缓存
+ * <p>
+ * 数据库模式下每次签名校验需要查询接口信息、权限和应用秘钥（3 次数据库往返），
+ * 本缓存按 appCode 缓存秘钥、按 (appCode, path) 缓存权限检查结果：
+ * <ul>
+ *   <li>容量上限 + 写入后过期（TTL）；秘钥条目最晚在 api_users.expire_time 到期，过期的秘钥不会在 TTL 内继续可用</li>
+ *   <li>否定缓存：未知应用、无权限、接口不存在、加载时秘钥已过期等结果按较短的 TTL（negativeTtl）缓存，
+ *       避免无效请求穿透到数据库；negativeTtl 为 0 时不缓存否定结果，每次请求只查询一次</li>
+ *   <li>单飞加载：同一个 key 并发未命中时只有一个线程查询数据库，其余线程等待结果</li>
+ *   <li>失效钩子：ApiUsersService / ApiAuthService / ApiInfoService 写操作后主动失效（事务提交后再失效一次）</li>
+ * </ul>
+ * 数据库访问异常不会被缓存
+ * </p>
+ */
+@Component
+public class SecretKeyCache {
+
+    private final SignConfig signConfig;
+    private final Cache<String, Outcome> secretKeys;
+    private final Cache<PermissionKey, Outcome> permissions;
+
+    public SecretKeyCache(SignConfig signConfig) {
+        this.signConfig = signConfig;
+        SignConfig.SecretKeyCacheConfig config = signConfig.getSecretKeyCache() != null
+                ? signConfig.getSecretKeyCache() : new SignConfig.SecretKeyCacheConfig();
+        this.secretKeys = newCache(config);
+        this.permissions = newCache(config);
+    }
+
+    private static <K> Cache<K, Outcome> newCache(SignConfig.SecretKeyCacheConfig config) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 检查权限（命中缓存时不访问数据库）
+     *
+     * @param appCode 应用编码
+     * @param path    接口路径
+     * @param loader  未命中时执行的权限检查，检查失败抛出异常
+     */
+    public void checkPermission(String appCode, String path, Runnable loader) {
+        get(permissions, new PermissionKey(appCode, path), () -> {
+            loader.run();
+            return new SecretKeyEntry(null, null);
+        });
+    }
+
+    /**
+     * 获取应用秘钥（命中缓存时不访问数据库）
+     *
+     * @param appCode 应用编码
+     * @param loader  未命中时执行的秘钥查询，返回秘钥及过期时间，应用不存在时抛出异常
+     * @return 秘钥
+     */
+    public String getSecretKey(String appCode, Supplier<SecretKeyEntry> loader) {
+        if (appCode == null) {
+            // Guava 缓存不接受 null key，直接查询（结果与未启用缓存时一致）
+            return loader.get().secretKey();
+        }
+        return get(secretKeys, appCode, loader);
+    }
+
+    private <K> String get(Cache<K, Outcome> cache, K key, Supplier<SecretKeyEntry> loader) {
+        Outcome outcome;
+        try {
+            // 记录本次调用是否执行了加载：刚加载的结果直接使用，不因已过期而重复加载
+            boolean[] loaded = new boolean[1];
+            Callable<Outcome> valueLoader = () -> {
+                loaded[0] = true;
+                return load(loader);
+            };
+            outcome = cache.get(key, valueLoader);
+            if (!loaded[0] && outcome.isExpired()) {
+                // 缓存的否定结果或秘钥本身过期：移除后重新加载（仅移除同一条目，避免误删并发加载的新结果）
+                cache.asMap().remove(key, outcome);
+                outcome = cache.get(key, valueLoader);
+            }
+            if (outcome.isExpired()) {
+                // 不应缓存的结果（negativeTtl 为 0）：本次使用后移除
+                cache.asMap().remove(key, outcome);
+            }
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("加载秘钥缓存失败", cause);
+        }
+        return outcome.resolve();
+    }
+
+    private Outcome load(Supplier<SecretKeyEntry> loader) {
+        try {
+            SecretKeyEntry entry = loader.get();
+            long expireAt = toEpochMilli(entry.expireTime());
+            if (System.currentTimeMillis() >= expireAt) {
+                // 加载到的秘钥已过期：按否定结果缓存，避免每次请求都重新查询
+                return Outcome.failure(new IllegalArgumentException("应用秘钥已过期"),
+                        System.currentTimeMillis() + negativeTtl());
+            }
+            return Outcome.success(entry.secretKey(), expireAt);
+        } catch (IllegalArgumentException | SecurityException | ResourceNotFoundException e) {
+            // 业务否定结果：缓存较短时间
+            return Outcome.failure(e, System.currentTimeMillis() + negativeTtl());
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime expireTime) {
+        return expireTime != null ? expireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    private long negativeTtl() {
+        SignConfig.SecretKeyCacheConfig config = signConfig.getSecretKeyCache();
+        return config != null && config.getNegativeTtl() != null ? config.getNegativeTtl() : 0L;
+    }
+
+    // ==================== 失效钩子 ====================
+
+    /**
+     * 失效应用的秘钥和该应用的所有权限条目
+     *
+     * @param appCode 应用编码
+     */
+    public void invalidateApp(String appCode) {
+        if (appCode == null) {
+            return;
+        }
+        afterCommit(() -> {
+            secretKeys.invalidate(appCode);
+            permissions.asMap().keySet().removeIf(key -> Objects.equals(key.appCode(), appCode));
+        });
+    }
+
+    /**
+     * 失效接口路径相关的所有权限条目（接口信息变化时调用）
+     *
+     * @param path 接口路径
+     */
+    public void invalidatePath(String path) {
+        if (path == null) {
+            return;
+        }
+        afterCommit(() -> permissions.asMap().keySet().removeIf(key -> Objects.equals(key.path(), path)));
+    }
+
+    /**
+     * 失效单个权限条目
+     *
+     * @param appCode 应用编码
+     * @param path    接口路径
+     */
+    public void invalidatePermission(String appCode, String path) {
+        afterCommit(() -> permissions.invalidate(new PermissionKey(appCode, path)));
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            secretKeys.invalidateAll();
+            permissions.invalidateAll();
+        });
+    }
+
+    /**
+     * 立即失效；如当前处于事务中，提交后再失效一次，避免提交前的并发读取把旧数据重新放入缓存
+     */
+    private void afterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 缓存命中统计
+     *
+     * @return secretKey / permission 两类缓存的命中、未命中次数等
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("secretKey", toMap(secretKeys.stats(), secretKeys.size()));
+        stats.put("permission", toMap(permissions.stats(), permissions.size()));
+        return stats;
+    }
+
+    private static Map<String, Object> toMap(CacheStats stats, long size) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", size);
+        map.put("hitCount", stats.hitCount());
+        map.put("missCount", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("loadCount", stats.loadCount());
+        map.put("evictionCount", stats.evictionCount());
+        map.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return map;
+    }
+
+    // ==================== 内部类型 ====================
+
+    private record PermissionKey(String appCode, String path) {
+    }
+
+    /**
+     * 缓存的加载结果：成功值（带秘钥过期时间）或业务异常（带否定缓存过期时间）
+     */
+    private static final class Outcome {
+        private final String value;
+        private final RuntimeException failure;
+        private final long expireAt;
+
+        private Outcome(String value, RuntimeException failure, long expireAt) {
+            this.value = value;
+            this.failure = failure;
+            this.expireAt = expireAt;
+        }
+
+        static Outcome success(String value, long expireAt) {
+            return new Outcome(value, null, expireAt);
+        }
+
+        static Outcome failure(RuntimeException failure, long expireAt) {
+            return new Outcome(null, failure, expireAt);
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expireAt;
+        }
+
+        String resolve() {
+            if (failure != null) {
+                // 重新抛出同类型异常（各请求独立的堆栈，避免共享异常实例）
+                throw copyOf(failure);
+            }
+            return value;
+        }
+
+        private static RuntimeException copyOf(RuntimeException failure) {
+            if (failure instanceof SecurityException) {
+                return new SecurityException(failure.getMessage());
+            }
+            if (failure instanceof ResourceNotFoundException) {
+                return new ResourceNotFoundException(failure.getMessage());
+            }
+            return new IllegalArgumentException(failure.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.microwind.knife.application.services.sign.strategy.secretkey;
+
+import java.time.LocalDateTime;
+
+/**
+ * 应用秘钥及其过期时间
+ * <p>
+ * 数据库模式下由 api_users.expire_time 读出，{@link SecretKeyCache} 按过期时间截止缓存条目，
+ * 避免已过期的秘钥在缓存 TTL 内继续可用
+ *
+ * @param secretKey  秘钥
+ * @param expireTime 过期时间，为 null 表示永不过期
+ */
+public record SecretKeyEntry(String secretKey, LocalDateTime expireTime) {
+}
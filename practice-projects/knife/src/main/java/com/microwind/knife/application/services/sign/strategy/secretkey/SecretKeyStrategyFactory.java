@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 秘钥获取策略工厂
@@ -15,12 +16,16 @@ import java.util.Map;
  * - local: 本地配置文件模式
  * - database (JPA): JPA 数据库模式
  * - database (JDBC): JDBC 数据库模式
+ * <p>
+ * 数据库模式下默认包装一层缓存（{@link SecretKeyCache}），可通过 sign.secret-key-cache.enabled=false 关闭
  */
 @Component
 @RequiredArgsConstructor
 public class SecretKeyStrategyFactory {
     private final SignConfig signConfig;
     private final Map<String, SecretKeyRetrievalStrategy> strategies;
+    private final SecretKeyCache secretKeyCache;
+    private final Map<String, SecretKeyRetrievalStrategy> cachingStrategies = new ConcurrentHashMap<>();
 
     /**
      * 获取当前配置对应的策略实例
@@ -32,17 +37,31 @@ public class SecretKeyStrategyFactory {
 
         if (SignConfig.CONFIG_MODE_DATABASE.equalsIgnoreCase(configMode)) {
             // 数据库模式：根据 useJdbcRepository 选择 JPA 或 JDBC
-            if (signConfig.isUseJdbcRepository()) {
-                return getStrategyByName("jdbcSecretKeyStrategy");
-            } else {
-                return getStrategyByName("jpaSecretKeyStrategy");
+            String strategyName = signConfig.isUseJdbcRepository() ? "jdbcSecretKeyStrategy" : "jpaSecretKeyStrategy";
+            if (signConfig.isSecretKeyCacheEnabled()) {
+                return cachingStrategies.computeIfAbsent(strategyName, this::createCachingStrategy);
             }
+            return getStrategyByName(strategyName);
         } else {
             // 本地配置模式
             return getStrategyByName("localConfigSecretKeyStrategy");
         }
     }
 
+    /**
+     * 创建带缓存的策略（每个底层策略只创建一次）
+     *
+     * @param strategyName 底层策略Bean名称
+     * @return 带缓存的策略
+     */
+    private SecretKeyRetrievalStrategy createCachingStrategy(String strategyName) {
+        SecretKeyRetrievalStrategy strategy = getStrategyByName(strategyName);
+        if (strategy instanceof AbstractSecretKeyStrategy abstractStrategy) {
+            return new CachingSecretKeyStrategy(abstractStrategy, secretKeyCache);
+        }
+        return strategy;
+    }
+
     /**
      * 根据策略名称获取策略实例
      *
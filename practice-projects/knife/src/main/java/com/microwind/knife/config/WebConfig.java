@@ -3,6 +3,7 @@ package com.microwind.knife.config;
 import com.microwind.knife.application.config.SignConfig;
 import com.microwind.knife.middleware.AuthInterceptor;
 import com.microwind.knife.middleware.CachedBodyFilter;
+import com.microwind.knife.middleware.SignPolicyResolver;
 import com.microwind.knife.middleware.SignatureInterceptor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -28,8 +29,8 @@ public class WebConfig implements WebMvcConfigurer {
      * 创建 CachedBodyFilter Bean
      */
     @Bean
-    public CachedBodyFilter cachedBodyFilter(SignConfig signConfig) {
-        return new CachedBodyFilter(signConfig);
+    public CachedBodyFilter cachedBodyFilter(SignConfig signConfig, SignPolicyResolver signPolicyResolver) {
+        return new CachedBodyFilter(signConfig, signPolicyResolver);
     }
 
     /**
@@ -38,6 +39,7 @@ public class WebConfig implements WebMvcConfigurer {
      * 1. 路径级别：只匹配 /api/** 路径（与 SignatureInterceptor 保持一致）
      * 2. Header 级别：只在请求包含签名 header 时才缓存 body
      * 3. Method 级别：只有POST、PUT、PATCH 时才缓存 body
+     * 4. 路由级别：只有 @RequireSign 且需要参数签名的路由才缓存 body
      * <p>
      * 双重过滤机制：
      * - 外层：只有 /api/** 的请求才进入 Filter
@@ -109,7 +109,7 @@ public interface SignRepository {
      * <p>
      * 用于记录生成的动态盐值，供后续验证使用
      * <p>
-     * 注意：此方法需要在事务中执行
+     * 注意：此方法需要在事务中执行；启用进程内盐值台账时只登记到台账并异步落库，返回对象不含 ID
      *
      * @param appCode       应用编码，不能为 null
      * @param apiId         接口 ID，关联 api_info 表
@@ -117,7 +117,7 @@ public interface SignRepository {
      * @param dynamicSalt   动态盐值，不能为 null
      * @param saltTimestamp 盐值生成时间戳（毫秒）
      * @param expireTime    过期时间，null 表示永久有效
-     * @return 保存的盐值日志对象，包含生成的 ID
+     * @return 保存的盐值日志对象，包含生成的 ID（启用台账时 ID 为 null）
      */
     ApiDynamicSaltLog saveDynamicSaltLog(String appCode, Long apiId, String apiPath,
                                          String dynamicSalt, Long saltTimestamp,
@@ -134,7 +134,7 @@ public interface SignRepository {
      *   <li>若验证通过，标记为已使用（used = 1）</li>
      * </ol>
      * <p>
-     * 注意：此方法需要在事务中执行，确保原子性
+     * 注意：此方法需要在事务中执行，确保原子性；启用进程内盐值台账时优先在内存中原子消费，台账未命中再查询数据库
      *
      * @param appCode     应用编码，不能为 null
      * @param apiPath     接口路径，不能为 null
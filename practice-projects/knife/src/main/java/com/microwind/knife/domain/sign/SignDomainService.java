@@ -1,21 +1,17 @@
 package com.microwind.knife.domain.sign;
 
-import cn.hutool.crypto.SmUtil;
 import com.microwind.knife.application.config.SignConfig;
 import com.microwind.knife.application.dto.sign.DynamicSaltDTO;
 import com.microwind.knife.application.dto.sign.SignDTO;
+import com.microwind.knife.utils.SignatureEngine;
 import com.microwind.knife.utils.SignatureUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.HexFormat;
 import java.util.Map;
 
 /**
@@ -29,6 +25,7 @@ import java.util.Map;
  *   <li>签名（不带参数）：SHA-256</li>
  *   <li>签名（带参数）：SM3</li>
  * </ul>
+ * 摘要计算统一通过 {@link SignatureEngine}：复用线程内的摘要实例，签名源各部分直接写入摘要，校验时常量时间比较
  * </p>
  *
  * @author jarry
@@ -49,19 +46,9 @@ public class SignDomainService {
      *
      * @param input 待哈希的字符串
      * @return SHA-256 哈希值（十六进制小写字符串）
-     * @throws IllegalStateException 如果 SHA-256 算法不可用
      */
     public static String sha256(String input) {
-        // 内部实现：MessageDigest + 高性能位运算 Hex 转换
-        return DigestUtils.sha256Hex(input);
-//        try {
-//            MessageDigest md = MessageDigest.getInstance("SHA-256");
-//            byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-//            return HexFormat.of().formatHex(hash);
-//        } catch (Exception e) {
-//            log.error("SHA-256 计算失败: input={}", input, e);
-//            throw new IllegalStateException("SHA-256 algorithm error", e);
-//        }
+        return SignatureEngine.sha256Hex(input);
     }
 
     /**
@@ -82,11 +69,9 @@ public class SignDomainService {
         log.debug("生成动态盐值: appCode={}, apiPath={}, timestamp={}",
                 appCode, apiPath, saltTimestamp);
 
-        // 拼接原始字符串
-        String saltSource = appCode + apiPath + interfaceSalt + saltTimestamp;
-
         // 使用 sha256 计算动态盐值
-        String dynamicSaltValue = sha256(saltSource);
+        String dynamicSaltValue = SignatureEngine.toHex(
+                hashSaltSource(appCode, apiPath, interfaceSalt, saltTimestamp));
 
         // 如果配置了 TTL，则 expireTime = saltTimestamp + TTL
         // 如果未配置 TTL，则 expireTime 为 null（永不过期）
@@ -145,14 +130,13 @@ public class SignDomainService {
                 appCode, apiPath, saltTimestamp);
 
         // 计算动态盐值算法与生成时一致
-        String expectedSaltSource = appCode + apiPath + interfaceSalt + saltTimestamp;
-        String expectedSaltValue = sha256(expectedSaltSource);
+        byte[] expectedSalt = hashSaltSource(appCode, apiPath, interfaceSalt, saltTimestamp);
 
-        // 比较计算结果与传入值
-        boolean valid = expectedSaltValue.equals(dynamicSalt);
+        // 常量时间比较计算结果与传入值
+        boolean valid = SignatureEngine.matchesHex(expectedSalt, dynamicSalt);
 
         if (!valid) {
-            log.warn("动态盐值校验失败: expected={}, actual={}", expectedSaltValue, dynamicSalt);
+            log.warn("动态盐值校验失败: appCode={}, apiPath={}, actual={}", appCode, apiPath, dynamicSalt);
         } else {
             log.debug("动态盐值校验通过");
         }
@@ -198,9 +182,8 @@ public class SignDomainService {
         // 获取当前时间戳（毫秒）
         long timestamp = System.currentTimeMillis();
 
-        // 构建签名源字符串并计算签名
-        String signSource = buildSignSourceWithoutParams(appCode, secretKey, path, timestamp);
-        String signValue = sha256(signSource);
+        // 计算签名
+        String signValue = SignatureEngine.toHex(hashSignSourceWithoutParams(appCode, secretKey, path, timestamp));
 
         // 创建并返回签名对象
         return createSignObject(appCode, path, signValue, timestamp);
@@ -226,9 +209,8 @@ public class SignDomainService {
         // 获取当前时间戳（毫秒）
         long timestamp = System.currentTimeMillis();
 
-        // 构建签名源字符串并计算签名（包含参数）
-        String signSource = buildSignSourceWithParams(appCode, secretKey, path, timestamp, params);
-        String signValue = SmUtil.sm3(signSource);
+        // 计算签名（包含参数）
+        String signValue = SignatureEngine.toHex(hashSignSourceWithParams(appCode, secretKey, path, timestamp, params));
 
         // 创建并返回签名对象
         return createSignObject(appCode, path, signValue, timestamp);
@@ -286,8 +268,7 @@ public class SignDomainService {
         log.debug("校验签名（不带参数）: appCode={}, path={}, timestamp={}", appCode, path, timestamp);
 
         // 重新计算签名，算法与生成时一致
-        String signSource = buildSignSourceWithoutParams(appCode, secretKey, path, timestamp);
-        String expectedSign = sha256(signSource);
+        byte[] expectedSign = hashSignSourceWithoutParams(appCode, secretKey, path, timestamp);
 
         // 比较计算结果与传入值
         return compareSignature(expectedSign, signValue, "不带参数");
@@ -320,8 +301,7 @@ public class SignDomainService {
                 appCode, path, timestamp, params != null ? params.size() : 0);
 
         // 重新计算签名，算法与生成时一致
-        String signSource = buildSignSourceWithParams(appCode, secretKey, path, timestamp, params);
-        String expectedSign = SmUtil.sm3(signSource);
+        byte[] expectedSign = hashSignSourceWithParams(appCode, secretKey, path, timestamp, params);
 
         // 比较计算结果与传入值
         return compareSignature(expectedSign, signValue, "带参数");
@@ -361,9 +341,30 @@ public class SignDomainService {
     // ==================== 私有辅助方法 ====================
 
     /**
-     * 构建签名源字符串（不带参数）
+     * 计算动态盐值摘要
      * <p>
-     * 拼接顺序：appCode + secretKey + path + timestamp
+     * 拼接顺序：appCode + apiPath + interfaceSalt + saltTimestamp（各部分依次写入 SHA-256 摘要）
+     * </p>
+     *
+     * @param appCode       应用编码
+     * @param apiPath       接口路径
+     * @param interfaceSalt 接口固定盐值
+     * @param saltTimestamp 盐值时间戳
+     * @return 摘要字节
+     */
+    private byte[] hashSaltSource(String appCode, String apiPath, String interfaceSalt, Long saltTimestamp) {
+        return SignatureEngine.hasher(SignatureUtil.Algorithm.SHA256)
+                .update(appCode)
+                .update(apiPath)
+                .update(interfaceSalt)
+                .update(saltTimestamp)
+                .digest();
+    }
+
+    /**
+     * 计算签名摘要（不带参数）
+     * <p>
+     * 拼接顺序：appCode + secretKey + path + timestamp（各部分依次写入 SHA-256 摘要）
      * 注意：拼接顺序必须与校验端完全一致
      * </p>
      *
@@ -371,16 +372,21 @@ public class SignDomainService {
      * @param secretKey 应用密钥
      * @param path      接口路径
      * @param timestamp 时间戳
-     * @return 签名源字符串
+     * @return 摘要字节
      */
-    private String buildSignSourceWithoutParams(String appCode, String secretKey, String path, Long timestamp) {
-        return appCode + secretKey + path + timestamp;
+    private byte[] hashSignSourceWithoutParams(String appCode, String secretKey, String path, Long timestamp) {
+        return SignatureEngine.hasher(SignatureUtil.Algorithm.SHA256)
+                .update(appCode)
+                .update(secretKey)
+                .update(path)
+                .update(timestamp)
+                .digest();
     }
 
     /**
-     * 构建签名源字符串（带参数）
+     * 计算签名摘要（带参数）
      * <p>
-     * 拼接顺序：参数字符串 + appCode + secretKey + path + timestamp
+     * 拼接顺序：参数字符串 + appCode + secretKey + path + timestamp（各部分依次写入 SM3 摘要）
      * 注意：拼接顺序必须与校验端完全一致
      * </p>
      *
@@ -389,16 +395,18 @@ public class SignDomainService {
      * @param path       接口路径
      * @param timestamp  时间戳
      * @param params 请求参数
-     * @return 签名源字符串
+     * @return 摘要字节
      */
-    private String buildSignSourceWithParams(String appCode, String secretKey, String path,
-                                             Long timestamp, Map<String, Object> params) {
-        String baseSource = appCode + secretKey + path + timestamp;
-        String paramsSource = "";
-        if (params != null && !params.isEmpty()) {
-            paramsSource = SignatureUtil.buildSignatureSource(params);
-        }
-        return paramsSource + baseSource;
+    private byte[] hashSignSourceWithParams(String appCode, String secretKey, String path,
+                                            Long timestamp, Map<String, Object> params) {
+        SignatureEngine.Hasher hasher = SignatureEngine.hasher(SignatureUtil.Algorithm.SM3);
+        SignatureUtil.appendSignatureSource(params, hasher);
+        return hasher
+                .update(appCode)
+                .update(secretKey)
+                .update(path)
+                .update(timestamp)
+                .digest();
     }
 
     /**
@@ -430,23 +438,23 @@ public class SignDomainService {
     /**
      * 比较签名值
      * <p>
-     * 比较计算结果与传入值是否一致，并记录日志
+     * 常量时间比较计算结果与传入值是否一致，并记录日志（不记录期望签名）
      * </p>
      *
-     * @param expectedSign 期望的签名值
+     * @param expectedSign 计算得到的签名摘要
      * @param actualSign   实际的签名值
      * @param signType     签名类型（用于日志）
      * @return true-校验通过，false-校验失败
      */
-    private boolean compareSignature(String expectedSign, String actualSign, String signType) {
-        boolean valid = expectedSign.equals(actualSign);
+    private boolean compareSignature(byte[] expectedSign, String actualSign, String signType) {
+        boolean valid = SignatureEngine.matchesHex(expectedSign, actualSign);
 
         if (!valid) {
-            log.warn("签名校验失败（{}）: expected={}, actual={}", signType, expectedSign, actualSign);
+            log.warn("签名校验失败（{}）: actual={}", signType, actualSign);
         } else {
             log.debug("签名校验通过（{}）", signType);
         }
 
         return valid;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,408 @@
+package com.microwind.knife.infrastructure.logging;
+
+import com.microwind.knife.application.config.AccessLogConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 访问日志记录器
+ * <p>
+ * 请求线程只做两件事：更新路由延迟直方图、把日志字段写入预分配的环形缓冲区槽位，不做格式化和 IO。
+ * 后台线程按批从缓冲区取出日志，格式化为 JSON 行写入文件，文件超过大小上限时滚动。
+ * <ul>
+ *   <li>环形缓冲区：多生产者单消费者，槽位预分配，生产者 CAS 领取序号，写完字段后发布序号</li>
+ *   <li>缓冲区已满：drop 策略直接丢弃并计数；block 策略等待后台线程腾出空间，超时后丢弃</li>
+ *   <li>采样：按 sampleRate 采样写入文件，5xx 响应始终记录；延迟直方图统计全部请求</li>
+ * </ul>
+ * </p>
+ */
+@Slf4j
+@Component
+public class AccessLogRecorder implements AutoCloseable {
+
+    /**
+     * 路由数超过上限后归入该键，避免路径参数未匹配时直方图无限增长
+     */
+    static final String OTHER_ROUTE = "OTHER";
+
+    private static final DateTimeFormatter TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneId.systemDefault());
+
+    private final boolean enabled;
+    private final boolean blockOnOverflow;
+    private final long blockTimeoutNanos;
+    private final double sampleRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxRoutes;
+
+    // 环形缓冲区
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    // 路由延迟直方图
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+
+    // 滚动文件
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private OutputStream out;
+    private long fileSize;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AccessLogRecorder(AccessLogConfig config) {
+        this.enabled = config.isAccessLogEnabled();
+        this.blockOnOverflow = config.isBlockOnOverflow();
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(config.getBlockTimeout(), 0));
+        this.sampleRate = Math.min(Math.max(config.getSampleRate(), 0), 1);
+        this.batchSize = Math.max(config.getBatchSize(), 1);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(config.getFlushInterval(), 1));
+        this.maxRoutes = Math.max(config.getMaxRoutes(), 1);
+        this.file = Paths.get(config.getFile());
+        this.maxFileSize = Math.max(config.getMaxFileSize(), 1);
+        this.maxHistory = Math.max(config.getMaxHistory(), 0);
+
+        int capacity = Integer.highestOneBit(Math.max(config.getBufferSize(), 2) - 1) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i - capacity);
+        }
+        this.mask = capacity - 1;
+
+        this.writerThread = new Thread(this::runWriter, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        if (enabled) {
+            this.writerThread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次请求（请求线程调用）
+     *
+     * @param timestamp    请求开始时间（毫秒）
+     * @param method       HTTP 方法
+     * @param path         请求路径
+     * @param route        匹配的路由模式，未匹配时为 null
+     * @param status       响应状态码
+     * @param latencyNanos 耗时（纳秒）
+     * @param bytesIn      请求体字节数，未知时为 -1
+     * @param bytesOut     响应体字节数
+     */
+    public void record(long timestamp, String method, String path, String route,
+                       int status, long latencyNanos, long bytesIn, long bytesOut) {
+        if (!enabled) {
+            return;
+        }
+        overall.record(latencyNanos);
+        histogram(method, route).record(latencyNanos);
+
+        if (status < 500 && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.timestamp = timestamp;
+        slot.method = method;
+        slot.path = path;
+        slot.route = route;
+        slot.status = status;
+        slot.latencyNanos = latencyNanos;
+        slot.bytesIn = bytesIn;
+        slot.bytesOut = bytesOut;
+        // volatile 写，发布给后台线程
+        slot.sequence = sequence;
+        published.increment();
+    }
+
+    /**
+     * 领取一个空闲槽位的序号，缓冲区已满且不等待（或等待超时）时返回 -1
+     */
+    private long claim() {
+        long deadline = 0;
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head >= slots.length) {
+                if (!blockOnOverflow || !running) {
+                    return -1;
+                }
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + blockTimeoutNanos;
+                } else if (now - deadline >= 0) {
+                    return -1;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(50_000);
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private LatencyHistogram histogram(String method, String route) {
+        String key = method + " " + (route != null ? route : OTHER_ROUTE);
+        LatencyHistogram histogram = routes.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (routes.size() >= maxRoutes) {
+            return routes.computeIfAbsent(OTHER_ROUTE, k -> new LatencyHistogram());
+        }
+        return routes.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    // ==================== 后台写入 ====================
+
+    private void runWriter() {
+        StringBuilder buffer = new StringBuilder(batchSize * 160);
+        while (true) {
+            int count = drain(buffer);
+            if (count == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        // 写完已发布的日志后关闭文件
+        while (drain(buffer) > 0) {
+            // continue
+        }
+        closeFile();
+    }
+
+    /**
+     * 取出一批已发布的日志并写入文件（仅后台线程调用）
+     *
+     * @return 本批条数
+     */
+    private int drain(StringBuilder buffer) {
+        long next = head;
+        int count = 0;
+        while (count < batchSize) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.sequence != next) {
+                break;
+            }
+            format(slot, buffer);
+            slot.method = null;
+            slot.path = null;
+            slot.route = null;
+            next++;
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // 字段已复制到 buffer，释放槽位
+        head = next;
+        write(buffer);
+        buffer.setLength(0);
+        written.add(count);
+        return count;
+    }
+
+    private void format(Slot slot, StringBuilder sb) {
+        sb.append("{\"time\":\"");
+        TIME_FORMATTER.formatTo(Instant.ofEpochMilli(slot.timestamp), sb);
+        sb.append("\",\"method\":\"").append(slot.method);
+        sb.append("\",\"path\":\"");
+        appendEscaped(sb, slot.path);
+        sb.append("\",\"route\":");
+        if (slot.route == null) {
+            sb.append("null");
+        } else {
+            sb.append('"');
+            appendEscaped(sb, slot.route);
+            sb.append('"');
+        }
+        sb.append(",\"status\":").append(slot.status);
+        sb.append(",\"latencyMs\":").append(slot.latencyNanos / 1000 / 1000.0);
+        sb.append(",\"bytesIn\":").append(slot.bytesIn);
+        sb.append(",\"bytesOut\":").append(slot.bytesOut);
+        sb.append("}\n");
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    private void write(StringBuilder buffer) {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null) {
+                openFile();
+            } else if (fileSize + bytes.length > maxFileSize && fileSize > 0) {
+                rollFile();
+            }
+            out.write(bytes);
+            out.flush();
+            fileSize += bytes.length;
+        } catch (IOException e) {
+            writeErrors.increment();
+            log.warn("访问日志写入失败: {}", e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    /**
+     * 滚动：access.log -> access.log.1 -> access.log.2 ...，超过 maxHistory 的删除
+     */
+    private void rollFile() throws IOException {
+        closeFile();
+        if (maxHistory == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(historyFile(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                Path source = historyFile(i);
+                if (Files.exists(source)) {
+                    Files.move(source, historyFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, historyFile(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openFile();
+    }
+
+    private Path historyFile(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("访问日志文件关闭失败: {}", e.getMessage());
+        }
+        out = null;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 缓冲区与写入统计，以及整体和各路由的延迟直方图
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("file", file.toString());
+        map.put("capacity", slots.length);
+        map.put("pending", tail.get() - head);
+        map.put("published", published.sum());
+        map.put("written", written.sum());
+        map.put("dropped", dropped.sum());
+        map.put("sampledOut", sampledOut.sum());
+        map.put("writeErrors", writeErrors.sum());
+        map.put("overall", overall.snapshot());
+
+        Map<String, Object> routeStats = new TreeMap<>();
+        routes.forEach((route, histogram) -> routeStats.put(route, histogram.snapshot()));
+        map.put("routes", routeStats);
+        return map;
+    }
+
+    /**
+     * 停止后台线程，写完缓冲区中已发布的日志后关闭文件
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        if (!writerThread.isAlive()) {
+            return;
+        }
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 预分配的缓冲区槽位，sequence 为已发布的序号（volatile 写保证字段对后台线程可见）
+     */
+    private static final class Slot {
+        volatile long sequence;
+        long timestamp;
+        String method;
+        String path;
+        String route;
+        int status;
+        long latencyNanos;
+        long bytesIn;
+        long bytesOut;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.microwind.knife.infrastructure.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（无锁）
+ * <p>
+ * 按 2 的幂微秒划分桶：第 i 个桶统计 (2^(i-1), 2^i] 微秒的请求，最后一个桶统计超过约 67 秒的请求。
+ * 分位数取所在桶的上界，误差不超过 2 倍，足够定位慢路由；记录只有几次原子自增，可以在请求线程上执行。
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 28;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 记录一次请求耗时
+     *
+     * @param latencyNanos 耗时（纳秒）
+     */
+    public void record(long latencyNanos) {
+        long micros = Math.max(latencyNanos / 1000, 0);
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 分位数（毫秒）
+     *
+     * @param quantile 0~1，如 0.99
+     * @return 分位数所在桶的上界，无数据时为 0
+     */
+    public double percentile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(upperBoundMicros(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * 统计快照：请求数、平均、最大、P50/P90/P99（毫秒）以及非空的桶
+     */
+    public Map<String, Object> snapshot() {
+        long n = count.sum();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", n);
+        map.put("meanMs", n == 0 ? 0 : sumMicros.sum() / 1000.0 / n);
+        map.put("maxMs", maxMicros.get() / 1000.0);
+        map.put("p50Ms", percentile(0.50));
+        map.put("p90Ms", percentile(0.90));
+        map.put("p99Ms", percentile(0.99));
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = buckets.get(i);
+            if (c > 0) {
+                distribution.put(i == BUCKETS - 1 ? "+Inf" : "<=" + upperBoundMicros(i) / 1000.0 + "ms", c);
+            }
+        }
+        map.put("buckets", distribution);
+        return map;
+    }
+
+    private static int bucketIndex(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        // ceil(log2(micros))
+        return Math.min(64 - Long.numberOfLeadingZeros(micros - 1), BUCKETS - 1);
+    }
+
+    private static long upperBoundMicros(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+}
@@ -0,0 +1,492 @@
+package com.microwind.knife.infrastructure.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 动态盐值进程内台账（防重放）
+ * <p>
+ * 数据库校验模式下，每次校验都要 SELECT + UPDATE 一条盐值记录，高并发时该行的行锁成为热点。
+ * 本台账在内存中完成"校验并消费"，数据库只做异步批量落库：
+ * <ul>
+ *   <li>分段存储：按盐值哈希分到多个 ConcurrentHashMap，消费时对条目做 CAS，无锁且原子</li>
+ *   <li>时间桶过期：条目按过期时间挂到时间桶，后台线程整桶清理，不逐条扫描</li>
+ *   <li>异步批量写入：生成盐值（INSERT）和消费盐值（UPDATE used=1）先进入写队列，按批次落库</li>
+ *   <li>容量上限：条目数超过上限时优先淘汰最早过期的时间桶；已消费但消费记录尚未落库的条目不淘汰</li>
+ *   <li>落库失败重试：写入失败的记录放回写队列，下次落库时重试，直到条目过期</li>
+ *   <li>落库只在台账自己的线程上执行：调用方线程上的 flush（未命中回退、背压、淘汰）也交给台账线程并等待结果，
+ *       写入不会加入调用方的事务，调用方事务回滚不会撤销已确认落库的消费记录</li>
+ * </ul>
+ * 台账未命中（重启前生成、被淘汰）时返回 {@link Result#UNKNOWN}，调用方先 {@link #flush()} 再回退到数据库校验；
+ * flush 未能全部落库时数据库中的状态不可信，调用方应拒绝该盐值，因此被淘汰的已消费条目也不会被重放。
+ * </p>
+ * <p>
+ * 注意：台账只在当前进程内有效，多实例部署且盐值可能在不同实例上生成和校验时，应关闭台账（sign.dynamic-salt.ledger.enabled=false）
+ * </p>
+ */
+@Slf4j
+public final class DynamicSaltLedger implements AutoCloseable {
+
+    /**
+     * 消费结果
+     */
+    public enum Result {
+        /** 校验通过并已消费 */
+        CONSUMED,
+        /** 盐值已使用或已过期 */
+        REJECTED,
+        /** 台账中不存在，需回退到数据库校验 */
+        UNKNOWN
+    }
+
+    /**
+     * 落库接口，由仓储实现提供批量 SQL
+     * 在台账线程上调用（没有绑定事务），方法正常返回即视为已提交；抛出异常的批次放回写队列重试
+     */
+    public interface Writer {
+        void insert(List<Entry> entries);
+
+        void markUsed(List<Entry> entries);
+    }
+
+    private final Map<Key, Entry>[] shards;
+    private final int shardMask;
+    private final ConcurrentSkipListMap<Long, Queue<Entry>> buckets = new ConcurrentSkipListMap<>();
+    private final long bucketMillis;
+    private final int maxEntries;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Writer writer;
+    private final int batchSize;
+    private final Queue<WriteOp> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private volatile Thread ledgerThread;
+
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong failedWriteCount = new AtomicLong();
+
+    /**
+     * @param writer          落库实现
+     * @param shardCount      分段数（向上取 2 的幂）
+     * @param maxEntries      最大条目数
+     * @param bucketMillis    时间桶宽度（毫秒）
+     * @param flushIntervalMs 批量落库间隔（毫秒）
+     * @param batchSize       每批最多写入条数
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicSaltLedger(Writer writer, int shardCount, int maxEntries,
+                             long bucketMillis, long flushIntervalMs, int batchSize) {
+        int n = Integer.highestOneBit(Math.max(1, shardCount - 1) << 1);
+        this.shards = new Map[n];
+        for (int i = 0; i < n; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = n - 1;
+        this.writer = writer;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.bucketMillis = Math.max(1L, bucketMillis);
+        this.batchSize = Math.max(1, batchSize);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dynamic-salt-ledger");
+            thread.setDaemon(true);
+            ledgerThread = thread;
+            return thread;
+        });
+        long interval = Math.max(10L, flushIntervalMs);
+        scheduler.scheduleWithFixedDelay(this::backgroundTask, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // ==================== 登记与消费 ====================
+
+    /**
+     * 登记新生成的盐值，并加入写队列
+     *
+     * @param entry 盐值条目
+     */
+    public void register(Entry entry) {
+        if (size.get() >= maxEntries) {
+            evict();
+        }
+        Entry previous = shard(entry.key).put(entry.key, entry);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        addToBucket(entry);
+        enqueue(new WriteOp(entry, false));
+    }
+
+    /**
+     * 校验并消费盐值（原子操作，同一个盐值只有一个请求能消费成功）
+     *
+     * @return 消费结果
+     */
+    public Result consume(String appCode, String apiPath, String dynamicSalt) {
+        Key key = new Key(appCode, apiPath, dynamicSalt);
+        Map<Key, Entry> shard = shard(key);
+        Entry entry = shard.get(key);
+        if (entry == null) {
+            return Result.UNKNOWN;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (shard.remove(key, entry)) {
+                size.decrementAndGet();
+            }
+            return Result.REJECTED;
+        }
+        if (!entry.markUsed()) {
+            return Result.REJECTED;
+        }
+        enqueue(new WriteOp(entry, true));
+        return Result.CONSUMED;
+    }
+
+    private Map<Key, Entry> shard(Key key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    // ==================== 时间桶过期 ====================
+
+    private void addToBucket(Entry entry) {
+        long bucket = bucketOf(entry.expireAt);
+        for (; ; ) {
+            Queue<Entry> queue = buckets.computeIfAbsent(bucket, k -> new ConcurrentLinkedQueue<>());
+            queue.add(entry);
+            // 该桶可能刚被清理线程取走，此时重新放入新桶
+            if (buckets.get(bucket) == queue) {
+                return;
+            }
+        }
+    }
+
+    private long bucketOf(long expireAt) {
+        return expireAt == Long.MAX_VALUE ? Long.MAX_VALUE : expireAt / bucketMillis + 1;
+    }
+
+    /**
+     * 清理已过期的时间桶
+     *
+     * @return 移除的条目数
+     */
+    public int sweepExpired() {
+        long now = System.currentTimeMillis();
+        long current = now / bucketMillis;
+        int removed = 0;
+        Map.Entry<Long, Queue<Entry>> first;
+        while ((first = buckets.firstEntry()) != null && first.getKey() <= current) {
+            if (buckets.remove(first.getKey(), first.getValue())) {
+                removed += removeAll(first.getValue());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 超过容量上限：淘汰最早过期的一个时间桶
+     * 已消费但消费记录尚未落库的条目先同步落库；落库失败的条目保留在台账中（重新挂回时间桶），
+     * 否则数据库中仍是未使用状态，回退到数据库校验时会被重放
+     */
+    private void evict() {
+        if (sweepExpired() > 0 && size.get() < maxEntries) {
+            return;
+        }
+        Map.Entry<Long, Queue<Entry>> first = buckets.pollFirstEntry();
+        if (first == null) {
+            return;
+        }
+        for (Entry entry : first.getValue()) {
+            if (!entry.isEvictable()) {
+                flush();
+                break;
+            }
+        }
+        int removed = 0;
+        List<Entry> retained = new ArrayList<>();
+        for (Entry entry : first.getValue()) {
+            if (!entry.isEvictable()) {
+                retained.add(entry);
+                continue;
+            }
+            Map<Key, Entry> shard = shard(entry.key);
+            if (shard.remove(entry.key, entry)) {
+                if (entry.isEvictable()) {
+                    size.decrementAndGet();
+                    removed++;
+                } else {
+                    // 移除期间被并发消费：放回台账
+                    shard.put(entry.key, entry);
+                    retained.add(entry);
+                }
+            }
+        }
+        for (Entry entry : retained) {
+            addToBucket(entry);
+        }
+        evictedCount.addAndGet(removed);
+        log.debug("Dynamic salt ledger is full, evicted {} entries, retained {} unpersisted entries",
+                removed, retained.size());
+    }
+
+    private int removeAll(Queue<Entry> queue) {
+        int removed = 0;
+        for (Entry entry : queue) {
+            if (shard(entry.key).remove(entry.key, entry)) {
+                size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // ==================== 异步批量落库 ====================
+
+    private void enqueue(WriteOp op) {
+        writeQueue.add(op);
+        // 写入积压超过上限时调用线程等待落库完成（背压）
+        if (pendingWrites.incrementAndGet() > maxEntries) {
+            flush();
+        }
+    }
+
+    /**
+     * 将写队列中的记录全部落库并等待完成
+     * 落库在台账线程上执行，不加入调用线程上的事务；写入失败的记录放回写队列，由下次落库重试（已过期的条目不再重试）
+     *
+     * @return 本次取出的记录是否全部落库成功，台账已关闭或等待被中断时返回 false
+     */
+    public boolean flush() {
+        if (Thread.currentThread() == ledgerThread) {
+            return flushNow();
+        }
+        try {
+            return scheduler.submit(this::flushNow).get();
+        } catch (RejectedExecutionException e) {
+            log.warn("Dynamic salt ledger is closed, skip flush");
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Dynamic salt ledger flush failed", e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * 在台账线程上落库
+     */
+    private boolean flushNow() {
+        List<Entry> inserts = new ArrayList<>();
+        List<Entry> updates = new ArrayList<>();
+        List<WriteOp> failed = new ArrayList<>();
+        WriteOp op;
+        while ((op = writeQueue.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            (op.markUsed ? updates : inserts).add(op.entry);
+            if (inserts.size() + updates.size() >= batchSize) {
+                write(inserts, updates, failed);
+            }
+        }
+        write(inserts, updates, failed);
+        requeue(failed);
+        return failed.isEmpty();
+    }
+
+    /**
+     * 先写入 INSERT 再写入 UPDATE，保证同一批内先生成后消费
+     * INSERT 失败时同批 UPDATE 不执行，一起放回写队列
+     */
+    private void write(List<Entry> inserts, List<Entry> updates, List<WriteOp> failed) {
+        if (inserts.isEmpty() && updates.isEmpty()) {
+            return;
+        }
+        boolean inserted = false;
+        try {
+            if (!inserts.isEmpty()) {
+                writer.insert(inserts);
+            }
+            inserted = true;
+            if (!updates.isEmpty()) {
+                writer.markUsed(updates);
+                for (Entry entry : updates) {
+                    entry.markPersisted();
+                }
+            }
+        } catch (RuntimeException e) {
+            // 落库失败不影响内存中的校验结果，记录放回写队列重试，条目在落库前不会被淘汰
+            failedWriteCount.addAndGet((inserted ? 0 : inserts.size()) + updates.size());
+            log.error("Failed to write dynamic salt log batch, inserts: {}, updates: {}",
+                    inserted ? 0 : inserts.size(), updates.size(), e);
+            if (!inserted) {
+                for (Entry entry : inserts) {
+                    failed.add(new WriteOp(entry, false));
+                }
+            }
+            for (Entry entry : updates) {
+                failed.add(new WriteOp(entry, true));
+            }
+        } finally {
+            inserts.clear();
+            updates.clear();
+        }
+    }
+
+    private void requeue(List<WriteOp> failed) {
+        long now = System.currentTimeMillis();
+        for (WriteOp op : failed) {
+            if (op.entry.isExpired(now)) {
+                // 已过期的盐值在数据库中同样校验不通过，无需再落库
+                continue;
+            }
+            writeQueue.add(op);
+            pendingWrites.incrementAndGet();
+        }
+    }
+
+    private void backgroundTask() {
+        try {
+            flushNow();
+            sweepExpired();
+        } catch (RuntimeException e) {
+            log.error("Dynamic salt ledger background task failed", e);
+        }
+    }
+
+    /**
+     * 台账统计
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "size", size.get(),
+                "maxEntries", maxEntries,
+                "buckets", buckets.size(),
+                "pendingWrites", pendingWrites.get(),
+                "evictedCount", evictedCount.get(),
+                "failedWriteCount", failedWriteCount.get()
+        );
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * 在台账线程上落库剩余记录后停止后台线程
+     */
+    @Override
+    public void close() {
+        try {
+            scheduler.submit(this::flushNow);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== 内部类型 ====================
+
+    private record Key(String appCode, String apiPath, String dynamicSalt) {
+    }
+
+    private record WriteOp(Entry entry, boolean markUsed) {
+    }
+
+    /**
+     * 盐值条目
+     */
+    public static final class Entry {
+        private static final AtomicIntegerFieldUpdater<Entry> USED =
+                AtomicIntegerFieldUpdater.newUpdater(Entry.class, "used");
+
+        private final Key key;
+        private final Long apiId;
+        private final Long saltTimestamp;
+        private final long expireAt;
+        private volatile int used;
+        // 消费记录（UPDATE used=1）是否已落库
+        private volatile boolean persisted;
+
+        /**
+         * @param expireAt 过期时间戳（毫秒），null 表示永久有效
+         */
+        public Entry(String appCode, Long apiId, String apiPath, String dynamicSalt,
+                     Long saltTimestamp, Long expireAt) {
+            this.key = new Key(appCode, apiPath, dynamicSalt);
+            this.apiId = apiId;
+            this.saltTimestamp = saltTimestamp;
+            this.expireAt = expireAt != null ? expireAt : Long.MAX_VALUE;
+        }
+
+        boolean markUsed() {
+            return USED.compareAndSet(this, 0, 1);
+        }
+
+        void markPersisted() {
+            persisted = true;
+        }
+
+        /**
+         * 未消费，或消费记录已落库的条目才可淘汰
+         */
+        boolean isEvictable() {
+            return used == 0 || persisted;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt <= now;
+        }
+
+        public String getAppCode() {
+            return key.appCode();
+        }
+
+        public String getApiPath() {
+            return key.apiPath();
+        }
+
+        public String getDynamicSalt() {
+            return key.dynamicSalt();
+        }
+
+        public Long getApiId() {
+            return apiId;
+        }
+
+        public Long getSaltTimestamp() {
+            return saltTimestamp;
+        }
+
+        /**
+         * @return 过期时间戳（毫秒），永久有效返回 null
+         */
+        public Long getExpireAt() {
+            return expireAt == Long.MAX_VALUE ? null : expireAt;
+        }
+
+        public boolean isUsed() {
+            return used == 1;
+        }
+    }
+}
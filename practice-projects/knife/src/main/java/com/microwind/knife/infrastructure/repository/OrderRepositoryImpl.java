@@ -4,17 +4,25 @@ import com.microwind.knife.domain.order.Order;
 import com.microwind.knife.domain.order.OrderItem;
 import com.microwind.knife.domain.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,6 +30,16 @@ import java.util.stream.Collectors;
 /**
  * 基础设施层 - 基于 JdbcTemplate 的订单仓储实现
  * 适用场景：采用Spring jdbcTemplate模式，需精细控制 SQL 或对性能要求较高的操作
+ * <p>
+ * 性能相关：
+ * - 查询只投影需要的列，不使用 SELECT *
+ * - 订单+订单项支持两种查询模式（order.repository.fetch-mode）：
+ *   join（默认）：分页子查询 LEFT JOIN 订单项，一次查询，结果集按订单流式归并；
+ *   batch：先查订单页，再用 IN (...) 批量查询订单项，两次查询
+ * - 总数按短 TTL 缓存（order.repository.count-cache-ttl），新增、删除订单时失效；
+ *   最后一页不足一页时直接由偏移量推算总数，不查询 COUNT
+ * - 新增订单通过 INSERT 语句自身返回自增主键，订单项使用 JDBC 批量插入
+ * </p>
  */
 @Repository("jdbcTemplate")
 //@Primary
@@ -38,14 +56,42 @@ public class OrderRepositoryImpl implements OrderRepository {
     private static final String COL_AMOUNT = "amount";
     private static final String COL_CREATED_AT = "created_at";
     private static final String COL_UPDATED_AT = "updated_at";
+    private static final String COL_ORDER_ITEM_ID = "order_item_id";
+    private static final String COL_PRODUCT = "product";
+    private static final String COL_QUANTITY = "quantity";
+    private static final String COL_PRICE = "price";
+
+    public static final String FETCH_MODE_JOIN = "join";
+    public static final String FETCH_MODE_BATCH = "batch";
+
+    // 投影列（与 orderRowMapper / orderItemRowMapper 读取的列保持一致）
+    private static final String ORDER_COLUMNS = String.join(", ",
+            COL_ORDER_ID, COL_ORDER_NO, COL_USER_ID, COL_STATUS, COL_ORDER_NAME, COL_AMOUNT, COL_CREATED_AT, COL_UPDATED_AT);
+    private static final String ORDER_ITEM_COLUMNS = String.join(", ",
+            COL_ORDER_ITEM_ID, COL_PRODUCT, COL_QUANTITY, COL_PRICE, COL_ORDER_ID);
+    // join 查询中订单项列使用别名，避免与订单列重名
+    private static final String JOINED_ITEM_COLUMNS = String.format(
+            "i.%s AS item_id, i.%s AS item_product, i.%s AS item_quantity, i.%s AS item_price",
+            COL_ORDER_ITEM_ID, COL_PRODUCT, COL_QUANTITY, COL_PRICE);
+
+    private static final int ITEM_BATCH_SIZE = 500;
 
     // 注入Order数据源的JdbcTemplate
     private final JdbcTemplate jdbcTemplate;
+    // 订单+订单项查询模式：join 或 batch
+    private final String fetchMode;
+    // 订单总数缓存有效期（毫秒），0 表示不缓存
+    private final long countCacheTtl;
+    private volatile CachedCount cachedCount;
 
     // 显式构造器注入，使用@Qualifier指定orderJdbcTemplate
-    public OrderRepositoryImpl(@Qualifier("orderJdbcTemplate") JdbcTemplate jdbcTemplate) {
+    public OrderRepositoryImpl(@Qualifier("orderJdbcTemplate") JdbcTemplate jdbcTemplate,
+                               @Value("${order.repository.fetch-mode:join}") String fetchMode,
+                               @Value("${order.repository.count-cache-ttl:5000}") long countCacheTtl) {
         System.out.println("initialize OrderRepositoryImpl with orderDataSource: " + jdbcTemplate.getDataSource());
         this.jdbcTemplate = jdbcTemplate;
+        this.fetchMode = fetchMode;
+        this.countCacheTtl = countCacheTtl;
     }
 
     private String camelToSnake(String prop) {
@@ -56,6 +102,15 @@ public class OrderRepositoryImpl implements OrderRepository {
      * 构建 ORDER BY 子句
      */
     private String buildOrderBy(Sort sort) {
+        return buildOrderBy(sort, "");
+    }
+
+    /**
+     * 构建 ORDER BY 子句
+     *
+     * @param columnPrefix 列名前缀（如 "o."），多表查询时避免列名歧义
+     */
+    private String buildOrderBy(Sort sort, String columnPrefix) {
         if (sort == null || sort.isUnsorted()) {
             return "";
         }
@@ -81,7 +136,7 @@ public class OrderRepositoryImpl implements OrderRepository {
                     }
 
                     String direction = order.getDirection().isAscending() ? "ASC" : "DESC";
-                    return property + " " + direction;
+                    return columnPrefix + property + " " + direction;
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.joining(", "));
@@ -96,7 +151,7 @@ public class OrderRepositoryImpl implements OrderRepository {
     @Override
     @Transactional(readOnly = true)
     public Optional<Order> findByOrderId(Long orderId) {
-        String sql = String.format("SELECT * FROM %s WHERE %s = ?", TABLE_ORDERS, COL_ORDER_ID);
+        String sql = String.format("SELECT %s FROM %s WHERE %s = ?", ORDER_COLUMNS, TABLE_ORDERS, COL_ORDER_ID);
         try {
             Order order = jdbcTemplate.queryForObject(sql, orderRowMapper(), orderId);
             return Optional.ofNullable(order);
@@ -112,7 +167,7 @@ public class OrderRepositoryImpl implements OrderRepository {
     @Override
     @Transactional(readOnly = true)
     public Optional<Order> findByOrderNo(String orderNo) {
-        String sql = String.format("SELECT * FROM %s WHERE %s = ?", TABLE_ORDERS, COL_ORDER_NO);
+        String sql = String.format("SELECT %s FROM %s WHERE %s = ?", ORDER_COLUMNS, TABLE_ORDERS, COL_ORDER_NO);
         try {
             Order order = jdbcTemplate.queryForObject(sql, orderRowMapper(), orderNo);
             return Optional.ofNullable(order);
@@ -127,7 +182,7 @@ public class OrderRepositoryImpl implements OrderRepository {
     @Override
     @Transactional(readOnly = true)
     public List<Order> findByUserId(Long userId) {
-        String sql = String.format("SELECT * FROM %s WHERE %s = ?", TABLE_ORDERS, COL_USER_ID);
+        String sql = String.format("SELECT %s FROM %s WHERE %s = ?", ORDER_COLUMNS, TABLE_ORDERS, COL_USER_ID);
         return jdbcTemplate.query(sql, orderRowMapper(), userId);
     }
 
@@ -143,7 +198,7 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     /**
      * 分页查询所有订单
-     * 注意：COUNT(*) 在大数据量时可能较慢，可考虑分页优化策略
+     * 注意：COUNT(*) 在大数据量时可能较慢，总数按短 TTL 缓存
      */
     @Override
     @Transactional(readOnly = true)
@@ -158,22 +213,60 @@ public class OrderRepositoryImpl implements OrderRepository {
 
         // 数据查询 SQL
         String dataSql = String.format(
-                "SELECT * FROM %s %s LIMIT ? OFFSET ?",
-                TABLE_ORDERS, orderBySql
+                "SELECT %s FROM %s %s LIMIT ? OFFSET ?",
+                ORDER_COLUMNS, TABLE_ORDERS, orderBySql
         );
 
         List<Order> orders = jdbcTemplate.query(dataSql, orderRowMapper(), pageSize, offset);
 
-        String countSql = String.format("SELECT COUNT(*) FROM %s", TABLE_ORDERS);
-        Integer total = jdbcTemplate.queryForObject(countSql, Integer.class);
-
-        return new PageImpl<>(orders, pageable, total != null ? total : 0);
+        // 最后一页不足一页时由偏移量推算总数，否则读取缓存的总数
+        return PageableExecutionUtils.getPage(orders, pageable, this::countOrders);
     }
 
+    /**
+     * 分页查询订单及订单项
+     * 按 order.repository.fetch-mode 选择 join（一次查询）或 batch（两次查询）
+     */
     @Override
     @Transactional(readOnly = true)
     public Page<Order> findAllOrdersWithItems(Pageable pageable) {
+        List<Order> orders = FETCH_MODE_BATCH.equalsIgnoreCase(fetchMode)
+                ? findOrdersWithItemsBatch(pageable)
+                : findOrdersWithItemsJoin(pageable);
+        return PageableExecutionUtils.getPage(orders, pageable, this::countOrders);
+    }
 
+    /**
+     * join 模式：分页子查询先确定本页订单，再 LEFT JOIN 订单项，一次查询返回
+     * <p>
+     * 结果集按本页排序 + order_id 排序，同一订单的行相邻，逐行归并为订单，不需要先把所有行装入内存再分组
+     * </p>
+     */
+    private List<Order> findOrdersWithItemsJoin(Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        int offset = pageable.getPageNumber() * pageSize;
+
+        // 子查询内按表列排序，外层按子查询别名排序，再以 order_id、order_item_id 保证同一订单的行相邻且顺序稳定
+        String innerOrderBy = buildOrderBy(pageable.getSort());
+        String outerOrderBy = buildOrderBy(pageable.getSort(), "o.");
+        outerOrderBy = (outerOrderBy.isEmpty() ? "ORDER BY " : outerOrderBy + ", ")
+                + "o." + COL_ORDER_ID + ", i." + COL_ORDER_ITEM_ID;
+
+        String sql = String.format(
+                "SELECT o.*, %s FROM (SELECT %s FROM %s %s LIMIT ? OFFSET ?) o "
+                        + "LEFT JOIN %s i ON i.%s = o.%s %s",
+                JOINED_ITEM_COLUMNS, ORDER_COLUMNS, TABLE_ORDERS, innerOrderBy,
+                TABLE_ORDER_ITEM, COL_ORDER_ID, COL_ORDER_ID, outerOrderBy);
+
+        OrderItemsReducer reducer = new OrderItemsReducer();
+        jdbcTemplate.query(sql, reducer, pageSize, offset);
+        return reducer.getOrders();
+    }
+
+    /**
+     * batch 模式：先查询订单页，再用 IN (...) 一次性查询本页所有订单项
+     */
+    private List<Order> findOrdersWithItemsBatch(Pageable pageable) {
         int pageSize = pageable.getPageSize();
         int pageNumber = pageable.getPageNumber();
         int offset = pageNumber * pageSize;
@@ -183,20 +276,19 @@ public class OrderRepositoryImpl implements OrderRepository {
 
         // 1. 查询订单主表（分页）
         String orderSql = String.format(
-                "SELECT * FROM %s %s LIMIT ? OFFSET ?", TABLE_ORDERS, orderBySql);
+                "SELECT %s FROM %s %s LIMIT ? OFFSET ?", ORDER_COLUMNS, TABLE_ORDERS, orderBySql);
         List<Order> orders = jdbcTemplate.query(orderSql, orderRowMapper(), pageSize, offset);
         if (orders.isEmpty()) {
-            return new PageImpl<>(orders, pageable, 0);
+            return orders;
         }
 
         // 2. 取出订单ID列表用于一次性查询所有 items
         List<Long> orderIds = orders.stream().map(Order::getOrderId).toList();
-//        String inSql = orderIds.stream().map(orderId -> "?").reduce((a, b) -> a + "," + b).orElse("");
         String inSql = String.join(",", Collections.nCopies(orderIds.size(), "?"));
 
         // 3. 查询所有订单项
         String itemsSql = String.format(
-                "SELECT * FROM %s WHERE `order_id` IN (%s)", TABLE_ORDER_ITEM, inSql);
+                "SELECT %s FROM %s WHERE `order_id` IN (%s)", ORDER_ITEM_COLUMNS, TABLE_ORDER_ITEM, inSql);
 
         List<OrderItem> allItems = jdbcTemplate.query(itemsSql, orderItemRowMapper(), orderIds.toArray());
 
@@ -208,12 +300,32 @@ public class OrderRepositoryImpl implements OrderRepository {
         orders.forEach(order ->
                 order.setItems(itemsMap.getOrDefault(order.getOrderId(), List.of()))
         );
+        return orders;
+    }
 
-        // 6. 查询总数（COUNT）
+    /**
+     * 订单总数（按 countCacheTtl 缓存）
+     */
+    private long countOrders() {
+        CachedCount cached = this.cachedCount;
+        long now = System.currentTimeMillis();
+        if (cached != null && now < cached.expireAt()) {
+            return cached.total();
+        }
         String countSql = String.format("SELECT COUNT(*) FROM %s", TABLE_ORDERS);
-        Integer total = jdbcTemplate.queryForObject(countSql, Integer.class);
+        Long total = jdbcTemplate.queryForObject(countSql, Long.class);
+        long value = total != null ? total : 0;
+        if (countCacheTtl > 0) {
+            this.cachedCount = new CachedCount(value, now + countCacheTtl);
+        }
+        return value;
+    }
 
-        return new PageImpl<>(orders, pageable, total != null ? total : 0);
+    /**
+     * 订单增删后使总数缓存失效
+     */
+    private void invalidateCount() {
+        this.cachedCount = null;
     }
 
     /**
@@ -232,12 +344,12 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     /**
      * 保存订单（新增或更新）
-     * 注意：假设 orderNo 由业务层保证唯一性
+     * 没有主键（orderId 为空）的订单新增，否则按主键更新；orderNo 由业务层生成并保证唯一性
      */
     @Override
     @Transactional
     public Order save(Order order) {
-        if (order.getOrderNo() == null || order.getOrderNo().isEmpty()) {
+        if (order.getOrderId() == null) {
             insertOrder(order);
         } else {
             updateOrder(order);
@@ -247,31 +359,64 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     private void insertOrder(Order order) {
         String sql = String.format(
-                "INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
-                TABLE_ORDERS, COL_USER_ID, COL_STATUS, COL_ORDER_NAME, COL_AMOUNT
+                "INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, ?)",
+                TABLE_ORDERS, COL_ORDER_NO, COL_USER_ID, COL_STATUS, COL_ORDER_NAME, COL_AMOUNT
         );
-        jdbcTemplate.update(sql,
-                order.getUserId(),
-                order.getStatus().name(),
-                order.getOrderName(),
-                order.getAmount()
+        // 自增主键随 INSERT 一起返回，不再单独查询 LAST_INSERT_ID()
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, new String[]{COL_ORDER_ID});
+            ps.setString(1, order.getOrderNo());
+            // userId 可能为空，交给数据库的非空约束报错，而不是在这里拆箱抛出 NullPointerException
+            ps.setObject(2, order.getUserId(), Types.BIGINT);
+            ps.setString(3, order.getStatus().name());
+            ps.setString(4, order.getOrderName());
+            ps.setBigDecimal(5, order.getAmount());
+            return ps;
+        }, keyHolder);
+        // MySQL 的 bigint unsigned 主键返回 BigInteger，统一按 Number 取值
+        Number key = keyHolder.getKey();
+        order.setOrderId(key != null ? key.longValue() : null);
+        invalidateCount();
+
+        insertOrderItems(order);
+    }
+
+    /**
+     * 批量插入订单项（JDBC batch，每批 ITEM_BATCH_SIZE 条）
+     * MySQL 需在连接串上开启 rewriteBatchedStatements=true，批量语句才会合并为一次网络往返
+     */
+    private void insertOrderItems(Order order) {
+        List<OrderItem> items = order.getItems();
+        if (items == null || items.isEmpty() || order.getOrderId() == null) {
+            return;
+        }
+        String sql = String.format(
+                "INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
+                TABLE_ORDER_ITEM, COL_ORDER_ID, COL_PRODUCT, COL_QUANTITY, COL_PRICE
         );
-        // 获取自增主键
-        Long id = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
-        order.setOrderId(id);
+        Long orderId = order.getOrderId();
+        jdbcTemplate.batchUpdate(sql, items, ITEM_BATCH_SIZE, (ps, item) -> {
+            item.setOrderId(orderId);
+            ps.setLong(1, orderId);
+            ps.setString(2, item.getProduct());
+            ps.setInt(3, item.getQuantity());
+            ps.setDouble(4, item.getPrice());
+        });
     }
 
     private void updateOrder(Order order) {
         String sql = String.format(
-                "UPDATE %s SET %s = ?, %s = ?, %s = ?, %s = ? WHERE %s = ?",
-                TABLE_ORDERS, COL_USER_ID, COL_STATUS, COL_ORDER_NAME, COL_AMOUNT, COL_ORDER_NO
+                "UPDATE %s SET %s = ?, %s = ?, %s = ?, %s = ?, %s = ? WHERE %s = ?",
+                TABLE_ORDERS, COL_ORDER_NO, COL_USER_ID, COL_STATUS, COL_ORDER_NAME, COL_AMOUNT, COL_ORDER_ID
         );
         jdbcTemplate.update(sql,
+                order.getOrderNo(),
                 order.getUserId(),
                 order.getStatus().name(),
                 order.getOrderName(),
                 order.getAmount(),
-                order.getOrderNo()
+                order.getOrderId()
         );
     }
 
@@ -286,7 +431,9 @@ public class OrderRepositoryImpl implements OrderRepository {
                     "DELETE FROM %s WHERE %s = ?",
                     TABLE_ORDERS, COL_ORDER_NO
             );
-            jdbcTemplate.update(sql, order.getOrderNo());
+            if (jdbcTemplate.update(sql, order.getOrderNo()) > 0) {
+                invalidateCount();
+            }
         }
     }
 
@@ -319,12 +466,60 @@ public class OrderRepositoryImpl implements OrderRepository {
         return (rs, rowNum) -> {
             OrderItem item = new OrderItem();
 
-            item.setOrderItemId(rs.getLong("order_item_id"));
-            item.setPrice(rs.getDouble("price"));
-            item.setProduct(rs.getString("product"));
-            item.setQuantity(rs.getInt("quantity"));
-            item.setOrderId(rs.getLong("order_id"));
+            item.setOrderItemId(rs.getLong(COL_ORDER_ITEM_ID));
+            item.setPrice(rs.getDouble(COL_PRICE));
+            item.setProduct(rs.getString(COL_PRODUCT));
+            item.setQuantity(rs.getInt(COL_QUANTITY));
+            item.setOrderId(rs.getLong(COL_ORDER_ID));
             return item;
         };
     }
+
+    /**
+     * join 查询结果的流式归并器：逐行读取，同一订单的相邻行归并到同一个 Order
+     * <p>
+     * 订单行通常相邻，只比较上一个订单的 ID；不相邻时（排序字段存在并列值的极端情况）再按 ID 查找，保证不重复
+     * </p>
+     */
+    private class OrderItemsReducer implements RowCallbackHandler {
+        private final RowMapper<Order> orderMapper = orderRowMapper();
+        private final Map<Long, Order> ordersById = new LinkedHashMap<>();
+        private Order current;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong(COL_ORDER_ID);
+            if (current == null || current.getOrderId() != orderId) {
+                current = ordersById.get(orderId);
+                if (current == null) {
+                    current = orderMapper.mapRow(rs, ordersById.size());
+                    current.setItems(new ArrayList<>());
+                    ordersById.put(orderId, current);
+                }
+            }
+
+            // LEFT JOIN：没有订单项的订单，订单项列为 NULL
+            long itemId = rs.getLong("item_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            OrderItem item = new OrderItem();
+            item.setOrderItemId(itemId);
+            item.setProduct(rs.getString("item_product"));
+            item.setQuantity(rs.getInt("item_quantity"));
+            item.setPrice(rs.getDouble("item_price"));
+            item.setOrderId(orderId);
+            current.getItems().add(item);
+        }
+
+        List<Order> getOrders() {
+            return new ArrayList<>(ordersById.values());
+        }
+    }
+
+    /**
+     * 缓存的订单总数
+     */
+    private record CachedCount(long total, long expireAt) {
+    }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.microwind.knife.infrastructure.repository;
 
+import com.microwind.knife.application.config.SignConfig;
 import com.microwind.knife.domain.apiauth.ApiDynamicSaltLog;
 import com.microwind.knife.domain.apiauth.ApiInfo;
 import com.microwind.knife.domain.apiauth.ApiUsers;
 import com.microwind.knife.domain.repository.SignRepository;
 import com.microwind.knife.domain.sign.SignUserAuth;
 import com.microwind.knife.domain.sign.SignUserInfo;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
@@ -15,7 +17,9 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +28,7 @@ import java.util.Optional;
  * 基础设施层 - 基于 JdbcTemplate 的 API 权限仓储实现
  * 适用场景：需精细控制 SQL 或对性能要求较高的操作
  * sign仓库操作是多个apiauth下的表
+ * 动态盐值的校验与消费优先走进程内台账（{@link DynamicSaltLedger}），数据库只做异步批量落库
  */
 @Slf4j
 @Repository
@@ -39,10 +44,40 @@ public class SignRepositoryImpl implements SignRepository {
     // 注入 ApiAuth 数据源的 JdbcTemplate
     private final JdbcTemplate jdbcTemplate;
 
+    // 进程内盐值台账，未启用时为 null
+    private final DynamicSaltLedger saltLedger;
+
     // 显式构造器注入，使用 @Qualifier 指定 apiAuthJdbcTemplate
-    public SignRepositoryImpl(@Qualifier("apiAuthJdbcTemplate") JdbcTemplate jdbcTemplate) {
+    public SignRepositoryImpl(@Qualifier("apiAuthJdbcTemplate") JdbcTemplate jdbcTemplate, SignConfig signConfig) {
         log.info("Initialize SignRepositoryImpl with apiAuthDataSource: {}", jdbcTemplate.getDataSource());
         this.jdbcTemplate = jdbcTemplate;
+        this.saltLedger = signConfig.isSaltLedgerEnabled() ? createSaltLedger(signConfig.getDynamicSalt().getLedger()) : null;
+    }
+
+    /**
+     * Writer 由台账线程调用，线程上没有绑定事务，JdbcTemplate 批量语句自动提交，正常返回即已落库
+     */
+    private DynamicSaltLedger createSaltLedger(SignConfig.SaltLedgerConfig config) {
+        DynamicSaltLedger.Writer writer = new DynamicSaltLedger.Writer() {
+            @Override
+            public void insert(List<DynamicSaltLedger.Entry> entries) {
+                batchInsertSaltLogs(entries);
+            }
+
+            @Override
+            public void markUsed(List<DynamicSaltLedger.Entry> entries) {
+                batchMarkSaltsUsed(entries);
+            }
+        };
+        return new DynamicSaltLedger(writer, config.getShards(), config.getMaxEntries(),
+                config.getBucketMillis(), config.getFlushInterval(), config.getBatchSize());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (saltLedger != null) {
+            saltLedger.close();
+        }
     }
 
     /**
@@ -190,6 +225,22 @@ public class SignRepositoryImpl implements SignRepository {
     public ApiDynamicSaltLog saveDynamicSaltLog(String appCode, Long apiId, String apiPath,
                                                 String dynamicSalt, Long saltTimestamp,
                                                 LocalDateTime expireTime) {
+        if (saltLedger != null) {
+            // 登记到台账，异步批量落库（此时尚无数据库 ID）
+            saltLedger.register(new DynamicSaltLedger.Entry(appCode, apiId, apiPath, dynamicSalt,
+                    saltTimestamp, toEpochMilli(expireTime)));
+            return ApiDynamicSaltLog.builder()
+                    .apiId(apiId)
+                    .appCode(appCode)
+                    .apiPath(apiPath)
+                    .dynamicSalt(dynamicSalt)
+                    .saltTimestamp(saltTimestamp)
+                    .expireTime(expireTime)
+                    .used(SALT_UNUSED)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        }
+
         String sql = """
                 INSERT INTO api_dynamic_salt_log (api_id, app_code, api_path, dynamic_salt, salt_timestamp, expire_time, used)
                 VALUES (?, ?, ?, ?, ?, ?, ?)
@@ -215,6 +266,23 @@ public class SignRepositoryImpl implements SignRepository {
     @Override
     @Transactional(transactionManager = "apiAuthTransactionManager")
     public boolean validateAndConsumeSalt(String appCode, String apiPath, String dynamicSalt) {
+        if (saltLedger != null) {
+            DynamicSaltLedger.Result result = saltLedger.consume(appCode, apiPath, dynamicSalt);
+            if (result != DynamicSaltLedger.Result.UNKNOWN) {
+                return result == DynamicSaltLedger.Result.CONSUMED;
+            }
+            // 台账未命中（重启前生成或已被淘汰）：先落库待写记录，再回退到数据库校验
+            // flush 在台账线程上执行，不加入当前方法的事务，当前事务回滚不会撤销已落库的消费记录
+            // 落库失败时数据库中可能还是未使用状态，无法确认该盐值是否已消费，直接拒绝
+            if (!saltLedger.flush()) {
+                log.warn("Dynamic salt ledger flush failed, reject unknown salt, appCode: {}, apiPath: {}", appCode, apiPath);
+                return false;
+            }
+        }
+        return consumeSaltFromDatabase(appCode, apiPath, dynamicSalt);
+    }
+
+    private boolean consumeSaltFromDatabase(String appCode, String apiPath, String dynamicSalt) {
         try {
             // 查询有效的盐值记录（未使用且未过期）
             String selectSql = """
@@ -249,6 +317,10 @@ public class SignRepositoryImpl implements SignRepository {
     @Override
     @Transactional(transactionManager = "apiAuthTransactionManager")
     public int cleanExpiredSalts() {
+        if (saltLedger != null) {
+            saltLedger.sweepExpired();
+        }
+
         String sql = """
                 DELETE FROM api_dynamic_salt_log
                 WHERE expire_time IS NOT NULL
@@ -259,6 +331,53 @@ public class SignRepositoryImpl implements SignRepository {
         return jdbcTemplate.update(sql, now);
     }
 
+    /**
+     * 批量写入盐值日志（台账异步落库）
+     */
+    private void batchInsertSaltLogs(List<DynamicSaltLedger.Entry> entries) {
+        String sql = """
+                INSERT INTO api_dynamic_salt_log (api_id, app_code, api_path, dynamic_salt, salt_timestamp, expire_time, used)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        List<Object[]> batchArgs = entries.stream()
+                .map(entry -> new Object[]{
+                        entry.getApiId(), entry.getAppCode(), entry.getApiPath(), entry.getDynamicSalt(),
+                        entry.getSaltTimestamp(), toLocalDateTime(entry.getExpireAt()),
+                        entry.isUsed() ? SALT_USED : SALT_UNUSED})
+                .toList();
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    /**
+     * 批量标记盐值已使用（台账异步落库）
+     */
+    private void batchMarkSaltsUsed(List<DynamicSaltLedger.Entry> entries) {
+        String sql = """
+                UPDATE api_dynamic_salt_log
+                SET used = ?, updated_at = ?
+                WHERE app_code = ?
+                  AND api_path = ?
+                  AND dynamic_salt = ?
+                  AND used = ?
+                """;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batchArgs = entries.stream()
+                .map(entry -> new Object[]{
+                        SALT_USED, now, entry.getAppCode(), entry.getApiPath(), entry.getDynamicSalt(), SALT_UNUSED})
+                .toList();
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    private static Long toEpochMilli(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Long epochMilli) {
+        return epochMilli != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault()) : null;
+    }
+
     /**
      * SignUserInfo RowMapper
      */
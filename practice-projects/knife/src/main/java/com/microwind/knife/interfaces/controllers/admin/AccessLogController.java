@@ -0,0 +1,27 @@
+package com.microwind.knife.interfaces.controllers.admin;
+
+import com.microwind.knife.common.ApiResponse;
+import com.microwind.knife.infrastructure.logging.AccessLogRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/access-log")
+@RequiredArgsConstructor
+public class AccessLogController {
+
+    private final AccessLogRecorder accessLogRecorder;
+
+    /**
+     * 访问日志统计：缓冲区、写入、丢弃计数，以及整体和各路由的延迟直方图
+     * 示例：GET /api/admin/access-log/stats
+     */
+    @GetMapping("/stats")
+    public ApiResponse<Map<String, Object>> getStats() {
+        return ApiResponse.success(accessLogRecorder.getStats(), "查询成功");
+    }
+}
@@ -1,6 +1,7 @@
 package com.microwind.knife.interfaces.controllers.apiauth;
 
 import com.microwind.knife.application.services.apiauth.ApiAuthService;
+import com.microwind.knife.application.services.sign.strategy.secretkey.SecretKeyCache;
 import com.microwind.knife.common.ApiResponse;
 import com.microwind.knife.domain.apiauth.ApiAuth;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * API权限管理Controller
@@ -18,6 +20,7 @@ import java.util.List;
 public class ApiAuthController {
 
     private final ApiAuthService apiAuthService;
+    private final SecretKeyCache secretKeyCache;
 
     /**
      * 检查权限
@@ -69,4 +72,21 @@ public class ApiAuthController {
     public void deleteAuth(@PathVariable Long id) {
         apiAuthService.deleteAuth(id);
     }
+
+    /**
+     * 秘钥与权限缓存的命中统计
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        return ApiResponse.success(secretKeyCache.getStats(), "查询成功");
+    }
+
+    /**
+     * 清空秘钥与权限缓存
+     */
+    @DeleteMapping("/cache")
+    public ApiResponse<Void> clearCache() {
+        secretKeyCache.invalidateAll();
+        return ApiResponse.success(null, "缓存已清空");
+    }
 }
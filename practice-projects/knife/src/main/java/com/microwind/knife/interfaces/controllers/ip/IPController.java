@@ -1,11 +1,17 @@
 package com.microwind.knife.interfaces.controllers.ip;
 
 import com.microwind.knife.application.services.ip.IPLocationService;
+import com.microwind.knife.application.services.ip.PublicIPCache;
 import com.microwind.knife.common.ApiResponse;
 import com.microwind.knife.domain.ip.IPRegion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/ip")
 public class IPController {
@@ -13,6 +19,12 @@ public class IPController {
     @Autowired
     private IPLocationService ipLocationService;
 
+    @Autowired
+    private PublicIPCache publicIPCache;
+
+    @Value("${public.ip.bulk.max-size:100}")
+    private int bulkMaxSize;
+
     /**
      * 查询 IP 地理位置
      * 示例：GET /api/ip/location?ip=172.1.1.1
@@ -21,4 +33,27 @@ public class IPController {
     public ApiResponse<IPRegion> getLocation(@RequestParam String ip) {
         return ipLocationService.getIPLocation(ip);
     }
+
+    /**
+     * 批量查询 IP 地理位置（公网查询并发执行）
+     * 示例：POST /api/ip/locations  ["172.1.1.1", "8.8.8.8"]
+     */
+    @PostMapping("/locations")
+    public ApiResponse<Map<String, ApiResponse<IPRegion>>> getLocations(@RequestBody List<String> ips) {
+        if (ips == null || ips.isEmpty()) {
+            return ApiResponse.failure(HttpStatus.BAD_REQUEST.value(), "IP 列表不能为空");
+        }
+        if (ips.size() > bulkMaxSize) {
+            return ApiResponse.failure(HttpStatus.BAD_REQUEST.value(), "单次最多查询 " + bulkMaxSize + " 个 IP");
+        }
+        return ApiResponse.success(ipLocationService.getIPLocations(ips), "批量查询完成");
+    }
+
+    /**
+     * 公网 IP 查询缓存统计
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        return ApiResponse.success(publicIPCache.getStats(), "查询成功");
+    }
 }
@@ -3,13 +3,16 @@ package com.microwind.knife.middleware;
 import com.microwind.knife.application.config.SignConfig;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -23,14 +26,15 @@ import java.util.List;
  * - Controller 也需要读取请求体获取业务参数
  * - 因此需要缓存请求体，使其可以被多次读取
  * <p>
- * 优化策略（两种模式）：
- * 1. 路径模式匹配（推荐）：
- * - 在配置文件中指定需要缓存的路径模式（sign.cached-body-path-patterns）
- * - 只有匹配的路径才会缓存 body
+ * 优化策略：
+ * 1. Header 检测：只有包含 Sign-appCode 和 Sign-sign header 的请求才缓存 body
+ * 2. 注解元数据：只有命中 @RequireSign 且需要参数签名的路由才缓存 body（由 SignPolicyResolver 判断）
+ * 3. 路径模式（可选）：配置了 sign.cached-body-path-patterns 时，进一步限定在匹配的路径内
  * - 例如：["/api/payment/**", "/api/order/**"]
- * 2. Header 检测模式（兜底）：
- * - 如果未配置路径模式，则检查请求是否包含签名 header
- * - 只有包含 Sign-appCode 或 Sign-sign header 的请求才缓存 body
+ * <p>
+ * 大小限制（sign.cached-body）：
+ * - Content-Length 或实际读取的字节数超过 max-size 时直接返回 413，不进入后续处理
+ * - 超过 memory-threshold 的请求体写入临时文件并以内存映射方式读取，请求结束后删除
  * <p>
  * 注意：
  * - 此 Filter 在 WebConfig 中通过 FilterRegistrationBean 注册
@@ -42,6 +46,7 @@ import java.util.List;
 public class CachedBodyFilter implements Filter {
 
     private final SignConfig signConfig;
+    private final SignPolicyResolver signPolicyResolver;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
 
@@ -51,11 +56,28 @@ public class CachedBodyFilter implements Filter {
         if (request instanceof HttpServletRequest httpRequest) {
             // 检查是否需要缓存 body
             if (shouldCacheBody(httpRequest)) {
+                long maxSize = signConfig.getCachedBodyMaxSize();
+                if (httpRequest.getContentLengthLong() > maxSize) {
+                    rejectTooLarge(httpRequest, (HttpServletResponse) response, maxSize);
+                    return;
+                }
+
                 // 包装请求，缓存请求体
-                CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(httpRequest);
-                log.debug("Wrapped request with CachedBodyHttpServletRequest - uri={}",
-                        httpRequest.getRequestURI());
-                chain.doFilter(cachedRequest, response);
+                CachedBodyHttpServletRequest cachedRequest;
+                try {
+                    cachedRequest = new CachedBodyHttpServletRequest(httpRequest,
+                            signConfig.getCachedBodyMemoryThreshold(), maxSize);
+                } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+                    rejectTooLarge(httpRequest, (HttpServletResponse) response, maxSize);
+                    return;
+                }
+                log.debug("Wrapped request with CachedBodyHttpServletRequest - uri={}, size={}, spilled={}",
+                        httpRequest.getRequestURI(), cachedRequest.getContentLengthLong(), cachedRequest.isSpilled());
+                try {
+                    chain.doFilter(cachedRequest, response);
+                } finally {
+                    cachedRequest.release();
+                }
                 return;
             }
         }
@@ -70,7 +92,8 @@ public class CachedBodyFilter implements Filter {
      * 过滤逻辑（需同时满足）：
      * 1. 必须包含指定的签名 Header（防止对普通请求进行无意义的缓存）
      * 2. 必须是具有请求体（Body）的 HTTP 方法（POST, PUT, PATCH）
-     * 3. 请求路径必须匹配配置的路径模式（SignConfig.getCachedBodyPathPatterns）
+     * 3. 配置了路径模式时，请求路径必须匹配（SignConfig.getCachedBodyPathPatterns）
+     * 4. 请求命中的路由需要带参数验签（@RequireSign 元数据）
      * </p>
      *
      * @param request 当前 HTTP 请求
@@ -95,23 +118,44 @@ public class CachedBodyFilter implements Filter {
             return false;
         }
 
-        // 3. 路径模式匹配：仅对配置范围内的 API 进行 Body 缓存
+        // 3. 路径模式匹配（可选）：配置后仅对配置范围内的 API 进行 Body 缓存
         List<String> pathPatterns = signConfig.getCachedBodyPathPatterns();
-        if (CollectionUtils.isEmpty(pathPatterns)) {
-            // 如果未配置路径列表，出于安全和兼容性考虑，默认不缓存
+        if (!CollectionUtils.isEmpty(pathPatterns) && !matchesPathPattern(request.getServletPath(), pathPatterns)) {
             return false;
         }
 
-        // 使用 ServletPath 兼容 ContextPath 部署场景
-        // 当前路径跟yml配置需要缓存body的请求路径匹配时返回true
-        String requestPath = request.getServletPath();
+        // 4. 注解元数据：只有需要带参数验签的路由才需要重复读取 body
+        boolean required = signPolicyResolver.requiresBody(request);
+        if (!required) {
+            log.debug("Skip caching body, route does not sign params - uri={}", request.getRequestURI());
+        }
+        return required;
+    }
+
+    /**
+     * 使用 ServletPath 兼容 ContextPath 部署场景
+     */
+    private boolean matchesPathPattern(String requestPath, List<String> pathPatterns) {
         for (String pattern : pathPatterns) {
             if (pathMatcher.match(pattern, requestPath)) {
                 log.debug("Match success: caching body for path [{}] with pattern [{}]", requestPath, pattern);
                 return true;
             }
         }
-
         return false;
     }
+
+    /**
+     * 请求体超过上限，返回 413
+     */
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response, long maxSize)
+            throws IOException {
+        log.warn("Request body too large - uri={}, contentLength={}, maxSize={}",
+                request.getRequestURI(), request.getContentLengthLong(), maxSize);
+        response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"code\":413,\"data\":null,\"message\":\"请求体过大，最大 "
+                + maxSize + " 字节\"}");
+    }
 }
@@ -1,13 +1,22 @@
 package com.microwind.knife.middleware;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.springframework.util.StreamUtils;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * 可重复读取的 HttpServletRequest 包装类
@@ -19,54 +28,325 @@ import java.nio.charset.StandardCharsets;
  * - 拦截器需要读取请求体进行签名验证
  * - Controller 也需要读取请求体获取业务参数
  * - InputStream 默认只能读取一次，需要缓存
+ * <p>
+ * 缓存策略：
+ * - 请求体不超过 memoryThreshold 时缓存在堆内存中
+ * - 超过 memoryThreshold 时写入临时文件，通过 FileChannel 按位置读取，不占用堆内存
+ *   （不使用内存映射：映射在 GC 前不会解除，Windows 下映射中的文件无法删除）
+ * - 超过 maxSize 时抛出 {@link BodyTooLargeException}
+ * - 每次 getInputStream() 只创建独立读取位置的视图，不复制数据
+ * - 解码后的字符串、解析后的 JSON 参数只计算一次
+ * - 请求结束后需调用 {@link #release()} 关闭文件通道并删除临时文件
  */
+@Slf4j
 public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
-    private final byte[] cachedBody;
+    private static final int READ_CHUNK = 8192;
+
+    // 内存缓存的请求体，写入临时文件时为 null
+    private final ByteBuffer cachedBody;
+    private final Path spillFile;
+    private final FileChannel spillChannel;
+    private final long size;
+    private String cachedBodyString;
+    private Map<String, Object> cachedJsonParams;
 
-    public CachedBodyHttpServletRequest(HttpServletRequest request) throws IOException {
+    /**
+     * @param request         原始请求
+     * @param memoryThreshold 堆内存缓存上限（字节），超过后写入临时文件
+     * @param maxSize         请求体最大字节数，超过抛出 BodyTooLargeException
+     */
+    public CachedBodyHttpServletRequest(HttpServletRequest request, long memoryThreshold, long maxSize)
+            throws IOException {
         super(request);
-        // 缓存请求体内容
-        InputStream requestInputStream = request.getInputStream();
-        this.cachedBody = StreamUtils.copyToByteArray(requestInputStream);
-        // 如果需要限制大小，可以限制100M
-        // if (cachedBody.length > 104857600) {
-        //    throw new IOException("Request body too large");
-        // }
+        InputStream in = request.getInputStream();
+
+        // 1. 先读入内存，按 Content-Length 预分配，未知时按块增长
+        int threshold = (int) Math.min(Math.min(memoryThreshold, maxSize), Integer.MAX_VALUE - 8);
+        long contentLength = request.getContentLengthLong();
+        int initialSize = contentLength >= 0 && contentLength <= threshold
+                ? (int) contentLength : Math.min(threshold, READ_CHUNK);
+        byte[] buf = new byte[Math.max(initialSize, 1)];
+        int count = 0;
+        while (true) {
+            if (count == buf.length) {
+                if (count >= threshold) {
+                    break;
+                }
+                buf = Arrays.copyOf(buf, (int) Math.min((long) count * 2, threshold));
+            }
+            int n = in.read(buf, count, buf.length - count);
+            if (n < 0) {
+                break;
+            }
+            count += n;
+        }
+
+        int next = count < threshold ? -1 : in.read();
+        if (next < 0) {
+            this.cachedBody = ByteBuffer.wrap(buf, 0, count).slice();
+            this.spillFile = null;
+            this.spillChannel = null;
+            this.size = count;
+            return;
+        }
+        if (count >= maxSize) {
+            throw new BodyTooLargeException(maxSize);
+        }
+
+        // 2. 超过内存阈值：已读部分和剩余部分写入临时文件，读取时通过文件通道按位置读
+        Path file = Files.createTempFile("knife-body-", ".tmp");
+        try {
+            long size;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                out.write(buf, 0, count);
+                out.write(next);
+                size = count + 1L;
+                byte[] chunk = new byte[READ_CHUNK];
+                int n;
+                while ((n = in.read(chunk)) >= 0) {
+                    size += n;
+                    if (size > maxSize) {
+                        throw new BodyTooLargeException(maxSize);
+                    }
+                    out.write(chunk, 0, n);
+                }
+            }
+            this.spillChannel = FileChannel.open(file, StandardOpenOption.READ);
+            this.cachedBody = null;
+            this.size = size;
+            this.spillFile = file;
+            log.debug("Request body spilled to temp file - size={}, file={}", size, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
     }
 
     @Override
     public ServletInputStream getInputStream() {
-        return new CachedBodyServletInputStream(this.cachedBody);
+        if (this.spillChannel != null) {
+            return new FileChannelServletInputStream(this.spillChannel, this.size);
+        }
+        return new CachedBodyServletInputStream(this.cachedBody.duplicate());
     }
 
     @Override
     public BufferedReader getReader() {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream, StandardCharsets.UTF_8));
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+        return this.size > Integer.MAX_VALUE ? -1 : (int) this.size;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return this.size;
     }
 
     /**
-     * 获取缓存的请求体内容
+     * 获取缓存的请求体内容（只解码一次）
      */
     public String getCachedBody() {
-        return new String(this.cachedBody, StandardCharsets.UTF_8);
+        String body = this.cachedBodyString;
+        if (body == null) {
+            if (this.spillChannel != null) {
+                try (InputStream in = getInputStream()) {
+                    body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read request body temp file: " + this.spillFile, e);
+                }
+            } else {
+                body = StandardCharsets.UTF_8.decode(this.cachedBody.duplicate()).toString();
+            }
+            this.cachedBodyString = body;
+        }
+        return body;
+    }
+
+    /**
+     * 将请求体解析为 JSON 参数（只解析一次）
+     * <p>
+     * 请求体为空白时返回空 Map；返回的 Map 由调用方共享，不要修改
+     * </p>
+     *
+     * @param reader 目标类型为 Map 的 ObjectReader（如 TreeMap，参数已按 ASCII 排序）
+     * @return 参数 Map
+     * @throws IOException 请求体不是合法的 JSON 对象
+     */
+    public Map<String, Object> getJsonParams(ObjectReader reader) throws IOException {
+        Map<String, Object> params = this.cachedJsonParams;
+        if (params == null) {
+            params = isBlank() ? null : reader.readValue(getInputStream());
+            if (params == null) {
+                params = Collections.emptyMap();
+            }
+            this.cachedJsonParams = params;
+        }
+        return params;
     }
 
     /**
-     * 缓存的 ServletInputStream 实现
+     * 请求体是否写入了临时文件
+     */
+    public boolean isSpilled() {
+        return this.spillFile != null;
+    }
+
+    /**
+     * 临时文件路径，未写入临时文件时为 null
+     */
+    Path getSpillFile() {
+        return this.spillFile;
+    }
+
+    /**
+     * 释放临时文件（请求结束后由 CachedBodyFilter 调用）
+     * <p>
+     * 先关闭文件通道再删除文件；删除失败时登记为 JVM 退出时删除。释放后不能再读取请求体
+     * </p>
+     */
+    public void release() {
+        if (this.spillFile == null) {
+            return;
+        }
+        try {
+            this.spillChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close request body temp file: {}", this.spillFile, e);
+        }
+        try {
+            Files.deleteIfExists(this.spillFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete request body temp file, delete on exit: {}", this.spillFile, e);
+            this.spillFile.toFile().deleteOnExit();
+        }
+    }
+
+    private boolean isBlank() throws IOException {
+        if (this.spillChannel != null) {
+            // 超过内存阈值的请求体几乎不可能全是空白，读到第一个非空白字节即返回
+            try (InputStream in = new BufferedInputStream(getInputStream(), READ_CHUNK)) {
+                int b;
+                while ((b = in.read()) >= 0) {
+                    if (!isWhitespace((byte) b)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        ByteBuffer body = this.cachedBody;
+        for (int i = body.position(); i < body.limit(); i++) {
+            if (!isWhitespace(body.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * 请求体超过配置的大小上限
+     */
+    public static class BodyTooLargeException extends IOException {
+        private final long maxSize;
+
+        public BodyTooLargeException(long maxSize) {
+            super("Request body too large, max size: " + maxSize + " bytes");
+            this.maxSize = maxSize;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+    }
+
+    /**
+     * 临时文件的 ServletInputStream 实现（共享文件通道，每个流有独立的读取位置）
+     */
+    private static class FileChannelServletInputStream extends ServletInputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+
+        FileChannelServletInputStream(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= size;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            // 同步模型下不支持异步读取
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+            ByteBuffer target = ByteBuffer.wrap(b, off, (int) Math.min(len, size - position));
+            // 按位置读取，不修改通道自身的位置，多个流可以交替读取
+            int n = channel.read(target, position);
+            if (n < 0) {
+                return -1;
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, size - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(size - position, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 缓存的 ServletInputStream 实现（共享缓冲区的只读视图）
      */
     private static class CachedBodyServletInputStream extends ServletInputStream {
 
-        private final ByteArrayInputStream cachedBodyInputStream;
+        private final ByteBuffer buffer;
 
-        public CachedBodyServletInputStream(byte[] cachedBody) {
-            this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+        public CachedBodyServletInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
         }
 
         @Override
         public boolean isFinished() {
-            return cachedBodyInputStream.available() == 0;
+            return !buffer.hasRemaining();
         }
 
         @Override
@@ -82,13 +362,32 @@ public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
         @Override
         public int read() {
-            return cachedBodyInputStream.read();
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
         }
 
         @Override
-        public int read(byte[] b, int off, int len) throws IOException {
-            return cachedBodyInputStream.read(b, off, len);
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
         }
 
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
     }
 }
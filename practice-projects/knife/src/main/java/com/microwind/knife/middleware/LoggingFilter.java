@@ -1,29 +1,161 @@
 package com.microwind.knife.middleware;
 
+import com.microwind.knife.infrastructure.logging.AccessLogRecorder;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import org.springframework.stereotype.Component;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
 
+/**
+ * 访问日志过滤器
+ * <p>
+ * 记录每个请求的方法、路径、匹配的路由、状态码、耗时、请求/响应字节数，交给 {@link AccessLogRecorder}
+ * 异步写入访问日志文件，请求线程不做格式化和 IO
+ * </p>
+ */
 @Component
 public class LoggingFilter implements Filter {
 
-    public LoggingFilter() {
-        // 这里可以注入日志服务（如果需要）
+    private final AccessLogRecorder accessLogRecorder;
+
+    public LoggingFilter(AccessLogRecorder accessLogRecorder) {
+        this.accessLogRecorder = accessLogRecorder;
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, jakarta.servlet.ServletException {
-        HttpServletRequest req = (HttpServletRequest) request;
-        HttpServletResponse res = (HttpServletResponse) response;
+        if (!accessLogRecorder.isEnabled() || !(request instanceof HttpServletRequest req)
+                || !(response instanceof HttpServletResponse res)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(res);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, countingResponse);
+            failed = false;
+        } finally {
+            long latency = System.nanoTime() - start;
+            // 路由模式（如 /api/orders/{id}）由 Spring MVC 在处理请求时设置，未进入 MVC 时为 null
+            Object route = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            int status = failed && !res.isCommitted() ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : res.getStatus();
+            accessLogRecorder.record(timestamp, req.getMethod(), req.getRequestURI(),
+                    route instanceof String pattern ? pattern : null,
+                    status, latency, req.getContentLengthLong(), countingResponse.getBytesWritten());
+        }
+    }
+
+    /**
+     * 统计响应体字节数的响应包装类
+     * <p>
+     * getOutputStream 按字节统计；getWriter 按字符统计（不经过编码，非 ASCII 字符会少计）
+     * </p>
+     */
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private long bytesWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(int c) {
+                        delegate.write(c);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(char[] cbuf, int off, int len) {
+                        delegate.write(cbuf, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void write(String str, int off, int len) {
+                        delegate.write(str, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() {
+                        delegate.flush();
+                    }
 
-        System.out.println("[Request] " + req.getMethod() + " " + req.getRequestURI());
-        chain.doFilter(request, response);
-        System.out.println("[Response] " + res.getStatus());
+                    @Override
+                    public void close() {
+                        delegate.close();
+                    }
+                });
+            }
+            return writer;
+        }
     }
 }
@@ -0,0 +1,298 @@
+package com.microwind.knife.middleware;
+
+import com.microwind.knife.application.config.SignConfig;
+import com.microwind.knife.interfaces.annotation.IgnoreSignHeader;
+import com.microwind.knife.interfaces.annotation.RequireSign;
+import com.microwind.knife.interfaces.annotation.WithParams;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 签名策略解析器
+ * <p>
+ * 根据 @IgnoreSignHeader / @RequireSign 注解解析 Controller 方法的签名策略，每个方法只解析一次：
+ * <ul>
+ *   <li>SignatureInterceptor：按 HandlerMethod 获取策略，决定是否验签、是否带参数验签</li>
+ *   <li>CachedBodyFilter：Filter 阶段还没有 HandlerMethod，按路由索引判断请求是否需要带参数验签（需要缓存请求体）</li>
+ * </ul>
+ * 路由索引在第一次请求时从 RequestMappingHandlerMapping 构建，只包含需要带参数签名的路由：
+ * 无通配符的路由按完整路径索引，其余按第一段路径索引，每次请求只匹配同一段下的少量候选路由
+ * </p>
+ */
+@Slf4j
+@Component
+public class SignPolicyResolver {
+
+    private final SignConfig signConfig;
+    private final ApplicationContext applicationContext;
+    private final Map<HandlerKey, SignPolicy> policies = new ConcurrentHashMap<>();
+    private volatile SignedRouteIndex signedRoutes;
+
+    public SignPolicyResolver(SignConfig signConfig, ApplicationContext applicationContext) {
+        this.signConfig = signConfig;
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 获取 Controller 方法的签名策略（缓存）
+     *
+     * @param handlerMethod Controller 方法
+     * @return 签名策略
+     */
+    public SignPolicy resolve(HandlerMethod handlerMethod) {
+        return policies.computeIfAbsent(
+                new HandlerKey(handlerMethod.getBeanType(), handlerMethod.getMethod()),
+                key -> resolvePolicy(handlerMethod));
+    }
+
+    /**
+     * 是否需要参数签名（DEFAULT 读取配置文件默认值）
+     */
+    public boolean isWithParams(SignPolicy policy) {
+        return policy.withParams() == WithParams.DEFAULT
+                ? signConfig.isDefaultWithParams()
+                : policy.withParams() == WithParams.TRUE;
+    }
+
+    /**
+     * 请求是否会被带参数验签（需要缓存请求体）
+     * <p>
+     * 路由索引无法构建时保守返回 true
+     * </p>
+     *
+     * @param request 当前请求
+     * @return true-需要读取请求体参与签名
+     */
+    public boolean requiresBody(HttpServletRequest request) {
+        SignedRouteIndex index = signedRoutes();
+        if (index == null) {
+            return true;
+        }
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // 与 WebConfig 的末尾斜杠匹配保持一致
+        String trimmed = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : null;
+
+        if (matchesAny(index.exact().get(path), method, null, null)
+                || (trimmed != null && matchesAny(index.exact().get(trimmed), method, null, null))) {
+            return true;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        PathContainer trimmedPath = trimmed != null ? PathContainer.parsePath(trimmed) : null;
+        return matchesAny(index.byFirstSegment().get(firstSegment(pathContainer)), method, pathContainer, trimmedPath)
+                || matchesAny(index.others(), method, pathContainer, trimmedPath);
+    }
+
+    /**
+     * 候选路由中是否有匹配请求方法和路径、且需要带参数验签的路由（path 为 null 表示候选路由的路径已精确匹配）
+     */
+    private boolean matchesAny(List<SignedRoute> routes, String method, PathContainer path, PathContainer trimmedPath) {
+        if (routes == null) {
+            return false;
+        }
+        for (SignedRoute route : routes) {
+            if (!route.methods().isEmpty() && !route.methods().contains(method)) {
+                continue;
+            }
+            if (!isWithParams(route.policy())) {
+                continue;
+            }
+            if (path == null || route.pattern() == null || route.pattern().matches(path)
+                    || (trimmedPath != null && route.pattern().matches(trimmedPath))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 请求路径的第一段（已解码、去掉矩阵参数）
+     */
+    private static String firstSegment(PathContainer path) {
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment) {
+                return segment.valueToMatch();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 路由模式的第一段（"/api/order/{id}" -> "api"）
+     */
+    private static String firstSegment(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private SignPolicy resolvePolicy(HandlerMethod handlerMethod) {
+        if (handlerMethod.hasMethodAnnotation(IgnoreSignHeader.class)) {
+            log.debug("检测到 @IgnoreSignHeader 注解，跳过签名验证 - {}", handlerMethod);
+            return SignPolicy.NONE;
+        }
+
+        RequireSign methodAnnotation = handlerMethod.getMethodAnnotation(RequireSign.class);
+        RequireSign classAnnotation = handlerMethod.getBeanType().getAnnotation(RequireSign.class);
+        if (methodAnnotation == null && classAnnotation == null) {
+            // 没有 @RequireSign 注解，不需要验证
+            return SignPolicy.NONE;
+        }
+        return new SignPolicy(true, determineWithParams(methodAnnotation, classAnnotation));
+    }
+
+    /**
+     * 确定是否需要参数签名
+     * <p>
+     * 优先级：方法注解 > 类注解 > 配置文件默认值（返回 DEFAULT，每次请求读取配置）
+     * </p>
+     *
+     * @param methodAnnotation 方法级别的 @RequireSign 注解
+     * @param classAnnotation  类级别的 @RequireSign 注解
+     * @return TRUE 表示需要参数签名，FALSE 表示不需要，DEFAULT 表示使用配置文件默认值
+     */
+    private WithParams determineWithParams(RequireSign methodAnnotation, RequireSign classAnnotation) {
+        // 方法注解优先
+        if (methodAnnotation != null && methodAnnotation.withParams() != WithParams.DEFAULT) {
+            return methodAnnotation.withParams();
+        }
+
+        // 类注解次之
+        if (classAnnotation != null && classAnnotation.withParams() != WithParams.DEFAULT) {
+            return classAnnotation.withParams();
+        }
+
+        return WithParams.DEFAULT;
+    }
+
+    // ==================== 路由索引 ====================
+
+    private SignedRouteIndex signedRoutes() {
+        SignedRouteIndex routes = signedRoutes;
+        if (routes == null) {
+            synchronized (this) {
+                routes = signedRoutes;
+                if (routes == null) {
+                    routes = buildSignedRoutes();
+                    signedRoutes = routes;
+                }
+            }
+        }
+        return routes;
+    }
+
+    private SignedRouteIndex buildSignedRoutes() {
+        RequestMappingHandlerMapping handlerMapping;
+        try {
+            handlerMapping = applicationContext.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        } catch (BeansException e) {
+            log.warn("无法获取 RequestMappingHandlerMapping，所有签名请求都将缓存请求体: {}", e.getMessage());
+            return null;
+        }
+
+        List<SignedRoute> routes = new ArrayList<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            SignPolicy policy = resolve(entry.getValue());
+            if (!policy.requireSign() || policy.withParams() == WithParams.FALSE) {
+                continue;
+            }
+            RequestMappingInfo info = entry.getKey();
+            Set<String> methods = info.getMethodsCondition().getMethods().stream()
+                    .map(RequestMethod::name)
+                    .collect(Collectors.toUnmodifiableSet());
+            for (String pattern : info.getPatternValues()) {
+                routes.add(new SignedRoute(pattern, parsePattern(pattern), methods, policy));
+            }
+        }
+        log.info("签名路由索引已构建: {} 条需要带参数验签的路由", routes.size());
+        return SignedRouteIndex.of(routes);
+    }
+
+    /**
+     * 解析路由模式，无法解析时返回 null（视为匹配所有路径）
+     */
+    private static PathPattern parsePattern(String pattern) {
+        try {
+            return PathPatternParser.defaultInstance.parse(pattern);
+        } catch (RuntimeException e) {
+            log.warn("路由模式无法解析，按匹配所有路径处理: {}", pattern);
+            return null;
+        }
+    }
+
+    // ==================== 内部类型 ====================
+
+    /**
+     * 缓存键：Bean 类型 + 方法（继承的方法在不同 Controller 上可能有不同的类注解）
+     */
+    private record HandlerKey(Class<?> beanType, Method method) {
+    }
+
+    private record SignedRoute(String patternString, PathPattern pattern, Set<String> methods, SignPolicy policy) {
+    }
+
+    /**
+     * 需要带参数验签的路由索引
+     *
+     * @param exact          无通配符、无路径变量的路由，按完整路径索引（快速路径，未命中时仍按第一段匹配，兼容编码过的路径）
+     * @param byFirstSegment 第一段为字面量的路由，按第一段索引
+     * @param others         第一段含通配符或无法解析的路由，每次请求都需匹配
+     */
+    private record SignedRouteIndex(Map<String, List<SignedRoute>> exact,
+                                    Map<String, List<SignedRoute>> byFirstSegment,
+                                    List<SignedRoute> others) {
+
+        static SignedRouteIndex of(List<SignedRoute> routes) {
+            Map<String, List<SignedRoute>> exact = new HashMap<>();
+            Map<String, List<SignedRoute>> byFirstSegment = new HashMap<>();
+            List<SignedRoute> others = new ArrayList<>();
+            for (SignedRoute route : routes) {
+                if (route.pattern() != null && !route.pattern().hasPatternSyntax()) {
+                    exact.computeIfAbsent(route.patternString(), k -> new ArrayList<>()).add(route);
+                }
+                String first = route.pattern() != null ? firstSegment(route.patternString()) : null;
+                if (first != null && !first.isEmpty() && first.chars().noneMatch(c -> c == '{' || c == '*' || c == '?')) {
+                    byFirstSegment.computeIfAbsent(first, k -> new ArrayList<>()).add(route);
+                } else {
+                    others.add(route);
+                }
+            }
+            return new SignedRouteIndex(copy(exact), copy(byFirstSegment), List.copyOf(others));
+        }
+
+        private static Map<String, List<SignedRoute>> copy(Map<String, List<SignedRoute>> map) {
+            Map<String, List<SignedRoute>> result = new HashMap<>();
+            map.forEach((key, value) -> result.put(key, List.copyOf(value)));
+            return Map.copyOf(result);
+        }
+    }
+
+    /**
+     * Controller 方法的签名策略
+     *
+     * @param requireSign 是否需要签名验证
+     * @param withParams  是否需要参数签名，DEFAULT 表示使用配置文件默认值
+     */
+    public record SignPolicy(boolean requireSign, WithParams withParams) {
+        static final SignPolicy NONE = new SignPolicy(false, WithParams.DEFAULT);
+    }
+}
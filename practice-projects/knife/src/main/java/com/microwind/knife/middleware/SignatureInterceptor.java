@@ -1,19 +1,14 @@
 package com.microwind.knife.middleware;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.microwind.knife.application.config.SignConfig;
 import com.microwind.knife.application.dto.sign.SignDTO;
 import com.microwind.knife.application.services.sign.SignService;
 import com.microwind.knife.common.ApiResponse;
-import com.microwind.knife.interfaces.annotation.IgnoreSignHeader;
-import com.microwind.knife.interfaces.annotation.RequireSign;
-import com.microwind.knife.interfaces.annotation.WithParams;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpStatus;
@@ -24,10 +19,9 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 签名验证拦截器
@@ -47,15 +41,28 @@ import java.util.Map;
  * - 使用 WithParams 枚举而非字符串，类型安全
  * - 参数签名支持多种 HTTP 方法（POST/PUT/PATCH 从 body 读取，GET/DELETE 从 query 读取）
  * - 参数按 ASCII 排序后进行签名验证，确保一致性
+ * <p>
+ * 性能：
+ * - 每个 Controller 方法的注解只解析一次，由 {@link SignPolicyResolver} 缓存（与 CachedBodyFilter 共用）
+ * - 请求体直接反序列化为 TreeMap（已按 ASCII 排序），结果缓存在请求上，签名时不再复制排序
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class SignatureInterceptor implements HandlerInterceptor {
 
     private final SignService signService;
     private final SignConfig signConfig;
-    private final ObjectMapper objectMapper;
+    private final SignPolicyResolver signPolicyResolver;
+    private final ObjectReader sortedMapReader;
+
+    public SignatureInterceptor(SignService signService, SignConfig signConfig, ObjectMapper objectMapper,
+                                SignPolicyResolver signPolicyResolver) {
+        this.signService = signService;
+        this.signConfig = signConfig;
+        this.signPolicyResolver = signPolicyResolver;
+        this.sortedMapReader = objectMapper.readerFor(
+                objectMapper.getTypeFactory().constructMapType(TreeMap.class, String.class, Object.class));
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -64,23 +71,14 @@ public class SignatureInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        // 1. 检查方法上是否有 @IgnoreSignHeader 注解（优先级最高）
-        if (handlerMethod.hasMethodAnnotation(IgnoreSignHeader.class)) {
-            log.debug("检测到 @IgnoreSignHeader 注解，跳过签名验证");
-            return true;
-        }
-
-        // 2. 检查方法或类上是否有 @RequireSign 注解
-        RequireSign methodAnnotation = handlerMethod.getMethodAnnotation(RequireSign.class);
-        RequireSign classAnnotation = handlerMethod.getBeanType().getAnnotation(RequireSign.class);
-
-        if (methodAnnotation == null && classAnnotation == null) {
-            // 没有 @RequireSign 注解，不需要验证
+        // 1~2. 读取缓存的签名策略（@IgnoreSignHeader 优先级最高，其次方法或类上的 @RequireSign）
+        SignPolicyResolver.SignPolicy policy = signPolicyResolver.resolve(handlerMethod);
+        if (!policy.requireSign()) {
             return true;
         }
 
-        // 3. 确定是否需要参数签名（方法注解优先于类注解）
-        boolean withParams = determineWithParams(methodAnnotation, classAnnotation);
+        // 3. 确定是否需要参数签名（方法注解优先于类注解，DEFAULT 读取配置文件）
+        boolean withParams = signPolicyResolver.isWithParams(policy);
 
         // 4. 提取签名相关的 header
         String appCode = request.getHeader(SignConfig.HEADER_APP_CODE);
@@ -139,7 +137,7 @@ public class SignatureInterceptor implements HandlerInterceptor {
 
         // 11. 验证结果处理
         if (isValid) {
-            log.info("签名验证成功 - appCode={}, path={}", appCode, serverPath);
+            log.debug("签名验证成功 - appCode={}, path={}", appCode, serverPath);
             return true;
         } else {
             log.warn("签名验证失败 - appCode={}, path={}, sign={}", appCode, serverPath, sign);
@@ -147,31 +145,6 @@ public class SignatureInterceptor implements HandlerInterceptor {
         }
     }
 
-    /**
-     * 确定是否需要参数签名
-     * <p>
-     * 优先级：方法注解 > 类注解 > 配置文件默认值
-     * </p>
-     *
-     * @param methodAnnotation 方法级别的 @RequireSign 注解
-     * @param classAnnotation  类级别的 @RequireSign 注解
-     * @return true 表示需要参数签名，false 表示不需要
-     */
-    private boolean determineWithParams(RequireSign methodAnnotation, RequireSign classAnnotation) {
-        // 方法注解优先
-        if (methodAnnotation != null && methodAnnotation.withParams() != WithParams.DEFAULT) {
-            return methodAnnotation.withParams() == WithParams.TRUE;
-        }
-
-        // 类注解次之
-        if (classAnnotation != null && classAnnotation.withParams() != WithParams.DEFAULT) {
-            return classAnnotation.withParams() == WithParams.TRUE;
-        }
-
-        // 使用配置文件的默认值
-        return signConfig.isDefaultWithParams();
-    }
-
     /**
      * 从请求中提取参数（支持所有 HTTP 方法）
      * <p>
@@ -182,7 +155,7 @@ public class SignatureInterceptor implements HandlerInterceptor {
      * <p>
      * 优化点：
      * 1. 支持多种 HTTP 方法（GET、POST、PUT、DELETE、PATCH 等）
-     * 2. 使用 TypeReference 进行类型安全的反序列化
+     * 2. 反序列化为 TreeMap，参数已按 ASCII 排序
      * 3. 返回不可变空 Map，防止后续误操作
      * 4. 详细的异常处理和日志记录
      */
@@ -202,6 +175,7 @@ public class SignatureInterceptor implements HandlerInterceptor {
      * 从请求体（body）中提取 JSON 参数
      * <p>
      * 从 CachedBodyHttpServletRequest 中读取已缓存的 body（由 CachedBodyFilter 缓存）
+     * 直接解析缓存的字节，不先解码为字符串；解析结果缓存在请求上，同一请求只解析一次
      */
     private Map<String, Object> extractFromBody(HttpServletRequest request) {
         // 从包装的请求中提取 CachedBodyHttpServletRequest
@@ -211,19 +185,12 @@ public class SignatureInterceptor implements HandlerInterceptor {
             return Collections.emptyMap();
         }
 
-        String body = cachedRequest.getCachedBody();
-        if (StringUtils.isBlank(body)) {
-            log.debug("Request body is empty");
-            return Collections.emptyMap();
-        }
-
         try {
-            // 使用 TypeReference 进行类型安全的反序列化
-            Map<String, Object> params = objectMapper.readValue(body, new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> params = cachedRequest.getJsonParams(sortedMapReader);
             log.debug("Extracted {} parameters from request body", params.size());
             return params;
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to parse request body to JSON. Body: {}", body, e);
+        } catch (IOException e) {
+            log.warn("Failed to parse request body to JSON. Body length: {}", cachedRequest.getContentLengthLong(), e);
             return Collections.emptyMap();
         }
     }
@@ -264,8 +231,8 @@ public class SignatureInterceptor implements HandlerInterceptor {
             return Collections.emptyMap();
         }
 
-        // 将 String[] 转换为单值（取第一个值）
-        Map<String, Object> params = new HashMap<>();
+        // 将 String[] 转换为单值（取第一个值），TreeMap 保持 ASCII 排序
+        Map<String, Object> params = new TreeMap<>();
         for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
             String key = entry.getKey();
             String[] values = entry.getValue();
@@ -283,4 +250,5 @@ public class SignatureInterceptor implements HandlerInterceptor {
         log.debug("Extracted {} parameters from query string", params.size());
         return params;
     }
+
 }
@@ -0,0 +1,402 @@
+package com.microwind.knife.utils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * 编译后的 CIDR 网段索引（IPv4 / IPv6）
+ * <p>
+ * 构建时把所有网段展开为互不重叠、按起始地址排序的区间，保存在原始 long 数组中；
+ * 查询时二分查找，时间复杂度 O(log n)：
+ * <ul>
+ *   <li>IPv4 地址手工解析为 long，查询过程零分配</li>
+ *   <li>IPv6 地址按高 / 低 64 位两个 long 比较（无符号）</li>
+ *   <li>网段重叠时，与逐条遍历的语义一致：返回配置顺序中第一个匹配的网段</li>
+ *   <li>格式错误的 CIDR 在构建时跳过并记录在 {@link #getInvalidCidrs()}，不会在每次查询时重复解析</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 实例不可变，可在多线程间共享；配置变化时重新构建并整体替换引用
+ * </p>
+ *
+ * @param <T> 网段附带的数据（如省市信息）
+ */
+public final class CidrIndex<T> {
+
+    private static final BigInteger IPV4_MAX = BigInteger.ONE.shiftLeft(32).subtract(BigInteger.ONE);
+    private static final BigInteger IPV6_MAX = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE);
+    private static final BigInteger LONG_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    private final Intervals ipv4;
+    private final Intervals ipv6;
+    private final Object[] values;
+    private final int rangeCount;
+    private final List<String> invalidCidrs;
+
+    private CidrIndex(Intervals ipv4, Intervals ipv6, Object[] values, int rangeCount, List<String> invalidCidrs) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+        this.values = values;
+        this.rangeCount = rangeCount;
+        this.invalidCidrs = invalidCidrs;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param cidrs  CIDR 列表（如 10.1.0.0/16、2001:db8::/32，单个地址可省略前缀长度）
+     * @param values 与 cidrs 一一对应的附带数据
+     * @return 索引
+     */
+    public static <T> CidrIndex<T> build(List<String> cidrs, List<T> values) {
+        if (cidrs.size() != values.size()) {
+            throw new IllegalArgumentException("cidrs 与 values 数量不一致");
+        }
+        List<Range> v4 = new ArrayList<>();
+        List<Range> v6 = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        for (int i = 0; i < cidrs.size(); i++) {
+            Range range = parseCidr(cidrs.get(i), i);
+            if (range == null) {
+                invalid.add(cidrs.get(i));
+            } else {
+                (range.ipv6 ? v6 : v4).add(range);
+            }
+        }
+        return new CidrIndex<>(compile(v4), compile(v6), values.toArray(),
+                v4.size() + v6.size(), List.copyOf(invalid));
+    }
+
+    /**
+     * 查询 IP 所在的网段
+     *
+     * @param ip IPv4 或 IPv6 地址
+     * @return 第一个匹配网段的附带数据，不匹配或 IP 格式错误返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public T lookup(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        int index;
+        if (ip.indexOf(':') < 0) {
+            long address = parseIPv4(ip, 0, ip.length());
+            if (address < 0) {
+                return null;
+            }
+            index = ipv4.find(0L, address);
+        } else {
+            long[] address = parseIPv6(ip);
+            if (address == null) {
+                return null;
+            }
+            index = ipv6.find(address[0], address[1]);
+        }
+        return index < 0 ? null : (T) values[index];
+    }
+
+    /**
+     * 判断 IP 是否在 CIDR 网段内（单次判断，不建索引）
+     *
+     * @param ip   IPv4 或 IPv6 地址
+     * @param cidr CIDR
+     * @return true-在网段内，false-不在网段内或格式错误
+     */
+    public static boolean contains(String cidr, String ip) {
+        return build(List.of(cidr), List.of(Boolean.TRUE)).lookup(ip) != null;
+    }
+
+    /**
+     * 判断是否为合法的 IPv4 / IPv6 地址（不做 DNS 解析）
+     */
+    public static boolean isValidAddress(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        return ip.indexOf(':') < 0 ? parseIPv4(ip, 0, ip.length()) >= 0 : parseIPv6(ip) != null;
+    }
+
+    /**
+     * 有效网段数
+     */
+    public int size() {
+        return rangeCount;
+    }
+
+    /**
+     * 格式错误而被跳过的 CIDR
+     */
+    public List<String> getInvalidCidrs() {
+        return invalidCidrs;
+    }
+
+    // ==================== 构建 ====================
+
+    private record Range(BigInteger start, BigInteger end, int index, boolean ipv6) {
+    }
+
+    /**
+     * 把可能重叠的网段展开为互不重叠的区间，每个区间取覆盖它的网段中配置顺序最靠前的一个
+     */
+    private static Intervals compile(List<Range> ranges) {
+        TreeSet<BigInteger> boundaries = new TreeSet<>();
+        for (Range range : ranges) {
+            boundaries.add(range.start);
+            boundaries.add(range.end.add(BigInteger.ONE));
+        }
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing(Range::start));
+
+        List<BigInteger[]> segments = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        PriorityQueue<Range> active = new PriorityQueue<>(Comparator.comparingInt(Range::index));
+        int next = 0;
+        BigInteger point = boundaries.isEmpty() ? null : boundaries.first();
+        while (point != null) {
+            while (next < sorted.size() && sorted.get(next).start.equals(point)) {
+                active.add(sorted.get(next++));
+            }
+            while (!active.isEmpty() && active.peek().end.compareTo(point) < 0) {
+                active.poll();
+            }
+            BigInteger following = boundaries.higher(point);
+            if (!active.isEmpty() && following != null) {
+                BigInteger end = following.subtract(BigInteger.ONE);
+                int owner = active.peek().index;
+                int last = segments.size() - 1;
+                if (last >= 0 && owners.get(last) == owner
+                        && segments.get(last)[1].add(BigInteger.ONE).equals(point)) {
+                    segments.get(last)[1] = end;
+                } else {
+                    segments.add(new BigInteger[]{point, end});
+                    owners.add(owner);
+                }
+            }
+            point = following;
+        }
+
+        int n = segments.size();
+        Intervals intervals = new Intervals(n);
+        for (int i = 0; i < n; i++) {
+            BigInteger start = segments.get(i)[0];
+            BigInteger end = segments.get(i)[1];
+            intervals.startHi[i] = start.shiftRight(64).longValue();
+            intervals.startLo[i] = start.and(LONG_MASK).longValue();
+            intervals.endHi[i] = end.shiftRight(64).longValue();
+            intervals.endLo[i] = end.and(LONG_MASK).longValue();
+            intervals.owners[i] = owners.get(i);
+        }
+        return intervals;
+    }
+
+    private static Range parseCidr(String cidr, int index) {
+        if (cidr == null) {
+            return null;
+        }
+        String value = cidr.trim();
+        int slash = value.indexOf('/');
+        String address = slash < 0 ? value : value.substring(0, slash);
+        boolean ipv6 = address.indexOf(':') >= 0;
+        int bits = ipv6 ? 128 : 32;
+
+        BigInteger base;
+        if (ipv6) {
+            long[] parsed = parseIPv6(address);
+            if (parsed == null) {
+                return null;
+            }
+            base = toUnsigned(parsed[0]).shiftLeft(64).or(toUnsigned(parsed[1]));
+        } else {
+            long parsed = parseIPv4(address, 0, address.length());
+            if (parsed < 0) {
+                return null;
+            }
+            base = BigInteger.valueOf(parsed);
+        }
+
+        int prefix = bits;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(value.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (prefix < 0 || prefix > bits) {
+                return null;
+            }
+        }
+
+        // 与 SubnetUtils 一致：网络地址取掩码后的地址（如 10.1.9.223/22 -> 10.1.8.0 ~ 10.1.11.255）
+        BigInteger max = ipv6 ? IPV6_MAX : IPV4_MAX;
+        BigInteger hostMask = BigInteger.ONE.shiftLeft(bits - prefix).subtract(BigInteger.ONE);
+        BigInteger start = base.and(max.xor(hostMask));
+        return new Range(start, start.or(hostMask), index, ipv6);
+    }
+
+    private static BigInteger toUnsigned(long value) {
+        return BigInteger.valueOf(value).and(LONG_MASK);
+    }
+
+    // ==================== 地址解析 ====================
+
+    /**
+     * 解析 IPv4 地址的 [from, to) 部分
+     *
+     * @return 32 位无符号地址，格式错误返回 -1
+     */
+    private static long parseIPv4(String ip, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    /**
+     * 解析 IPv6 地址（支持 :: 缩写和末尾内嵌 IPv4）
+     *
+     * @return {高 64 位, 低 64 位}，格式错误返回 null
+     */
+    private static long[] parseIPv6(String ip) {
+        int length = ip.length();
+        // 去掉 zone id（如 fe80::1%eth0）
+        int percent = ip.indexOf('%');
+        if (percent >= 0) {
+            length = percent;
+        }
+        long[] groups = new long[8];
+        int count = 0;
+        int compressAt = -1;
+        int i = 0;
+        if (length >= 2 && ip.charAt(0) == ':' && ip.charAt(1) == ':') {
+            compressAt = 0;
+            i = 2;
+        }
+        while (i < length) {
+            int start = i;
+            int value = 0;
+            while (i < length && Character.digit(ip.charAt(i), 16) >= 0 && i - start < 4) {
+                value = (value << 4) | Character.digit(ip.charAt(i), 16);
+                i++;
+            }
+            if (i < length && ip.charAt(i) == '.') {
+                // 末尾内嵌 IPv4，占两组
+                long ipv4 = parseIPv4(ip, start, length);
+                if (ipv4 < 0 || count > 6) {
+                    return null;
+                }
+                groups[count++] = ipv4 >>> 16;
+                groups[count++] = ipv4 & 0xFFFF;
+                i = length;
+                break;
+            }
+            if (i == start || count == 8) {
+                return null;
+            }
+            groups[count++] = value;
+            if (i == length) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return null;
+            }
+            i++;
+            if (i < length && ip.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = count;
+                i++;
+            } else if (i == length) {
+                return null;
+            }
+        }
+        if (compressAt >= 0) {
+            if (count == 8) {
+                return null;
+            }
+            int tail = count - compressAt;
+            System.arraycopy(groups, compressAt, groups, 8 - tail, tail);
+            for (int g = compressAt; g < 8 - tail; g++) {
+                groups[g] = 0;
+            }
+        } else if (count != 8) {
+            return null;
+        }
+        long hi = (groups[0] << 48) | (groups[1] << 32) | (groups[2] << 16) | groups[3];
+        long lo = (groups[4] << 48) | (groups[5] << 32) | (groups[6] << 16) | groups[7];
+        return new long[]{hi, lo};
+    }
+
+    // ==================== 区间数组 ====================
+
+    /**
+     * 按起始地址排序、互不重叠的区间（128 位地址拆为高 / 低两个 long，IPv4 高位为 0）
+     */
+    private static final class Intervals {
+        private final long[] startHi;
+        private final long[] startLo;
+        private final long[] endHi;
+        private final long[] endLo;
+        private final int[] owners;
+
+        Intervals(int size) {
+            this.startHi = new long[size];
+            this.startLo = new long[size];
+            this.endHi = new long[size];
+            this.endLo = new long[size];
+            this.owners = new int[size];
+        }
+
+        /**
+         * 二分查找包含地址的区间
+         *
+         * @return 网段序号，未找到返回 -1
+         */
+        int find(long hi, long lo) {
+            int low = 0;
+            int high = owners.length - 1;
+            int candidate = -1;
+            // 找到最后一个起始地址 <= 目标地址的区间
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(startHi[mid], startLo[mid], hi, lo) <= 0) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (candidate >= 0 && compare(hi, lo, endHi[candidate], endLo[candidate]) <= 0) {
+                return owners[candidate];
+            }
+            return -1;
+        }
+
+        private static int compare(long aHi, long aLo, long bHi, long bLo) {
+            int result = Long.compareUnsigned(aHi, bHi);
+            return result != 0 ? result : Long.compareUnsigned(aLo, bLo);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.microwind.knife.utils;
 
-import org.apache.commons.net.util.SubnetUtils;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -20,15 +19,9 @@ public class IPUtil {
         return false;
     }
 
-    // 根据IP地址是否在某个IP段内
+    // 根据IP地址是否在某个IP段内（包含网络地址和广播地址，支持 IPv6）
+    // 批量网段请使用 CidrIndex 预先编译，避免每次重新解析 CIDR
     public boolean isInRange(String ip, String cidr) {
-        try {
-            SubnetUtils utils = new SubnetUtils(cidr);
-            utils.setInclusiveHostCount(true); // 包含网络地址和广播地址
-            return utils.getInfo().isInRange(ip);
-        } catch (Exception e) {
-            System.err.println("CIDR格式错误: " + cidr + ", 错误: " + e.getMessage());
-            return false;
-        }
+        return CidrIndex.contains(cidr, ip);
     }
 }
\ No newline at end of file
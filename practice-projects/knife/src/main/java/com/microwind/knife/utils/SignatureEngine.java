@@ -0,0 +1,297 @@
+package com.microwind.knife.utils;
+
+import org.bouncycastle.crypto.digests.SM3Digest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 签名摘要引擎 - 复用线程内的摘要实例，增量计算签名
+ * <p>
+ * 与 {@code DigestUtils.sha256Hex(a + b + c)} 的结果完全一致，但：
+ * <ul>
+ *   <li>每个线程每种算法只创建一次 MessageDigest / SM3Digest，避免每次签名查找 Provider</li>
+ *   <li>签名源各部分直接以 UTF-8 编码写入摘要，不再拼接中间字符串</li>
+ *   <li>校验时按常量时间比较摘要与十六进制签名，不生成期望签名字符串</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 用法：
+ * <pre>
+ * byte[] digest = SignatureEngine.hasher(Algorithm.SHA256)
+ *         .update(appCode).update(secretKey).update(path).update(timestamp)
+ *         .digest();
+ * boolean valid = SignatureEngine.matchesHex(digest, signValue);
+ * </pre>
+ * 注意：{@link #hasher} 返回的是当前线程复用的实例，在调用 {@link Hasher#digest()} 之前不要再次获取同一算法的 Hasher
+ * </p>
+ *
+ * @author jarry
+ * @since 1.0.0
+ */
+public final class SignatureEngine {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Hasher[]> HASHERS =
+            ThreadLocal.withInitial(() -> new Hasher[SignatureUtil.Algorithm.values().length]);
+
+    private SignatureEngine() {
+    }
+
+    /**
+     * 获取当前线程复用的 Hasher（已重置）
+     *
+     * @param algorithm 签名算法
+     * @return Hasher
+     */
+    public static Hasher hasher(SignatureUtil.Algorithm algorithm) {
+        Hasher[] hashers = HASHERS.get();
+        Hasher hasher = hashers[algorithm.ordinal()];
+        if (hasher == null) {
+            hasher = new Hasher(createDigest(algorithm));
+            hashers[algorithm.ordinal()] = hasher;
+        } else {
+            hasher.reset();
+        }
+        return hasher;
+    }
+
+    /**
+     * 计算字符串的摘要并返回十六进制小写字符串
+     */
+    public static String digestHex(SignatureUtil.Algorithm algorithm, String input) {
+        return toHex(hasher(algorithm).update(input).digest());
+    }
+
+    public static String sha256Hex(String input) {
+        return digestHex(SignatureUtil.Algorithm.SHA256, input);
+    }
+
+    public static String sm3Hex(String input) {
+        return digestHex(SignatureUtil.Algorithm.SM3, input);
+    }
+
+    /**
+     * 摘要转十六进制小写字符串
+     */
+    public static String toHex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            int b = digest[i] & 0xFF;
+            chars[i * 2] = HEX_DIGITS[b >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 常量时间比较摘要与十六进制签名（与小写十六进制字符串 equals 语义一致）
+     * <p>
+     * 比较耗时只与摘要长度有关，不会因签名前缀匹配的长短泄露信息
+     * </p>
+     *
+     * @param digest 计算得到的摘要
+     * @param hex    请求中携带的签名
+     * @return true-一致，false-不一致
+     */
+    public static boolean matchesHex(byte[] digest, String hex) {
+        if (hex == null || hex.length() != digest.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < digest.length; i++) {
+            int b = digest[i] & 0xFF;
+            diff |= HEX_DIGITS[b >>> 4] ^ hex.charAt(i * 2);
+            diff |= HEX_DIGITS[b & 0x0F] ^ hex.charAt(i * 2 + 1);
+        }
+        return diff == 0;
+    }
+
+    private static DigestFunction createDigest(SignatureUtil.Algorithm algorithm) {
+        return switch (algorithm) {
+            case MD5 -> new JdkDigest("MD5");
+            case SHA1 -> new JdkDigest("SHA-1");
+            case SHA256 -> new JdkDigest("SHA-256");
+            case SM3 -> new Sm3Digest();
+        };
+    }
+
+    /**
+     * 增量摘要计算器（线程内复用，非线程安全）
+     */
+    public static final class Hasher {
+        // UTF-8 编码缓冲区，写满后批量送入摘要
+        private final byte[] buffer = new byte[256];
+        private final DigestFunction digest;
+        private int position;
+
+        private Hasher(DigestFunction digest) {
+            this.digest = digest;
+        }
+
+        /**
+         * 写入字符串（UTF-8 编码，null 按 "null" 写入，与字符串拼接语义一致）
+         */
+        public Hasher update(String value) {
+            if (value == null) {
+                return update("null");
+            }
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | (c >> 6)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put((byte) (0xF0 | (codePoint >> 18)));
+                    put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    put((byte) (0x80 | (codePoint & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    // 与 String.getBytes(UTF_8) 一致：不成对的代理字符替换为 '?'
+                    put((byte) '?');
+                } else {
+                    put((byte) (0xE0 | (c >> 12)));
+                    put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 写入单个 ASCII 字符（如分隔符 '&'、'='）
+         */
+        public Hasher update(char asciiChar) {
+            if (asciiChar >= 0x80) {
+                return update(String.valueOf(asciiChar));
+            }
+            put((byte) asciiChar);
+            return this;
+        }
+
+        /**
+         * 写入整数的十进制表示
+         */
+        public Hasher update(long value) {
+            if (value < 0) {
+                return update(Long.toString(value));
+            }
+            if (position + 20 > buffer.length) {
+                flush();
+            }
+            int digits = 1;
+            for (long v = value; v >= 10; v /= 10) {
+                digits++;
+            }
+            int end = position + digits;
+            for (int i = end - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + (value % 10));
+                value /= 10;
+            }
+            position = end;
+            return this;
+        }
+
+        /**
+         * 写入对象（null 按 "null" 写入，Long/Integer 不生成中间字符串）
+         */
+        public Hasher update(Object value) {
+            if (value instanceof String s) {
+                return update(s);
+            }
+            if (value instanceof Long || value instanceof Integer) {
+                return update(((Number) value).longValue());
+            }
+            return update(String.valueOf(value));
+        }
+
+        /**
+         * 完成计算并返回摘要，之后 Hasher 可重新使用
+         */
+        public byte[] digest() {
+            flush();
+            return digest.doFinal();
+        }
+
+        private void put(byte b) {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = b;
+        }
+
+        private void flush() {
+            if (position > 0) {
+                digest.update(buffer, position);
+                position = 0;
+            }
+        }
+
+        private void reset() {
+            position = 0;
+            digest.reset();
+        }
+    }
+
+    private interface DigestFunction {
+        void update(byte[] input, int length);
+
+        byte[] doFinal();
+
+        void reset();
+    }
+
+    private static final class JdkDigest implements DigestFunction {
+        private final MessageDigest messageDigest;
+
+        JdkDigest(String algorithm) {
+            try {
+                this.messageDigest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(algorithm + " algorithm not available", e);
+            }
+        }
+
+        @Override
+        public void update(byte[] input, int length) {
+            messageDigest.update(input, 0, length);
+        }
+
+        @Override
+        public byte[] doFinal() {
+            return messageDigest.digest();
+        }
+
+        @Override
+        public void reset() {
+            messageDigest.reset();
+        }
+    }
+
+    private static final class Sm3Digest implements DigestFunction {
+        private final SM3Digest sm3 = new SM3Digest();
+
+        @Override
+        public void update(byte[] input, int length) {
+            sm3.update(input, 0, length);
+        }
+
+        @Override
+        public byte[] doFinal() {
+            byte[] out = new byte[sm3.getDigestSize()];
+            sm3.doFinal(out, 0);
+            return out;
+        }
+
+        @Override
+        public void reset() {
+            sm3.reset();
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package com.microwind.knife.utils;
 
-import cn.hutool.crypto.SmUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * 签名工具类 - 提供 MD5、SHA1、SHA256 和 SM3 签名功能
@@ -32,28 +30,22 @@ public class SignatureUtil {
             throw new IllegalArgumentException("签名算法不能为空");
         }
 
-        // 构建签名源字符串（确保非null）
-        String signatureSource = buildSignatureSource(parameters);
-        if (appCode != null && !appCode.isEmpty()) {
-            signatureSource += appCode;
-        }
-        signatureSource += secretKey;
-        if (time != null) {
-            signatureSource += time;
-        }
-        log.info("[SignatureUtil.sign] 签名算法:（{}） 源字符串:{}", algorithm.name(), signatureSource);
-
-        // 按算法生成签名（统一UTF-8编码）
-        byte[] sourceBytes = signatureSource.getBytes(StandardCharsets.UTF_8);
+        // 签名源：参数字符串 + appCode + secretKey + time，各部分直接写入摘要，不拼接中间字符串
+        log.debug("[SignatureUtil.sign] 签名算法:（{}） 参数个数:{}", algorithm.name(), parameters.size());
         try {
-            return switch (algorithm) {
-                case MD5 -> DigestUtils.md5Hex(sourceBytes);
-                case SHA1 -> DigestUtils.sha1Hex(sourceBytes);
-                case SHA256 -> DigestUtils.sha256Hex(sourceBytes);
-                case SM3 -> SmUtil.sm3(Arrays.toString(sourceBytes)); // 直接传入字节数组，避免编码问题
-            };
+            SignatureEngine.Hasher hasher = SignatureEngine.hasher(algorithm);
+            appendSignatureSource(parameters, hasher);
+            if (appCode != null && !appCode.isEmpty()) {
+                hasher.update(appCode);
+            }
+            hasher.update(secretKey);
+            if (time != null) {
+                hasher.update(time.longValue());
+            }
+            // 统一UTF-8编码，SM3 与其他算法一样直接对源字符串的字节计算
+            return SignatureEngine.toHex(hasher.digest());
         } catch (Exception e) {
-            log.error("{} 签名计算失败，签名源: {}", algorithm.name(), signatureSource, e);
+            log.error("{} 签名计算失败", algorithm.name(), e);
             throw new RuntimeException("签名算法执行失败: " + algorithm.name(), e);
         }
     }
@@ -96,12 +88,48 @@ public class SignatureUtil {
         if (parameters.isEmpty()) {
             return "";
         }
-        // 按字典序排序参数键
-        List<String> sortedKeys = new ArrayList<>(parameters.keySet());
-        Collections.sort(sortedKeys);
-
         StringBuilder signatureBuilder = new StringBuilder();
-        boolean first = true;
+        forEachSignatureParam(parameters, (key, value) -> {
+            if (signatureBuilder.length() > 0) {
+                signatureBuilder.append("&");
+            }
+            signatureBuilder.append(key).append("=").append(value);
+        });
+
+        log.debug("[SignatureUtil.buildSignatureSource] 签名源字符串: {}", signatureBuilder);
+        return signatureBuilder.toString();
+    }
+
+    /**
+     * 将签名源字符串直接写入摘要（规则与 buildSignatureSource 相同，不生成中间字符串）
+     */
+    public static void appendSignatureSource(Map<String, Object> parameters, SignatureEngine.Hasher hasher) {
+        if (parameters == null || parameters.isEmpty()) {
+            return;
+        }
+        boolean[] first = {true};
+        forEachSignatureParam(parameters, (key, value) -> {
+            if (!first[0]) {
+                hasher.update('&');
+            }
+            first[0] = false;
+            hasher.update(key).update('=').update(value);
+        });
+    }
+
+    /**
+     * 按字典序遍历参与签名的参数（跳过 null、空串和复杂类型）
+     * 已按自然顺序排序的 SortedMap 直接遍历，不再复制排序
+     */
+    private static void forEachSignatureParam(Map<String, Object> parameters, BiConsumer<String, String> consumer) {
+        Iterable<String> sortedKeys;
+        if (parameters instanceof SortedMap<String, Object> sortedMap && sortedMap.comparator() == null) {
+            sortedKeys = sortedMap.keySet();
+        } else {
+            List<String> keys = new ArrayList<>(parameters.keySet());
+            Collections.sort(keys);
+            sortedKeys = keys;
+        }
 
         for (String key : sortedKeys) {
             Object paramValue = parameters.get(key);
@@ -116,16 +144,8 @@ public class SignatureUtil {
             if (valueStr.isEmpty()) {
                 continue;
             }
-
-            if (!first) {
-                signatureBuilder.append("&");
-            }
-            first = false;
-            signatureBuilder.append(key).append("=").append(valueStr);
+            consumer.accept(key, valueStr);
         }
-
-        log.info("[SignatureUtil.buildSignatureSource] 签名源字符串: {}", signatureBuilder);
-        return signatureBuilder.toString();
     }
 
     /**
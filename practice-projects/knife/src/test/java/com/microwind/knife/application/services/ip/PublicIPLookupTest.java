@@ -0,0 +1,124 @@
+package com.microwind.knife.application.services.ip;
+
+import com.microwind.knife.domain.ip.IPRegion;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 公网 IP 查询客户端与缓存测试
+ * <p>
+ * 使用本地 HttpServer 模拟公网 IP 归属地服务，不访问外部网络：
+ * - /ok?ip=...    返回归属地数据
+ * - /error?ip=... 返回 503
+ * </p>
+ */
+public class PublicIPLookupTest {
+
+    private HttpServer server;
+    private PublicIPClient okClient;
+    private PublicIPClient errorClient;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String ip = exchange.getRequestURI().getQuery().substring("ip=".length());
+            byte[] body = ("{\"code\":200,\"data\":{\"province\":\"江苏省\",\"city\":\"南京市\",\"district\":\"\",\"ip\":\""
+                    + ip + "\"},\"msg\":\"ok\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/error", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        okClient = new PublicIPClient(baseUrl + "/ok", 1000, 3000, 20, 20);
+        errorClient = new PublicIPClient(baseUrl + "/error", 1000, 3000, 20, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        okClient.close();
+        errorClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("客户端解析归属地并透传上游错误码")
+    void testClient() {
+        IPRegion region = okClient.lookup("8.8.8.8").join();
+        assertEquals("江苏省", region.getProvince());
+        assertEquals("南京市", region.getCity());
+        assertEquals("中国", region.getCountry());
+        assertEquals("8.8.8.8", region.getIp());
+
+        CompletionException e = assertThrows(CompletionException.class, () -> errorClient.lookup("8.8.8.8").join());
+        PublicIPClient.LookupException cause = assertInstanceOf(PublicIPClient.LookupException.class, e.getCause());
+        assertEquals(503, cause.getCode());
+    }
+
+    @Test
+    @DisplayName("同一 IP 并发查询只请求一次上游，之后命中缓存")
+    void testSingleFlight() {
+        PublicIPCache cache = new PublicIPCache(okClient::lookup, 100, 60000, 60000);
+        release = new CountDownLatch(1);
+
+        List<CompletableFuture<IPRegion>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(cache.get("1.2.3.4"));
+        }
+        release.countDown();
+        futures.forEach(future -> assertEquals("1.2.3.4", future.join().getIp()));
+        assertEquals("1.2.3.4", cache.get("1.2.3.4").join().getIp());
+        assertEquals(1, requestCount.get());
+
+        // 不同 IP 各请求一次
+        cache.get("5.6.7.8").join();
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    @DisplayName("失败结果按否定 TTL 缓存，过期后重新查询")
+    void testNegativeCaching() throws Exception {
+        PublicIPCache cache = new PublicIPCache(errorClient::lookup, 100, 60000, 200);
+
+        assertThrows(CompletionException.class, () -> cache.get("1.2.3.4").join());
+        assertThrows(CompletionException.class, () -> cache.get("1.2.3.4").join());
+        assertEquals(1, requestCount.get());
+
+        Thread.sleep(300);
+        assertThrows(CompletionException.class, () -> cache.get("1.2.3.4").join());
+        assertEquals(2, requestCount.get());
+    }
+}
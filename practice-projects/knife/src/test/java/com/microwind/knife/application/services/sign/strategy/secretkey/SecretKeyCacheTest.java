@@ -0,0 +1,126 @@
+package com.microwind.knife.application.services.sign.strategy.secretkey;
+
+import com.microwind.knife.application.config.SignConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 秘钥缓存测试
+ * <p>
+ * 验证秘钥条目按 expire_time 截止、否定结果缓存（含加载时已过期的秘钥、negativeTtl 为 0）的加载次数，
+ * 以及 appCode 为 null 时绕过缓存
+ * </p>
+ */
+public class SecretKeyCacheTest {
+
+    private final SecretKeyCache cache = new SecretKeyCache(new SignConfig());
+
+    @Test
+    @DisplayName("秘钥到达 expire_time 后不再从缓存返回，重新加载得到否定结果")
+    void testExpiredSecretKeyIsReloaded() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        LocalDateTime expireTime = LocalDateTime.now().plusNanos(300_000_000L);
+        // 数据库查询带 expire_time > now 条件，过期后查不到应用
+        Supplier<SecretKeyEntry> loader = () -> {
+            loads.incrementAndGet();
+            if (!LocalDateTime.now().isBefore(expireTime)) {
+                throw new IllegalArgumentException("应用不存在，appCode：app-1");
+            }
+            return new SecretKeyEntry("secret-1", expireTime);
+        };
+
+        assertEquals("secret-1", cache.getSecretKey("app-1", loader));
+        assertEquals("secret-1", cache.getSecretKey("app-1", loader));
+        assertEquals(1, loads.get());
+
+        Thread.sleep(400);
+        assertThrows(IllegalArgumentException.class, () -> cache.getSecretKey("app-1", loader));
+        assertEquals(2, loads.get());
+        // 否定结果在 negativeTtl 内缓存
+        assertThrows(IllegalArgumentException.class, () -> cache.getSecretKey("app-1", loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("加载到的秘钥已过期时按否定结果缓存，negativeTtl 内不再查询")
+    void testAlreadyExpiredSecretKeyIsCachedAsNegative() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<SecretKeyEntry> loader = () -> {
+            loads.incrementAndGet();
+            return new SecretKeyEntry("secret-3", LocalDateTime.now().minusMinutes(1));
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> cache.getSecretKey("app-3", loader));
+        assertEquals(1, loads.get());
+        assertThrows(IllegalArgumentException.class, () -> cache.getSecretKey("app-3", loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("negativeTtl 为 0 时不缓存否定结果，每次请求只查询一次")
+    void testZeroNegativeTtl() {
+        SignConfig signConfig = new SignConfig();
+        signConfig.getSecretKeyCache().setNegativeTtl(0L);
+        SecretKeyCache noNegativeCache = new SecretKeyCache(signConfig);
+
+        AtomicInteger unknownLoads = new AtomicInteger();
+        Supplier<SecretKeyEntry> unknown = () -> {
+            unknownLoads.incrementAndGet();
+            throw new IllegalArgumentException("应用不存在，appCode：app-4");
+        };
+        AtomicInteger expiredLoads = new AtomicInteger();
+        Supplier<SecretKeyEntry> expired = () -> {
+            expiredLoads.incrementAndGet();
+            return new SecretKeyEntry("secret-5", LocalDateTime.now().minusMinutes(1));
+        };
+
+        for (int i = 1; i <= 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> noNegativeCache.getSecretKey("app-4", unknown));
+            assertEquals(i, unknownLoads.get());
+            assertThrows(IllegalArgumentException.class, () -> noNegativeCache.getSecretKey("app-5", expired));
+            assertEquals(i, expiredLoads.get());
+        }
+        assertEquals(0L, ((Map<?, ?>) noNegativeCache.getStats().get("secretKey")).get("size"));
+        // 成功结果不受影响，仍然缓存
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("secret-6", noNegativeCache.getSecretKey("app-6", () -> {
+                loads.incrementAndGet();
+                return new SecretKeyEntry("secret-6", null);
+            }));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("未设置过期时间的秘钥在 TTL 内命中缓存")
+    void testSecretKeyWithoutExpireTime() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("secret-2", cache.getSecretKey("app-2", () -> {
+                loads.incrementAndGet();
+                return new SecretKeyEntry("secret-2", null);
+            }));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("appCode 为 null 时直接查询，不进入缓存")
+    void testNullAppCode() {
+        AtomicInteger loads = new AtomicInteger();
+        assertThrows(IllegalArgumentException.class, () -> cache.getSecretKey(null, () -> {
+            loads.incrementAndGet();
+            throw new IllegalArgumentException("应用不存在，appCode：null");
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(0L, ((Map<?, ?>) cache.getStats().get("secretKey")).get("size"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.microwind.knife.infrastructure.logging;
+
+import com.microwind.knife.application.config.AccessLogConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 访问日志记录器测试
+ * <p>
+ * 验证环形缓冲区在并发写入下不丢不重、缓冲区满时的丢弃策略、文件滚动以及延迟直方图
+ * </p>
+ */
+public class AccessLogRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AccessLogConfig config(Path file) {
+        AccessLogConfig config = new AccessLogConfig();
+        config.setFile(file.toString());
+        return config;
+    }
+
+    @Test
+    @DisplayName("多线程并发记录，block 策略下全部写入文件")
+    void testConcurrentRecord() throws Exception {
+        Path file = tempDir.resolve("access.log");
+        AccessLogConfig config = config(file);
+        config.setBufferSize(256);
+        config.setBatchSize(64);
+        config.setFlushInterval(1L);
+        config.setOverflowPolicy(AccessLogConfig.OVERFLOW_BLOCK);
+        config.setBlockTimeout(10000L);
+        AccessLogRecorder recorder = new AccessLogRecorder(config);
+
+        int threads = 8;
+        int perThread = 5000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    recorder.record(System.currentTimeMillis(), "GET", "/api/t" + id + "/" + i, "/api/t" + id + "/{i}",
+                            200, TimeUnit.MICROSECONDS.toNanos(i), -1, 10);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        recorder.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(threads * perThread, lines.size());
+        assertEquals(threads * perThread, lines.stream().distinct().count());
+        assertTrue(lines.get(0).startsWith("{\"time\":\""));
+
+        Map<String, Object> stats = recorder.getStats();
+        assertEquals(0L, stats.get("dropped"));
+        assertEquals((long) threads * perThread, stats.get("written"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> routes = (Map<String, Object>) stats.get("routes");
+        assertEquals(threads, routes.size());
+    }
+
+    @Test
+    @DisplayName("缓冲区已满时 drop 策略丢弃并计数，不阻塞")
+    void testDropWhenFull() {
+        AccessLogConfig config = config(tempDir.resolve("drop.log"));
+        config.setBufferSize(4);
+        config.setFlushInterval(60000L);
+        AccessLogRecorder recorder = new AccessLogRecorder(config);
+
+        for (int i = 0; i < 100; i++) {
+            recorder.record(System.currentTimeMillis(), "POST", "/api/x", "/api/x", 200, 1000, 0, 0);
+        }
+        Map<String, Object> stats = recorder.getStats();
+        long published = (long) stats.get("published");
+        long dropped = (long) stats.get("dropped");
+        assertEquals(100, published + dropped);
+        assertTrue(dropped > 0);
+        recorder.close();
+    }
+
+    @Test
+    @DisplayName("文件超过大小上限时滚动，只保留 maxHistory 个历史文件")
+    void testRolling() throws Exception {
+        Path file = tempDir.resolve("roll.log");
+        AccessLogConfig config = config(file);
+        config.setBatchSize(1);
+        config.setFlushInterval(1L);
+        config.setMaxFileSize(400L);
+        config.setMaxHistory(2);
+        config.setOverflowPolicy(AccessLogConfig.OVERFLOW_BLOCK);
+        AccessLogRecorder recorder = new AccessLogRecorder(config);
+
+        for (int i = 0; i < 50; i++) {
+            recorder.record(System.currentTimeMillis(), "GET", "/api/roll/" + i, null, 404, 1000, -1, 0);
+        }
+        recorder.close();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(tempDir.resolve("roll.log.1")));
+        assertTrue(Files.exists(tempDir.resolve("roll.log.2")));
+        assertFalse(Files.exists(tempDir.resolve("roll.log.3")));
+        assertTrue(Files.size(file) <= 400);
+    }
+
+    @Test
+    @DisplayName("采样率为 0 时只写入 5xx，直方图仍统计全部请求")
+    void testSampling() throws Exception {
+        Path file = tempDir.resolve("sample.log");
+        AccessLogConfig config = config(file);
+        config.setSampleRate(0.0);
+        AccessLogRecorder recorder = new AccessLogRecorder(config);
+
+        for (int i = 0; i < 10; i++) {
+            recorder.record(System.currentTimeMillis(), "GET", "/api/s", "/api/s", i == 0 ? 503 : 200, 1000, -1, 0);
+        }
+        recorder.close();
+
+        assertEquals(1, Files.readAllLines(file).size());
+        assertEquals(9L, recorder.getStats().get("sampledOut"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> overall = (Map<String, Object>) recorder.getStats().get("overall");
+        assertEquals(10L, overall.get("count"));
+    }
+
+    @Test
+    @DisplayName("延迟直方图分位数落在对应的桶内")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1.024, histogram.percentile(0.5), 1e-9);
+        assertEquals(1.024, histogram.percentile(0.99), 1e-9);
+        assertEquals(100.0, histogram.percentile(1.0), 1e-9);
+        assertEquals(100.0, (double) histogram.snapshot().get("maxMs"), 1e-9);
+    }
+}
@@ -0,0 +1,228 @@
+package com.microwind.knife.infrastructure.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 动态盐值台账测试
+ * <p>
+ * 验证并发消费同一盐值只成功一次、重放被拒绝、落库失败的记录重试、消费记录未落库的条目不被淘汰、
+ * 落库不加入调用方事务
+ * </p>
+ */
+public class DynamicSaltLedgerTest {
+
+    private static final String APP_CODE = "app";
+    private static final String API_PATH = "/api/order";
+
+    /**
+     * 记录落库内容的 Writer，可切换为失败模式
+     */
+    private static class RecordingWriter implements DynamicSaltLedger.Writer {
+        final Set<String> inserted = ConcurrentHashMap.newKeySet();
+        final Set<String> markedUsed = ConcurrentHashMap.newKeySet();
+        volatile boolean failing;
+
+        @Override
+        public void insert(List<DynamicSaltLedger.Entry> entries) {
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            entries.forEach(entry -> inserted.add(entry.getDynamicSalt()));
+        }
+
+        @Override
+        public void markUsed(List<DynamicSaltLedger.Entry> entries) {
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            entries.forEach(entry -> markedUsed.add(entry.getDynamicSalt()));
+        }
+    }
+
+    /**
+     * 模拟绑定在线程上的事务：当前线程开启事务时写入加入该事务，提交前不生效，回滚即丢弃；
+     * 没有事务时直接生效（自动提交）
+     */
+    private static class TransactionalWriter extends RecordingWriter {
+        private final ThreadLocal<List<Runnable>> transaction = new ThreadLocal<>();
+
+        void begin() {
+            transaction.set(new ArrayList<>());
+        }
+
+        void rollback() {
+            transaction.remove();
+        }
+
+        @Override
+        public void insert(List<DynamicSaltLedger.Entry> entries) {
+            List<DynamicSaltLedger.Entry> copy = List.copyOf(entries);
+            execute(() -> super.insert(copy));
+        }
+
+        @Override
+        public void markUsed(List<DynamicSaltLedger.Entry> entries) {
+            List<DynamicSaltLedger.Entry> copy = List.copyOf(entries);
+            execute(() -> super.markUsed(copy));
+        }
+
+        private void execute(Runnable write) {
+            List<Runnable> current = transaction.get();
+            if (current != null) {
+                current.add(write);
+            } else {
+                write.run();
+            }
+        }
+    }
+
+    private static DynamicSaltLedger ledger(RecordingWriter writer, int maxEntries) {
+        // 落库间隔足够长，由测试显式调用 flush
+        return new DynamicSaltLedger(writer, 4, maxEntries, 60000L, 60000L, 8);
+    }
+
+    private static void register(DynamicSaltLedger ledger, String salt) {
+        ledger.register(new DynamicSaltLedger.Entry(APP_CODE, 1L, API_PATH, salt, System.currentTimeMillis(), null));
+    }
+
+    private static DynamicSaltLedger.Result consume(DynamicSaltLedger ledger, String salt) {
+        return ledger.consume(APP_CODE, API_PATH, salt);
+    }
+
+    @Test
+    @DisplayName("多线程并发消费同一盐值只有一次成功，重放被拒绝")
+    void testConcurrentConsume() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        DynamicSaltLedger ledger = ledger(writer, 10000);
+        int salts = 200;
+        int threads = 8;
+        for (int i = 0; i < salts; i++) {
+            register(ledger, "salt-" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger unknown = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < salts; i++) {
+                    DynamicSaltLedger.Result result = consume(ledger, "salt-" + i);
+                    if (result == DynamicSaltLedger.Result.CONSUMED) {
+                        consumed.incrementAndGet();
+                    } else if (result == DynamicSaltLedger.Result.UNKNOWN) {
+                        unknown.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(salts, consumed.get());
+        assertEquals(0, unknown.get());
+        assertEquals(DynamicSaltLedger.Result.REJECTED, consume(ledger, "salt-0"));
+        assertEquals(DynamicSaltLedger.Result.UNKNOWN, consume(ledger, "not-registered"));
+
+        ledger.close();
+        assertEquals(salts, writer.inserted.size());
+        assertEquals(salts, writer.markedUsed.size());
+    }
+
+    @Test
+    @DisplayName("落库失败的记录放回写队列，恢复后重试落库")
+    void testFailedWritesAreRetried() {
+        RecordingWriter writer = new RecordingWriter();
+        DynamicSaltLedger ledger = ledger(writer, 10000);
+        writer.failing = true;
+        for (int i = 0; i < 10; i++) {
+            register(ledger, "salt-" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(DynamicSaltLedger.Result.CONSUMED, consume(ledger, "salt-" + i));
+        }
+
+        assertFalse(ledger.flush());
+        assertEquals(15, ledger.getStats().get("pendingWrites"));
+        assertTrue((long) ledger.getStats().get("failedWriteCount") >= 15);
+        assertTrue(writer.inserted.isEmpty());
+
+        writer.failing = false;
+        assertTrue(ledger.flush());
+        assertEquals(0, ledger.getStats().get("pendingWrites"));
+        assertEquals(10, writer.inserted.size());
+        assertEquals(Set.of("salt-0", "salt-1", "salt-2", "salt-3", "salt-4"), writer.markedUsed);
+        ledger.close();
+    }
+
+    @Test
+    @DisplayName("调用方事务回滚不撤销台账落库，被淘汰的已消费盐值在数据库中仍为已使用")
+    void testCallerRollbackDoesNotUndoLedgerWrites() {
+        TransactionalWriter writer = new TransactionalWriter();
+        DynamicSaltLedger ledger = ledger(writer, 4);
+
+        // 模拟 validateAndConsumeSalt 上的事务：台账未命中时在事务内 flush，随后事务回滚
+        writer.begin();
+        register(ledger, "used-0");
+        assertEquals(DynamicSaltLedger.Result.CONSUMED, consume(ledger, "used-0"));
+        assertEquals(DynamicSaltLedger.Result.UNKNOWN, consume(ledger, "other"));
+        assertTrue(ledger.flush());
+        writer.rollback();
+        assertTrue(writer.markedUsed.contains("used-0"));
+
+        // 台账已满，消费记录已提交的条目可以被淘汰，回退到数据库时为已使用
+        for (int i = 0; i < 4; i++) {
+            register(ledger, "fresh-" + i);
+        }
+        assertEquals(DynamicSaltLedger.Result.UNKNOWN, consume(ledger, "used-0"));
+        assertTrue(writer.markedUsed.contains("used-0"));
+        ledger.close();
+    }
+
+    @Test
+    @DisplayName("消费记录未落库的条目不被淘汰，落库后才淘汰")
+    void testUnpersistedConsumptionIsNotEvicted() {
+        RecordingWriter writer = new RecordingWriter();
+        DynamicSaltLedger ledger = ledger(writer, 4);
+        writer.failing = true;
+        for (int i = 0; i < 4; i++) {
+            register(ledger, "used-" + i);
+            assertEquals(DynamicSaltLedger.Result.CONSUMED, consume(ledger, "used-" + i));
+        }
+
+        // 台账已满触发淘汰：消费记录落库失败，已消费的条目保留，重放仍被台账拒绝
+        register(ledger, "fresh-0");
+        for (int i = 0; i < 4; i++) {
+            assertEquals(DynamicSaltLedger.Result.REJECTED, consume(ledger, "used-" + i));
+        }
+        assertEquals(5, ledger.size());
+
+        // 数据库恢复后再次淘汰：消费记录先落库，随后条目可以被淘汰
+        writer.failing = false;
+        register(ledger, "fresh-1");
+        assertEquals(4, writer.markedUsed.size());
+        assertEquals(DynamicSaltLedger.Result.UNKNOWN, consume(ledger, "used-0"));
+        assertTrue((long) ledger.getStats().get("evictedCount") > 0);
+        ledger.close();
+    }
+}
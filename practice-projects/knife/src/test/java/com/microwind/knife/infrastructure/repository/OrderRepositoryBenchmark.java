@@ -0,0 +1,68 @@
+package com.microwind.knife.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * 订单仓储分页查询基准：10 万订单下对比 join / batch 两种模式的耗时
+ * <p>
+ * 类名不以 Test 结尾，不在 surefire 的单元测试范围内，需要时单独运行：
+ * mvn test -Dtest=OrderRepositoryBenchmark
+ * 结果通过 {@link TestReporter} 输出到测试报告
+ * </p>
+ */
+@Tag("benchmark")
+public class OrderRepositoryBenchmark {
+
+    private static final int ORDER_COUNT = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int ROUNDS = 200;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = OrderRepositoryImplTest.createDatabase("order_repository_benchmark", ORDER_COUNT);
+    }
+
+    @Test
+    @DisplayName("10 万订单分页查询耗时：join vs batch")
+    void benchmarkFetchModes(TestReporter reporter) {
+        OrderRepositoryImpl join = new OrderRepositoryImpl(jdbcTemplate, OrderRepositoryImpl.FETCH_MODE_JOIN, 5000);
+        OrderRepositoryImpl batch = new OrderRepositoryImpl(jdbcTemplate, OrderRepositoryImpl.FETCH_MODE_BATCH, 0);
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "orderId");
+
+        // 预热
+        for (int i = 0; i < 50; i++) {
+            join.findAllOrdersWithItems(PageRequest.of(i, PAGE_SIZE, sort));
+            batch.findAllOrdersWithItems(PageRequest.of(i, PAGE_SIZE, sort));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            batch.findAllOrdersWithItems(PageRequest.of(i, PAGE_SIZE, sort));
+        }
+        long batchNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            join.findAllOrdersWithItems(PageRequest.of(i, PAGE_SIZE, sort));
+        }
+        long joinNanos = System.nanoTime() - start;
+
+        reporter.publishEntry(Map.of(
+                "orders", String.valueOf(ORDER_COUNT),
+                "pageSize", String.valueOf(PAGE_SIZE),
+                "rounds", String.valueOf(ROUNDS),
+                "batchMsPerPage", String.format("%.3f", batchNanos / 1e6 / ROUNDS),
+                "joinMsPerPage", String.format("%.3f", joinNanos / 1e6 / ROUNDS)));
+    }
+}
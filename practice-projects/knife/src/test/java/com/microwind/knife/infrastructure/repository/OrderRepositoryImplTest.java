@@ -0,0 +1,194 @@
+package com.microwind.knife.infrastructure.repository;
+
+import com.microwind.knife.application.dto.order.OrderMapper;
+import com.microwind.knife.application.services.order.OrderService;
+import com.microwind.knife.domain.order.Order;
+import com.microwind.knife.domain.order.OrderDomainService;
+import com.microwind.knife.domain.order.OrderItem;
+import com.microwind.knife.interfaces.vo.order.CreateOrderRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单仓储（JdbcTemplate 实现）测试
+ * <p>
+ * 使用 H2 内存库（MySQL 模式）准备 1 万订单，每个订单 0~3 个订单项：
+ * - join 模式与 batch 模式的分页结果一致
+ * - 创建订单写入订单编号并返回自增主键，订单项批量插入，总数缓存随之失效
+ * - 已有主键的订单按主键更新
+ * 两种模式的耗时对比见 {@link OrderRepositoryBenchmark}，不在单元测试中运行
+ * </p>
+ */
+public class OrderRepositoryImplTest {
+
+    private static final int ORDER_COUNT = 10_000;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = createDatabase("order_repository_test", ORDER_COUNT);
+    }
+
+    /**
+     * 创建 H2 内存库（MySQL 模式），准备指定数量的订单，每个订单 0~3 个订单项
+     */
+    static JdbcTemplate createDatabase(String name, int orderCount) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (" +
+                "order_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "order_no VARCHAR(255) UNIQUE, " +
+                "user_id BIGINT NOT NULL, " +
+                "order_name VARCHAR(255) NOT NULL, " +
+                "amount DECIMAL(10,2) NOT NULL, " +
+                "status VARCHAR(50) NOT NULL DEFAULT 'CREATED', " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE order_item (" +
+                "order_item_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "price DOUBLE NOT NULL, " +
+                "product VARCHAR(255), " +
+                "quantity INT NOT NULL, " +
+                "order_id BIGINT, " +
+                "FOREIGN KEY (order_id) REFERENCES orders (order_id))");
+
+        List<Object[]> orders = new ArrayList<>(orderCount);
+        List<Object[]> items = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        for (int i = 1; i <= orderCount; i++) {
+            orders.add(new Object[]{"ORD-" + i, (long) random.nextInt(1000), "order-" + i,
+                    BigDecimal.valueOf(random.nextInt(100000), 2), statuses[random.nextInt(statuses.length)].name()});
+            for (int j = random.nextInt(4); j > 0; j--) {
+                items.add(new Object[]{random.nextInt(10000) / 100.0, "product-" + j, random.nextInt(1, 10), (long) i});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (order_no, user_id, order_name, amount, status) VALUES (?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_item (price, product, quantity, order_id) VALUES (?, ?, ?, ?)", items);
+        return jdbcTemplate;
+    }
+
+    private static OrderRepositoryImpl repository(String fetchMode, long countCacheTtl) {
+        return new OrderRepositoryImpl(jdbcTemplate, fetchMode, countCacheTtl);
+    }
+
+    @Test
+    @DisplayName("join 模式与 batch 模式分页结果一致")
+    void testJoinMatchesBatch() {
+        OrderRepositoryImpl join = repository(OrderRepositoryImpl.FETCH_MODE_JOIN, 5000);
+        OrderRepositoryImpl batch = repository(OrderRepositoryImpl.FETCH_MODE_BATCH, 0);
+
+        List<Pageable> pages = List.of(
+                PageRequest.of(0, 20),
+                PageRequest.of(123, 50, Sort.by(Sort.Direction.DESC, "createdAt", "orderId")),
+                PageRequest.of(7, 100, Sort.by(Sort.Direction.ASC, "amount", "orderId")),
+                PageRequest.of(ORDER_COUNT / 30, 30, Sort.by("orderId")));
+        for (Pageable pageable : pages) {
+            Page<Order> expected = batch.findAllOrdersWithItems(pageable);
+            Page<Order> actual = join.findAllOrdersWithItems(pageable);
+            assertEquals(expected.getTotalElements(), actual.getTotalElements());
+            assertEquals(ids(expected.getContent()), ids(actual.getContent()));
+            for (int i = 0; i < expected.getContent().size(); i++) {
+                assertEquals(sortedItems(expected.getContent().get(i)), sortedItems(actual.getContent().get(i)));
+                assertEquals(expected.getContent().get(i).getAmount(), actual.getContent().get(i).getAmount());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("创建订单写入订单编号并返回自增主键，总数缓存失效，再次保存按主键更新")
+    void testCreateOrder() {
+        OrderRepositoryImpl repository = repository(OrderRepositoryImpl.FETCH_MODE_JOIN, 60000);
+        OrderService orderService = new OrderService(repository, OrderMapper.INSTANCE, new OrderDomainService());
+        long totalBefore = repository.findAllOrders(PageRequest.of(0, 10)).getTotalElements();
+
+        Order order = orderService.createOrder(CreateOrderRequest.builder()
+                .userId(7L)
+                .orderName("create-order")
+                .amount(new BigDecimal("12.50"))
+                .build());
+
+        assertNotNull(order.getOrderId());
+        assertNotNull(order.getOrderNo());
+        Order saved = repository.findByOrderNo(order.getOrderNo()).orElseThrow();
+        assertEquals(order.getOrderId(), saved.getOrderId());
+        assertEquals(7L, saved.getUserId());
+        assertEquals("create-order", saved.getOrderName());
+        assertEquals(0, new BigDecimal("12.50").compareTo(saved.getAmount()));
+        assertEquals(Order.OrderStatus.CREATED, saved.getStatus());
+        assertEquals(totalBefore + 1, repository.findAllOrders(PageRequest.of(0, 10)).getTotalElements());
+
+        // 已有主键：按主键更新，不再新增
+        saved.setOrderName("create-order-updated");
+        repository.save(saved);
+        assertEquals("create-order-updated", repository.findByOrderId(order.getOrderId()).orElseThrow().getOrderName());
+        assertEquals(totalBefore + 1, repository.findAllOrders(PageRequest.of(0, 10)).getTotalElements());
+
+        // 用户 ID 为空时由数据库的非空约束拒绝
+        Order invalid = new Order();
+        invalid.setOrderNo("ORD-NULL-USER");
+        invalid.setOrderName("null-user");
+        invalid.setAmount(BigDecimal.ONE);
+        invalid.setStatus(Order.OrderStatus.CREATED);
+        assertThrows(DataIntegrityViolationException.class, () -> repository.save(invalid));
+    }
+
+    @Test
+    @DisplayName("新增订单时订单项批量插入")
+    void testSaveWithItems() {
+        OrderRepositoryImpl repository = repository(OrderRepositoryImpl.FETCH_MODE_JOIN, 0);
+
+        Order order = new Order();
+        order.setOrderNo("ORD-WITH-ITEMS");
+        order.setUserId(1L);
+        order.setOrderName("batch-items");
+        order.setAmount(new BigDecimal("12.50"));
+        order.setStatus(Order.OrderStatus.CREATED);
+        for (int i = 0; i < 3; i++) {
+            OrderItem item = new OrderItem();
+            item.setProduct("p" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(1.5);
+            order.getItems().add(item);
+        }
+        repository.save(order);
+
+        assertNotNull(order.getOrderId());
+        assertEquals(order.getOrderId(), repository.findByOrderNo("ORD-WITH-ITEMS").orElseThrow().getOrderId());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_item WHERE order_id = ?", Integer.class, order.getOrderId()));
+        assertEquals(3, repository.findAllOrdersWithItems(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "orderId")))
+                .getContent().get(0).getItems().size());
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).toList();
+    }
+
+    private static List<Long> sortedItems(Order order) {
+        return order.getItems().stream()
+                .sorted(Comparator.comparing(OrderItem::getOrderItemId))
+                .map(OrderItem::getOrderItemId)
+                .toList();
+    }
+}
@@ -0,0 +1,225 @@
+package com.microwind.knife.interfaces.controllers.sign;
+
+import com.microwind.knife.application.config.SignConfig;
+import com.microwind.knife.interfaces.annotation.IgnoreSignHeader;
+import com.microwind.knife.interfaces.annotation.RequireSign;
+import com.microwind.knife.interfaces.annotation.WithParams;
+import com.microwind.knife.middleware.SignPolicyResolver;
+import com.microwind.knife.middleware.SignPolicyResolver.SignPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 签名策略解析器测试
+ * <p>
+ * 不启动 Spring 容器，直接构造 HandlerMethod 和 RequestMappingHandlerMapping，验证：
+ * 1. 策略按 (Bean 类型, 方法) 缓存
+ * 2. 继承的方法在不同 Controller 上按各自的类注解解析
+ * 3. 注解优先级：@IgnoreSignHeader > 方法 @RequireSign > 类 @RequireSign > 配置文件默认值
+ * 4. requiresBody 按路由索引判断请求是否需要缓存请求体
+ * </p>
+ */
+public class SignPolicyResolverTest {
+
+    // ==================== 测试用 Controller ====================
+
+    @RequireSign(withParams = WithParams.TRUE)
+    static class ParamsController {
+        public void classDefault() {
+        }
+
+        @RequireSign(withParams = WithParams.FALSE)
+        public void methodFalse() {
+        }
+
+        @RequireSign
+        public void methodDefault() {
+        }
+
+        @IgnoreSignHeader
+        @RequireSign(withParams = WithParams.TRUE)
+        public void ignored() {
+        }
+    }
+
+    @RequireSign
+    static class DefaultController {
+        public void classDefault() {
+        }
+
+        @RequireSign(withParams = WithParams.TRUE)
+        public void methodTrue() {
+        }
+    }
+
+    static class PlainController {
+        public void plain() {
+        }
+    }
+
+    static class BaseController {
+        public void submit() {
+        }
+    }
+
+    @RequireSign(withParams = WithParams.TRUE)
+    static class SignedSubController extends BaseController {
+    }
+
+    @RequireSign(withParams = WithParams.FALSE)
+    static class UnsignedSubController extends BaseController {
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static SignConfig signConfig(boolean defaultWithParams) {
+        SignConfig signConfig = new SignConfig();
+        signConfig.getSignature().setDefaultWithParams(defaultWithParams);
+        return signConfig;
+    }
+
+    private static SignPolicyResolver resolver(SignConfig signConfig) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+        return new SignPolicyResolver(signConfig, context);
+    }
+
+    private static HandlerMethod handler(Object bean, String methodName) throws NoSuchMethodException {
+        Method method = bean.getClass().getMethod(methodName);
+        return new HandlerMethod(bean, method);
+    }
+
+    private static SignPolicy resolve(SignPolicyResolver resolver, Object bean, String methodName) throws Exception {
+        return resolver.resolve(handler(bean, methodName));
+    }
+
+    /**
+     * 构建带路由的解析器：路由注册到 RequestMappingHandlerMapping，并以 requestMappingHandlerMapping 名称放入容器
+     */
+    private static SignPolicyResolver routedResolver(SignConfig signConfig) throws Exception {
+        RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+        register(handlerMapping, new ParamsController(), "classDefault", RequestMethod.POST, "/api/order/submit");
+        register(handlerMapping, new ParamsController(), "methodFalse", RequestMethod.POST, "/api/order/list");
+        register(handlerMapping, new DefaultController(), "classDefault", RequestMethod.POST, "/api/config/save");
+        register(handlerMapping, new SignedSubController(), "submit", RequestMethod.POST, "/orders/{id}");
+        register(handlerMapping, new UnsignedSubController(), "submit", RequestMethod.POST, "/refunds/{id}");
+        register(handlerMapping, new DefaultController(), "methodTrue", RequestMethod.PUT, "/{tenant}/report");
+        register(handlerMapping, new PlainController(), "plain", RequestMethod.POST, "/public/ping");
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getBeanFactory().registerSingleton("requestMappingHandlerMapping", handlerMapping);
+        context.refresh();
+        return new SignPolicyResolver(signConfig, context);
+    }
+
+    private static void register(RequestMappingHandlerMapping handlerMapping, Object bean, String methodName,
+                                 RequestMethod requestMethod, String path) throws NoSuchMethodException {
+        RequestMappingInfo info = RequestMappingInfo.paths(path).methods(requestMethod).build();
+        handlerMapping.registerMapping(info, bean, bean.getClass().getMethod(methodName));
+    }
+
+    private static boolean requiresBody(SignPolicyResolver resolver, String method, String uri) {
+        return resolver.requiresBody(new MockHttpServletRequest(method, uri));
+    }
+
+    // ==================== 策略解析 ====================
+
+    @Test
+    @DisplayName("同一 Bean 类型的同一方法只解析一次，命中缓存返回同一策略实例")
+    void testPolicyIsCached() throws Exception {
+        SignPolicyResolver resolver = resolver(signConfig(false));
+        SignPolicy first = resolve(resolver, new ParamsController(), "classDefault");
+        SignPolicy second = resolve(resolver, new ParamsController(), "classDefault");
+        assertSame(first, second);
+        assertNotSame(first, resolve(resolver, new ParamsController(), "methodFalse"));
+    }
+
+    @Test
+    @DisplayName("继承的方法按各自 Controller 的类注解解析")
+    void testPolicyPerHandlerType() throws Exception {
+        SignPolicyResolver resolver = resolver(signConfig(false));
+        SignPolicy signed = resolve(resolver, new SignedSubController(), "submit");
+        SignPolicy unsigned = resolve(resolver, new UnsignedSubController(), "submit");
+
+        assertEquals(new SignPolicy(true, WithParams.TRUE), signed);
+        assertEquals(new SignPolicy(true, WithParams.FALSE), unsigned);
+        assertFalse(resolve(resolver, new BaseController(), "submit").requireSign());
+    }
+
+    @Test
+    @DisplayName("注解优先级：@IgnoreSignHeader > 方法注解 > 类注解 > 配置文件默认值")
+    void testAnnotationPrecedence() throws Exception {
+        SignPolicyResolver resolver = resolver(signConfig(false));
+
+        // 方法上的 @IgnoreSignHeader 优先于任何 @RequireSign
+        assertFalse(resolve(resolver, new ParamsController(), "ignored").requireSign());
+        // 方法注解覆盖类注解
+        assertEquals(new SignPolicy(true, WithParams.FALSE), resolve(resolver, new ParamsController(), "methodFalse"));
+        assertEquals(new SignPolicy(true, WithParams.TRUE), resolve(resolver, new DefaultController(), "methodTrue"));
+        // 方法注解为 DEFAULT 时继承类注解
+        assertEquals(new SignPolicy(true, WithParams.TRUE), resolve(resolver, new ParamsController(), "methodDefault"));
+        assertEquals(new SignPolicy(true, WithParams.TRUE), resolve(resolver, new ParamsController(), "classDefault"));
+        // 方法和类都为 DEFAULT 时读取配置文件
+        SignPolicy defaultPolicy = resolve(resolver, new DefaultController(), "classDefault");
+        assertEquals(new SignPolicy(true, WithParams.DEFAULT), defaultPolicy);
+        assertFalse(resolver.isWithParams(defaultPolicy));
+        assertTrue(resolver(signConfig(true)).isWithParams(defaultPolicy));
+        // 没有注解不需要签名
+        assertFalse(resolve(resolver, new PlainController(), "plain").requireSign());
+    }
+
+    // ==================== 路由索引 ====================
+
+    @Test
+    @DisplayName("requiresBody：按路由索引匹配请求方法和路径，只有带参数验签的路由需要缓存请求体")
+    void testRequiresBody() throws Exception {
+        SignPolicyResolver resolver = routedResolver(signConfig(false));
+
+        // 精确路径（含末尾斜杠），请求方法不匹配时不需要
+        assertTrue(requiresBody(resolver, "POST", "/api/order/submit"));
+        assertTrue(requiresBody(resolver, "POST", "/api/order/submit/"));
+        assertFalse(requiresBody(resolver, "GET", "/api/order/submit"));
+        // 编码过的路径未命中精确索引，按解码后的第一段匹配
+        assertTrue(requiresBody(resolver, "POST", "/%61pi/order/submit"));
+        // 方法注解关闭参数签名、没有签名注解的路由
+        assertFalse(requiresBody(resolver, "POST", "/api/order/list"));
+        assertFalse(requiresBody(resolver, "POST", "/public/ping"));
+        // 路径变量：按第一段索引
+        assertTrue(requiresBody(resolver, "POST", "/orders/42"));
+        assertFalse(requiresBody(resolver, "POST", "/refunds/42"));
+        // 第一段为路径变量的路由每次都参与匹配
+        assertTrue(requiresBody(resolver, "PUT", "/acme/report"));
+        assertFalse(requiresBody(resolver, "PUT", "/acme/summary"));
+        // 未注册的路径
+        assertFalse(requiresBody(resolver, "POST", "/unknown/path"));
+        // DEFAULT 路由按配置文件默认值判断
+        assertFalse(requiresBody(resolver, "POST", "/api/config/save"));
+        assertTrue(requiresBody(routedResolver(signConfig(true)), "POST", "/api/config/save"));
+    }
+
+    @Test
+    @DisplayName("requiresBody：请求路径去掉 contextPath 后匹配")
+    void testRequiresBodyWithContextPath() throws Exception {
+        SignPolicyResolver resolver = routedResolver(signConfig(false));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/knife/orders/42");
+        request.setContextPath("/knife");
+        assertTrue(resolver.requiresBody(request));
+    }
+
+    @Test
+    @DisplayName("requiresBody：无法获取 RequestMappingHandlerMapping 时保守返回 true")
+    void testRequiresBodyWithoutHandlerMapping() {
+        SignPolicyResolver resolver = resolver(signConfig(false));
+        assertTrue(requiresBody(resolver, "GET", "/anything"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.microwind.knife.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 可重复读取请求包装类测试
+ * <p>
+ * 验证内存缓存与临时文件两种方式下请求体可重复读取、多个流交替读取互不影响、超过上限被拒绝、释放后删除临时文件
+ * </p>
+ */
+public class CachedBodyHttpServletRequestTest {
+
+    private static final ObjectReader MAP_READER = new ObjectMapper().readerFor(TreeMap.class);
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sign/submit-test");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String jsonBody(int padding) {
+        return "{\"name\":\"订单\",\"amount\":12,\"padding\":\"" + "x".repeat(padding) + "\"}";
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("请求体不超过内存阈值时缓存在内存中，可重复读取")
+    void testInMemoryBody() throws IOException {
+        String body = jsonBody(10);
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request(body), 1024, 4096);
+
+        assertFalse(cached.isSpilled());
+        assertNull(cached.getSpillFile());
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, cached.getContentLengthLong());
+        assertEquals(body, read(cached.getInputStream()));
+        assertEquals(body, read(cached.getInputStream()));
+        assertEquals(body, cached.getReader().readLine());
+        assertEquals(body, cached.getCachedBody());
+        assertEquals("订单", cached.getJsonParams(MAP_READER).get("name"));
+        cached.release();
+    }
+
+    @Test
+    @DisplayName("超过内存阈值时写入临时文件，可重复读取，释放后删除临时文件")
+    void testSpilledBody() throws IOException {
+        String body = jsonBody(20_000);
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request(body), 1024, 1024 * 1024);
+
+        assertTrue(cached.isSpilled());
+        Path spillFile = cached.getSpillFile();
+        assertTrue(Files.exists(spillFile));
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, cached.getContentLengthLong());
+        assertEquals(body, read(cached.getInputStream()));
+        assertEquals(body, read(cached.getInputStream()));
+        assertEquals(body, cached.getCachedBody());
+        Map<String, Object> params = cached.getJsonParams(MAP_READER);
+        assertEquals(12, params.get("amount"));
+        assertSame(params, cached.getJsonParams(MAP_READER));
+
+        cached.release();
+        assertFalse(Files.exists(spillFile));
+        assertThrows(IOException.class, () -> cached.getInputStream().read());
+        // 重复释放不抛出异常
+        cached.release();
+    }
+
+    @Test
+    @DisplayName("临时文件上的多个流各自维护读取位置，交替读取互不影响")
+    void testInterleavedSpilledStreams() throws IOException {
+        String body = jsonBody(5_000);
+        byte[] expected = body.getBytes(StandardCharsets.UTF_8);
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request(body), 256, 1024 * 1024);
+        try (InputStream first = cached.getInputStream(); InputStream second = cached.getInputStream()) {
+            byte[] a = new byte[expected.length];
+            byte[] b = new byte[expected.length];
+            int offsetA = 0;
+            int offsetB = 0;
+            while (offsetA < a.length || offsetB < b.length) {
+                if (offsetA < a.length) {
+                    offsetA += first.read(a, offsetA, Math.min(100, a.length - offsetA));
+                }
+                if (offsetB < b.length) {
+                    b[offsetB++] = (byte) second.read();
+                }
+            }
+            assertArrayEquals(expected, a);
+            assertArrayEquals(expected, b);
+            assertEquals(-1, first.read());
+            assertEquals(-1, second.read());
+        } finally {
+            cached.release();
+        }
+    }
+
+    @Test
+    @DisplayName("请求体超过上限时抛出 BodyTooLargeException")
+    void testBodyTooLarge() {
+        assertThrows(CachedBodyHttpServletRequest.BodyTooLargeException.class,
+                () -> new CachedBodyHttpServletRequest(request(jsonBody(100)), 16, 64));
+        assertThrows(CachedBodyHttpServletRequest.BodyTooLargeException.class,
+                () -> new CachedBodyHttpServletRequest(request(jsonBody(10_000)), 1024, 4096));
+    }
+}
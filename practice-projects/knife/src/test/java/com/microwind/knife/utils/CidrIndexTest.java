@@ -0,0 +1,88 @@
+package com.microwind.knife.utils;
+
+import org.apache.commons.net.util.SubnetUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CidrIndex 测试类
+ * <p>
+ * 校验编译后的索引与逐条使用 SubnetUtils 判断的结果一致（包括网段重叠时取第一个匹配）
+ * </p>
+ */
+public class CidrIndexTest {
+
+    @Test
+    @DisplayName("基本匹配与重叠网段优先级")
+    void testLookup() {
+        CidrIndex<String> index = CidrIndex.build(
+                List.of("10.1.9.223/22", "10.1.0.0/16", "172.1.1.0/24", "2001:db8::/32", "bad-cidr"),
+                List.of("LN", "LN-ALL", "LN2", "V6", "BAD"));
+
+        // 10.1.9.223/22 按掩码对齐为 10.1.8.0 ~ 10.1.11.255
+        assertEquals("LN", index.lookup("10.1.8.0"));
+        assertEquals("LN", index.lookup("10.1.11.255"));
+        assertEquals("LN-ALL", index.lookup("10.1.12.1"));
+        assertEquals("LN2", index.lookup("172.1.1.255"));
+        assertEquals("V6", index.lookup("2001:db8:1::1"));
+        assertEquals("V6", index.lookup("2001:0db8:0000:0000:0000:0000:0000:0001"));
+        assertNull(index.lookup("172.1.2.0"));
+        assertNull(index.lookup("2001:db9::1"));
+        assertNull(index.lookup("10.1.1.256"));
+        assertNull(index.lookup("not-an-ip"));
+        assertNull(index.lookup(null));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("bad-cidr"), index.getInvalidCidrs());
+    }
+
+    @Test
+    @DisplayName("10k 网段与逐条 SubnetUtils 判断结果一致")
+    void testMatchesSubnetUtils() {
+        Random random = new Random(20240101L);
+        List<String> cidrs = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            cidrs.add((10 + random.nextInt(4)) + "." + random.nextInt(256) + "." + random.nextInt(256) + "."
+                    + random.nextInt(256) + "/" + (12 + random.nextInt(21)));
+            values.add(i);
+        }
+        List<SubnetUtils.SubnetInfo> subnets = new ArrayList<>();
+        for (String cidr : cidrs) {
+            SubnetUtils utils = new SubnetUtils(cidr);
+            utils.setInclusiveHostCount(true);
+            subnets.add(utils.getInfo());
+        }
+        CidrIndex<Integer> index = CidrIndex.build(cidrs, values);
+
+        for (int t = 0; t < 5000; t++) {
+            String ip = (10 + random.nextInt(5)) + "." + random.nextInt(256) + "."
+                    + random.nextInt(256) + "." + random.nextInt(256);
+            Integer expected = null;
+            for (int i = 0; i < subnets.size(); i++) {
+                if (subnets.get(i).isInRange(ip)) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(expected, index.lookup(ip), ip);
+        }
+    }
+
+    @Test
+    @DisplayName("单次网段判断")
+    void testContains() {
+        assertTrue(CidrIndex.contains("0.0.0.0/0", "255.255.255.255"));
+        assertTrue(CidrIndex.contains("211.122.111.0/28", "211.122.111.15"));
+        assertFalse(CidrIndex.contains("211.122.111.0/28", "211.122.111.16"));
+        assertTrue(CidrIndex.contains("::ffff:0:0/96", "::ffff:1.2.3.4"));
+        assertTrue(CidrIndex.contains("fe80::/10", "fe80::1%eth0"));
+        assertFalse(CidrIndex.contains("10.0.0.0/33", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.microwind.knife.utils;
+
+import cn.hutool.crypto.SmUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SignatureEngine 测试类
+ * <p>
+ * 校验增量摘要的结果与拼接字符串后调用 DigestUtils / SmUtil 的结果一致
+ * </p>
+ */
+public class SignatureEngineTest {
+
+    private static final String APP_CODE = "ios1";
+    private static final String SECRET_KEY = "34Fdsafds$";
+    private static final String PATH = "/api/sign/submit-test";
+
+    @Test
+    @DisplayName("增量摘要与字符串拼接结果一致")
+    void testDigestMatchesConcatenation() {
+        long timestamp = 1650713278548L;
+        String source = APP_CODE + SECRET_KEY + PATH + timestamp;
+
+        byte[] sha256 = SignatureEngine.hasher(SignatureUtil.Algorithm.SHA256)
+                .update(APP_CODE).update(SECRET_KEY).update(PATH).update(timestamp)
+                .digest();
+        assertEquals(DigestUtils.sha256Hex(source), SignatureEngine.toHex(sha256));
+        assertEquals(DigestUtils.md5Hex(source), SignatureEngine.digestHex(SignatureUtil.Algorithm.MD5, source));
+        assertEquals(DigestUtils.sha1Hex(source), SignatureEngine.digestHex(SignatureUtil.Algorithm.SHA1, source));
+
+        // 多字节字符与 null（按 "null" 拼接）
+        String unicode = "张三😀" + null;
+        assertEquals(SmUtil.sm3(unicode), SignatureEngine.toHex(SignatureEngine.hasher(SignatureUtil.Algorithm.SM3)
+                .update("张三😀").update((String) null).digest()));
+    }
+
+    @Test
+    @DisplayName("带参数签名源直接写入摘要")
+    void testSignatureSourceStreaming() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userName", "张三");
+        params.put("mobile", "19212341234");
+        params.put("emptyParam", "");
+        params.put("timestamp", 1650713278548L);
+
+        String source = SignatureUtil.buildSignatureSource(params) + APP_CODE + SECRET_KEY;
+        SignatureEngine.Hasher hasher = SignatureEngine.hasher(SignatureUtil.Algorithm.SM3);
+        SignatureUtil.appendSignatureSource(params, hasher);
+        assertEquals(SmUtil.sm3(source), SignatureEngine.toHex(hasher.update(APP_CODE).update(SECRET_KEY).digest()));
+
+        // 已排序的 TreeMap 与 HashMap 结果相同
+        assertEquals(SignatureUtil.buildSignatureSource(params), SignatureUtil.buildSignatureSource(new TreeMap<>(params)));
+    }
+
+    @Test
+    @DisplayName("十六进制签名比较")
+    void testMatchesHex() {
+        byte[] digest = SignatureEngine.hasher(SignatureUtil.Algorithm.SHA256).update("abc").digest();
+        String hex = DigestUtils.sha256Hex("abc");
+
+        assertTrue(SignatureEngine.matchesHex(digest, hex));
+        assertFalse(SignatureEngine.matchesHex(digest, hex.toUpperCase()));
+        assertFalse(SignatureEngine.matchesHex(digest, hex.substring(1)));
+        assertFalse(SignatureEngine.matchesHex(digest, null));
+    }
+}
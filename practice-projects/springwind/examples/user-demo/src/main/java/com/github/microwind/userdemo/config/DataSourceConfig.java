@@ -21,24 +21,24 @@ public class DataSourceConfig {
      */
     @Bean
     public DataSource dataSource() {
-        // 使用 YamlConfigLoader 读取配置
-        YamlConfigLoader config = YamlConfigLoader.getInstance();
+        // 使用 YamlConfigLoader 将 user.datasource.* 绑定为配置对象，未配置的项使用默认值
+        DataSourceProperties props = YamlConfigLoader.getInstance()
+                .bind("user.datasource", DataSourceProperties.class);
         
         HikariConfig hikariConfig = new HikariConfig();
         
-        // 从配置文件读取数据库连接信息，如果没有则使用默认值
-        String jdbcUrl = config.getString("user.datasource.jdbc-url", 
-                "jdbc:mysql://localhost:3306/frog?useUnicode=true&characterEncoding=utf-8&serverTimezone=UTC");
-        String username = config.getString("user.datasource.username", "frog_admin");
-        String password = config.getString("user.datasource.password", "frog798");
-        String driverClassName = config.getString("user.datasource.driver-class-name", "com.mysql.cj.jdbc.Driver");
+        // 从配置文件读取数据库连接信息
+        String jdbcUrl = props.jdbcUrl();
+        String username = props.username();
+        String password = props.password();
+        String driverClassName = props.driverClassName();
         
         // 连接池配置
-        int maxPoolSize = config.getInt("user.datasource.maximum-pool-size", 10);
-        int minIdle = config.getInt("user.datasource.minimum-idle", 5);
-        long connTimeout = config.getLong("user.datasource.connection-timeout", 30000);
-        long idleTimeout = config.getLong("user.datasource.idle-timeout", 600000);
-        long maxLifetime = config.getLong("user.datasource.max-lifetime", 1800000);
+        int maxPoolSize = props.maximumPoolSize();
+        int minIdle = props.minimumIdle();
+        long connTimeout = props.connectionTimeout();
+        long idleTimeout = props.idleTimeout();
+        long maxLifetime = props.maxLifetime();
         
         // 设置数据库连接信息
         hikariConfig.setJdbcUrl(jdbcUrl);
@@ -0,0 +1,47 @@
+package com.github.microwind.userdemo.config;
+
+/**
+ * 数据源配置（绑定 application.yml 中的 user.datasource.*）
+ * 未配置的项（null）使用默认值；数值配置为 0 时原样交给 HikariCP（如 idle-timeout: 0 表示空闲连接不回收）
+ */
+public record DataSourceProperties(
+        String jdbcUrl,
+        String username,
+        String password,
+        String driverClassName,
+        Integer maximumPoolSize,
+        Integer minimumIdle,
+        Long connectionTimeout,
+        Long idleTimeout,
+        Long maxLifetime) {
+
+    public DataSourceProperties {
+        if (jdbcUrl == null) {
+            jdbcUrl = "jdbc:mysql://localhost:3306/frog?useUnicode=true&characterEncoding=utf-8&serverTimezone=UTC";
+        }
+        if (username == null) {
+            username = "frog_admin";
+        }
+        if (password == null) {
+            password = "frog798";
+        }
+        if (driverClassName == null) {
+            driverClassName = "com.mysql.cj.jdbc.Driver";
+        }
+        maximumPoolSize = nonNegative("maximum-pool-size", maximumPoolSize, 10);
+        minimumIdle = nonNegative("minimum-idle", minimumIdle, 5);
+        connectionTimeout = nonNegative("connection-timeout", connectionTimeout, 30000L);
+        idleTimeout = nonNegative("idle-timeout", idleTimeout, 600000L);
+        maxLifetime = nonNegative("max-lifetime", maxLifetime, 1800000L);
+    }
+
+    private static <N extends Number> N nonNegative(String name, N value, N defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.longValue() < 0) {
+            throw new IllegalArgumentException("user.datasource." + name + " 不能为负数: " + value);
+        }
+        return value;
+    }
+}
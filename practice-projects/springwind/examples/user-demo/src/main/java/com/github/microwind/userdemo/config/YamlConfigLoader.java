@@ -3,28 +3,72 @@ package com.github.microwind.userdemo.config;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * YAML 配置文件加载器
  * 统一管理 application.yml 配置文件的读取和解析
- * 
+ *
+ * 加载时将嵌套配置深拷贝为不可变结构，展开为 "a.b.c" -> 值 的快照，并预先解析好字符串、整数、布尔等类型，
+ * getString/getInt 等方法只做一次哈希查找；开启文件监听后，配置文件修改时重新加载并整体替换快照，
+ * 读取方无需加锁，始终看到完整的旧快照或新快照
+ *
  * 使用示例：
  * YamlConfigLoader loader = YamlConfigLoader.getInstance();
  * String jdbcUrl = loader.getString("user.datasource.jdbc-url", "默认值");
  * int maxPoolSize = loader.getInt("user.datasource.maximum-pool-size", 10);
+ * DataSourceProperties props = loader.bind("user.datasource", DataSourceProperties.class);
+ *
+ * 配置 app.config.watch: true 时自动开启文件监听（仅对文件系统中的配置文件生效，jar 内资源无法监听）
  */
 public class YamlConfigLoader {
-    
+
     private static final String CONFIG_FILE = "application.yml";
+    private static final String WATCH_KEY = "app.config.watch";
     private static final YamlConfigLoader INSTANCE = new YamlConfigLoader();
-    private final Map<String, Object> configMap;
+
+    // 配置文件路径，为 null 时从类路径加载 application.yml
+    private final Path configFile;
+    // 当前配置快照，重新加载时整体替换
+    private volatile ConfigSnapshot snapshot;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile Thread watchThread;
 
     /**
      * 私有构造函数（单例模式）
      */
     private YamlConfigLoader() {
-        this.configMap = loadConfig();
+        this(null);
+    }
+
+    /**
+     * 从指定的配置文件加载（测试或独立部署的配置文件使用）
+     *
+     * @param configFile 配置文件路径，为 null 时从类路径加载
+     */
+    YamlConfigLoader(Path configFile) {
+        this.configFile = configFile;
+        this.snapshot = ConfigSnapshot.of(loadConfig());
+        if (getBoolean(WATCH_KEY, false)) {
+            watchForChanges();
+        }
     }
 
     /**
@@ -37,23 +81,26 @@ public class YamlConfigLoader {
     /**
      * 从 application.yml 加载配置
      */
-    @SuppressWarnings("unchecked")
     private Map<String, Object> loadConfig() {
+        String source = configFile != null ? configFile.toString() : CONFIG_FILE;
         try {
             Yaml yaml = new Yaml();
-            InputStream inputStream = YamlConfigLoader.class.getClassLoader()
-                    .getResourceAsStream(CONFIG_FILE);
-            
+            InputStream inputStream = configFile != null
+                    ? (Files.isRegularFile(configFile) ? Files.newInputStream(configFile) : null)
+                    : YamlConfigLoader.class.getClassLoader().getResourceAsStream(CONFIG_FILE);
+
             if (inputStream == null) {
-                System.err.println("找不到配置文件 " + CONFIG_FILE);
+                System.err.println("找不到配置文件 " + source);
                 System.err.println("   应用将使用硬编码的默认配置值");
                 return Map.of();
             }
-            
-            Map<String, Object> config = yaml.load(inputStream);
-            System.out.println("成功加载配置文件: " + CONFIG_FILE);
-            return config != null ? config : Map.of();
-            
+
+            try (InputStream in = inputStream) {
+                Map<String, Object> config = yaml.load(in);
+                System.out.println("成功加载配置文件: " + source);
+                return config != null ? config : Map.of();
+            }
+
         } catch (Exception e) {
             System.err.println("读取配置文件失败: " + e.getMessage());
             System.err.println("   应用将使用硬编码的默认配置值");
@@ -63,175 +110,405 @@ public class YamlConfigLoader {
 
     /**
      * 从配置中获取字符串值
-     * 
+     *
      * @param path 配置路径，例如 "user.datasource.jdbc-url"
      * @param defaultValue 如果配置不存在，返回的默认值
      * @return 配置值或默认值
      */
     public String getString(String path, String defaultValue) {
-        Object value = getValueByPath(path);
-        return value != null ? value.toString() : defaultValue;
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.stringValue : defaultValue;
     }
 
     /**
      * 从配置中获取整数值
-     * 
+     *
      * @param path 配置路径
      * @param defaultValue 默认值
      * @return 配置值或默认值
      */
     public int getInt(String path, int defaultValue) {
-        try {
-            Object value = getValueByPath(path);
-            if (value == null) {
-                return defaultValue;
-            }
-            if (value instanceof Integer) {
-                return (Integer) value;
-            }
-            return Integer.parseInt(value.toString());
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        ConfigValue value = getConfigValue(path);
+        return value != null && value.intValue != null ? value.intValue : defaultValue;
     }
 
     /**
      * 从配置中获取长整数值
-     * 
+     *
      * @param path 配置路径
      * @param defaultValue 默认值
      * @return 配置值或默认值
      */
     public long getLong(String path, long defaultValue) {
-        try {
-            Object value = getValueByPath(path);
-            if (value == null) {
-                return defaultValue;
-            }
-            if (value instanceof Long) {
-                return (Long) value;
-            }
-            return Long.parseLong(value.toString());
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        ConfigValue value = getConfigValue(path);
+        return value != null && value.longValue != null ? value.longValue : defaultValue;
     }
 
     /**
      * 从配置中获取布尔值
-     * 
+     * true、yes、1（忽略大小写）为 true，其他值为 false
+     *
      * @param path 配置路径
      * @param defaultValue 默认值
      * @return 配置值或默认值
      */
     public boolean getBoolean(String path, boolean defaultValue) {
-        try {
-            Object value = getValueByPath(path);
-            if (value == null) {
-                return defaultValue;
-            }
-            if (value instanceof Boolean) {
-                return (Boolean) value;
-            }
-            String strValue = value.toString().toLowerCase();
-            return "true".equals(strValue) || "yes".equals(strValue) || "1".equals(strValue);
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.booleanValue : defaultValue;
     }
 
     /**
      * 获取嵌套的配置对象
-     * 
+     *
      * @param path 配置路径，例如 "user.datasource"
-     * @return 配置对象或null
+     * @return 不可修改的配置对象（嵌套的 Map、List 同样不可修改）或null
      */
     @SuppressWarnings("unchecked")
     public Map<String, Object> getMap(String path) {
-        Object value = getValueByPath(path);
-        if (value instanceof Map) {
-            return (Map<String, Object>) value;
+        ConfigValue value = getConfigValue(path);
+        if (value != null && value.raw instanceof Map) {
+            return (Map<String, Object>) value.raw;
         }
         return null;
     }
 
     /**
-     * 根据路径获取配置值
+     * 将指定前缀下的配置绑定到 record
+     * record 组件名按驼峰转中划线匹配配置键（maximumPoolSize -> maximum-pool-size），也接受与组件名相同的键；
+     * 缺失的配置使用类型默认值（数值为 0、布尔为 false、引用类型为 null）
+     *
+     * @param prefix 配置前缀，例如 "user.datasource"
+     * @param type   record 类型
+     * @return 绑定后的 record 实例
+     */
+    public <R extends Record> R bind(String prefix, Class<R> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        Object[] args = new Object[components.length];
+        String base = prefix == null || prefix.isEmpty() ? "" : prefix + ".";
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            parameterTypes[i] = component.getType();
+            ConfigValue value = getConfigValue(base + toKebabCase(component.getName()));
+            if (value == null) {
+                value = getConfigValue(base + component.getName());
+            }
+            args[i] = convert(value, component.getType(), base + component.getName());
+        }
+        try {
+            Constructor<R> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor.newInstance(args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("绑定配置失败: " + prefix + " -> " + type.getName(), e);
+        }
+    }
+
+    /**
+     * 根据路径获取预解析的配置值（一次哈希查找）
      * 路径格式：user.datasource.jdbc-url（用 . 分隔）
-     * 
+     *
      * @param path 配置路径
      * @return 配置值或null
      */
-    @SuppressWarnings("unchecked")
-    private Object getValueByPath(String path) {
+    private ConfigValue getConfigValue(String path) {
         if (path == null || path.isEmpty()) {
             return null;
         }
-        
-        try {
-            String[] keys = path.split("\\.");
-            Object current = configMap;
-            
-            for (String key : keys) {
-                if (current instanceof Map) {
-                    current = ((Map<String, Object>) current).get(key);
-                    if (current == null) {
-                        return null;
-                    }
-                } else {
-                    return null;
-                }
-            }
-            
-            return current;
-        } catch (Exception e) {
-            return null;
-        }
+        return snapshot.values.get(path);
     }
 
     /**
      * 检查配置是否存在
-     * 
+     *
      * @param path 配置路径
      * @return 如果配置存在返回true，否则返回false
      */
     public boolean containsKey(String path) {
-        return getValueByPath(path) != null;
+        return getConfigValue(path) != null;
+    }
+
+    // -------------------- 热加载 --------------------
+
+    /**
+     * 重新加载配置文件并替换快照
+     * 解析失败时保留当前快照
+     */
+    public void reload() {
+        Map<String, Object> config = loadConfig();
+        if (config.isEmpty() && !snapshot.raw.isEmpty()) {
+            System.err.println("重新加载的配置为空，保留当前配置");
+            return;
+        }
+        snapshot = ConfigSnapshot.of(config);
+        for (Runnable listener : reloadListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                System.err.println("配置重新加载回调失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 注册配置重新加载后的回调（通过 bind 得到的 record 不会自动更新，可在回调中重新绑定）
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * 开启配置文件监听，文件修改后自动重新加载
+     * 监听线程为守护线程；配置文件位于 jar 内时无法监听，直接忽略
+     */
+    public synchronized void watchForChanges() {
+        if (watchThread != null) {
+            return;
+        }
+        Path file = resolveConfigFile();
+        if (file == null) {
+            System.err.println("配置文件不在文件系统中，无法开启监听: " + CONFIG_FILE);
+            return;
+        }
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            Thread thread = new Thread(() -> watchLoop(watchService, file.getFileName()), "config-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            watchThread = thread;
+            System.out.println("已开启配置文件监听: " + file);
+        } catch (Exception e) {
+            System.err.println("开启配置文件监听失败: " + e.getMessage());
+        }
+    }
+
+    private void watchLoop(WatchService watchService, Path fileName) {
+        try (WatchService ws = watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = ws.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // 编辑器保存时可能连续触发多次事件，稍等片刻合并为一次加载
+                    Thread.sleep(100);
+                    drainEvents(ws);
+                    reload();
+                    System.out.println("配置文件已重新加载: " + fileName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | java.io.IOException e) {
+            System.err.println("配置文件监听已停止: " + e.getMessage());
+        }
+    }
+
+    private static void drainEvents(WatchService watchService) {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private Path resolveConfigFile() {
+        if (configFile != null) {
+            return Files.isRegularFile(configFile) ? configFile.toAbsolutePath() : null;
+        }
+        URL url = YamlConfigLoader.class.getClassLoader().getResource(CONFIG_FILE);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            Path path = Paths.get(url.toURI());
+            return Files.isRegularFile(path) ? path : null;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
+    // -------------------- 调试 --------------------
+
     /**
      * 打印所有配置信息（用于调试）
      */
     public void printConfig() {
         System.out.println("\n========== 应用配置信息 ==========");
-        printConfigMap("", configMap);
+        for (Map.Entry<String, ConfigValue> entry : snapshot.values.entrySet()) {
+            if (!(entry.getValue().raw instanceof Map)) {
+                System.out.println(entry.getKey() + " = " + entry.getValue().raw);
+            }
+        }
         System.out.println("==================================\n");
     }
 
     /**
-     * 递归打印配置映射
+     * 获取原始配置映射（高级用法，不可修改）
      */
-    @SuppressWarnings("unchecked")
-    private void printConfigMap(String prefix, Object obj) {
-        if (obj instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) obj;
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                String key = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
+    public Map<String, Object> getRawConfig() {
+        return snapshot.raw;
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    private static String toKebabCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                sb.append('-').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Object convert(ConfigValue value, Class<?> type, String path) {
+        if (type == String.class) {
+            return value != null ? value.stringValue : null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return requireParsed(value, value != null ? value.intValue : null, type, path);
+        }
+        if (type == long.class || type == Long.class) {
+            return requireParsed(value, value != null ? value.longValue : null, type, path);
+        }
+        if (type == double.class || type == Double.class) {
+            Double parsed = null;
+            if (value != null) {
+                parsed = value.raw instanceof Number ? ((Number) value.raw).doubleValue() : parseDouble(value.stringValue);
+            }
+            return requireParsed(value, parsed, type, path);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            if (value == null) {
+                return type == boolean.class ? Boolean.FALSE : null;
+            }
+            return value.booleanValue;
+        }
+        if (type == Map.class) {
+            return value != null && value.raw instanceof Map ? value.raw : null;
+        }
+        throw new IllegalArgumentException("不支持绑定的配置类型: " + path + " -> " + type.getName());
+    }
+
+    private static Object requireParsed(ConfigValue value, Object parsed, Class<?> type, String path) {
+        if (value != null && parsed == null) {
+            throw new IllegalArgumentException("配置值类型不匹配: " + path + " = " + value.raw);
+        }
+        if (parsed == null && type.isPrimitive()) {
+            return type == double.class ? (Object) 0d : type == long.class ? (Object) 0L : (Object) 0;
+        }
+        return parsed;
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 不可变配置快照：深拷贝的原始嵌套映射 + 展开后的 路径 -> 预解析值
+     */
+    private static final class ConfigSnapshot {
+        private final Map<String, Object> raw;
+        private final Map<String, ConfigValue> values;
+
+        private ConfigSnapshot(Map<String, Object> raw, Map<String, ConfigValue> values) {
+            this.raw = raw;
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        static ConfigSnapshot of(Map<String, Object> raw) {
+            Map<String, Object> copy = (Map<String, Object>) immutableCopy(raw);
+            Map<String, ConfigValue> values = new LinkedHashMap<>();
+            flatten("", copy, values);
+            return new ConfigSnapshot(copy, Collections.unmodifiableMap(values));
+        }
+
+        /**
+         * 递归复制为不可修改的 Map / List，调用方拿到的嵌套配置无法修改快照
+         */
+        private static Object immutableCopy(Object value) {
+            if (value instanceof Map<?, ?> map) {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    copy.put(String.valueOf(entry.getKey()), immutableCopy(entry.getValue()));
+                }
+                return Collections.unmodifiableMap(copy);
+            }
+            if (value instanceof List<?> list) {
+                List<Object> copy = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    copy.add(immutableCopy(element));
+                }
+                return Collections.unmodifiableList(copy);
+            }
+            return value;
+        }
+
+        private static void flatten(String prefix, Map<?, ?> map, Map<String, ConfigValue> values) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
                 Object value = entry.getValue();
-                
+                if (value == null) {
+                    continue;
+                }
+                String key = prefix.isEmpty() ? String.valueOf(entry.getKey()) : prefix + "." + entry.getKey();
+                values.put(key, new ConfigValue(value));
                 if (value instanceof Map) {
-                    printConfigMap(key, value);
-                } else {
-                    System.out.println(key + " = " + value);
+                    flatten(key, (Map<?, ?>) value, values);
                 }
             }
         }
     }
 
     /**
-     * 获取原始配置映射（高级用法）
+     * 预解析的配置值（加载时完成类型转换，读取时不再解析字符串）
      */
-    public Map<String, Object> getRawConfig() {
-        return configMap;
+    private static final class ConfigValue {
+        private final Object raw;
+        private final String stringValue;
+        private final Integer intValue;
+        private final Long longValue;
+        private final boolean booleanValue;
+
+        ConfigValue(Object raw) {
+            this.raw = raw;
+            this.stringValue = raw.toString();
+            this.longValue = parseLong(raw);
+            this.intValue = longValue != null && longValue == longValue.intValue() ? longValue.intValue() : null;
+            if (raw instanceof Boolean) {
+                this.booleanValue = (Boolean) raw;
+            } else {
+                String lower = stringValue.toLowerCase();
+                this.booleanValue = "true".equals(lower) || "yes".equals(lower) || "1".equals(lower);
+            }
+        }
+
+        private static Long parseLong(Object raw) {
+            if (raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte) {
+                return ((Number) raw).longValue();
+            }
+            if (raw instanceof Map || raw instanceof List) {
+                return null;
+            }
+            try {
+                return Long.valueOf(raw.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
     }
 }
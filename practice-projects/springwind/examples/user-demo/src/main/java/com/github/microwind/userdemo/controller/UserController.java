@@ -1,12 +1,14 @@
 package com.github.microwind.userdemo.controller;
 
 import com.github.microwind.springwind.annotation.*;
+import com.github.microwind.springwind.jdbc.KeysetPage;
 import com.github.microwind.springwind.web.ViewResult;
 import com.github.microwind.userdemo.exception.BusinessException;
 import com.github.microwind.userdemo.exception.DuplicateKeyException;
 import com.github.microwind.userdemo.service.UserService;
 import com.github.microwind.userdemo.model.User;
 import com.github.microwind.userdemo.utils.ApiResponse;
+import com.github.microwind.userdemo.utils.PageResult;
 import java.util.List;
 import java.util.Map;
 
@@ -24,14 +26,27 @@ public class UserController {
     /**
      * 获取所有用户列表（支持分页）
      * GET /user?page=1&pageSize=10
+     * GET /user?mode=cursor&pageSize=10（游标分页第一页），GET /user?pageSize=10&cursor=xxx（后续页）
+     * 游标分页深翻页不变慢，withTotal=true 时返回总数
      * 不提供分页参数时返回所有用户
      */
     @GetMapping("")
     @ResponseBody
     public ViewResult list(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "pageSize", required = false) Integer pageSize) {
+            @RequestParam(value = "pageSize", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "mode", required = false) String mode,
+            @RequestParam(value = "withTotal", required = false) Boolean withTotal) {
         try {
+            // 提供了游标或显式指定 mode=cursor 时，使用游标分页
+            if (cursor != null || "cursor".equalsIgnoreCase(mode)) {
+                int size = pageSize != null ? pageSize : 10;
+                boolean needTotal = Boolean.TRUE.equals(withTotal);
+                KeysetPage<User> result = userService.getUsersByCursor(cursor, size, needTotal);
+                return ApiResponse.page(PageResult.ofCursor(result.getItems(), size,
+                        result.getNextToken(), cursor != null, result.getTotal()));
+            }
             // 如果提供了分页参数，则进行分页查询
             if (page != null && pageSize != null) {
                 List<User> users = userService.getUsersByPage(page, pageSize);
@@ -2,9 +2,15 @@ package com.github.microwind.userdemo.dao;
 
 import com.github.microwind.springwind.annotation.Autowired;
 import com.github.microwind.springwind.annotation.Repository;
+import com.github.microwind.springwind.jdbc.BeanPropertyRowMapper;
 import com.github.microwind.springwind.jdbc.JdbcTemplate;
+import com.github.microwind.springwind.jdbc.KeysetPage;
+import com.github.microwind.springwind.jdbc.KeysetPagination;
+import com.github.microwind.springwind.jdbc.RowMapper;
 import com.github.microwind.userdemo.model.User;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.List;
 
@@ -32,6 +38,26 @@ public class UserDao {
 
     public static final String FIELD_TOTAL = "total";
 
+    // 按列名映射到 User 属性（created_time 等时间列自动转换为毫秒时间戳）
+    private static final BeanPropertyRowMapper<User> USER_PROPERTY_MAPPER = new BeanPropertyRowMapper<>(User.class);
+
+    // 时间列为 NULL 时取 0L（与原先手写的映射保持一致）
+    private static final RowMapper<User> USER_ROW_MAPPER = new RowMapper<>() {
+        @Override
+        public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return withDefaultTimes(USER_PROPERTY_MAPPER.mapRow(rs, rowNum));
+        }
+
+        @Override
+        public RowMapper<User> forResultSet(ResultSet rs) throws SQLException {
+            RowMapper<User> mapper = USER_PROPERTY_MAPPER.forResultSet(rs);
+            return (resultSet, rowNum) -> withDefaultTimes(mapper.mapRow(resultSet, rowNum));
+        }
+    };
+
+    // 按主键的游标分页（jdbcTemplate 注入后才可创建，首次使用时初始化）
+    private volatile KeysetPagination keysetPagination;
+
     // -------------------- CRUD 方法 --------------------
 
     /**
@@ -43,7 +69,7 @@ public class UserDao {
                 FIELD_WECHAT + ", " + FIELD_ADDRESS + ", " +
                 FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
                 ") VALUES (?, ?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(sql,
+        int rows = jdbcTemplate.update(sql,
                 user.getName(),
                 user.getEmail(),
                 user.getPhone(),
@@ -51,6 +77,8 @@ public class UserDao {
                 user.getAddress(),
                 new Timestamp(user.getCreatedTime()),
                 new Timestamp(user.getUpdatedTime()));
+        invalidateCount();
+        return rows;
     }
 
     /**
@@ -60,21 +88,7 @@ public class UserDao {
         String sql = "SELECT " + FIELD_ID + ", " + FIELD_NAME + ", " + FIELD_EMAIL + ", " +
                 FIELD_PHONE + ", " + FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
                 " FROM " + TABLE_USER + " WHERE " + FIELD_ID + " = ?";
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-            User user = new User();
-            user.setId(rs.getLong(FIELD_ID));
-            user.setName(rs.getString(FIELD_NAME));
-            user.setEmail(rs.getString(FIELD_EMAIL));
-            user.setPhone(rs.getString(FIELD_PHONE));
-
-            Timestamp created = rs.getTimestamp(FIELD_CREATED_TIME);
-            user.setCreatedTime(created != null ? created.getTime() : 0L);
-
-            Timestamp updated = rs.getTimestamp(FIELD_UPDATED_TIME);
-            user.setUpdatedTime(updated != null ? updated.getTime() : 0L);
-
-            return user;
-        }, id);
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, id);
     }
 
     /**
@@ -84,21 +98,7 @@ public class UserDao {
         String sql = "SELECT " + FIELD_ID + ", " + FIELD_NAME + ", " + FIELD_EMAIL + ", " +
                 FIELD_PHONE + ", " + FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
                 " FROM " + TABLE_USER + " WHERE " + FIELD_NAME + " = ?";
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-            User user = new User();
-            user.setId(rs.getLong(FIELD_ID));
-            user.setName(rs.getString(FIELD_NAME));
-            user.setEmail(rs.getString(FIELD_EMAIL));
-            user.setPhone(rs.getString(FIELD_PHONE));
-
-            Timestamp created = rs.getTimestamp(FIELD_CREATED_TIME);
-            user.setCreatedTime(created != null ? created.getTime() : 0L);
-
-            Timestamp updated = rs.getTimestamp(FIELD_UPDATED_TIME);
-            user.setUpdatedTime(updated != null ? updated.getTime() : 0L);
-
-            return user;
-        }, name);
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, name);
     }
 
     /**
@@ -108,23 +108,7 @@ public class UserDao {
         String sql = "SELECT " + FIELD_ID + ", " + FIELD_NAME + ", " + FIELD_EMAIL + ", " +
                 FIELD_PHONE + ", " + FIELD_WECHAT + ", " + FIELD_ADDRESS + ", " + FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
                 " FROM " + TABLE_USER;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            User user = new User();
-            user.setId(rs.getLong(FIELD_ID));
-            user.setName(rs.getString(FIELD_NAME));
-            user.setEmail(rs.getString(FIELD_EMAIL));
-            user.setPhone(rs.getString(FIELD_PHONE));
-            user.setWechat(rs.getString(FIELD_WECHAT));
-            user.setAddress(rs.getString(FIELD_ADDRESS));
-
-            Timestamp created = rs.getTimestamp(FIELD_CREATED_TIME);
-            user.setCreatedTime(created != null ? created.getTime() : 0L);
-
-            Timestamp updated = rs.getTimestamp(FIELD_UPDATED_TIME);
-            user.setUpdatedTime(updated != null ? updated.getTime() : 0L);
-
-            return user;
-        });
+        return jdbcTemplate.query(sql, USER_ROW_MAPPER);
     }
 
     /**
@@ -150,7 +134,9 @@ public class UserDao {
      */
     public int delete(Long id) {
         String sql = "DELETE FROM " + TABLE_USER + " WHERE " + FIELD_ID + " = ?";
-        return jdbcTemplate.update(sql, id);
+        int rows = jdbcTemplate.update(sql, id);
+        invalidateCount();
+        return rows;
     }
 
     /**
@@ -158,7 +144,9 @@ public class UserDao {
      */
     public int deleteByUsername(String name) {
         String sql = "DELETE FROM " + TABLE_USER + " WHERE " + FIELD_NAME + " = ?";
-        return jdbcTemplate.update(sql, name);
+        int rows = jdbcTemplate.update(sql, name);
+        invalidateCount();
+        return rows;
     }
 
     /**
@@ -182,22 +170,54 @@ public class UserDao {
         String sql = "SELECT " + FIELD_ID + ", " + FIELD_NAME + ", " + FIELD_EMAIL + ", " +
                 FIELD_PHONE + ", " + FIELD_WECHAT + ", " + FIELD_ADDRESS + ", " + FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
                 " FROM " + TABLE_USER + " LIMIT ? OFFSET ?";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            User user = new User();
-            user.setId(rs.getLong(FIELD_ID));
-            user.setName(rs.getString(FIELD_NAME));
-            user.setEmail(rs.getString(FIELD_EMAIL));
-            user.setPhone(rs.getString(FIELD_PHONE));
-            user.setWechat(rs.getString(FIELD_WECHAT));
-            user.setAddress(rs.getString(FIELD_ADDRESS));
-
-            Timestamp created = rs.getTimestamp(FIELD_CREATED_TIME);
-            user.setCreatedTime(created != null ? created.getTime() : 0L);
-
-            Timestamp updated = rs.getTimestamp(FIELD_UPDATED_TIME);
-            user.setUpdatedTime(updated != null ? updated.getTime() : 0L);
-
-            return user;
-        }, pageSize, offset);
+        return jdbcTemplate.query(sql, USER_ROW_MAPPER, pageSize, offset);
+    }
+
+    /**
+     * 游标分页查询用户（按 ID 升序）
+     * 使用 WHERE id > ? 直接定位，翻到任意深度的耗时都与第一页相同
+     *
+     * @param cursor    上一页返回的游标，为 null 时查询第一页
+     * @param pageSize  每页大小
+     * @param withTotal 是否同时返回总数（总数会缓存一段时间）
+     * @return 分页结果
+     */
+    public KeysetPage<User> findByCursor(String cursor, int pageSize, boolean withTotal) {
+        return keysetPagination().fetch(USER_ROW_MAPPER, cursor, pageSize, withTotal);
+    }
+
+    private KeysetPagination keysetPagination() {
+        KeysetPagination pagination = keysetPagination;
+        if (pagination == null) {
+            synchronized (this) {
+                pagination = keysetPagination;
+                if (pagination == null) {
+                    String sql = "SELECT " + FIELD_ID + ", " + FIELD_NAME + ", " + FIELD_EMAIL + ", " +
+                            FIELD_PHONE + ", " + FIELD_WECHAT + ", " + FIELD_ADDRESS + ", " + FIELD_CREATED_TIME + ", " + FIELD_UPDATED_TIME +
+                            " FROM " + TABLE_USER;
+                    pagination = new KeysetPagination(jdbcTemplate, sql, FIELD_ID);
+                    pagination.setCountSql("SELECT COUNT(*) FROM " + TABLE_USER);
+                    keysetPagination = pagination;
+                }
+            }
+        }
+        return pagination;
+    }
+
+    private void invalidateCount() {
+        KeysetPagination pagination = keysetPagination;
+        if (pagination != null) {
+            pagination.invalidateCount();
+        }
+    }
+
+    private static User withDefaultTimes(User user) {
+        if (user.getCreatedTime() == null) {
+            user.setCreatedTime(0L);
+        }
+        if (user.getUpdatedTime() == null) {
+            user.setUpdatedTime(0L);
+        }
+        return user;
     }
 }
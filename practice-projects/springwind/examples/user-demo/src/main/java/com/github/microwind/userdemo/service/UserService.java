@@ -2,6 +2,7 @@ package com.github.microwind.userdemo.service;
 
 import com.github.microwind.springwind.annotation.Service;
 import com.github.microwind.springwind.annotation.Autowired;
+import com.github.microwind.springwind.jdbc.KeysetPage;
 import com.github.microwind.userdemo.dao.UserDao;
 import com.github.microwind.userdemo.model.User;
 import com.github.microwind.userdemo.exception.BusinessException;
@@ -149,4 +150,15 @@ public class UserService {
     public List<User> getUsersByPage(int page, int pageSize) {
         return userDao.findByPage(page, pageSize);
     }
+
+    /**
+     * 游标分页查询用户
+     * @param cursor 上一页返回的游标，为 null 时查询第一页
+     * @param pageSize 每页大小
+     * @param withTotal 是否返回总数
+     * @return 分页结果
+     */
+    public KeysetPage<User> getUsersByCursor(String cursor, int pageSize, boolean withTotal) {
+        return userDao.findByCursor(cursor, pageSize, withTotal);
+    }
 }
@@ -54,6 +54,11 @@ public class PageResult<T> {
      */
     private boolean isLast;
 
+    /**
+     * 下一页游标（游标分页时使用，没有下一页时为 null）
+     */
+    private String nextCursor;
+
     // 私有构造函数，强制使用 Builder
     private PageResult() {
     }
@@ -89,6 +94,34 @@ public class PageResult<T> {
         return result;
     }
 
+    /**
+     * 创建游标分页结果
+     * 游标分页不需要页码；total 为 null 时表示未统计总数（total 为 -1，totalPages 为 0）
+     *
+     * @param list       数据列表
+     * @param pageSize   每页大小
+     * @param nextCursor 下一页游标，没有下一页时为 null
+     * @param previous   是否为非首页（请求时带了游标）
+     * @param total      总记录数，可为 null
+     * @param <T>        数据类型
+     * @return 分页结果对象
+     */
+    public static <T> PageResult<T> ofCursor(List<T> list, int pageSize, String nextCursor, boolean previous, Long total) {
+        PageResult<T> result = new PageResult<>();
+        result.list = list;
+        result.pageSize = pageSize;
+        result.nextCursor = nextCursor;
+        result.total = total != null ? total : -1L;
+        result.totalPages = total != null ? (int) Math.ceil((double) total / pageSize) : 0;
+
+        result.hasPrevious = previous;
+        result.hasNext = nextCursor != null;
+        result.isFirst = !previous;
+        result.isLast = nextCursor == null;
+
+        return result;
+    }
+
     /**
      * 创建空的分页结果
      *
@@ -139,6 +172,10 @@ public class PageResult<T> {
         return isLast;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     /**
      * 获取下一页页码
      */
@@ -178,6 +215,7 @@ public class PageResult<T> {
                 ", listSize=" + (list != null ? list.size() : 0) +
                 ", hasPrevious=" + hasPrevious +
                 ", hasNext=" + hasNext +
+                (nextCursor != null ? ", nextCursor=" + nextCursor : "") +
                 '}';
     }
 }
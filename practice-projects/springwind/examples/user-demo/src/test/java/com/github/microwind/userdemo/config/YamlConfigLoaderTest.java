@@ -0,0 +1,129 @@
+package com.github.microwind.userdemo.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 配置加载器测试：绑定默认值、快照不可变、布尔解析、文件修改后热加载
+ */
+public class YamlConfigLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeConfig(String yaml) throws IOException {
+        Path file = folder.getRoot().toPath().resolve("application.yml");
+        Files.write(file, yaml.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testBindDistinguishesAbsentFromZero() throws IOException {
+        YamlConfigLoader loader = new YamlConfigLoader(writeConfig(
+                "user:\n"
+                        + "  datasource:\n"
+                        + "    minimum-idle: 0\n"
+                        + "    idle-timeout: 0\n"
+                        + "    max-lifetime: 0\n"));
+        DataSourceProperties props = loader.bind("user.datasource", DataSourceProperties.class);
+
+        // 显式配置的 0 原样保留，未配置的项使用默认值
+        assertEquals(Integer.valueOf(0), props.minimumIdle());
+        assertEquals(Long.valueOf(0), props.idleTimeout());
+        assertEquals(Long.valueOf(0), props.maxLifetime());
+        assertEquals(Integer.valueOf(10), props.maximumPoolSize());
+        assertEquals(Long.valueOf(30000), props.connectionTimeout());
+
+        YamlConfigLoader negative = new YamlConfigLoader(writeConfig(
+                "user:\n  datasource:\n    idle-timeout: -1\n"));
+        try {
+            negative.bind("user.datasource", DataSourceProperties.class);
+            fail("负数配置应被拒绝");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getCause().getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSnapshotIsImmutable() throws IOException {
+        YamlConfigLoader loader = new YamlConfigLoader(writeConfig(
+                "user:\n"
+                        + "  datasource:\n"
+                        + "    jdbc-url: jdbc:h2:mem:test\n"
+                        + "  hosts:\n"
+                        + "    - a\n"
+                        + "    - b\n"));
+
+        Map<String, Object> user = loader.getMap("user");
+        Map<String, Object> datasource = (Map<String, Object>) user.get("datasource");
+        List<Object> hosts = (List<Object>) user.get("hosts");
+        assertUnsupported(() -> user.put("x", 1));
+        assertUnsupported(() -> datasource.put("jdbc-url", "changed"));
+        assertUnsupported(() -> hosts.add("c"));
+        assertUnsupported(() -> loader.getRawConfig().clear());
+        Map<String, Object> rawDatasource =
+                (Map<String, Object>) ((Map<String, Object>) loader.getRawConfig().get("user")).get("datasource");
+        assertUnsupported(() -> rawDatasource.remove("jdbc-url"));
+        assertEquals("jdbc:h2:mem:test", loader.getString("user.datasource.jdbc-url", null));
+    }
+
+    @Test
+    public void testGetBoolean() throws IOException {
+        YamlConfigLoader loader = new YamlConfigLoader(writeConfig(
+                "flags:\n"
+                        + "  a: true\n"
+                        + "  b: 'YES'\n"
+                        + "  c: 1\n"
+                        + "  d: 'no'\n"
+                        + "  e: 0\n"
+                        + "  f: enabled\n"));
+
+        assertTrue(loader.getBoolean("flags.a", false));
+        assertTrue(loader.getBoolean("flags.b", false));
+        assertTrue(loader.getBoolean("flags.c", false));
+        assertFalse(loader.getBoolean("flags.d", true));
+        assertFalse(loader.getBoolean("flags.e", true));
+        assertFalse(loader.getBoolean("flags.f", true));
+        assertTrue(loader.getBoolean("flags.missing", true));
+    }
+
+    @Test
+    public void testReloadOnFileChange() throws Exception {
+        Path file = writeConfig("app:\n  name: first\n  port: 8080\n");
+        YamlConfigLoader loader = new YamlConfigLoader(file);
+        Map<String, Object> before = loader.getMap("app");
+        CountDownLatch reloaded = new CountDownLatch(1);
+        loader.addReloadListener(reloaded::countDown);
+        loader.watchForChanges();
+
+        Files.write(file, "app:\n  name: second\n  port: 9090\n".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue("修改配置文件后应自动重新加载", reloaded.await(10, TimeUnit.SECONDS));
+        assertEquals("second", loader.getString("app.name", null));
+        assertEquals(9090, loader.getInt("app.port", 0));
+        // 已取得的旧快照不受影响
+        assertEquals("first", before.get("name"));
+    }
+
+    private static void assertUnsupported(Runnable action) {
+        try {
+            action.run();
+            fail("配置快照应不可修改");
+        } catch (UnsupportedOperationException expected) {
+            // 预期异常
+        }
+    }
+}
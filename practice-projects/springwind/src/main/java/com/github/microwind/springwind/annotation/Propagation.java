@@ -0,0 +1,19 @@
+package com.github.microwind.springwind.annotation;
+
+/**
+ * 事务传播行为
+ */
+public enum Propagation {
+    /** 加入当前事务，没有则新建 */
+    REQUIRED,
+    /** 挂起当前事务，新建独立事务 */
+    REQUIRES_NEW,
+    /** 有事务则加入，没有则以非事务方式执行 */
+    SUPPORTS,
+    /** 挂起当前事务，以非事务方式执行 */
+    NOT_SUPPORTED,
+    /** 必须在已有事务中执行，否则抛出异常 */
+    MANDATORY,
+    /** 不能在事务中执行，否则抛出异常 */
+    NEVER
+}
@@ -4,9 +4,26 @@ import java.lang.annotation.*;
 
 /**
  * 事务注解
+ * 标注在方法或类上，由 TransactionInterceptor 通过 AOP 代理在方法执行期间绑定同一个数据库连接，
+ * 方法正常返回时提交，抛出需要回滚的异常时回滚
  */
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface Transactional {
-}
\ No newline at end of file
+
+    /**
+     * 事务传播行为，默认加入当前事务，没有则新建
+     */
+    Propagation propagation() default Propagation.REQUIRED;
+
+    /**
+     * 是否只读（作为提示设置到连接上，驱动可据此优化）
+     */
+    boolean readOnly() default false;
+
+    /**
+     * 需要回滚的异常类型，RuntimeException 和 Error 默认回滚
+     */
+    Class<? extends Throwable>[] rollbackFor() default {};
+}
@@ -0,0 +1,108 @@
+package com.github.microwind.springwind.aop;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 方法的通知链
+ * 创建代理时按方法预先拆分为前置/环绕/后置数组，调用时无需再遍历和过滤全部切面
+ * 执行顺序：环绕通知（由外到内） -> 前置通知 -> 目标方法 -> 后置通知（正常返回后执行）
+ */
+final class AdviceChain {
+    private final AspectInfo[] before;
+    private final AspectInfo[] around;
+    private final AspectInfo[] after;
+
+    private AdviceChain(AspectInfo[] before, AspectInfo[] around, AspectInfo[] after) {
+        this.before = before;
+        this.around = around;
+        this.after = after;
+    }
+
+    /**
+     * 根据匹配的切面创建通知链，保持注册顺序
+     */
+    static AdviceChain of(List<AspectInfo> aspects) {
+        List<AspectInfo> before = new ArrayList<>();
+        List<AspectInfo> around = new ArrayList<>();
+        List<AspectInfo> after = new ArrayList<>();
+        for (AspectInfo aspect : aspects) {
+            switch (aspect.getAspectType()) {
+                case BEFORE: before.add(aspect); break;
+                case AROUND: around.add(aspect); break;
+                case AFTER: after.add(aspect); break;
+                default: break;
+            }
+        }
+        return new AdviceChain(before.toArray(new AspectInfo[0]),
+                around.toArray(new AspectInfo[0]), after.toArray(new AspectInfo[0]));
+    }
+
+    /**
+     * 执行通知链
+     * @param target        目标对象
+     * @param method        被调用的方法
+     * @param args          调用参数
+     * @param targetInvoker 目标方法调用
+     * @return 返回值
+     */
+    Object invoke(Object target, Method method, Object[] args, TargetInvoker targetInvoker) throws Throwable {
+        return new Invocation(target, method, args, targetInvoker).proceed();
+    }
+
+    /**
+     * 一次方法调用的连接点，环绕通知通过 proceed() 依次向内执行
+     * 每层环绕通知返回后恢复下标，环绕通知多次调用 proceed()（如重试）时内层通知会重新执行
+     */
+    private final class Invocation implements ProceedingJoinPoint {
+        private final Object target;
+        private final Method method;
+        private final TargetInvoker targetInvoker;
+        private Object[] args;
+        private int aroundIndex;
+
+        Invocation(Object target, Method method, Object[] args, TargetInvoker targetInvoker) {
+            this.target = target;
+            this.method = method;
+            this.args = args;
+            this.targetInvoker = targetInvoker;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return proceed(args);
+        }
+
+        @Override
+        public Object proceed(Object[] args) throws Throwable {
+            this.args = args;
+            int index = aroundIndex;
+            if (index < around.length) {
+                aroundIndex = index + 1;
+                try {
+                    return around[index].invoke(this);
+                } finally {
+                    aroundIndex = index;
+                }
+            }
+            for (AspectInfo advice : before) {
+                advice.invoke(this);
+            }
+            Object result = targetInvoker.invoke(args);
+            for (AspectInfo advice : after) {
+                advice.invoke(this);
+            }
+            return result;
+        }
+
+        @Override
+        public Object getTarget() { return target; }
+
+        @Override
+        public Method getMethod() { return method; }
+
+        @Override
+        public Object[] getArgs() { return args; }
+    }
+}
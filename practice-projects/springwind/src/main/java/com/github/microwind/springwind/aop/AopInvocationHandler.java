@@ -1,23 +1,34 @@
 package com.github.microwind.springwind.aop;
 
+import com.github.microwind.springwind.util.MethodInvoker;
+
 import java.lang.reflect.Method;
-import java.util.List;
+import java.util.Map;
 
 /**
  * AOP调用处理器
+ * 通知链在创建代理时按接口方法预先编译，未匹配切点的方法直接调用目标对象
  */
 class AopInvocationHandler implements java.lang.reflect.InvocationHandler {
-    private Object target;
-    private List<AspectInfo> aspects;
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private final Object target;
+    // 接口方法 -> 通知链（只包含被切点匹配的方法）
+    private final Map<Method, AdviceChain> adviceChains;
+    // 接口方法 -> 目标方法调用器
+    private final Map<Method, MethodInvoker> targetInvokers;
 
     /**
      * 构造函数
      * @param target 目标对象
-     * @param aspects 切面信息列表
+     * @param adviceChains 方法通知链
+     * @param targetInvokers 目标方法调用器
      */
-    public AopInvocationHandler(Object target, List<AspectInfo> aspects) {
+    public AopInvocationHandler(Object target, Map<Method, AdviceChain> adviceChains,
+                                Map<Method, MethodInvoker> targetInvokers) {
         this.target = target;
-        this.aspects = aspects;
+        this.adviceChains = adviceChains;
+        this.targetInvokers = targetInvokers;
     }
 
     /**
@@ -30,28 +41,18 @@ class AopInvocationHandler implements java.lang.reflect.InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // 执行前置通知
-        for (AspectInfo aspect : aspects) {
-            if (aspect.getAspectType() == AspectType.BEFORE) {
-                aspect.getAdviceMethod().invoke(aspect.getAspectBean());
-            }
+        Object[] arguments = args != null ? args : EMPTY_ARGS;
+        MethodInvoker invoker = targetInvokers.get(method);
+        if (invoker == null) {
+            // equals/hashCode/toString 等 Object 方法
+            invoker = MethodInvoker.of(method);
         }
 
-        Object result = null;
-        try {
-            // 执行目标方法
-            result = method.invoke(target, args);
-            
-            // 执行后置通知
-            for (AspectInfo aspect : aspects) {
-                if (aspect.getAspectType() == AspectType.AFTER) {
-                    aspect.getAdviceMethod().invoke(aspect.getAspectBean());
-                }
-            }
-        } catch (Exception e) {
-            throw e.getCause();
+        AdviceChain chain = adviceChains.get(method);
+        if (chain == null) {
+            return invoker.invoke(target, arguments);
         }
-
-        return result;
+        MethodInvoker targetInvoker = invoker;
+        return chain.invoke(target, method, arguments, a -> targetInvoker.invoke(target, a));
     }
-}
\ No newline at end of file
+}
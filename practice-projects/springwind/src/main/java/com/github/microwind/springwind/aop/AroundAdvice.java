@@ -0,0 +1,10 @@
+package com.github.microwind.springwind.aop;
+
+/**
+ * 环绕通知接口
+ * 用于以编程方式注册的通知（如事务拦截器），按方法上的注解匹配，而非切点表达式
+ */
+@FunctionalInterface
+public interface AroundAdvice {
+    Object invoke(ProceedingJoinPoint joinPoint) throws Throwable;
+}
@@ -1,15 +1,35 @@
 package com.github.microwind.springwind.aop;
 
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 /**
  * 切面信息类
+ * 注册时将通知方法绑定到切面Bean并编译为 (ProceedingJoinPoint)Object 形式的 MethodHandle，
+ * 通知参数按类型从连接点取值：JoinPoint/ProceedingJoinPoint、Method（被调用方法）、Object[]（调用参数）
  */
 class AspectInfo {
+    private static final MethodType ADVICE_TYPE = MethodType.methodType(Object.class, ProceedingJoinPoint.class);
+    private static final Method AROUND_ADVICE_METHOD;
+
+    static {
+        try {
+            AROUND_ADVICE_METHOD = AroundAdvice.class.getMethod("invoke", ProceedingJoinPoint.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String pointcut;
     private AspectType aspectType;
     private Method adviceMethod;
     private Object aspectBean;
+    private MethodHandle adviceHandle;
+    // 按注解匹配的通知（为 null 时按切点表达式匹配）
+    private Class<? extends Annotation> annotationType;
 
     /**
      * 构造函数
@@ -23,6 +43,63 @@ class AspectInfo {
         this.aspectType = aspectType;
         this.adviceMethod = adviceMethod;
         this.aspectBean = aspectBean;
+        this.adviceHandle = compile(adviceMethod, aspectBean);
+    }
+
+    /**
+     * 按注解匹配的环绕通知
+     * @param annotationType 方法或类上的注解类型
+     * @param advice 通知
+     */
+    AspectInfo(Class<? extends Annotation> annotationType, AroundAdvice advice) {
+        this(null, AspectType.AROUND, AROUND_ADVICE_METHOD, advice);
+        this.annotationType = annotationType;
+    }
+
+    private static MethodHandle compile(Method adviceMethod, Object aspectBean) {
+        try {
+            adviceMethod.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(adviceMethod).bindTo(aspectBean);
+
+            // 每个参数都从同一个连接点取值，再合并为单个连接点参数
+            Class<?>[] parameterTypes = adviceMethod.getParameterTypes();
+            MethodHandle[] extractors = new MethodHandle[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                extractors[i] = parameterExtractor(lookup, parameterTypes[i], adviceMethod);
+            }
+            handle = MethodHandles.filterArguments(handle, 0, extractors);
+            handle = MethodHandles.permuteArguments(handle,
+                    MethodType.methodType(handle.type().returnType(), ProceedingJoinPoint.class),
+                    new int[parameterTypes.length]);
+            return handle.asType(ADVICE_TYPE);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("无法绑定通知方法: " + adviceMethod, e);
+        }
+    }
+
+    private static MethodHandle parameterExtractor(MethodHandles.Lookup lookup, Class<?> type, Method adviceMethod)
+            throws NoSuchMethodException, IllegalAccessException {
+        if (type.isAssignableFrom(ProceedingJoinPoint.class)) {
+            return MethodHandles.identity(ProceedingJoinPoint.class)
+                    .asType(MethodType.methodType(type, ProceedingJoinPoint.class));
+        }
+        if (type == Method.class) {
+            return lookup.findVirtual(ProceedingJoinPoint.class, "getMethod", MethodType.methodType(Method.class));
+        }
+        if (type == Object[].class) {
+            return lookup.findVirtual(ProceedingJoinPoint.class, "getArgs", MethodType.methodType(Object[].class));
+        }
+        throw new IllegalArgumentException("不支持的通知参数类型: " + type.getName() + "，方法: " + adviceMethod);
+    }
+
+    /**
+     * 执行通知
+     * @param joinPoint 连接点
+     * @return 通知返回值（void 方法返回 null）
+     */
+    Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
+        return (Object) adviceHandle.invokeExact(joinPoint);
     }
 
     // getter方法
@@ -30,4 +107,5 @@ class AspectInfo {
     public AspectType getAspectType() { return aspectType; }
     public Method getAdviceMethod() { return adviceMethod; }
     public Object getAspectBean() { return aspectBean; }
+    public Class<? extends Annotation> getAnnotationType() { return annotationType; }
 }
@@ -4,15 +4,24 @@ import com.github.microwind.springwind.annotation.Aspect;
 import com.github.microwind.springwind.annotation.Before;
 import com.github.microwind.springwind.annotation.After;
 import com.github.microwind.springwind.annotation.Around;
+import com.github.microwind.springwind.util.MethodInvoker;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
 import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
-import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
@@ -24,6 +33,8 @@ public class AspectProcessor {
     private static final Logger logger = LoggerFactory.getLogger(AspectProcessor.class);
 
     private final List<AspectInfo> aspectInfos = new ArrayList<>();
+    // 按注解匹配的通知
+    private final List<AspectInfo> annotationAdvices = new ArrayList<>();
     // 缓存编译后的正则表达式Pattern
     private final Map<String, Pattern> patternCache = new ConcurrentHashMap<>();
 
@@ -51,8 +62,22 @@ public class AspectProcessor {
         }
     }
 
+    /**
+     * 注册按注解匹配的环绕通知（如事务拦截器）
+     * 方法或其所在类标注了该注解时应用，在切面通知之外（最先执行）
+     * @param annotationType 注解类型
+     * @param advice 环绕通知
+     */
+    public void registerAdvice(Class<? extends Annotation> annotationType, AroundAdvice advice) {
+        if (annotationType == null || advice == null) {
+            throw new IllegalArgumentException("注解类型和通知不能为null");
+        }
+        annotationAdvices.add(new AspectInfo(annotationType, advice));
+    }
+
     /**
      * 创建代理对象（支持JDK动态代理和CGLIB代理）
+     * 切点按方法匹配，只有被匹配的方法会经过通知链
      * @param target 目标对象
      * @return 代理对象
      */
@@ -61,23 +86,38 @@ public class AspectProcessor {
             throw new IllegalArgumentException("目标对象不能为null");
         }
 
-        List<AspectInfo> matchedAspects = findMatchedAspects(target.getClass());
+        Class<?> targetClass = target.getClass();
+        List<AspectInfo> matchedAspects = findMatchedAspects(targetClass);
         if (matchedAspects.isEmpty()) {
-            logger.debug("未找到匹配的切面，返回原始对象: {}", target.getClass().getSimpleName());
+            logger.debug("未找到匹配的切面，返回原始对象: {}", targetClass.getSimpleName());
             return target;
         }
 
         logger.debug("为 {} 创建AOP代理，匹配 {} 个切面",
-            target.getClass().getSimpleName(), matchedAspects.size());
+            targetClass.getSimpleName(), matchedAspects.size());
 
         // 如果目标对象实现了接口，使用JDK动态代理
-        Class<?>[] interfaces = target.getClass().getInterfaces();
+        Class<?>[] interfaces = targetClass.getInterfaces();
         if (interfaces.length > 0) {
             logger.debug("使用JDK动态代理");
+            Map<Method, AdviceChain> adviceChains = new HashMap<>();
+            Map<Method, MethodInvoker> targetInvokers = new HashMap<>();
+            for (Class<?> anInterface : interfaces) {
+                for (Method method : anInterface.getMethods()) {
+                    targetInvokers.put(method, MethodInvoker.of(method));
+                    AdviceChain chain = buildAdviceChain(targetClass, method, matchedAspects);
+                    if (chain != null) {
+                        adviceChains.put(method, chain);
+                    }
+                }
+            }
+            for (Method method : Object.class.getMethods()) {
+                targetInvokers.putIfAbsent(method, MethodInvoker.of(method));
+            }
             return java.lang.reflect.Proxy.newProxyInstance(
-                target.getClass().getClassLoader(),
+                targetClass.getClassLoader(),
                 interfaces,
-                new AopInvocationHandler(target, matchedAspects)
+                new AopInvocationHandler(target, adviceChains, targetInvokers)
             );
         } else {
             // 否则使用CGLIB代理
@@ -88,62 +128,170 @@ public class AspectProcessor {
 
     /**
      * 使用CGLIB创建代理对象
+     * 未匹配切点的方法使用 NoOp 回调，直接调用父类方法，不经过拦截器
      */
     private Object createCglibProxy(Object target, List<AspectInfo> matchedAspects) {
+        Class<?> targetClass = target.getClass();
+        Map<Method, AdviceChain> adviceChains = new HashMap<>();
+        for (Method method : targetClass.getMethods()) {
+            AdviceChain chain = buildAdviceChain(targetClass, method, matchedAspects);
+            if (chain != null) {
+                adviceChains.put(method, chain);
+            }
+        }
+
+        MethodInterceptor interceptor = (obj, method, args, proxy) -> {
+            AdviceChain chain = adviceChains.get(method);
+            if (chain == null) {
+                return proxy.invokeSuper(obj, args);
+            }
+            return chain.invoke(obj, method, args, a -> proxy.invokeSuper(obj, a));
+        };
+
         Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(target.getClass());
-        enhancer.setCallback(new MethodInterceptor() {
-            @Override
-            public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
-                // 执行前置通知
-                for (AspectInfo aspect : matchedAspects) {
-                    if (aspect.getAspectType() == AspectType.BEFORE) {
-                        aspect.getAdviceMethod().invoke(aspect.getAspectBean());
-                    }
-                }
+        enhancer.setSuperclass(targetClass);
+        enhancer.setCallbackFilter(new AdvisedMethodFilter(adviceChains.keySet()));
+        enhancer.setCallbacks(new Callback[]{interceptor, NoOp.INSTANCE});
+        return enhancer.create();
+    }
 
-                Object result = null;
-                try {
-                    // 执行目标方法
-                    result = proxy.invokeSuper(obj, args);
+    /**
+     * 为方法构建通知链
+     * @return 通知链，没有切点匹配该方法时返回 null
+     */
+    private AdviceChain buildAdviceChain(Class<?> targetClass, Method method, List<AspectInfo> aspects) {
+        if (method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        List<AspectInfo> matched = new ArrayList<>();
+        for (AspectInfo aspect : aspects) {
+            if (matches(aspect, targetClass, method)) {
+                matched.add(aspect);
+            }
+        }
+        return matched.isEmpty() ? null : AdviceChain.of(matched);
+    }
 
-                    // 执行后置通知
-                    for (AspectInfo aspect : matchedAspects) {
-                        if (aspect.getAspectType() == AspectType.AFTER) {
-                            aspect.getAdviceMethod().invoke(aspect.getAspectBean());
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("AOP方法执行失败", e);
-                    throw e;
-                }
+    private boolean matches(AspectInfo aspect, Class<?> targetClass, Method method) {
+        if (aspect.getAnnotationType() != null) {
+            return hasAnnotation(targetClass, method, aspect.getAnnotationType());
+        }
+        return matchesMethod(compilePointcut(aspect.getPointcut()), targetClass, method);
+    }
 
-                return result;
+    /**
+     * 方法（含目标类中的实现方法）或其声明类上是否有指定注解
+     */
+    private static boolean hasAnnotation(Class<?> targetClass, Method method, Class<? extends Annotation> annotationType) {
+        if (method.isAnnotationPresent(annotationType) || method.getDeclaringClass().isAnnotationPresent(annotationType)) {
+            return true;
+        }
+        try {
+            Method implementation = targetClass.getMethod(method.getName(), method.getParameterTypes());
+            return implementation.isAnnotationPresent(annotationType)
+                    || implementation.getDeclaringClass().isAnnotationPresent(annotationType)
+                    || targetClass.isAnnotationPresent(annotationType);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 切点匹配方法，支持两种写法：
+     * 1. 类名：与原有语义一致，只与目标类的类名匹配，命中时通知目标类的全部方法
+     * 2. "类型名.方法名"：类型为目标类，或声明了该方法的父类/接口，只通知该方法
+     */
+    private boolean matchesMethod(Pattern pattern, Class<?> targetClass, Method method) {
+        if (pattern.matcher(targetClass.getName()).matches()) {
+            return true;
+        }
+        for (Class<?> type : collectTypes(targetClass)) {
+            if (pattern.matcher(type.getName() + "." + method.getName()).matches() && declares(type, method)) {
+                return true;
             }
-        });
+        }
+        return false;
+    }
 
-        return enhancer.create();
+    /**
+     * 类型是否声明（或继承）了同签名的 public 方法
+     */
+    private static boolean declares(Class<?> type, Method method) {
+        try {
+            type.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 
     /**
      * 查找匹配的切面（使用缓存的Pattern提升性能）
+     * 切点匹配目标类或其任一方法即可
      * @param targetClass 目标类
      * @return 匹配的切面列表
      */
     private List<AspectInfo> findMatchedAspects(Class<?> targetClass) {
         List<AspectInfo> matched = new ArrayList<>();
-        String className = targetClass.getName();
-
-        for (AspectInfo aspectInfo : aspectInfos) {
-            String pointcut = aspectInfo.getPointcut();
-            // 从缓存获取Pattern，如果不存在则编译并缓存
-            Pattern pattern = patternCache.computeIfAbsent(pointcut,
-                pc -> Pattern.compile(pc.replace("*", ".*")));
+        Method[] methods = targetClass.getMethods();
 
-            if (pattern.matcher(className).matches()) {
-                matched.add(aspectInfo);
+        // 注解通知在前，位于通知链最外层
+        List<AspectInfo> candidates = new ArrayList<>(annotationAdvices);
+        candidates.addAll(aspectInfos);
+        for (AspectInfo aspectInfo : candidates) {
+            for (Method method : methods) {
+                if (method.getDeclaringClass() != Object.class && matches(aspectInfo, targetClass, method)) {
+                    matched.add(aspectInfo);
+                    break;
+                }
             }
         }
         return matched;
     }
-}
\ No newline at end of file
+
+    /**
+     * 从缓存获取Pattern，如果不存在则编译并缓存
+     */
+    private Pattern compilePointcut(String pointcut) {
+        return patternCache.computeIfAbsent(pointcut, pc -> Pattern.compile(pc.replace("*", ".*")));
+    }
+
+    /**
+     * 目标类本身、父类及实现的接口（不含 Object）
+     */
+    private static Set<Class<?>> collectTypes(Class<?> targetClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            types.add(type);
+            Collections.addAll(types, type.getInterfaces());
+        }
+        return types;
+    }
+
+    /**
+     * 按方法选择回调：0 为通知拦截器，1 为 NoOp
+     * 以被通知的方法集合判等，使相同切点组合的代理复用 CGLIB 生成的类
+     */
+    private static final class AdvisedMethodFilter implements CallbackFilter {
+        private final Set<Method> advisedMethods;
+
+        AdvisedMethodFilter(Set<Method> advisedMethods) {
+            this.advisedMethods = new HashSet<>(advisedMethods);
+        }
+
+        @Override
+        public int accept(Method method) {
+            return advisedMethods.contains(method) ? 0 : 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AdvisedMethodFilter && advisedMethods.equals(((AdvisedMethodFilter) o).advisedMethods);
+        }
+
+        @Override
+        public int hashCode() {
+            return advisedMethods.hashCode();
+        }
+    }
+}
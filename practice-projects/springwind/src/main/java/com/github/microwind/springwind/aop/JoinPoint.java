@@ -0,0 +1,24 @@
+package com.github.microwind.springwind.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 连接点，描述一次被拦截的方法调用
+ */
+public interface JoinPoint {
+
+    /**
+     * @return 目标对象
+     */
+    Object getTarget();
+
+    /**
+     * @return 被调用的方法
+     */
+    Method getMethod();
+
+    /**
+     * @return 调用参数
+     */
+    Object[] getArgs();
+}
@@ -0,0 +1,23 @@
+package com.github.microwind.springwind.aop;
+
+/**
+ * 可继续执行的连接点，用于 @Around 通知
+ * 调用 proceed() 执行下一个环绕通知，最后一个环绕通知之后执行前置通知、目标方法和后置通知
+ */
+public interface ProceedingJoinPoint extends JoinPoint {
+
+    /**
+     * 使用原参数继续执行
+     * @return 目标方法返回值
+     * @throws Throwable 目标方法或通知抛出的异常
+     */
+    Object proceed() throws Throwable;
+
+    /**
+     * 使用新参数继续执行
+     * @param args 替换后的参数
+     * @return 目标方法返回值
+     * @throws Throwable 目标方法或通知抛出的异常
+     */
+    Object proceed(Object[] args) throws Throwable;
+}
@@ -0,0 +1,9 @@
+package com.github.microwind.springwind.aop;
+
+/**
+ * 目标方法调用（JDK代理直接调用目标对象，CGLIB代理调用父类方法）
+ */
+@FunctionalInterface
+interface TargetInvoker {
+    Object invoke(Object[] args) throws Throwable;
+}
@@ -1,5 +1,7 @@
 package com.github.microwind.springwind.core;
 
+import com.github.microwind.springwind.util.MethodInvoker;
+
 import java.lang.reflect.Method;
 import java.util.*;
 
@@ -23,6 +25,9 @@ public class BeanDefinition {
     private Method initMethod;
     // Bean的销毁方法，在容器关闭前调用
     private Method destroyMethod;
+    // 初始化/销毁方法的调用器（设置方法时绑定）
+    private MethodInvoker initMethodInvoker;
+    private MethodInvoker destroyMethodInvoker;
     // Bean的属性值列表，用于存储需要注入的属性信息
     private List<PropertyValue> propertyValues = new ArrayList<>();
 
@@ -46,9 +51,17 @@ public class BeanDefinition {
     public String getScope() { return scope; }
     public void setScope(String scope) { this.scope = scope; }
     public Method getInitMethod() { return initMethod; }
-    public void setInitMethod(Method initMethod) { this.initMethod = initMethod; }
+    public void setInitMethod(Method initMethod) {
+        this.initMethod = initMethod;
+        this.initMethodInvoker = initMethod != null ? MethodInvoker.of(initMethod) : null;
+    }
+    public MethodInvoker getInitMethodInvoker() { return initMethodInvoker; }
     public Method getDestroyMethod() { return destroyMethod; }
-    public void setDestroyMethod(Method destroyMethod) { this.destroyMethod = destroyMethod; }
+    public void setDestroyMethod(Method destroyMethod) {
+        this.destroyMethod = destroyMethod;
+        this.destroyMethodInvoker = destroyMethod != null ? MethodInvoker.of(destroyMethod) : null;
+    }
+    public MethodInvoker getDestroyMethodInvoker() { return destroyMethodInvoker; }
     public List<PropertyValue> getPropertyValues() { return propertyValues; }
     public void setPropertyValues(List<PropertyValue> propertyValues) { this.propertyValues = propertyValues; }
 }
@@ -1,5 +1,7 @@
 package com.github.microwind.springwind.core;
 
+import com.github.microwind.springwind.util.MethodInvoker;
+
 import java.lang.reflect.Method;
 
 /**
@@ -9,6 +11,8 @@ import java.lang.reflect.Method;
 public class BeanMethodDefinition extends BeanDefinition {
     // @Bean方法
     private Method method;
+    // @Bean方法调用器
+    private MethodInvoker invoker;
     // 方法所在的配置类
     private Class<?> configClass;
 
@@ -27,6 +31,11 @@ public class BeanMethodDefinition extends BeanDefinition {
 
     public void setMethod(Method method) {
         this.method = method;
+        this.invoker = method != null ? MethodInvoker.of(method) : null;
+    }
+
+    public MethodInvoker getInvoker() {
+        return invoker;
     }
 
     public Class<?> getConfigClass() {
@@ -0,0 +1,92 @@
+package com.github.microwind.springwind.core;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bean类型索引（不可变快照）
+ * 将每个Bean类的所有父类、接口以及类上的注解映射到Bean名称，
+ * 使按类型、按注解查找Bean从遍历所有BeanDefinition变为一次哈希查找
+ */
+final class BeanTypeIndex {
+
+    private final Map<Class<?>, List<String>> beanNamesByType;
+    private final Map<Class<? extends Annotation>, List<String>> beanNamesByAnnotation;
+
+    private BeanTypeIndex(Map<Class<?>, List<String>> beanNamesByType,
+                          Map<Class<? extends Annotation>, List<String>> beanNamesByAnnotation) {
+        this.beanNamesByType = beanNamesByType;
+        this.beanNamesByAnnotation = beanNamesByAnnotation;
+    }
+
+    /**
+     * 根据Bean定义构建索引
+     * @param beanDefinitions Bean定义集合
+     * @return 索引快照
+     */
+    static BeanTypeIndex build(Collection<BeanDefinition> beanDefinitions) {
+        Map<Class<?>, List<String>> byType = new HashMap<>();
+        Map<Class<? extends Annotation>, List<String>> byAnnotation = new HashMap<>();
+
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            String beanName = beanDefinition.getBeanName();
+            Class<?> beanClass = beanDefinition.getBeanClass();
+            if (beanClass == null) {
+                continue;
+            }
+            for (Class<?> type : collectTypes(beanClass)) {
+                byType.computeIfAbsent(type, k -> new ArrayList<>(1)).add(beanName);
+            }
+            // getAnnotations() 包含 @Inherited 注解，与 isAnnotationPresent 语义一致
+            for (Annotation annotation : beanClass.getAnnotations()) {
+                byAnnotation.computeIfAbsent(annotation.annotationType(), k -> new ArrayList<>(1)).add(beanName);
+            }
+        }
+
+        byType.replaceAll((type, names) -> Collections.unmodifiableList(names));
+        byAnnotation.replaceAll((type, names) -> Collections.unmodifiableList(names));
+        return new BeanTypeIndex(byType, byAnnotation);
+    }
+
+    /**
+     * 收集类本身及其所有父类、接口（含接口的父接口）
+     */
+    private static Set<Class<?>> collectTypes(Class<?> beanClass) {
+        Set<Class<?>> types = new HashSet<>();
+        List<Class<?>> pending = new ArrayList<>();
+        pending.add(beanClass);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.remove(pending.size() - 1);
+            if (type == null || !types.add(type)) {
+                continue;
+            }
+            pending.add(type.getSuperclass());
+            Collections.addAll(pending, type.getInterfaces());
+        }
+        if (beanClass.isInterface()) {
+            types.add(Object.class);
+        }
+        return types;
+    }
+
+    /**
+     * 获取可赋值给指定类型的Bean名称
+     */
+    List<String> getBeanNamesForType(Class<?> type) {
+        return beanNamesByType.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * 获取类上带有指定注解的Bean名称
+     */
+    List<String> getBeanNamesForAnnotation(Class<? extends Annotation> annotationType) {
+        return beanNamesByAnnotation.getOrDefault(annotationType, Collections.emptyList());
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.microwind.springwind.core;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 组件索引注解处理器（构建期）
+ * 编译时收集标注了 @Component/@Controller/@Service/@Repository/@Aspect/@Configuration 的类，
+ * 以及通过父类或接口（任意层级）实现了 BeanPostProcessor 的具体类，
+ * 生成 META-INF/springwind.components 索引文件，容器启动时读取索引即可跳过包扫描
+ *
+ * 按需启用（不会自动注册），例如在 maven-compiler-plugin 中配置：
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;com.github.microwind.springwind.core.ComponentIndexProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ *
+ * 注：容器发现索引后不再扫描包，同一包下未生成索引的类路径根中的组件会被静默忽略，
+ * 因此包含组件的所有模块都需要启用本处理器（或设置 -Dspringwind.index.ignore=true 强制扫描）
+ *
+ * 注：为了发现未标注注解的后处理器，处理器需要查看所有类（支持的注解类型为 *），但不会声明占用任何注解
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    private static final List<String> COMPONENT_ANNOTATIONS = List.of(
+            "com.github.microwind.springwind.annotation.Component",
+            "com.github.microwind.springwind.annotation.Controller",
+            "com.github.microwind.springwind.annotation.Service",
+            "com.github.microwind.springwind.annotation.Repository",
+            "com.github.microwind.springwind.annotation.Aspect",
+            "com.github.microwind.springwind.annotation.Configuration");
+
+    private static final String POST_PROCESSOR_INTERFACE = "com.github.microwind.springwind.core.BeanPostProcessor";
+
+    /**
+     * 索引文件位置（每行一个类的全限定名，# 开头为注释）
+     */
+    public static final String INDEX_LOCATION = "META-INF/springwind.components";
+
+    private final Set<String> componentClassNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (String annotationName : COMPONENT_ANNOTATIONS) {
+            TypeElement annotation = processingEnv.getElementUtils().getTypeElement(annotationName);
+            if (annotation == null) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    addClassName((TypeElement) element);
+                }
+            }
+        }
+
+        TypeElement postProcessor = processingEnv.getElementUtils().getTypeElement(POST_PROCESSOR_INTERFACE);
+        if (postProcessor != null) {
+            TypeMirror postProcessorType = processingEnv.getTypeUtils().erasure(postProcessor.asType());
+            for (Element element : roundEnv.getRootElements()) {
+                collectPostProcessors(element, postProcessorType);
+            }
+        }
+
+        if (roundEnv.processingOver() && !componentClassNames.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * 收集实现了 BeanPostProcessor 的具体类（含嵌套类），由编译器解析完整的继承层级
+     */
+    private void collectPostProcessors(Element element, TypeMirror postProcessorType) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        Types types = processingEnv.getTypeUtils();
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && types.isAssignable(types.erasure(type.asType()), postProcessorType)) {
+            addClassName(type);
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            collectPostProcessors(enclosed, postProcessorType);
+        }
+    }
+
+    private void addClassName(TypeElement type) {
+        componentClassNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# SpringWind component index, generated at build time\n");
+                for (String className : componentClassNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "生成组件索引失败: " + e.getMessage());
+        }
+    }
+}
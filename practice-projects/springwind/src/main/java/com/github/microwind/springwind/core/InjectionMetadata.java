@@ -0,0 +1,134 @@
+package com.github.microwind.springwind.core;
+
+import com.github.microwind.springwind.annotation.Autowired;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类的注入元数据（按类缓存）
+ * 首次注入时解析 @Autowired 字段并转换为 VarHandle，之后创建Bean（尤其是原型Bean）
+ * 只需按字段顺序写入依赖，不再重复反射字段和注解
+ */
+final class InjectionMetadata {
+
+    static final InjectionMetadata EMPTY = new InjectionMetadata(Collections.emptyList());
+
+    private final List<InjectedField> injectedFields;
+
+    private InjectionMetadata(List<InjectedField> injectedFields) {
+        this.injectedFields = injectedFields;
+    }
+
+    /**
+     * 解析类中声明的 @Autowired 字段
+     * @param clazz Bean类
+     * @return 注入元数据，没有需要注入的字段时返回 EMPTY
+     */
+    static InjectionMetadata forClass(Class<?> clazz) {
+        List<InjectedField> fields = new ArrayList<>();
+        MethodHandles.Lookup lookup = privateLookup(clazz);
+        for (Field field : clazz.getDeclaredFields()) {
+            Autowired autowired = field.getAnnotation(Autowired.class);
+            if (autowired != null) {
+                fields.add(new InjectedField(field, autowired.required(), lookup));
+            }
+        }
+        return fields.isEmpty() ? EMPTY : new InjectionMetadata(Collections.unmodifiableList(fields));
+    }
+
+    private static MethodHandles.Lookup privateLookup(Class<?> clazz) {
+        try {
+            return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            // 模块未开放时退回反射写入
+            return null;
+        }
+    }
+
+    List<InjectedField> getInjectedFields() {
+        return injectedFields;
+    }
+
+    boolean isEmpty() {
+        return injectedFields.isEmpty();
+    }
+
+    /**
+     * 需要注入的字段
+     */
+    static final class InjectedField {
+        private final Field field;
+        private final Class<?> type;
+        private final boolean required;
+        // 非 final 字段使用 VarHandle 写入；final 字段或无法获取 Lookup 时退回 Field.set
+        private final VarHandle handle;
+        // 依赖Bean名称的解析结果，与类型索引快照绑定，索引重建后重新解析
+        private volatile Resolution resolution;
+
+        InjectedField(Field field, boolean required, MethodHandles.Lookup lookup) {
+            this.field = field;
+            this.type = field.getType();
+            this.required = required;
+            this.handle = createHandle(field, lookup);
+            if (handle == null) {
+                field.setAccessible(true);
+            }
+        }
+
+        private static VarHandle createHandle(Field field, MethodHandles.Lookup lookup) {
+            if (lookup == null || Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers())) {
+                return null;
+            }
+            try {
+                return lookup.unreflectVarHandle(field);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        String getName() { return field.getName(); }
+        Class<?> getType() { return type; }
+        boolean isRequired() { return required; }
+
+        /**
+         * 获取依赖的Bean名称（与 getBean(Class) 一致：取第一个候选）
+         * @return Bean名称，没有候选时返回 null
+         */
+        String resolveBeanName(BeanTypeIndex index) {
+            Resolution current = resolution;
+            if (current == null || current.index != index) {
+                List<String> candidates = index.getBeanNamesForType(type);
+                current = new Resolution(index, candidates.isEmpty() ? null : candidates.get(0));
+                resolution = current;
+            }
+            return current.beanName;
+        }
+
+        /**
+         * 写入依赖
+         */
+        void inject(Object bean, Object dependency) throws IllegalAccessException {
+            if (handle != null) {
+                handle.set(bean, dependency);
+            } else {
+                field.set(bean, dependency);
+            }
+        }
+    }
+
+    private static final class Resolution {
+        private final BeanTypeIndex index;
+        private final String beanName;
+
+        Resolution(BeanTypeIndex index, String beanName) {
+            this.index = index;
+            this.beanName = beanName;
+        }
+    }
+}
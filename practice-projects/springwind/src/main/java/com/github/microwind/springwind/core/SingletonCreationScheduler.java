@@ -0,0 +1,196 @@
+package com.github.microwind.springwind.core;
+
+import com.github.microwind.springwind.exception.BeanCreationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 单例Bean并行创建调度器
+ * 根据 @Autowired / @Bean 参数计算依赖图，将循环依赖的Bean合并为一个强连通分量（在同一线程内创建，
+ * 仍由 getBean 的三级缓存处理循环引用），再按分量之间的依赖关系在有界线程池上并发创建互不依赖的Bean
+ */
+final class SingletonCreationScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(SingletonCreationScheduler.class);
+
+    private final Map<String, Set<String>> dependencies;
+    private final int threads;
+
+    /**
+     * @param dependencies Bean名称 -> 依赖的单例Bean名称（保持注册顺序）
+     * @param threads      并发线程数
+     */
+    SingletonCreationScheduler(Map<String, Set<String>> dependencies, int threads) {
+        this.dependencies = dependencies;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * 按依赖顺序并发创建Bean，所有Bean创建完成（或任一失败）后返回
+     * @param creator 创建单个Bean的回调（通常为 getBean）
+     */
+    void createAll(Consumer<String> creator) {
+        List<List<String>> components = stronglyConnectedComponents();
+
+        // 每个Bean所属的分量下标
+        Map<String, Integer> componentOf = new HashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            for (String beanName : components.get(i)) {
+                componentOf.put(beanName, i);
+            }
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "springwind-init-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+
+        try {
+            // Tarjan 算法按逆拓扑序输出分量：依赖的分量总是先出现，可以顺序构建 future
+            List<CompletableFuture<Void>> futures = new ArrayList<>(components.size());
+            for (int i = 0; i < components.size(); i++) {
+                List<String> component = components.get(i);
+                List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                for (String beanName : component) {
+                    for (String dependency : dependencies.getOrDefault(beanName, Collections.emptySet())) {
+                        Integer dependencyComponent = componentOf.get(dependency);
+                        if (dependencyComponent != null && dependencyComponent != i) {
+                            prerequisites.add(futures.get(dependencyComponent));
+                        }
+                    }
+                }
+                CompletableFuture<Void> ready = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture[0]));
+                futures.add(ready.thenRunAsync(() -> component.forEach(creator), executor));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            logger.debug("并行创建单例Bean完成：{} 个Bean，{} 个依赖分量，{} 个线程",
+                    componentOf.size(), components.size(), threads);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new BeanCreationException("singletons", "并行创建单例Bean失败: " + cause, cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tarjan 强连通分量算法（迭代实现，避免深依赖链导致栈溢出）
+     * @return 分量列表，按逆拓扑序排列（被依赖者在前）
+     */
+    List<List<String>> stronglyConnectedComponents() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Set<String> onStack = Collections.newSetFromMap(new HashMap<>());
+        Deque<String> stack = new ArrayDeque<>();
+        List<List<String>> components = new ArrayList<>();
+        int counter = 0;
+
+        for (String root : dependencies.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            // 显式调用栈：节点 + 其依赖迭代器
+            Deque<Map.Entry<String, Iterator<String>>> callStack = new ArrayDeque<>();
+            index.put(root, counter);
+            lowLink.put(root, counter);
+            counter++;
+            stack.push(root);
+            onStack.add(root);
+            callStack.push(Map.entry(root, successors(root).iterator()));
+
+            while (!callStack.isEmpty()) {
+                Map.Entry<String, Iterator<String>> frame = callStack.peek();
+                String node = frame.getKey();
+                Iterator<String> it = frame.getValue();
+                if (it.hasNext()) {
+                    String next = it.next();
+                    if (!index.containsKey(next)) {
+                        index.put(next, counter);
+                        lowLink.put(next, counter);
+                        counter++;
+                        stack.push(next);
+                        onStack.add(next);
+                        callStack.push(Map.entry(next, successors(next).iterator()));
+                    } else if (onStack.contains(next)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(next)));
+                    }
+                    continue;
+                }
+
+                callStack.pop();
+                if (!callStack.isEmpty()) {
+                    String parent = callStack.peek().getKey();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    private Set<String> successors(String beanName) {
+        Set<String> successors = dependencies.get(beanName);
+        if (successors == null) {
+            return Collections.emptySet();
+        }
+        // 只保留图中存在的节点（非单例或未注册的依赖不参与调度）
+        Set<String> filtered = new LinkedHashSet<>();
+        for (String successor : successors) {
+            if (dependencies.containsKey(successor)) {
+                filtered.add(successor);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * 生成按耗时倒序排列的启动报告
+     * @param timings Bean名称 -> 创建耗时（纳秒）
+     * @return Bean名称 -> 耗时（毫秒，保留两位小数）
+     */
+    static Map<String, Double> toReport(Map<String, Long> timings) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        Map<String, Double> report = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            report.put(entry.getKey(), Math.round(entry.getValue() / 10_000.0) / 100.0);
+        }
+        return report;
+    }
+}
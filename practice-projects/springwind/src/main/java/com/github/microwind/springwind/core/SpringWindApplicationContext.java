@@ -1,19 +1,30 @@
 package com.github.microwind.springwind.core;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.io.File;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.microwind.springwind.annotation.Autowired;
 import com.github.microwind.springwind.annotation.Bean;
@@ -27,6 +38,7 @@ import com.github.microwind.springwind.exception.BeanCreationException;
 import com.github.microwind.springwind.exception.BeanDefinitionException;
 import com.github.microwind.springwind.exception.BeanNotFoundException;
 import com.github.microwind.springwind.exception.CircularDependencyException;
+import com.github.microwind.springwind.util.ClassFileMetadataReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,10 +62,37 @@ public class SpringWindApplicationContext {
     private final List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
     // 构造器缓存（性能优化）
     private final Map<Class<?>, Constructor<?>> constructorCache = new ConcurrentHashMap<>();
+    // 注入元数据缓存（@Autowired 字段 -> VarHandle）
+    private final Map<Class<?>, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>();
     // @Configuration 类实例（用于 @Bean 方法调用）
     private final Map<Class<?>, Object> configurationInstances = new ConcurrentHashMap<>();
     // @Bean 方法定义（类 -> 方法列表）
     private final Map<Class<?>, List<Method>> beanMethods = new ConcurrentHashMap<>();
+    // 单例创建锁（并行创建时，其他线程等待正在创建的Bean完成）
+    private final Map<String, ReentrantLock> singletonCreationLocks = new ConcurrentHashMap<>();
+    // 单例创建耗时（纳秒），用于启动报告
+    private final Map<String, Long> singletonCreationNanos = new ConcurrentHashMap<>();
+    // 是否并行创建单例Bean（默认关闭，可通过 -Dspringwind.parallelInit=true 开启）
+    private boolean parallelSingletonCreation = Boolean.getBoolean(PARALLEL_INIT_PROPERTY);
+    // 并行创建线程数
+    private int singletonCreationThreads = Runtime.getRuntime().availableProcessors();
+    // 类型/注解索引（注册变化时失效，按需重建）
+    private volatile BeanTypeIndex beanTypeIndex;
+    private final Object beanTypeIndexMonitor = new Object();
+
+    // 组件扫描时需要加载的候选注解（按类名匹配字节码中的注解表）
+    private static final Set<String> CANDIDATE_ANNOTATIONS = Set.of(
+            Component.class.getName(), Controller.class.getName(), Service.class.getName(),
+            Repository.class.getName(), Aspect.class.getName(), Configuration.class.getName());
+    // 后处理器接口（类的父类或接口链上出现即需要加载）
+    private static final Set<String> POST_PROCESSOR_INTERFACES = Set.of(
+            BeanPostProcessor.class.getName(), SmartInstantiationAwareBeanPostProcessor.class.getName());
+    // 忽略组件索引、强制扫描的系统属性
+    public static final String IGNORE_INDEX_PROPERTY = "springwind.index.ignore";
+    // 开启单例Bean并行创建的系统属性
+    public static final String PARALLEL_INIT_PROPERTY = "springwind.parallelInit";
+    // 等待其他线程创建Bean的超时时间（秒）
+    private static final long CREATION_LOCK_TIMEOUT_SECONDS = 60;
 
     // 构造函数只保存配置类
     private final Class<?> configClass;
@@ -124,58 +163,233 @@ public class SpringWindApplicationContext {
 
             logger.debug("使用类加载器: {}, 找到资源: {}", classLoader.getClass().getName(), resource);
 
-            String protocol = resource.getProtocol();
-
-            // 1. 运行在普通文件系统中（IDE 运行或 classes 目录）
-            if ("file".equals(protocol)) {
-                Path path = Paths.get(resource.toURI());
-                Files.walk(path)
-                        .filter(p -> p.toString().endsWith(".class"))
-                        .forEach(p -> processClassFile(basePackage, path, p));
-            }
-            // 2. 运行在 jar 包中
-            else if ("jar".equals(protocol)) {
-                String path = resource.getPath();
-                String jarPath = path.substring(path.indexOf("file:"), path.indexOf("!"));
-                try (JarFile jarFile = new JarFile(new File(new URI(jarPath)))) {
-                    Enumeration<JarEntry> entries = jarFile.entries();
-                    while (entries.hasMoreElements()) {
-                        JarEntry entry = entries.nextElement();
-                        if (entry.getName().startsWith(resourcePath) && entry.getName().endsWith(".class")) {
-                            String className = entry.getName()
-                                    .replace("/", ".")
-                                    .replace(".class", "");
-                            processClassName(className);
-                        }
-                    }
-                }
+            long startTime = System.nanoTime();
+
+            // 优先读取构建期生成的组件索引，存在时无需扫描
+            List<String> candidates = loadComponentIndex(classLoader, basePackage);
+            if (candidates != null) {
+                logger.info("使用组件索引 {}，共 {} 个候选类", ComponentIndexProcessor.INDEX_LOCATION, candidates.size());
+            } else {
+                candidates = scanCandidateClassNames(resource, resourcePath, classLoader);
             }
-            // 3. 其他协议（不常见）
-            else {
-                logger.warn("不支持的资源协议: {}", protocol);
+
+            // 只加载筛选出的候选类（按类名排序，保证注册顺序稳定）
+            Collections.sort(candidates);
+            for (String className : candidates) {
+                processClassName(className);
             }
 
-            logger.info("包扫描完成，共注册 {} 个Bean", beanDefinitionMap.size());
+            logger.info("包扫描完成，共注册 {} 个Bean，耗时 {} ms",
+                    beanDefinitionMap.size(), (System.nanoTime() - startTime) / 1_000_000);
+        } catch (BeanDefinitionException e) {
+            throw e;
         } catch (Exception e) {
             throw new BeanDefinitionException("扫描组件失败: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 处理文件系统下的类文件
+     * 扫描包资源，并行解析类文件字节码，筛选出候选组件类名（不加载类）
      */
-    private void processClassFile(String basePackage, Path rootPath, Path classFilePath) {
-        try {
-            Path relativePath = rootPath.relativize(classFilePath);
-            String className = relativePath.toString()
-                    .replace(".class", "")
-                    .replace('/', '.')
-                    .replace('\\', '.');
-            className = basePackage + "." + className;
-            processClassName(className);
+    private List<String> scanCandidateClassNames(java.net.URL resource, String resourcePath,
+                                                 ClassLoader classLoader) throws Exception {
+        return selectCandidateClassNames(scanClassMetadata(resource, resourcePath), classLoader);
+    }
+
+    /**
+     * 扫描包资源，并行解析全部类文件的元数据
+     */
+    private List<ClassFileMetadataReader.ClassMetadata> scanClassMetadata(java.net.URL resource,
+                                                                          String resourcePath) throws Exception {
+        String protocol = resource.getProtocol();
+
+        // 1. 运行在普通文件系统中（IDE 运行或 classes 目录）
+        if ("file".equals(protocol)) {
+            Path path = Paths.get(resource.toURI());
+            List<Path> classFiles;
+            try (Stream<Path> walk = Files.walk(path)) {
+                classFiles = walk.filter(p -> p.toString().endsWith(".class")).collect(Collectors.toList());
+            }
+            return classFiles.parallelStream()
+                    .map(this::readClassMetadata)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        // 2. 运行在 jar 包中
+        if ("jar".equals(protocol)) {
+            String path = resource.getPath();
+            String jarPath = path.substring(path.indexOf("file:"), path.indexOf("!"));
+            try (JarFile jarFile = new JarFile(new File(new URI(jarPath)))) {
+                List<JarEntry> classEntries = new ArrayList<>();
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().startsWith(resourcePath) && entry.getName().endsWith(".class")) {
+                        classEntries.add(entry);
+                    }
+                }
+                return classEntries.parallelStream()
+                        .map(entry -> readClassMetadata(jarFile, entry))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+            }
+        }
+        // 3. 其他协议（不常见）
+        logger.warn("不支持的资源协议: {}", protocol);
+        return new ArrayList<>();
+    }
+
+    /**
+     * 解析文件系统下的类文件元数据，失败时返回 null
+     */
+    private ClassFileMetadataReader.ClassMetadata readClassMetadata(Path classFilePath) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(classFilePath))) {
+            return ClassFileMetadataReader.read(in);
         } catch (Exception e) {
             logger.error("处理类文件出错: {}", classFilePath, e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析 jar 包中的类文件元数据，失败时返回 null
+     */
+    private ClassFileMetadataReader.ClassMetadata readClassMetadata(JarFile jarFile, JarEntry entry) {
+        try (InputStream in = new BufferedInputStream(jarFile.getInputStream(entry))) {
+            return ClassFileMetadataReader.read(in);
+        } catch (Exception e) {
+            logger.error("处理类文件出错: {}", entry.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 筛选候选组件：标注了组件注解，或父类/接口链上（任意层级）实现了 BeanPostProcessor 的具体类
+     */
+    private List<String> selectCandidateClassNames(List<ClassFileMetadataReader.ClassMetadata> metadataList,
+                                                   ClassLoader classLoader) {
+        Map<String, ClassFileMetadataReader.ClassMetadata> scanned = new HashMap<>(metadataList.size() * 2);
+        for (ClassFileMetadataReader.ClassMetadata metadata : metadataList) {
+            scanned.put(metadata.getClassName(), metadata);
+        }
+        Map<String, Boolean> postProcessorTypes = new HashMap<>();
+        List<String> candidates = new ArrayList<>();
+        for (ClassFileMetadataReader.ClassMetadata metadata : metadataList) {
+            if (hasCandidateAnnotation(metadata)
+                    || (!metadata.isInterface() && !metadata.isAbstract()
+                    && isPostProcessorType(metadata.getClassName(), scanned, postProcessorTypes, classLoader))) {
+                candidates.add(metadata.getClassName());
+            }
+        }
+        return candidates;
+    }
+
+    private boolean hasCandidateAnnotation(ClassFileMetadataReader.ClassMetadata metadata) {
+        for (String annotationType : metadata.getAnnotationTypes()) {
+            if (CANDIDATE_ANNOTATIONS.contains(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 沿父类与接口链判断类型是否为 BeanPostProcessor（结果缓存在 resolved 中）
+     * 扫描范围外的父类型从类加载器读取字节码元数据，读取不到时再加载类判断
+     */
+    private boolean isPostProcessorType(String className,
+                                        Map<String, ClassFileMetadataReader.ClassMetadata> scanned,
+                                        Map<String, Boolean> resolved, ClassLoader classLoader) {
+        if (POST_PROCESSOR_INTERFACES.contains(className)) {
+            return true;
         }
+        // JDK 类型不可能实现框架接口
+        if (className.startsWith("java.")) {
+            return false;
+        }
+        Boolean cached = resolved.get(className);
+        if (cached != null) {
+            return cached;
+        }
+        resolved.put(className, Boolean.FALSE);
+
+        ClassFileMetadataReader.ClassMetadata metadata = scanned.get(className);
+        if (metadata == null) {
+            metadata = readClassMetadata(className, classLoader);
+        }
+        boolean result;
+        if (metadata == null) {
+            result = isPostProcessorClass(className, classLoader);
+        } else {
+            String superClassName = metadata.getSuperClassName();
+            result = superClassName != null && isPostProcessorType(superClassName, scanned, resolved, classLoader);
+            for (String interfaceName : metadata.getInterfaceNames()) {
+                if (result) {
+                    break;
+                }
+                result = isPostProcessorType(interfaceName, scanned, resolved, classLoader);
+            }
+        }
+        resolved.put(className, result);
+        return result;
+    }
+
+    /**
+     * 从类加载器读取类文件元数据，读取不到时返回 null
+     */
+    private ClassFileMetadataReader.ClassMetadata readClassMetadata(String className, ClassLoader classLoader) {
+        InputStream resource = classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (resource == null) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(resource)) {
+            return ClassFileMetadataReader.read(in);
+        } catch (IOException e) {
+            logger.debug("读取类文件元数据失败: {}", className, e);
+            return null;
+        }
+    }
+
+    /**
+     * 加载类（不初始化）判断是否实现了 BeanPostProcessor，用于无法读取字节码的父类型
+     */
+    private boolean isPostProcessorClass(String className, ClassLoader classLoader) {
+        try {
+            return BeanPostProcessor.class.isAssignableFrom(Class.forName(className, false, classLoader));
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("无法加载父类型: {}", className);
+            return false;
+        }
+    }
+
+    /**
+     * 读取组件索引文件（META-INF/springwind.components），返回指定包下的类名
+     * 未找到索引、索引中没有该包的类或设置了 -Dspringwind.index.ignore=true 时返回 null
+     * 注意：只要任一类路径根的索引包含该包的类，就只使用索引，不再扫描；
+     * 同一包下没有生成索引的类路径根（如未启用注解处理器的模块或 jar）中的组件会被直接忽略，不报错也不记录日志，
+     * 这种情况需要为这些模块也生成索引，或设置 -Dspringwind.index.ignore=true
+     */
+    private List<String> loadComponentIndex(ClassLoader classLoader, String basePackage) throws IOException {
+        if (Boolean.getBoolean(IGNORE_INDEX_PROPERTY)) {
+            return null;
+        }
+        Enumeration<java.net.URL> indexes = classLoader.getResources(ComponentIndexProcessor.INDEX_LOCATION);
+        String prefix = basePackage + ".";
+        Set<String> classNames = new LinkedHashSet<>();
+        while (indexes.hasMoreElements()) {
+            java.net.URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#") && line.startsWith(prefix)) {
+                        classNames.add(line);
+                    }
+                }
+            }
+        }
+        return classNames.isEmpty() ? null : new ArrayList<>(classNames);
     }
 
     /**
@@ -201,7 +415,8 @@ public class SpringWindApplicationContext {
             }
 
             // BeanPostProcessor 注册
-            if (BeanPostProcessor.class.isAssignableFrom(clazz) && !clazz.isInterface()) {
+            if (BeanPostProcessor.class.isAssignableFrom(clazz) && !clazz.isInterface()
+                    && !Modifier.isAbstract(clazz.getModifiers())) {
                 try {
                     BeanPostProcessor processor = (BeanPostProcessor) clazz.getDeclaredConstructor().newInstance();
                     beanPostProcessors.add(processor);
@@ -211,8 +426,10 @@ public class SpringWindApplicationContext {
                 }
             }
 
-        } catch (ClassNotFoundException e) {
+        } catch (ClassNotFoundException | LinkageError e) {
             logger.warn("无法加载类: {}", e.getMessage());
+        } catch (Error e) {
+            throw e;
         } catch (Throwable e) {
             logger.error("处理类时出错: {}", className, e);
         }
@@ -237,7 +454,7 @@ public class SpringWindApplicationContext {
             }
         }
 
-        beanDefinitionMap.put(beanName, beanDefinition);
+        putBeanDefinition(beanName, beanDefinition);
     }
 
     /**
@@ -290,10 +507,37 @@ public class SpringWindApplicationContext {
         beanMethodDef.setMethod(method);
         beanMethodDef.setConfigClass(configClass);
         
-        beanDefinitionMap.put(beanName, beanMethodDef);
+        putBeanDefinition(beanName, beanMethodDef);
         logger.debug("注册@Bean方法: {}.{}()", configClass.getSimpleName(), method.getName());
     }
 
+    /**
+     * 保存Bean定义，并使类型索引失效
+     */
+    private void putBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        synchronized (beanTypeIndexMonitor) {
+            beanDefinitionMap.put(beanName, beanDefinition);
+            beanTypeIndex = null;
+        }
+    }
+
+    /**
+     * 获取类型索引，失效后按当前Bean定义重建
+     */
+    private BeanTypeIndex getBeanTypeIndex() {
+        BeanTypeIndex index = beanTypeIndex;
+        if (index == null) {
+            synchronized (beanTypeIndexMonitor) {
+                index = beanTypeIndex;
+                if (index == null) {
+                    index = BeanTypeIndex.build(beanDefinitionMap.values());
+                    beanTypeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * 获取Bean名称
      * 
@@ -325,14 +569,100 @@ public class SpringWindApplicationContext {
      * 创建单例Bean实例（支持循环依赖检测）
      */
     private void createSingletonBeans() {
+        long startTime = System.nanoTime();
+        if (parallelSingletonCreation && singletonCreationThreads > 1) {
+            // 按依赖图并行创建互不依赖的Bean
+            new SingletonCreationScheduler(buildSingletonDependencyGraph(), singletonCreationThreads)
+                    .createAll(this::getBean);
+        } else {
+            for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
+                if ("singleton".equals(beanDefinition.getScope())) {
+                    // 通过getBean方法创建，它会自动处理依赖注入
+                    getBean(beanDefinition.getBeanName());
+                }
+            }
+        }
+        logStartupReport(System.nanoTime() - startTime);
+    }
+
+    /**
+     * 根据 @Autowired 字段和 @Bean 方法参数构建单例Bean依赖图
+     * @return Bean名称 -> 依赖的单例Bean名称
+     */
+    private Map<String, Set<String>> buildSingletonDependencyGraph() {
+        BeanTypeIndex index = getBeanTypeIndex();
+        Map<String, Set<String>> graph = new LinkedHashMap<>();
         for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
-            if ("singleton".equals(beanDefinition.getScope())) {
-                // 通过getBean方法创建，它会自动处理依赖注入
-                getBean(beanDefinition.getBeanName());
+            if (!"singleton".equals(beanDefinition.getScope())) {
+                continue;
+            }
+            List<Class<?>> dependencyTypes = new ArrayList<>();
+            if (beanDefinition instanceof BeanMethodDefinition) {
+                Collections.addAll(dependencyTypes, ((BeanMethodDefinition) beanDefinition).getMethod().getParameterTypes());
+            } else {
+                for (InjectionMetadata.InjectedField field : findInjectionMetadata(beanDefinition.getBeanClass()).getInjectedFields()) {
+                    dependencyTypes.add(field.getType());
+                }
+            }
+
+            Set<String> dependencies = new LinkedHashSet<>();
+            for (Class<?> type : dependencyTypes) {
+                // 与 getBean(Class) 一致：取索引中的第一个候选
+                List<String> candidates = index.getBeanNamesForType(type);
+                if (!candidates.isEmpty()) {
+                    BeanDefinition dependency = beanDefinitionMap.get(candidates.get(0));
+                    if (dependency != null && "singleton".equals(dependency.getScope())) {
+                        dependencies.add(candidates.get(0));
+                    }
+                }
+            }
+            graph.put(beanDefinition.getBeanName(), dependencies);
+        }
+        return graph;
+    }
+
+    /**
+     * 输出启动报告：总耗时及最慢的Bean（完整明细为DEBUG级别）
+     */
+    private void logStartupReport(long totalNanos) {
+        Map<String, Double> report = getStartupReport();
+        logger.info("单例Bean创建完成（{}），共 {} 个，耗时 {} ms",
+                parallelSingletonCreation ? "并行" : "串行", report.size(), totalNanos / 1_000_000);
+        int shown = 0;
+        for (Map.Entry<String, Double> entry : report.entrySet()) {
+            if (shown++ < 5) {
+                logger.info("  {} : {} ms", entry.getKey(), entry.getValue());
+            } else {
+                logger.debug("  {} : {} ms", entry.getKey(), entry.getValue());
             }
         }
     }
 
+    /**
+     * 获取启动报告：每个单例Bean的创建耗时（毫秒），按耗时倒序排列
+     * 耗时包含实例化、依赖注入、@PostConstruct 及后置处理；串行模式下包含首次创建的依赖Bean
+     */
+    public Map<String, Double> getStartupReport() {
+        return SingletonCreationScheduler.toReport(singletonCreationNanos);
+    }
+
+    /**
+     * 设置是否并行创建单例Bean（需在 refresh() 之前调用）
+     */
+    public void setParallelSingletonCreation(boolean parallelSingletonCreation) {
+        this.parallelSingletonCreation = parallelSingletonCreation;
+    }
+
+    /**
+     * 设置并行创建单例Bean的线程数（需在 refresh() 之前调用）
+     */
+    public void setSingletonCreationThreads(int singletonCreationThreads) {
+        if (singletonCreationThreads < 1) {
+            throw new IllegalArgumentException("线程数必须大于0: " + singletonCreationThreads);
+        }
+        this.singletonCreationThreads = singletonCreationThreads;
+    }
+
     /**
      * 创建Bean实例（使用缓存的构造器优化性能）
      * 
@@ -373,40 +703,33 @@ public class SpringWindApplicationContext {
      * @return Bean实例
      */
     private Object invokeBeanMethod(BeanMethodDefinition methodDef) {
-        try {
-            Method method = methodDef.getMethod();
-            Object configInstance = configurationInstances.get(methodDef.getConfigClass());
-            
-            if (configInstance == null) {
-                throw new BeanCreationException(methodDef.getBeanName(),
-                        "配置类实例不存在: " + methodDef.getConfigClass().getName());
-            }
-            
-            // 获取方法的参数类型
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            
-            if (parameterTypes.length == 0) {
-                // 无参数方法，直接调用
-                return method.invoke(configInstance);
-            } else {
-                // 有参数方法，需要依赖注入
-                Object[] parameters = new Object[parameterTypes.length];
-                for (int i = 0; i < parameterTypes.length; i++) {
-                    Class<?> paramType = parameterTypes[i];
-                    Object paramBean = getBean(paramType);
-                    if (paramBean == null) {
-                        throw new BeanNotFoundException(paramType);
-                    }
-                    parameters[i] = paramBean;
-                }
-                return method.invoke(configInstance, parameters);
-            }
-        } catch (InvocationTargetException e) {
+        Method method = methodDef.getMethod();
+        Object configInstance = configurationInstances.get(methodDef.getConfigClass());
+
+        if (configInstance == null) {
             throw new BeanCreationException(methodDef.getBeanName(),
-                    "@Bean方法执行失败: " + e.getTargetException().getMessage(), e);
-        } catch (IllegalAccessException e) {
+                    "配置类实例不存在: " + methodDef.getConfigClass().getName());
+        }
+
+        // 获取方法的参数类型，有参数时需要依赖注入
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] parameters = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> paramType = parameterTypes[i];
+            Object paramBean = getBean(paramType);
+            if (paramBean == null) {
+                throw new BeanNotFoundException(paramType);
+            }
+            parameters[i] = paramBean;
+        }
+
+        try {
+            return methodDef.getInvoker().invoke(configInstance, parameters);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new BeanCreationException(methodDef.getBeanName(),
-                    "无法访问@Bean方法: " + e.getMessage(), e);
+                    "@Bean方法执行失败: " + e.getMessage(), e);
         }
     }
 
@@ -436,30 +759,40 @@ public class SpringWindApplicationContext {
         }
 
         Class<?> clazz = bean.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Autowired.class)) {
-                try {
-                    field.setAccessible(true);
-                    Object dependency = getBean(field.getType());
-                    if (dependency != null) {
-                        field.set(bean, dependency);
-                        logger.debug("注入依赖: {} -> {}", clazz.getSimpleName(), field.getName());
-                    } else {
-                        Autowired autowired = field.getAnnotation(Autowired.class);
-                        // 如果required=true且依赖为null，抛出异常
-                        if (autowired.required()) {
-                            throw new BeanNotFoundException(field.getType());
-                        }
-                        logger.warn("未找到依赖 {} 的Bean (required=false)", field.getType().getSimpleName());
-                    }
-                } catch (IllegalAccessException e) {
-                    throw new BeanCreationException(clazz.getSimpleName(),
-                            "无法注入字段: " + field.getName(), e);
+        InjectionMetadata metadata = findInjectionMetadata(clazz);
+        if (metadata.isEmpty()) {
+            return;
+        }
+
+        BeanTypeIndex index = getBeanTypeIndex();
+        for (InjectionMetadata.InjectedField field : metadata.getInjectedFields()) {
+            String dependencyName = field.resolveBeanName(index);
+            Object dependency = dependencyName != null ? getBean(dependencyName) : null;
+            if (dependency == null) {
+                // 如果required=true且依赖为null，抛出异常
+                if (field.isRequired()) {
+                    throw new BeanNotFoundException(field.getType());
                 }
+                logger.warn("未找到依赖 {} 的Bean (required=false)", field.getType().getSimpleName());
+                continue;
+            }
+            try {
+                field.inject(bean, dependency);
+                logger.debug("注入依赖: {} -> {}", clazz.getSimpleName(), field.getName());
+            } catch (IllegalAccessException | ClassCastException e) {
+                throw new BeanCreationException(clazz.getSimpleName(),
+                        "无法注入字段: " + field.getName(), e);
             }
         }
     }
 
+    /**
+     * 获取类的注入元数据（按类缓存，原型Bean重复创建时不再反射字段）
+     */
+    private InjectionMetadata findInjectionMetadata(Class<?> clazz) {
+        return injectionMetadataCache.computeIfAbsent(clazz, InjectionMetadata::forClass);
+    }
+
     /**
      * 执行初始化方法（@PostConstruct标注的方法）
      * 注：Bean初始化已经在getBean()方法中执行过了，此方法为备用
@@ -516,18 +849,11 @@ public class SpringWindApplicationContext {
     public Map<String, Object> getBeansWithAnnotation(Class<? extends Annotation> annotationType) {
         Map<String, Object> result = new HashMap<>();
 
-        // 遍历所有Bean定义
-        for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
-            String beanName = entry.getKey();
-            BeanDefinition beanDefinition = entry.getValue();
-            Class<?> beanClass = beanDefinition.getBeanClass();
-
-            // 检查类上是否有指定注解
-            if (beanClass.isAnnotationPresent(annotationType)) {
-                Object beanInstance = getBean(beanName);
-                if (beanInstance != null) {
-                    result.put(beanName, beanInstance);
-                }
+        // 通过注解索引直接获取Bean名称
+        for (String beanName : getBeanTypeIndex().getBeanNamesForAnnotation(annotationType)) {
+            Object beanInstance = getBean(beanName);
+            if (beanInstance != null) {
+                result.put(beanName, beanInstance);
             }
         }
 
@@ -550,15 +876,11 @@ public class SpringWindApplicationContext {
     public <T> Map<String, T> getBeansOfType(Class<T> type) {
         Map<String, T> result = new HashMap<>();
 
-        for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
-            String beanName = entry.getKey();
-            BeanDefinition beanDefinition = entry.getValue();
-
-            if (type.isAssignableFrom(beanDefinition.getBeanClass())) {
-                Object beanInstance = getBean(beanName);
-                if (beanInstance != null) {
-                    result.put(beanName, type.cast(beanInstance));
-                }
+        // 通过类型索引直接获取Bean名称
+        for (String beanName : getBeanTypeIndex().getBeanNamesForType(type)) {
+            Object beanInstance = getBean(beanName);
+            if (beanInstance != null) {
+                result.put(beanName, type.cast(beanInstance));
             }
         }
 
@@ -601,8 +923,10 @@ public class SpringWindApplicationContext {
             return bean;
         }
 
-        // 2. 检查循环依赖：如果当前Bean正在创建中
-        if (singletonsCurrentlyInCreation.contains(beanName)) {
+        // 2. 检查循环依赖：如果当前线程正在创建该Bean
+        ReentrantLock heldLock = singletonCreationLocks.get(beanName);
+        if (heldLock != null && heldLock.isHeldByCurrentThread()
+                && singletonsCurrentlyInCreation.contains(beanName)) {
             // 先从二级缓存获取早期对象
             bean = earlySingletonObjects.get(beanName);
             if (bean != null) {
@@ -623,9 +947,45 @@ public class SpringWindApplicationContext {
             throw new CircularDependencyException(beanName, new HashSet<>(singletonsCurrentlyInCreation));
         }
 
+        // 其他线程正在创建该Bean时等待其完成（并行创建模式），完成后直接返回
+        ReentrantLock creationLock = singletonCreationLocks.computeIfAbsent(beanName, k -> new ReentrantLock());
+        acquireCreationLock(beanName, creationLock);
+        try {
+            bean = singletonObjects.get(beanName);
+            if (bean != null) {
+                return bean;
+            }
+            return createSingleton(beanName, beanDefinition);
+        } finally {
+            creationLock.unlock();
+        }
+    }
+
+    /**
+     * 等待获取Bean的创建锁，超时说明可能存在跨线程的循环依赖
+     */
+    private void acquireCreationLock(String beanName, ReentrantLock creationLock) {
+        try {
+            if (!creationLock.tryLock(CREATION_LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new BeanCreationException(beanName,
+                        "等待其他线程创建Bean超时（" + CREATION_LOCK_TIMEOUT_SECONDS + "s），可能存在跨线程循环依赖");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanCreationException(beanName, "等待Bean创建时线程被中断", e);
+        }
+    }
+
+    /**
+     * 创建单例Bean：实例化 -> 三级缓存 -> 依赖注入 -> 初始化 -> 后置处理
+     * 调用方需持有该Bean的创建锁
+     */
+    private Object createSingleton(String beanName, BeanDefinition beanDefinition) {
+        Object bean;
         // 标记为正在创建
         singletonsCurrentlyInCreation.add(beanName);
 
+        long startTime = System.nanoTime();
         try {
             // 1. 实例化
             if (beanDefinition instanceof BeanMethodDefinition) {
@@ -654,10 +1014,12 @@ public class SpringWindApplicationContext {
             bean = applyBeanPostProcessorsBeforeInitialization(bean, beanName);
 
             // 5. 执行 @PostConstruct
-            if (beanDefinition.getInitMethod() != null) {
+            if (beanDefinition.getInitMethodInvoker() != null) {
                 try {
-                    beanDefinition.getInitMethod().invoke(bean);
-                } catch (IllegalAccessException | InvocationTargetException e) {
+                    beanDefinition.getInitMethodInvoker().invoke(bean);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
                     throw new BeanCreationException(beanName, "执行初始化方法失败", e);
                 }
             }
@@ -672,6 +1034,7 @@ public class SpringWindApplicationContext {
             earlySingletonObjects.remove(beanName);
             singletonFactories.remove(beanName);
 
+            singletonCreationNanos.put(beanName, System.nanoTime() - startTime);
             logger.debug("创建单例Bean: {}", beanName);
             return bean;
         } finally {
@@ -720,11 +1083,10 @@ public class SpringWindApplicationContext {
             throw new IllegalArgumentException("Bean类型不能为null");
         }
 
-        for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
-            if (requiredType.isAssignableFrom(beanDefinition.getBeanClass())) {
-                Object bean = getBean(beanDefinition.getBeanName());
-                return requiredType.cast(bean);
-            }
+        List<String> beanNames = getBeanTypeIndex().getBeanNamesForType(requiredType);
+        if (!beanNames.isEmpty()) {
+            Object bean = getBean(beanNames.get(0));
+            return requiredType.cast(bean);
         }
 
         // 未找到Bean，返回null（调用方需要处理）
@@ -737,11 +1099,13 @@ public class SpringWindApplicationContext {
      */
     public void close() {
         for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
-            if (beanDefinition.getDestroyMethod() != null) {
+            if (beanDefinition.getDestroyMethodInvoker() != null) {
                 try {
                     Object bean = getBean(beanDefinition.getBeanName());
-                    beanDefinition.getDestroyMethod().invoke(bean);
-                } catch (IllegalAccessException | InvocationTargetException e) {
+                    beanDefinition.getDestroyMethodInvoker().invoke(bean);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
                     logger.error("执行销毁方法失败: {}", beanDefinition.getBeanName(), e);
                 }
             }
@@ -749,7 +1113,10 @@ public class SpringWindApplicationContext {
         singletonObjects.clear();
         earlySingletonObjects.clear();
         singletonFactories.clear();
-        beanDefinitionMap.clear();
+        synchronized (beanTypeIndexMonitor) {
+            beanDefinitionMap.clear();
+            beanTypeIndex = null;
+        }
         logger.info("容器已关闭");
     }
 }
\ No newline at end of file
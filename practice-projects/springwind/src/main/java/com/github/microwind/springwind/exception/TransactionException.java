@@ -0,0 +1,16 @@
+package com.github.microwind.springwind.exception;
+
+/**
+ * 事务异常
+ * 开启、提交、回滚事务失败或事务传播行为不满足时抛出此异常
+ */
+public class TransactionException extends RuntimeException {
+
+    public TransactionException(String message) {
+        super(message);
+    }
+
+    public TransactionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量更新结果
+ * 包含每条参数对应的影响行数、自动生成的主键（按参数顺序）以及吞吐统计
+ */
+public class BatchUpdateResult {
+    private final int[] updateCounts;
+    private final List<Object> generatedKeys;
+    private final long elapsedNanos;
+
+    public BatchUpdateResult(int[] updateCounts, List<Object> generatedKeys, long elapsedNanos) {
+        this.updateCounts = updateCounts;
+        this.generatedKeys = generatedKeys != null ? Collections.unmodifiableList(generatedKeys) : Collections.emptyList();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 每条参数对应的影响行数（驱动可能返回 Statement.SUCCESS_NO_INFO）
+     */
+    public int[] getUpdateCounts() {
+        return updateCounts;
+    }
+
+    /**
+     * 自动生成的主键（未请求返回主键时为空列表）
+     */
+    public List<Object> getGeneratedKeys() {
+        return generatedKeys;
+    }
+
+    /**
+     * 处理的参数行数
+     */
+    public int getRowCount() {
+        return updateCounts.length;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * 吞吐量（行/秒）
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? updateCounts.length * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchUpdateResult{rows=" + getRowCount() + ", keys=" + generatedKeys.size()
+                + ", elapsed=" + getElapsedMillis() + "ms, rowsPerSecond=" + Math.round(getRowsPerSecond()) + "}";
+    }
+}
@@ -0,0 +1,397 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于属性名的行映射器（支持普通 JavaBean 与 record）
+ * 列名忽略大小写和下划线后与属性名匹配（created_time -> createdTime）
+ *
+ * 按列名和列类型组合（查询形态）编译映射计划并缓存：
+ * 列下标、按列类型选定的读取方式、绑定为 MethodHandle 的构造器和 setter，
+ * 逐行映射时按下标读取，不再按列名查找，也不再反射。
+ * 通过 JdbcTemplate 查询时，每个结果集只在 {@link #forResultSet} 中读取一次元数据并选定计划；
+ * 直接调用 {@link #mapRow} 时每行都要读取元数据查找计划
+ *
+ * 映射器不持有结果集，线程安全，可作为常量在 DAO 中复用：
+ * <pre>
+ * private static final RowMapper&lt;User&gt; USER_MAPPER = new BeanPropertyRowMapper&lt;&gt;(User.class);
+ * </pre>
+ */
+public class BeanPropertyRowMapper<T> implements RowMapper<T> {
+
+    // 类 -> 可写属性（按规范化名称）
+    private static final Map<Class<?>, Map<String, Property>> propertyCache = new ConcurrentHashMap<>();
+
+    private final Class<T> mappedClass;
+    // 列名和列类型组合 -> 映射计划
+    private final Map<String, MappingPlan<T>> planCache = new ConcurrentHashMap<>();
+
+    public BeanPropertyRowMapper(Class<T> mappedClass) {
+        if (mappedClass == null) {
+            throw new IllegalArgumentException("映射类型不能为 null");
+        }
+        this.mappedClass = mappedClass;
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return resolvePlan(rs.getMetaData()).map(rs);
+    }
+
+    /**
+     * 按结果集元数据选定映射计划，返回的映射器只用于该结果集
+     */
+    @Override
+    public RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+        MappingPlan<T> plan = resolvePlan(rs.getMetaData());
+        return (resultSet, rowNum) -> plan.map(resultSet);
+    }
+
+    private MappingPlan<T> resolvePlan(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] columns = new String[columnCount];
+        int[] sqlTypes = new int[columnCount];
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = normalize(metaData.getColumnLabel(i + 1));
+            sqlTypes[i] = metaData.getColumnType(i + 1);
+            key.append(columns[i]).append(':').append(sqlTypes[i]).append(',');
+        }
+        MappingPlan<T> plan = planCache.get(key.toString());
+        if (plan == null) {
+            plan = mappedClass.isRecord()
+                    ? createRecordPlan(columns, sqlTypes)
+                    : createBeanPlan(columns, sqlTypes);
+            planCache.putIfAbsent(key.toString(), plan);
+        }
+        return plan;
+    }
+
+    // -------------------- 映射计划 --------------------
+
+    private MappingPlan<T> createBeanPlan(String[] columns, int[] sqlTypes) {
+        MethodHandle constructor;
+        try {
+            Constructor<T> ctor = mappedClass.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(ctor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(mappedClass.getName() + " 缺少可访问的无参构造函数", e);
+        }
+
+        Map<String, Property> properties = propertiesOf(mappedClass);
+        int bound = 0;
+        int[] indexes = new int[columns.length];
+        ColumnReader[] readers = new ColumnReader[columns.length];
+        MethodHandle[] setters = new MethodHandle[columns.length];
+        boolean[] primitives = new boolean[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Property property = properties.get(columns[i]);
+            if (property == null) {
+                continue;
+            }
+            indexes[bound] = i + 1;
+            readers[bound] = readerFor(property.type, sqlTypes[i]);
+            setters[bound] = property.setter;
+            primitives[bound] = property.type.isPrimitive();
+            bound++;
+        }
+        return new BeanPlan<>(constructor, trim(indexes, bound), trim(readers, bound),
+                trim(setters, bound), trim(primitives, bound));
+    }
+
+    private MappingPlan<T> createRecordPlan(String[] columns, int[] sqlTypes) {
+        RecordComponent[] components = mappedClass.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+
+        MethodHandle constructor;
+        try {
+            Constructor<T> ctor = mappedClass.getDeclaredConstructor(types);
+            ctor.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("无法访问 record 构造函数: " + mappedClass.getName(), e);
+        }
+
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            columnIndexes.putIfAbsent(columns[i], i);
+        }
+        int[] indexes = new int[components.length];
+        ColumnReader[] readers = new ColumnReader[components.length];
+        Object[] defaults = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Integer column = columnIndexes.get(normalize(components[i].getName()));
+            defaults[i] = defaultValue(types[i]);
+            if (column != null) {
+                indexes[i] = column + 1;
+                readers[i] = readerFor(types[i], sqlTypes[column]);
+            }
+        }
+        return new RecordPlan<>(constructor, indexes, readers, defaults);
+    }
+
+    /**
+     * 映射计划：一种查询形态下的行映射方式
+     */
+    private interface MappingPlan<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static final class BeanPlan<T> implements MappingPlan<T> {
+        private final MethodHandle constructor;
+        private final int[] indexes;
+        private final ColumnReader[] readers;
+        private final MethodHandle[] setters;
+        private final boolean[] primitives;
+
+        BeanPlan(MethodHandle constructor, int[] indexes, ColumnReader[] readers,
+                 MethodHandle[] setters, boolean[] primitives) {
+            this.constructor = constructor;
+            this.indexes = indexes;
+            this.readers = readers;
+            this.setters = setters;
+            this.primitives = primitives;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(ResultSet rs) throws SQLException {
+            try {
+                Object bean = (Object) constructor.invokeExact();
+                for (int i = 0; i < indexes.length; i++) {
+                    Object value = readers[i].read(rs, indexes[i]);
+                    // 基本类型属性遇到 NULL 保持默认值
+                    if (value != null || !primitives[i]) {
+                        setters[i].invokeExact(bean, value);
+                    }
+                }
+                return (T) bean;
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException("映射行失败: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class RecordPlan<T> implements MappingPlan<T> {
+        private final MethodHandle constructor;
+        private final int[] indexes;
+        private final ColumnReader[] readers;
+        private final Object[] defaults;
+
+        RecordPlan(MethodHandle constructor, int[] indexes, ColumnReader[] readers, Object[] defaults) {
+            this.constructor = constructor;
+            this.indexes = indexes;
+            this.readers = readers;
+            this.defaults = defaults;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(ResultSet rs) throws SQLException {
+            Object[] args = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                Object value = readers[i] != null ? readers[i].read(rs, indexes[i]) : null;
+                args[i] = value != null ? value : defaults[i];
+            }
+            try {
+                return (T) (Object) constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException("映射行失败: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // -------------------- 属性解析 --------------------
+
+    /**
+     * 可写属性：setter 优先，没有 setter 时使用非 final 字段
+     */
+    private static final class Property {
+        private final Class<?> type;
+        // (Object, Object)void
+        private final MethodHandle setter;
+
+        Property(Class<?> type, MethodHandle setter) {
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    private static Map<String, Property> propertiesOf(Class<?> clazz) {
+        return propertyCache.computeIfAbsent(clazz, BeanPropertyRowMapper::resolveProperties);
+    }
+
+    private static Map<String, Property> resolveProperties(Class<?> clazz) {
+        MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, Property> properties = new HashMap<>();
+
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                String name = normalize(field.getName());
+                if (properties.containsKey(name)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    properties.put(name, new Property(field.getType(),
+                            lookup.unreflectSetter(field).asType(setterType)));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    // 无法访问的字段跳过
+                }
+            }
+        }
+
+        // setter 覆盖同名字段
+        for (Method method : clazz.getMethods()) {
+            if (method.getParameterCount() == 1 && method.getName().length() > 3
+                    && method.getName().startsWith("set") && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    properties.put(normalize(method.getName().substring(3)), new Property(method.getParameterTypes()[0],
+                            lookup.unreflect(method).asType(setterType)));
+                } catch (IllegalAccessException e) {
+                    // 无法访问的 setter 跳过
+                }
+            }
+        }
+        return properties;
+    }
+
+    // -------------------- 列读取 --------------------
+
+    /**
+     * 按下标读取列值并转换为目标类型（NULL 返回 null）
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    /**
+     * 根据属性类型和列类型选定读取方式（编译映射计划时执行一次）
+     */
+    private static ColumnReader readerFor(Class<?> type, int sqlType) {
+        boolean temporalColumn = sqlType == Types.TIMESTAMP || sqlType == Types.DATE
+                || sqlType == Types.TIMESTAMP_WITH_TIMEZONE;
+        if (type == String.class) {
+            return ResultSet::getString;
+        }
+        if (type == Long.class || type == long.class) {
+            if (temporalColumn) {
+                // 时间列映射为毫秒时间戳
+                return (rs, i) -> {
+                    Timestamp value = rs.getTimestamp(i);
+                    return value != null ? value.getTime() : null;
+                };
+            }
+            return (rs, i) -> {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Integer.class || type == int.class) {
+            return (rs, i) -> {
+                int value = rs.getInt(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Double.class || type == double.class) {
+            return (rs, i) -> {
+                double value = rs.getDouble(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return (rs, i) -> {
+                boolean value = rs.getBoolean(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        }
+        if (type == LocalDateTime.class) {
+            return (rs, i) -> {
+                Timestamp value = rs.getTimestamp(i);
+                return value != null ? value.toLocalDateTime() : null;
+            };
+        }
+        if (type == LocalDate.class) {
+            return (rs, i) -> {
+                java.sql.Date value = rs.getDate(i);
+                return value != null ? value.toLocalDate() : null;
+            };
+        }
+        if (type == java.util.Date.class || type == Timestamp.class) {
+            return ResultSet::getTimestamp;
+        }
+        Class<?> targetType = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+        return (rs, i) -> rs.getObject(i, targetType);
+    }
+
+    // -------------------- 工具方法 --------------------
+
+    /** 规范化名称：去掉下划线并转小写 */
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return 0;
+    }
+
+    private static int[] trim(int[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    private static boolean[] trim(boolean[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    private static <E> E[] trim(E[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+}
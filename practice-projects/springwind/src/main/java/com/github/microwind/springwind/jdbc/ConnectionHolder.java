@@ -0,0 +1,50 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 事务连接持有者
+ * 事务期间绑定到当前线程，同一线程内的 JdbcTemplate 调用共用该连接
+ */
+class ConnectionHolder {
+    private final Connection connection;
+    private final boolean readOnly;
+    private boolean rollbackOnly = false;
+    // 事务结束、连接释放前执行的回调（如清理语句缓存），按键去重
+    private final Map<Object, Runnable> releaseCallbacks = new LinkedHashMap<>();
+
+    ConnectionHolder(Connection connection, boolean readOnly) {
+        this.connection = connection;
+        this.readOnly = readOnly;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * 标记为仅回滚（加入的内层事务方法抛出异常时）
+     */
+    void setRollbackOnly() {
+        this.rollbackOnly = true;
+    }
+
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    void addReleaseCallback(Object key, Runnable callback) {
+        releaseCallbacks.putIfAbsent(key, callback);
+    }
+
+    void runReleaseCallbacks() {
+        releaseCallbacks.values().forEach(Runnable::run);
+        releaseCallbacks.clear();
+    }
+}
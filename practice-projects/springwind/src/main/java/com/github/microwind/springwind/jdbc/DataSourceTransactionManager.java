@@ -0,0 +1,227 @@
+package com.github.microwind.springwind.jdbc;
+
+import com.github.microwind.springwind.annotation.Propagation;
+import com.github.microwind.springwind.exception.TransactionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Predicate;
+
+/**
+ * 数据源事务管理器
+ * 开启事务时从数据源获取一个连接并绑定到当前线程，事务内的 JdbcTemplate 调用共用该连接，
+ * 结束时统一提交或回滚，再释放连接
+ */
+public class DataSourceTransactionManager {
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceTransactionManager.class);
+
+    // 默认回滚规则：RuntimeException 和 Error
+    private static final Predicate<Throwable> DEFAULT_ROLLBACK_RULE =
+            ex -> ex instanceof RuntimeException || ex instanceof Error;
+
+    private final DataSource dataSource;
+
+    public DataSourceTransactionManager(DataSource dataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("DataSource 不能为 null");
+        }
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 在默认事务（REQUIRED，读写）中执行
+     */
+    public <T> T execute(TransactionCallback<T> action) throws Throwable {
+        return execute(Propagation.REQUIRED, false, DEFAULT_ROLLBACK_RULE, action);
+    }
+
+    /**
+     * 按传播行为执行
+     * @param propagation 传播行为
+     * @param readOnly 是否只读（仅对新建的事务生效）
+     * @param rollbackOn 判断异常是否需要回滚，为 null 时使用默认规则
+     * @param action 业务逻辑
+     * @return 业务逻辑返回值
+     * @throws Throwable 业务逻辑抛出的原始异常，或事务操作失败时的 TransactionException
+     */
+    public <T> T execute(Propagation propagation, boolean readOnly, Predicate<Throwable> rollbackOn,
+                         TransactionCallback<T> action) throws Throwable {
+        Predicate<Throwable> rule = rollbackOn != null ? rollbackOn : DEFAULT_ROLLBACK_RULE;
+        ConnectionHolder existing = DataSourceUtils.getHolder(dataSource);
+
+        switch (propagation) {
+            case MANDATORY:
+                if (existing == null) {
+                    throw new TransactionException("当前没有事务，传播行为 MANDATORY 要求在事务中执行");
+                }
+                return joinTransaction(existing, rule, action);
+            case NEVER:
+                if (existing != null) {
+                    throw new TransactionException("当前存在事务，传播行为 NEVER 不允许在事务中执行");
+                }
+                return action.doInTransaction();
+            case SUPPORTS:
+                return existing != null ? joinTransaction(existing, rule, action) : action.doInTransaction();
+            case NOT_SUPPORTED:
+                return runSuspended(existing, action);
+            case REQUIRES_NEW:
+                return runSuspended(existing, () -> doInNewTransaction(readOnly, rule, action));
+            case REQUIRED:
+            default:
+                return existing != null
+                        ? joinTransaction(existing, rule, action)
+                        : doInNewTransaction(readOnly, rule, action);
+        }
+    }
+
+    /**
+     * 加入已有事务：异常需要回滚时只标记，由最外层事务回滚
+     */
+    private <T> T joinTransaction(ConnectionHolder holder, Predicate<Throwable> rollbackOn,
+                                  TransactionCallback<T> action) throws Throwable {
+        try {
+            return action.doInTransaction();
+        } catch (Throwable ex) {
+            if (rollbackOn.test(ex)) {
+                holder.setRollbackOnly();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 挂起当前事务执行，结束后恢复
+     */
+    private <T> T runSuspended(ConnectionHolder suspended, TransactionCallback<T> action) throws Throwable {
+        if (suspended == null) {
+            return action.doInTransaction();
+        }
+        DataSourceUtils.unbind(dataSource);
+        try {
+            return action.doInTransaction();
+        } finally {
+            DataSourceUtils.bind(dataSource, suspended);
+        }
+    }
+
+    private <T> T doInNewTransaction(boolean readOnly, Predicate<Throwable> rollbackOn,
+                                     TransactionCallback<T> action) throws Throwable {
+        Connection conn;
+        boolean restoreAutoCommit;
+        boolean restoreReadOnly = false;
+        try {
+            conn = dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new TransactionException("获取事务连接失败", e);
+        }
+        try {
+            restoreAutoCommit = conn.getAutoCommit();
+            if (restoreAutoCommit) {
+                conn.setAutoCommit(false);
+            }
+            if (readOnly && !conn.isReadOnly()) {
+                conn.setReadOnly(true);
+                restoreReadOnly = true;
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw new TransactionException("开启事务失败", e);
+        }
+
+        ConnectionHolder holder = new ConnectionHolder(conn, readOnly);
+        DataSourceUtils.bind(dataSource, holder);
+        logger.debug("开启事务: readOnly={}", readOnly);
+        try {
+            T result;
+            try {
+                result = action.doInTransaction();
+            } catch (Throwable ex) {
+                if (rollbackOn.test(ex) || holder.isRollbackOnly()) {
+                    rollbackOnException(conn, ex);
+                } else {
+                    commitOnException(conn, ex);
+                }
+                throw ex;
+            }
+
+            if (holder.isRollbackOnly()) {
+                rollback(conn);
+                throw new TransactionException("事务已被内层方法标记为仅回滚，已回滚");
+            }
+            commit(conn);
+            return result;
+        } finally {
+            DataSourceUtils.unbind(dataSource);
+            holder.runReleaseCallbacks();
+            try {
+                if (restoreReadOnly) {
+                    conn.setReadOnly(false);
+                }
+                if (restoreAutoCommit) {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.error("恢复连接状态失败", e);
+            }
+            closeQuietly(conn);
+        }
+    }
+
+    private void commit(Connection conn) {
+        try {
+            conn.commit();
+            logger.debug("提交事务");
+        } catch (SQLException e) {
+            throw new TransactionException("提交事务失败", e);
+        }
+    }
+
+    private void rollback(Connection conn) {
+        try {
+            conn.rollback();
+            logger.debug("回滚事务");
+        } catch (SQLException e) {
+            throw new TransactionException("回滚事务失败", e);
+        }
+    }
+
+    /**
+     * 业务异常时回滚，回滚失败只记录日志，保留原始异常
+     */
+    private void rollbackOnException(Connection conn, Throwable ex) {
+        try {
+            conn.rollback();
+            logger.debug("业务异常，回滚事务: {}", ex.toString());
+        } catch (SQLException e) {
+            logger.error("回滚事务失败", e);
+            ex.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 不需要回滚的业务异常时提交，提交失败挂到原始异常上，保留原始异常
+     */
+    private void commitOnException(Connection conn, Throwable ex) {
+        try {
+            commit(conn);
+        } catch (TransactionException e) {
+            logger.error("提交事务失败", e);
+            ex.addSuppressed(e);
+        }
+    }
+
+    private void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.error("关闭 Connection 失败", e);
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+}
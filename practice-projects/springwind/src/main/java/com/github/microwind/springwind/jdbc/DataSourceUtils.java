@@ -0,0 +1,89 @@
+package com.github.microwind.springwind.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数据源连接工具
+ * 当前线程存在事务时返回事务绑定的连接，否则从数据源获取新连接；
+ * 释放连接时不会关闭事务连接，由事务管理器在事务结束时关闭
+ *
+ * 使用 ThreadLocal 绑定，虚拟线程同样各自持有独立的绑定
+ */
+public final class DataSourceUtils {
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceUtils.class);
+
+    private static final ThreadLocal<Map<DataSource, ConnectionHolder>> resources = new ThreadLocal<>();
+
+    private DataSourceUtils() {
+    }
+
+    /**
+     * 获取连接（优先使用当前事务的连接）
+     */
+    public static Connection getConnection(DataSource dataSource) throws SQLException {
+        ConnectionHolder holder = getHolder(dataSource);
+        return holder != null ? holder.getConnection() : dataSource.getConnection();
+    }
+
+    /**
+     * 释放连接：事务连接保持打开，非事务连接直接关闭
+     */
+    public static void releaseConnection(Connection conn, DataSource dataSource) {
+        if (conn == null || isConnectionTransactional(conn, dataSource)) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.error("关闭 Connection 失败", e);
+        }
+    }
+
+    /**
+     * 是否为当前线程事务绑定的连接
+     */
+    public static boolean isConnectionTransactional(Connection conn, DataSource dataSource) {
+        ConnectionHolder holder = getHolder(dataSource);
+        return holder != null && holder.getConnection() == conn;
+    }
+
+    /**
+     * 当前线程是否存在该数据源的事务
+     */
+    public static boolean isTransactionActive(DataSource dataSource) {
+        return getHolder(dataSource) != null;
+    }
+
+    static ConnectionHolder getHolder(DataSource dataSource) {
+        Map<DataSource, ConnectionHolder> map = resources.get();
+        return map != null ? map.get(dataSource) : null;
+    }
+
+    static void bind(DataSource dataSource, ConnectionHolder holder) {
+        Map<DataSource, ConnectionHolder> map = resources.get();
+        if (map == null) {
+            map = new HashMap<>();
+            resources.set(map);
+        }
+        map.put(dataSource, holder);
+    }
+
+    static ConnectionHolder unbind(DataSource dataSource) {
+        Map<DataSource, ConnectionHolder> map = resources.get();
+        if (map == null) {
+            return null;
+        }
+        ConnectionHolder holder = map.remove(dataSource);
+        if (map.isEmpty()) {
+            resources.remove();
+        }
+        return holder;
+    }
+}
@@ -8,18 +8,38 @@ import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * SpringWind JDBC模板类
  * 
- * <p>注意：本模板不支持事务管理。如需事务，请在外部通过 Connection 手动控制，
- * 或使用 Spring 的 @Transactional。</p>
+ * <p>当前线程存在事务（DataSourceTransactionManager / @Transactional）时，
+ * 所有操作复用事务绑定的连接，由事务统一提交或回滚；否则每次操作从数据源获取连接并自动提交。</p>
  */
 public class JdbcTemplate {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcTemplate.class);
 
     private final DataSource dataSource;
+    // 每次从数据库读取的行数提示（0 表示使用驱动默认值）
+    private int fetchSize = 0;
+    // 最大返回行数（0 表示不限制）
+    private int maxRows = 0;
+    // 批量更新每块的行数
+    private int batchSize = 1000;
+    // 分块提交的批量更新并行执行的连接数（1 表示串行）
+    private int batchParallelism = 1;
+    // 事务内的 PreparedStatement 缓存（默认关闭）
+    private volatile StatementCache statementCache;
 
     public JdbcTemplate(DataSource dataSource) {
         if (dataSource == null) {
@@ -38,8 +58,8 @@ public class JdbcTemplate {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            conn = dataSource.getConnection();
-            ps = conn.prepareStatement(sql);
+            conn = getConnection();
+            ps = prepareStatement(conn, sql, true);
             setParameters(ps, args);
             int rows = ps.executeUpdate();
             logger.debug("执行更新 SQL: {}, 影响行数: {}", sql, rows);
@@ -89,15 +109,16 @@ public class JdbcTemplate {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            conn = dataSource.getConnection();
-            ps = conn.prepareStatement(sql);
+            conn = getConnection();
+            ps = prepareStatement(conn, sql, true);
             setParameters(ps, args);
             rs = ps.executeQuery();
 
+            RowMapper<T> mapper = rowMapper.forResultSet(rs);
             List<T> results = new ArrayList<>();
             int rowNum = 0;
             while (rs.next()) {
-                results.add(rowMapper.mapRow(rs, rowNum++));
+                results.add(mapper.mapRow(rs, rowNum++));
             }
             logger.debug("执行查询 SQL: {}, 返回行数: {}", sql, results.size());
             return results;
@@ -109,6 +130,85 @@ public class JdbcTemplate {
         }
     }
 
+    /**
+     * 逐行回调处理查询结果（不在内存中保留结果，游标在回调期间保持打开，结束后立即关闭）
+     * 大结果集建议配合 setFetchSize 使用
+     * @param sql SQL语句
+     * @param rch 行回调处理器
+     * @param args 参数数组
+     */
+    public void query(String sql, RowCallbackHandler rch, Object... args) {
+        if (rch == null) {
+            throw new IllegalArgumentException("RowCallbackHandler 不能为 null");
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = getConnection();
+            // 游标可能长时间打开，不使用缓存语句
+            ps = prepareStatement(conn, sql, false);
+            setParameters(ps, args);
+            rs = ps.executeQuery();
+
+            int rowCount = 0;
+            while (rs.next()) {
+                rch.processRow(rs);
+                rowCount++;
+            }
+            logger.debug("执行查询 SQL: {}, 处理行数: {}", sql, rowCount);
+        } catch (SQLException e) {
+            logger.error("执行查询失败: {}", sql, e);
+            throw new RuntimeException("执行查询失败: " + sql, e);
+        } finally {
+            closeResources(conn, ps, rs);
+        }
+    }
+
+    /**
+     * 以流的方式查询，逐行映射，不在内存中保留结果
+     * 流持有打开的连接和游标，必须在 try-with-resources 中使用，关闭流时释放资源：
+     * <pre>
+     * try (Stream&lt;User&gt; users = jdbcTemplate.queryForStream(sql, mapper)) {
+     *     users.forEach(...);
+     * }
+     * </pre>
+     * 遍历结束时也会自动释放资源
+     * @param sql SQL语句
+     * @param rowMapper 行映射器
+     * @param args 参数数组
+     * @return 查询结果流
+     */
+    public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, Object... args) {
+        if (rowMapper == null) {
+            throw new IllegalArgumentException("RowMapper 不能为 null");
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        RowMapper<T> mapper;
+        try {
+            conn = getConnection();
+            ps = prepareStatement(conn, sql, false);
+            setParameters(ps, args);
+            rs = ps.executeQuery();
+            mapper = rowMapper.forResultSet(rs);
+        } catch (SQLException e) {
+            closeResources(conn, ps, rs);
+            logger.error("执行查询失败: {}", sql, e);
+            throw new RuntimeException("执行查询失败: " + sql, e);
+        } catch (RuntimeException | Error e) {
+            // 映射器解析结果集失败等：同样释放连接和游标
+            closeResources(conn, ps, rs);
+            throw e;
+        }
+
+        ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(sql, conn, ps, rs, mapper);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
     /**
      * 查询单个标量值（如 count(*), max(id) 等）
      * @param sql SQL语句（通常返回单列单行）
@@ -175,37 +275,260 @@ public class JdbcTemplate {
     }
 
     /**
-     * 批量更新操作
+     * 批量更新操作（全部成功或全部回滚）
+     * 按 batchSize 分块执行 executeBatch，所有块在同一连接、同一事务中执行，最后统一提交
      * @param sql SQL语句
      * @param batchArgs 批量参数列表（每个元素是一个参数数组）
      * @return 每条SQL影响的行数数组
      */
     public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+        return batchUpdate(sql, batchArgs, false).getUpdateCounts();
+    }
+
+    /**
+     * 批量更新操作，可返回自动生成的主键（全部成功或全部回滚）
+     * 按 batchSize 分块执行 executeBatch，所有块在同一连接、同一事务中执行，最后统一提交
+     * @param sql SQL语句
+     * @param batchArgs 批量参数列表（每个元素是一个参数数组）
+     * @param returnGeneratedKeys 是否返回自动生成的主键（按参数顺序）
+     * @return 批量更新结果（影响行数、主键、吞吐统计）
+     */
+    public BatchUpdateResult batchUpdate(String sql, List<Object[]> batchArgs, boolean returnGeneratedKeys) {
+        return executeBatchUpdate(sql, batchArgs, returnGeneratedKeys, false);
+    }
+
+    /**
+     * 分块提交的批量更新，适合大批量导入
+     * 按 batchSize 分块，每块在独立事务中执行并提交；batchParallelism 大于1时各块使用不同连接并行执行。
+     * 注：某块失败时已提交的块不会回滚；当前存在事务时所有块加入该事务串行执行
+     * @param sql SQL语句
+     * @param batchArgs 批量参数列表（每个元素是一个参数数组）
+     * @param returnGeneratedKeys 是否返回自动生成的主键（按参数顺序）
+     * @return 批量更新结果（影响行数、主键、吞吐统计）
+     */
+    public BatchUpdateResult chunkedBatchUpdate(String sql, List<Object[]> batchArgs, boolean returnGeneratedKeys) {
+        return executeBatchUpdate(sql, batchArgs, returnGeneratedKeys, true);
+    }
+
+    private BatchUpdateResult executeBatchUpdate(String sql, List<Object[]> batchArgs, boolean returnGeneratedKeys,
+                                                 boolean commitPerChunk) {
         if (batchArgs == null || batchArgs.isEmpty()) {
-            return new int[0];
+            return new BatchUpdateResult(new int[0], null, 0);
         }
 
-        Connection conn = null;
-        PreparedStatement ps = null;
-        try {
-            conn = dataSource.getConnection();
-            ps = conn.prepareStatement(sql);
+        long startTime = System.nanoTime();
+        List<List<Object[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < batchArgs.size(); from += batchSize) {
+            chunks.add(batchArgs.subList(from, Math.min(from + batchSize, batchArgs.size())));
+        }
 
-            for (Object[] args : batchArgs) {
-                setParameters(ps, args);
-                ps.addBatch();
+        List<ChunkResult> chunkResults;
+        try {
+            if (!commitPerChunk) {
+                chunkResults = executeInTransaction(conn -> executeChunks(conn, sql, chunks, returnGeneratedKeys));
+            } else if (batchParallelism > 1 && chunks.size() > 1 && !DataSourceUtils.isTransactionActive(dataSource)) {
+                chunkResults = executeChunksInParallel(sql, chunks, returnGeneratedKeys);
+            } else {
+                // 当前存在事务时所有块在事务连接上串行执行
+                chunkResults = new ArrayList<>(chunks.size());
+                for (List<Object[]> chunk : chunks) {
+                    chunkResults.add(executeInTransaction(
+                            conn -> executeChunks(conn, sql, List.of(chunk), returnGeneratedKeys).get(0)));
+                }
             }
-
-            int[] result = ps.executeBatch();
-            ps.clearBatch();
-            logger.debug("执行批量更新 SQL: {}, 批次大小: {}", sql, batchArgs.size());
-            return result;
         } catch (SQLException e) {
             logger.error("执行批量更新失败: {}", sql, e);
             throw new RuntimeException("执行批量更新失败: " + sql, e);
+        }
+
+        // 按块顺序合并结果
+        int[] updateCounts = new int[batchArgs.size()];
+        List<Object> generatedKeys = returnGeneratedKeys ? new ArrayList<>(batchArgs.size()) : null;
+        int offset = 0;
+        for (ChunkResult chunkResult : chunkResults) {
+            System.arraycopy(chunkResult.updateCounts, 0, updateCounts, offset, chunkResult.updateCounts.length);
+            offset += chunkResult.updateCounts.length;
+            if (generatedKeys != null) {
+                generatedKeys.addAll(chunkResult.generatedKeys);
+            }
+        }
+
+        BatchUpdateResult result = new BatchUpdateResult(updateCounts, generatedKeys, System.nanoTime() - startTime);
+        logger.debug("执行批量更新 SQL: {}, 批次大小: {}, 分块: {}, {}", sql, batchArgs.size(), chunks.size(), result);
+        return result;
+    }
+
+
+    /**
+     * 各块在线程池中并行执行，每个线程使用数据源中的独立连接
+     */
+    private List<ChunkResult> executeChunksInParallel(String sql, List<List<Object[]>> chunks,
+                                                      boolean returnGeneratedKeys) throws SQLException {
+        int threads = Math.min(batchParallelism, chunks.size());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "springwind-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<ChunkResult>> futures = new ArrayList<>(chunks.size());
+            for (List<Object[]> chunk : chunks) {
+                futures.add(executor.submit(() -> executeInTransaction(
+                        conn -> executeChunks(conn, sql, List.of(chunk), returnGeneratedKeys).get(0))));
+            }
+            List<ChunkResult> results = new ArrayList<>(chunks.size());
+            for (Future<ChunkResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("执行批量更新失败: " + sql, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("批量更新被中断: " + sql, e);
         } finally {
-            closeResources(conn, ps, null);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 在一个事务中执行回调并提交，失败时回滚（已在外部事务中时加入外部事务，由外部事务提交）
+     */
+    private <T> T executeInTransaction(ConnectionCallback<T> action) throws SQLException {
+        Connection conn = null;
+        boolean autoCommit = false;
+        boolean transactional = false;
+        try {
+            conn = getConnection();
+            transactional = DataSourceUtils.isConnectionTransactional(conn, dataSource);
+            autoCommit = !transactional && conn.getAutoCommit();
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            }
+            T result = action.doInConnection(conn);
+            if (!transactional) {
+                conn.commit();
+            }
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            if (!transactional) {
+                rollbackQuietly(conn);
+            }
+            throw e;
+        } finally {
+            if (conn != null && autoCommit) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    logger.error("恢复自动提交失败", e);
+                }
+            }
+            closeResources(conn, null, null);
+        }
+    }
+
+    /**
+     * 在指定连接上逐块执行批量参数，每块一次 executeBatch，语句在各块间复用
+     */
+    private List<ChunkResult> executeChunks(Connection conn, String sql, List<List<Object[]>> chunks,
+                                            boolean returnGeneratedKeys) throws SQLException {
+        List<ChunkResult> results = new ArrayList<>(chunks.size());
+        try (PreparedStatement ps = returnGeneratedKeys
+                ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : conn.prepareStatement(sql)) {
+            for (List<Object[]> chunk : chunks) {
+                for (Object[] args : chunk) {
+                    setParameters(ps, args);
+                    ps.addBatch();
+                }
+                int[] updateCounts = ps.executeBatch();
+
+                List<Object> generatedKeys = new ArrayList<>(returnGeneratedKeys ? chunk.size() : 0);
+                if (returnGeneratedKeys) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generatedKeys.add(keys.getObject(1));
+                        }
+                    }
+                }
+                results.add(new ChunkResult(updateCounts, generatedKeys));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 使用连接执行的回调
+     */
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+        T doInConnection(Connection conn) throws SQLException;
+    }
+
+    private void rollbackQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                logger.error("回滚失败", e);
+            }
+        }
+    }
+
+    /**
+     * 单块批量执行结果
+     */
+    private static class ChunkResult {
+        private final int[] updateCounts;
+        private final List<Object> generatedKeys;
+
+        ChunkResult(int[] updateCounts, List<Object> generatedKeys) {
+            this.updateCounts = updateCounts;
+            this.generatedKeys = generatedKeys;
+        }
+    }
+
+    /**
+     * 获取连接
+     */
+    private Connection getConnection() throws SQLException {
+        return DataSourceUtils.getConnection(dataSource);
+    }
+
+    /**
+     * 预编译语句，并应用 fetchSize/maxRows 设置
+     * 语句缓存只在事务连接上使用：事务连接在多次调用之间保持打开，事务结束时清理缓存语句；
+     * 非事务连接每次调用后即归还，缓存无法命中。缓存语句使用后必须经 closeResources 归还
+     * @param cacheable 是否可使用语句缓存
+     */
+    private PreparedStatement prepareStatement(Connection conn, String sql, boolean cacheable) throws SQLException {
+        StatementCache cache = statementCache;
+        ConnectionHolder holder = cacheable && cache != null ? DataSourceUtils.getHolder(dataSource) : null;
+        PreparedStatement ps;
+        if (holder != null && holder.getConnection() == conn) {
+            ps = cache.prepare(conn, sql);
+            holder.addReleaseCallback(cache, () -> cache.evict(conn));
+        } else {
+            ps = conn.prepareStatement(sql);
+        }
+        try {
+            if (fetchSize != 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            ps.setMaxRows(maxRows);
+        } catch (SQLException | RuntimeException e) {
+            closeResources(null, ps, null);
+            throw e;
         }
+        return ps;
     }
 
     /**
@@ -235,20 +558,140 @@ public class JdbcTemplate {
                 logger.error("关闭 ResultSet 失败", e);
             }
         }
-        if (stmt != null) {
+        boolean transactional = conn != null && DataSourceUtils.isConnectionTransactional(conn, dataSource);
+        StatementCache cache = statementCache;
+        // 缓存的语句归还给缓存，使用后不关闭
+        if (stmt != null && !(cache != null && stmt instanceof PreparedStatement
+                && cache.release((PreparedStatement) stmt))) {
             try {
                 stmt.close();
             } catch (SQLException e) {
                 logger.error("关闭 Statement 失败", e);
             }
         }
-        if (conn != null) {
+        // 事务连接保持打开，由事务管理器释放
+        if (conn != null && !transactional) {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+    }
+
+    /**
+     * 结果集分割器：按需读取下一行，结束或关闭时释放资源
+     */
+    private class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final String sql;
+        private final Connection conn;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final RowMapper<T> rowMapper;
+        private int rowNum = 0;
+        private boolean closed = false;
+
+        ResultSetSpliterator(String sql, Connection conn, PreparedStatement ps, ResultSet rs, RowMapper<T> rowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.sql = sql;
+            this.conn = conn;
+            this.ps = ps;
+            this.rs = rs;
+            this.rowMapper = rowMapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
             try {
-                conn.close();
+                if (!rs.next()) {
+                    logger.debug("执行查询 SQL: {}, 返回行数: {}", sql, rowNum);
+                    close();
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(rs, rowNum++));
+                return true;
             } catch (SQLException e) {
-                logger.error("关闭 Connection 失败", e);
+                close();
+                logger.error("执行查询失败: {}", sql, e);
+                throw new RuntimeException("执行查询失败: " + sql, e);
+            } catch (RuntimeException | Error e) {
+                // 映射或下游处理抛出异常时流不再可用，立即释放资源，不依赖调用方关闭流
+                close();
+                throw e;
             }
         }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                closeResources(conn, ps, rs);
+            }
+        }
+    }
+
+    /**
+     * 设置每次从数据库读取的行数提示（0 表示使用驱动默认值）
+     * 注：MySQL 需设置为 Integer.MIN_VALUE 才会逐行流式读取；PostgreSQL 需在非自动提交模式下才生效
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * 设置最大返回行数（0 表示不限制）
+     */
+    public void setMaxRows(int maxRows) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("maxRows 不能为负数: " + maxRows);
+        }
+        this.maxRows = maxRows;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * 设置批量更新每块的行数（每块一次 executeBatch；chunkedBatchUpdate 中每块一个事务）
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于0: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置 chunkedBatchUpdate 并行执行的连接数（1 表示串行），不应超过连接池大小
+     */
+    public void setBatchParallelism(int batchParallelism) {
+        if (batchParallelism <= 0) {
+            throw new IllegalArgumentException("batchParallelism 必须大于0: " + batchParallelism);
+        }
+        this.batchParallelism = batchParallelism;
+    }
+
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    /**
+     * 设置每个事务连接缓存的 PreparedStatement 数量（0 表示关闭缓存）
+     * 只在事务中生效（事务中反复执行相同SQL时跳过语句解析），事务结束时清空；
+     * 事务外的连接每次调用后归还，跨调用的语句缓存应使用驱动自带的缓存（如 MySQL cachePrepStmts）
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize 不能为负数: " + statementCacheSize);
+        }
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null;
     }
 
     /**
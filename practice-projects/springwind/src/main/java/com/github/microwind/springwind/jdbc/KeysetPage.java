@@ -0,0 +1,50 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 键集分页（游标分页）结果
+ * 包含当前页数据、获取下一页所需的续页令牌，以及可选的总记录数
+ */
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextToken;
+    private final Long total;
+
+    public KeysetPage(List<T> items, String nextToken, Long total) {
+        this.items = items != null ? Collections.unmodifiableList(items) : Collections.emptyList();
+        this.nextToken = nextToken;
+        this.total = total;
+    }
+
+    /**
+     * 当前页数据
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * 下一页的续页令牌（不透明字符串），没有下一页时为 null
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /**
+     * 总记录数，未请求统计时为 null
+     */
+    public Long getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{size=" + items.size() + ", hasNext=" + hasNext() + ", total=" + total + "}";
+    }
+}
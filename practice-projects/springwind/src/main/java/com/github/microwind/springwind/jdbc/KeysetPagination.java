@@ -0,0 +1,434 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 键集分页（Seek 分页）助手
+ * 按排序键生成 "WHERE (排序键) > (上一页最后一行的键) ORDER BY 排序键 LIMIT n" 形式的查询，
+ * 每页都能利用排序键上的索引直接定位，深分页的耗时不随页码增长（LIMIT/OFFSET 需要扫描并丢弃前面所有行）
+ *
+ * 上一页最后一行的排序键编码为不透明的续页令牌返回给调用方，令牌与查询语句、过滤条件和排序键绑定，
+ * 不能用于其他分页查询；总记录数按需统计，并按查询参数缓存一段时间（LRU，最多 {@value #MAX_CACHED_COUNTS} 组参数）
+ *
+ * 用法：
+ * <pre>
+ * KeysetPagination pagination = new KeysetPagination(jdbcTemplate, "SELECT id, name FROM users", "id");
+ * KeysetPage&lt;User&gt; page = pagination.fetch(rowMapper, token, 20, false);
+ * </pre>
+ *
+ * 注意：排序键必须唯一（非唯一列需追加主键，如 "created_time DESC, id DESC"），且必须出现在查询列中
+ */
+public class KeysetPagination {
+
+    private static final int MAX_CACHED_COUNTS = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String selectSql;
+    private final String whereClause;
+    private final SortKey[] sortKeys;
+    private final String orderBy;
+    private final String seekCondition;
+    private final String signature;
+
+    private volatile String countSql;
+    private volatile long countCacheMillis = 30_000;
+    // 按访问顺序淘汰，访问需持有 countCache 的锁
+    private final Map<List<Object>, CachedCount> countCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedCount> eldest) {
+            return size() > MAX_CACHED_COUNTS;
+        }
+    };
+
+    /**
+     * @param jdbcTemplate JdbcTemplate
+     * @param selectSql    查询语句（不含 WHERE / ORDER BY / LIMIT），如 "SELECT id, name FROM users"
+     * @param sortKey      排序键，多列以逗号分隔，可带 ASC/DESC，如 "id" 或 "created_time DESC, id DESC"
+     */
+    public KeysetPagination(JdbcTemplate jdbcTemplate, String selectSql, String sortKey) {
+        this(jdbcTemplate, selectSql, null, sortKey);
+    }
+
+    /**
+     * @param jdbcTemplate JdbcTemplate
+     * @param selectSql    查询语句（不含 WHERE / ORDER BY / LIMIT）
+     * @param whereClause  过滤条件（不含 WHERE 关键字，可包含占位符，参数在 fetch 时传入），为 null 表示不过滤
+     * @param sortKey      排序键，多列以逗号分隔，可带 ASC/DESC
+     */
+    public KeysetPagination(JdbcTemplate jdbcTemplate, String selectSql, String whereClause, String sortKey) {
+        if (jdbcTemplate == null) {
+            throw new IllegalArgumentException("JdbcTemplate 不能为 null");
+        }
+        if (selectSql == null || selectSql.isBlank()) {
+            throw new IllegalArgumentException("查询语句不能为空");
+        }
+        if (sortKey == null || sortKey.isBlank()) {
+            throw new IllegalArgumentException("排序键不能为空");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.selectSql = selectSql.trim();
+        this.whereClause = whereClause == null || whereClause.isBlank() ? null : whereClause.trim();
+        String[] sortColumns = sortKey.split(",");
+        this.sortKeys = new SortKey[sortColumns.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            sortKeys[i] = SortKey.parse(sortColumns[i]);
+        }
+        this.orderBy = buildOrderBy(sortKeys);
+        this.seekCondition = buildSeekCondition(sortKeys);
+        this.signature = buildSignature(this.selectSql, this.whereClause, orderBy);
+        this.countSql = "SELECT COUNT(*) FROM (" + this.selectSql
+                + (this.whereClause != null ? " WHERE " + this.whereClause : "") + ") keyset_count";
+    }
+
+    /**
+     * 查询一页数据
+     * @param rowMapper 行映射器
+     * @param token     上一页返回的续页令牌，为 null 表示第一页
+     * @param pageSize  每页大小
+     * @param withTotal 是否统计总记录数（统计结果按参数缓存）
+     * @param args      过滤条件的参数
+     * @return 分页结果
+     */
+    public <T> KeysetPage<T> fetch(RowMapper<T> rowMapper, String token, int pageSize, boolean withTotal, Object... args) {
+        if (rowMapper == null) {
+            throw new IllegalArgumentException("RowMapper 不能为 null");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("每页大小必须大于 0");
+        }
+        Object[] filterArgs = args != null ? args : new Object[0];
+        Object[] lastKey = token != null && !token.isEmpty() ? decodeToken(token) : null;
+
+        StringBuilder sql = new StringBuilder(selectSql);
+        List<Object> params = new ArrayList<>(filterArgs.length + sortKeys.length * 2 + 1);
+        Collections.addAll(params, filterArgs);
+        if (whereClause != null) {
+            sql.append(" WHERE (").append(whereClause).append(')');
+        }
+        if (lastKey != null) {
+            sql.append(whereClause != null ? " AND " : " WHERE ").append(seekCondition);
+            addSeekParameters(params, lastKey);
+        }
+        sql.append(" ORDER BY ").append(orderBy).append(" LIMIT ?");
+        // 多取一行用于判断是否还有下一页
+        params.add(pageSize + 1);
+
+        List<T> items = new ArrayList<>(pageSize);
+        Object[][] nextKey = new Object[1][];
+        List<RowMapper<T>> mapper = new ArrayList<>(1);
+        jdbcTemplate.query(sql.toString(), rs -> {
+            int rowNum = items.size();
+            if (rowNum < pageSize) {
+                if (mapper.isEmpty()) {
+                    // 第一行时为结果集准备一次映射器
+                    mapper.add(rowMapper.forResultSet(rs));
+                }
+                items.add(mapper.get(0).mapRow(rs, rowNum));
+                if (rowNum == pageSize - 1) {
+                    Object[] key = new Object[sortKeys.length];
+                    for (int i = 0; i < sortKeys.length; i++) {
+                        key[i] = rs.getObject(sortKeys[i].label);
+                    }
+                    nextKey[0] = key;
+                }
+            } else {
+                // 存在第 pageSize + 1 行，说明有下一页
+                items.add(null);
+            }
+        }, params.toArray());
+
+        String nextToken = null;
+        if (items.size() > pageSize) {
+            items.remove(pageSize);
+            nextToken = encodeToken(nextKey[0]);
+        }
+        Long total = withTotal ? count(filterArgs) : null;
+        return new KeysetPage<>(items, nextToken, total);
+    }
+
+    /**
+     * 统计总记录数（按参数缓存 countCacheMillis 毫秒）
+     * @param args 过滤条件的参数
+     * @return 总记录数
+     */
+    public long count(Object... args) {
+        Object[] filterArgs = args != null ? args : new Object[0];
+        // 复制参数作为缓存键，调用方之后修改参数数组不影响缓存
+        List<Object> cacheKey = Arrays.asList(filterArgs.clone());
+        long now = System.currentTimeMillis();
+        CachedCount cached;
+        synchronized (countCache) {
+            cached = countCache.get(cacheKey);
+        }
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        Long value = jdbcTemplate.queryForScalar(countSql, Long.class, filterArgs);
+        long total = value != null ? value : 0L;
+        if (countCacheMillis > 0) {
+            synchronized (countCache) {
+                countCache.put(cacheKey, new CachedCount(total, now + countCacheMillis));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 清除缓存的总记录数（数据增删后调用）
+     */
+    public void invalidateCount() {
+        synchronized (countCache) {
+            countCache.clear();
+        }
+    }
+
+    /**
+     * 设置统计总数的 SQL（默认将查询包装为子查询统计，表较大时可指定更高效的语句）
+     */
+    public void setCountSql(String countSql) {
+        if (countSql == null || countSql.isBlank()) {
+            throw new IllegalArgumentException("统计语句不能为空");
+        }
+        this.countSql = countSql;
+    }
+
+    /**
+     * 设置总记录数的缓存时间（毫秒，0 表示不缓存）
+     */
+    public void setCountCacheMillis(long countCacheMillis) {
+        this.countCacheMillis = Math.max(0, countCacheMillis);
+        invalidateCount();
+    }
+
+    public long getCountCacheMillis() {
+        return countCacheMillis;
+    }
+
+    // -------------------- SQL 生成 --------------------
+
+    /**
+     * 查询语句、过滤条件、排序键的摘要（SHA-256 前 8 字节），写入续页令牌，解码时校验令牌属于本查询
+     */
+    private static String buildSignature(String selectSql, String whereClause, String orderBy) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 各部分以 \0 分隔，避免拼接后边界不同的组合得到相同输入
+            String source = selectSql + '\0' + (whereClause != null ? whereClause : "") + '\0' + orderBy;
+            byte[] hash = digest.digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static String buildOrderBy(SortKey[] sortKeys) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sortKeys.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(sortKeys[i].column).append(sortKeys[i].descending ? " DESC" : " ASC");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 展开为 (a > ?) OR (a = ? AND b > ?) ...，支持各列排序方向不同
+     */
+    private static String buildSeekCondition(SortKey[] sortKeys) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < sortKeys.length; i++) {
+            if (i > 0) {
+                sb.append(" OR ");
+            }
+            sb.append('(');
+            for (int j = 0; j < i; j++) {
+                sb.append(sortKeys[j].column).append(" = ? AND ");
+            }
+            sb.append(sortKeys[i].column).append(sortKeys[i].descending ? " < ?" : " > ?");
+            sb.append(')');
+        }
+        return sb.append(')').toString();
+    }
+
+    private void addSeekParameters(List<Object> params, Object[] lastKey) {
+        for (int i = 0; i < sortKeys.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                params.add(lastKey[j]);
+            }
+        }
+    }
+
+    // -------------------- 续页令牌 --------------------
+
+    /**
+     * 令牌格式（Base64URL 编码前）：查询签名|类型:值|类型:值...
+     * 类型：L Long，I Integer/Short/Byte，B BigInteger，D BigDecimal，S String，
+     * T Timestamp，Q java.sql.Date，P LocalDateTime，Y LocalDate，Z OffsetDateTime（时间类型按 ISO-8601 编码），
+     * 解码后保持原类型，作为参数绑定时与驱动读出的类型一致
+     */
+    private String encodeToken(Object[] key) {
+        StringBuilder sb = new StringBuilder(signature);
+        for (Object value : key) {
+            sb.append('|').append(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeToken(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的续页令牌: " + token, e);
+        }
+        if (parts.length != sortKeys.length + 1 || !signature.equals(parts[0])) {
+            throw new IllegalArgumentException("无效的续页令牌: " + token);
+        }
+        Object[] key = new Object[sortKeys.length];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = decodeValue(parts[i + 1], token);
+        }
+        return key;
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("排序列的值不能为 NULL");
+        }
+        if (value instanceof Long) {
+            return "L:" + value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return "I:" + value;
+        }
+        if (value instanceof BigInteger) {
+            return "B:" + value;
+        }
+        if (value instanceof BigDecimal) {
+            return "D:" + ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            Timestamp ts = (Timestamp) value;
+            return "T:" + ts.getTime() + "." + ts.getNanos();
+        }
+        if (value instanceof java.sql.Date) {
+            return "Q:" + ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof LocalDateTime) {
+            return "P:" + value;
+        }
+        if (value instanceof LocalDate) {
+            return "Y:" + value;
+        }
+        if (value instanceof OffsetDateTime) {
+            return "Z:" + value;
+        }
+        if (value instanceof String) {
+            return "S:" + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalStateException("不支持的排序列类型: " + value.getClass().getName());
+    }
+
+    private static Object decodeValue(String encoded, String token) {
+        if (encoded.length() < 2 || encoded.charAt(1) != ':') {
+            throw new IllegalArgumentException("无效的续页令牌: " + token);
+        }
+        String raw = encoded.substring(2);
+        try {
+            switch (encoded.charAt(0)) {
+                case 'L':
+                    return Long.valueOf(raw);
+                case 'I':
+                    return Integer.valueOf(raw);
+                case 'B':
+                    return new BigInteger(raw);
+                case 'D':
+                    return new BigDecimal(raw);
+                case 'T': {
+                    int dot = raw.indexOf('.');
+                    Timestamp ts = new Timestamp(Long.parseLong(raw.substring(0, dot)));
+                    ts.setNanos(Integer.parseInt(raw.substring(dot + 1)));
+                    return ts;
+                }
+                case 'Q':
+                    return java.sql.Date.valueOf(LocalDate.parse(raw));
+                case 'P':
+                    return LocalDateTime.parse(raw);
+                case 'Y':
+                    return LocalDate.parse(raw);
+                case 'Z':
+                    return OffsetDateTime.parse(raw);
+                case 'S':
+                    return new String(Base64.getUrlDecoder().decode(raw), StandardCharsets.UTF_8);
+                default:
+                    throw new IllegalArgumentException("无效的续页令牌: " + token);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的续页令牌: " + token, e);
+        }
+    }
+
+    // -------------------- 内部类型 --------------------
+
+    private static final class SortKey {
+        private final String column;
+        private final String label;
+        private final boolean descending;
+
+        private SortKey(String column, boolean descending) {
+            this.column = column;
+            // 结果集中按列标签读取（去掉表别名前缀）
+            int dot = column.lastIndexOf('.');
+            this.label = dot >= 0 ? column.substring(dot + 1) : column;
+            this.descending = descending;
+        }
+
+        static SortKey parse(String definition) {
+            if (definition == null || definition.isBlank()) {
+                throw new IllegalArgumentException("排序列不能为空");
+            }
+            String[] parts = definition.trim().split("\\s+");
+            if (parts.length > 2) {
+                throw new IllegalArgumentException("无效的排序列: " + definition);
+            }
+            boolean descending = false;
+            if (parts.length == 2) {
+                String direction = parts[1].toUpperCase(Locale.ROOT);
+                if (!"ASC".equals(direction) && !"DESC".equals(direction)) {
+                    throw new IllegalArgumentException("无效的排序方向: " + definition);
+                }
+                descending = "DESC".equals(direction);
+            }
+            return new SortKey(parts[0], descending);
+        }
+    }
+
+    private static final class CachedCount {
+        private final long value;
+        private final long expiresAt;
+
+        CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
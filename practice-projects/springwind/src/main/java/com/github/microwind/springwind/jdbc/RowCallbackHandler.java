@@ -0,0 +1,18 @@
+package com.github.microwind.springwind.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 行回调处理器接口
+ * 逐行处理结果集，不在内存中保留结果，适合导出等大数据量场景
+ */
+@FunctionalInterface
+public interface RowCallbackHandler {
+    /**
+     * 处理结果集中的当前行（不要调用 rs.next()）
+     * @param rs 结果集
+     * @throws SQLException SQL异常
+     */
+    void processRow(ResultSet rs) throws SQLException;
+}
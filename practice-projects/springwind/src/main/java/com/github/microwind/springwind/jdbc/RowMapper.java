@@ -16,5 +16,16 @@ public interface RowMapper<T> {
      * @throws SQLException SQL异常
      */
     T mapRow(ResultSet rs, int rowNum) throws SQLException;
+
+    /**
+     * 为一个结果集准备映射器，JdbcTemplate 在逐行映射之前对每个结果集调用一次
+     * 需要读取结果集元数据的映射器可在此一次性完成准备，返回绑定到该结果集的映射器
+     * @param rs 结果集（尚未移动游标）
+     * @return 用于该结果集的映射器，默认返回自身
+     * @throws SQLException SQL异常
+     */
+    default RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+        return this;
+    }
 }
 
@@ -0,0 +1,121 @@
+package com.github.microwind.springwind.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按事务连接缓存 PreparedStatement（以SQL为键，LRU淘汰）
+ * 事务连接在多次调用之间保持打开，重复执行相同SQL可跳过语句解析；
+ * 事务结束释放连接时关闭并移除该连接的全部缓存语句
+ * <p>
+ * 语句取出后标记为使用中，归还（{@link #release}）前不会再交给其他调用：
+ * 同一事务中嵌套执行相同SQL（如在 RowMapper 中再次查询）时创建不缓存的新语句，避免重新执行关闭外层的 ResultSet；
+ * LRU 淘汰到使用中的语句时只从缓存移除，归还时再关闭
+ * </p>
+ */
+class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private final int maxSize;
+    private final Map<Connection, Map<String, CachedStatement>> statements = new IdentityHashMap<>();
+    // 已取出、尚未归还的缓存语句
+    private final Map<PreparedStatement, CachedStatement> checkedOut = new IdentityHashMap<>();
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 取出缓存的语句，不存在时预编译并缓存；该SQL的缓存语句正在使用中时返回不缓存的新语句
+     * 返回的语句使用后必须调用 {@link #release}
+     */
+    synchronized PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        Map<String, CachedStatement> cache = statements.computeIfAbsent(conn, c -> newLruMap());
+        CachedStatement cached = cache.get(sql);
+        if (cached != null && cached.inUse) {
+            return conn.prepareStatement(sql);
+        }
+        if (cached != null && !cached.statement.isClosed()) {
+            cached.statement.clearParameters();
+        } else {
+            cached = new CachedStatement(conn.prepareStatement(sql));
+            cache.put(sql, cached);
+        }
+        cached.inUse = true;
+        checkedOut.put(cached.statement, cached);
+        return cached.statement;
+    }
+
+    /**
+     * 归还语句
+     * @return 是否为缓存语句（缓存语句由缓存负责关闭，调用方不再关闭）；返回 false 时由调用方关闭
+     */
+    synchronized boolean release(PreparedStatement ps) {
+        CachedStatement cached = checkedOut.remove(ps);
+        if (cached == null) {
+            return false;
+        }
+        cached.inUse = false;
+        if (cached.evicted) {
+            closeQuietly(ps);
+        }
+        return true;
+    }
+
+    /**
+     * 连接释放时关闭其缓存语句
+     */
+    synchronized void evict(Connection conn) {
+        Map<String, CachedStatement> cache = statements.remove(conn);
+        if (cache != null) {
+            for (CachedStatement cached : cache.values()) {
+                checkedOut.remove(cached.statement);
+                closeQuietly(cached.statement);
+            }
+        }
+    }
+
+    private Map<String, CachedStatement> newLruMap() {
+        return new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                CachedStatement cached = eldest.getValue();
+                if (cached.inUse) {
+                    // 使用中的语句归还时再关闭
+                    cached.evicted = true;
+                } else {
+                    closeQuietly(cached.statement);
+                }
+                return true;
+            }
+        };
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            logger.error("关闭缓存的 Statement 失败", e);
+        }
+    }
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+}
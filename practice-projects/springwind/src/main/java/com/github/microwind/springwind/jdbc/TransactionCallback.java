@@ -0,0 +1,10 @@
+package com.github.microwind.springwind.jdbc;
+
+/**
+ * 事务回调接口
+ * 在事务中执行的业务逻辑
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    T doInTransaction() throws Throwable;
+}
@@ -0,0 +1,104 @@
+package com.github.microwind.springwind.jdbc;
+
+import com.github.microwind.springwind.annotation.Transactional;
+import com.github.microwind.springwind.aop.AroundAdvice;
+import com.github.microwind.springwind.aop.AspectProcessor;
+import com.github.microwind.springwind.aop.ProceedingJoinPoint;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 事务拦截器
+ * 通过 AspectProcessor 代理 @Transactional 方法，在方法执行期间由事务管理器绑定连接
+ *
+ * 使用方式：
+ * <pre>
+ * AspectProcessor processor = new AspectProcessor();
+ * new TransactionInterceptor(new DataSourceTransactionManager(dataSource)).registerTo(processor);
+ * UserService proxy = (UserService) processor.createProxy(userService);
+ * </pre>
+ */
+public class TransactionInterceptor implements AroundAdvice {
+
+    private final DataSourceTransactionManager transactionManager;
+    // (目标类, 方法) -> 事务属性（方法上的注解优先于类上的注解）
+    private final Map<List<Object>, Optional<TransactionAttribute>> attributeCache = new ConcurrentHashMap<>();
+
+    public TransactionInterceptor(DataSourceTransactionManager transactionManager) {
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("transactionManager 不能为 null");
+        }
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * 注册到切面处理器，对标注 @Transactional 的方法生效
+     */
+    public void registerTo(AspectProcessor processor) {
+        processor.registerAdvice(Transactional.class, this);
+    }
+
+    @Override
+    public Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = joinPoint.getMethod();
+        Optional<TransactionAttribute> attribute = attributeCache.computeIfAbsent(
+                Arrays.asList(targetClass, method), key -> findAttribute(targetClass, method));
+        if (!attribute.isPresent()) {
+            return joinPoint.proceed();
+        }
+        TransactionAttribute attr = attribute.get();
+        return transactionManager.execute(attr.transactional.propagation(), attr.transactional.readOnly(),
+                attr.rollbackOn, joinPoint::proceed);
+    }
+
+    /**
+     * 查找事务注解：实现方法 -> 实现类 -> 接口方法 -> 接口
+     */
+    private static Optional<TransactionAttribute> findAttribute(Class<?> targetClass, Method method) {
+        Transactional transactional = null;
+        try {
+            Method implementation = targetClass.getMethod(method.getName(), method.getParameterTypes());
+            transactional = implementation.getAnnotation(Transactional.class);
+            if (transactional == null) {
+                transactional = targetClass.getAnnotation(Transactional.class);
+            }
+        } catch (NoSuchMethodException e) {
+            // 目标类中没有同签名的公共方法，继续查找接口方法
+        }
+        if (transactional == null) {
+            transactional = method.getAnnotation(Transactional.class);
+        }
+        if (transactional == null) {
+            transactional = method.getDeclaringClass().getAnnotation(Transactional.class);
+        }
+        return Optional.ofNullable(transactional).map(TransactionAttribute::new);
+    }
+
+    private static final class TransactionAttribute {
+        private final Transactional transactional;
+        private final Predicate<Throwable> rollbackOn;
+
+        TransactionAttribute(Transactional transactional) {
+            this.transactional = transactional;
+            Class<? extends Throwable>[] rollbackFor = transactional.rollbackFor();
+            this.rollbackOn = ex -> {
+                if (ex instanceof RuntimeException || ex instanceof Error) {
+                    return true;
+                }
+                for (Class<? extends Throwable> type : rollbackFor) {
+                    if (type.isInstance(ex)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.microwind.springwind.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 类文件元数据读取器
+ * 直接解析 .class 字节码，读取类名、父类、接口以及类级别的运行时注解，
+ * 无需加载类（不会触发静态初始化），用于组件扫描时快速筛选候选类
+ */
+public final class ClassFileMetadataReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassFileMetadataReader() {
+    }
+
+    /**
+     * 类元数据
+     */
+    public static final class ClassMetadata {
+        private final String className;
+        private final String superClassName;
+        private final List<String> interfaceNames;
+        private final Set<String> annotationTypes;
+        private final boolean isInterface;
+        private final boolean isAbstract;
+
+        ClassMetadata(String className, String superClassName, List<String> interfaceNames,
+                      Set<String> annotationTypes, boolean isInterface, boolean isAbstract) {
+            this.className = className;
+            this.superClassName = superClassName;
+            this.interfaceNames = interfaceNames;
+            this.annotationTypes = annotationTypes;
+            this.isInterface = isInterface;
+            this.isAbstract = isAbstract;
+        }
+
+        public String getClassName() { return className; }
+        public String getSuperClassName() { return superClassName; }
+        public List<String> getInterfaceNames() { return interfaceNames; }
+        public Set<String> getAnnotationTypes() { return annotationTypes; }
+        public boolean isInterface() { return isInterface; }
+        public boolean isAbstract() { return isAbstract; }
+
+        /**
+         * 是否直接标注了指定注解（不含元注解与继承）
+         */
+        public boolean hasAnnotation(String annotationClassName) {
+            return annotationTypes.contains(annotationClassName);
+        }
+    }
+
+    /**
+     * 读取类元数据
+     * @param in .class 文件输入流（由调用方关闭）
+     * @return 类元数据
+     * @throws IOException 读取失败或格式错误时抛出
+     */
+    public static ClassMetadata read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("不是合法的class文件");
+        }
+        data.readUnsignedShort(); // minor_version
+        data.readUnsignedShort(); // major_version
+
+        // 常量池：只保留 Utf8 与 Class 条目
+        int constantPoolCount = data.readUnsignedShort();
+        String[] utf8 = new String[constantPoolCount];
+        int[] classNameIndexes = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = data.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = data.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    data.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    data.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    data.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    data.skipBytes(8);
+                    i++; // 占用两个常量池槽位
+                    break;
+                default:
+                    throw new IOException("未知的常量池类型: " + tag);
+            }
+        }
+
+        int accessFlags = data.readUnsignedShort();
+        String className = toClassName(utf8[classNameIndexes[data.readUnsignedShort()]]);
+        int superIndex = data.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8[classNameIndexes[superIndex]]);
+
+        int interfaceCount = data.readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(toClassName(utf8[classNameIndexes[data.readUnsignedShort()]]));
+        }
+
+        skipMembers(data); // fields
+        skipMembers(data); // methods
+
+        Set<String> annotationTypes = Collections.emptySet();
+        int attributeCount = data.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8[data.readUnsignedShort()];
+            int length = data.readInt();
+            if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+                annotationTypes = readAnnotationTypes(data, utf8);
+            } else {
+                data.skipBytes(length);
+            }
+        }
+
+        return new ClassMetadata(className, superClassName, interfaceNames, annotationTypes,
+                (accessFlags & 0x0200) != 0, (accessFlags & 0x0400) != 0);
+    }
+
+    private static void skipMembers(DataInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            data.skipBytes(6); // access_flags, name_index, descriptor_index
+            int attributeCount = data.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                data.skipBytes(2);
+                data.skipBytes(data.readInt());
+            }
+        }
+    }
+
+    private static Set<String> readAnnotationTypes(DataInputStream data, String[] utf8) throws IOException {
+        int count = data.readUnsignedShort();
+        Set<String> types = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            types.add(descriptorToClassName(utf8[data.readUnsignedShort()]));
+            skipElementValuePairs(data);
+        }
+        return types;
+    }
+
+    private static void skipElementValuePairs(DataInputStream data) throws IOException {
+        int pairs = data.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            data.skipBytes(2); // element_name_index
+            skipElementValue(data);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream data) throws IOException {
+        int tag = data.readUnsignedByte();
+        switch (tag) {
+            case 'e': // 枚举
+                data.skipBytes(4);
+                break;
+            case '@': // 嵌套注解
+                data.skipBytes(2);
+                skipElementValuePairs(data);
+                break;
+            case '[': // 数组
+                int count = data.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(data);
+                }
+                break;
+            default: // 基本类型、String、Class
+                data.skipBytes(2);
+        }
+    }
+
+    /** 内部名转类名：com/foo/Bar$Inner -> com.foo.Bar$Inner */
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /** 描述符转类名：Lcom/foo/Bar; -> com.foo.Bar */
+    private static String descriptorToClassName(String descriptor) {
+        if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.endsWith(";")) {
+            return toClassName(descriptor.substring(1, descriptor.length() - 1));
+        }
+        return toClassName(descriptor);
+    }
+}
@@ -0,0 +1,252 @@
+package com.github.microwind.springwind.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 方法调用器
+ * 在启动阶段为 Method 生成调用实现，调用时目标方法抛出的异常原样抛出（不再包装为 InvocationTargetException），
+ * 按以下顺序选择实现：
+ * 1. 实例方法且参数不超过 {@value #MAX_LAMBDA_ARITY} 个：通过 LambdaMetafactory 生成函数接口实现类，
+ *    生成的类直接调用目标方法，拆箱/装箱在生成的字节码中完成
+ * 2. 其他方法：绑定为 (Object, Object[])Object 形式的 MethodHandle，使用 invokeExact 调用
+ * 3. 无法创建 MethodHandle 时（如模块访问受限）回退到反射调用，并解包 InvocationTargetException
+ *
+ * 调用前按参数类型校验参数（见 {@link #checkArguments}），类型不匹配抛出 IllegalArgumentException，
+ * 与反射调用的行为一致；基本类型参数要求传入对应的包装类型，不做 int 到 long 等拓宽转换
+ *
+ * 收益仅限于免去反射调用每次的访问检查、参数数组复制和异常包装。
+ * 本类不为每个方法生成独立的调用点：{@link #invoke} 是所有方法共用的调用点，
+ * JIT 在这里看到的是多态的调用实现，不会内联到具体的目标方法；
+ * 参数仍以 Object[] 传入，基本类型参数和返回值仍需装箱
+ */
+public final class MethodInvoker {
+
+    /**
+     * 使用 LambdaMetafactory 生成调用实现的最大参数个数
+     */
+    static final int MAX_LAMBDA_ARITY = 3;
+
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final Class<?>[] FUNCTION_TYPES = {Fn0.class, Fn1.class, Fn2.class, Fn3.class};
+    private static final Class<?>[] VOID_FUNCTION_TYPES = {VoidFn0.class, VoidFn1.class, VoidFn2.class, VoidFn3.class};
+
+    private final Method method;
+    private final Invocation invocation;
+    private final Class<?>[] parameterTypes;
+    // 参数类型，基本类型替换为对应的包装类型，调用前据此校验参数
+    private final Class<?>[] boxedParameterTypes;
+
+    private MethodInvoker(Method method, Invocation invocation) {
+        this.method = method;
+        this.invocation = invocation;
+        this.parameterTypes = method.getParameterTypes();
+        this.boxedParameterTypes = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            boxedParameterTypes[i] = parameterTypes[i].isPrimitive()
+                    ? MethodType.methodType(parameterTypes[i]).wrap().returnType()
+                    : parameterTypes[i];
+        }
+    }
+
+    /**
+     * 为方法创建调用器
+     * @param method 目标方法
+     * @return 调用器
+     */
+    public static MethodInvoker of(Method method) {
+        if (method == null) {
+            throw new IllegalArgumentException("方法不能为null");
+        }
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // 模块未开放时保持原有访问权限，由后续各实现自行判断能否访问
+        }
+        Invocation invocation = createLambdaInvocation(method);
+        if (invocation == null) {
+            invocation = createHandleInvocation(method);
+        }
+        if (invocation == null) {
+            invocation = (target, args) -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            };
+        }
+        return new MethodInvoker(method, invocation);
+    }
+
+    /**
+     * 通过 LambdaMetafactory 生成调用实现，不支持的方法返回 null
+     * 生成的类定义在目标方法所在类的类加载器中，要求能访问目标类（类路径上的类均满足）
+     */
+    private static Invocation createLambdaInvocation(Method method) {
+        int parameterCount = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers()) || parameterCount > MAX_LAMBDA_ARITY) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup =
+                    MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle implementation = lookup.unreflect(method);
+            boolean isVoid = method.getReturnType() == void.class;
+            Class<?> functionType = (isVoid ? VOID_FUNCTION_TYPES : FUNCTION_TYPES)[parameterCount];
+            Class<?> returnType = isVoid ? void.class : Object.class;
+            // 接口方法的擦除签名：(Object, Object...)Object 或 void
+            MethodType erasedType = MethodType.genericMethodType(parameterCount + 1).changeReturnType(returnType);
+            // 实例化签名：目标类型 + 参数的包装类型，由生成的类完成强转和拆箱
+            MethodType instantiatedType = implementation.type().wrap().changeReturnType(returnType);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                    MethodType.methodType(functionType), erasedType, implementation, instantiatedType);
+            return adapt(callSite.getTarget().invoke(), parameterCount);
+        } catch (LinkageError e) {
+            // 目标类的类加载器看不到函数接口等情况，回退到 MethodHandle
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static Invocation adapt(Object function, int parameterCount) {
+        if (function instanceof VoidFn0 fn) return (target, args) -> { fn.invoke(target); return null; };
+        if (function instanceof VoidFn1 fn) return (target, args) -> { fn.invoke(target, args[0]); return null; };
+        if (function instanceof VoidFn2 fn) return (target, args) -> { fn.invoke(target, args[0], args[1]); return null; };
+        if (function instanceof VoidFn3 fn) return (target, args) -> { fn.invoke(target, args[0], args[1], args[2]); return null; };
+        if (function instanceof Fn0 fn) return (target, args) -> fn.invoke(target);
+        if (function instanceof Fn1 fn) return (target, args) -> fn.invoke(target, args[0]);
+        if (function instanceof Fn2 fn) return (target, args) -> fn.invoke(target, args[0], args[1]);
+        if (function instanceof Fn3 fn) return (target, args) -> fn.invoke(target, args[0], args[1], args[2]);
+        throw new IllegalStateException("不支持的参数个数: " + parameterCount);
+    }
+
+    /**
+     * 绑定为 (Object, Object[])Object 形式的 MethodHandle，无法创建时返回 null
+     */
+    private static Invocation createHandleInvocation(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                // 静态方法：补一个被忽略的目标对象参数，保持统一签名
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            int parameterCount = method.getParameterCount();
+            MethodHandle invoker = handle
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount)
+                    .asType(INVOKER_TYPE);
+            return (target, args) -> (Object) invoker.invokeExact(target, args);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 调用方法
+     * @param target 目标对象（静态方法可为 null）
+     * @param args   方法参数
+     * @return 返回值（void 方法返回 null）
+     * @throws IllegalArgumentException 参数个数或类型不匹配、基本类型参数为 null
+     * @throws Throwable 目标方法抛出的原始异常
+     */
+    public Object invoke(Object target, Object... args) throws Throwable {
+        if (args == null) {
+            args = new Object[0];
+        }
+        checkArguments(args);
+        return invocation.invoke(target, args);
+    }
+
+    /**
+     * 校验参数个数、参数类型及基本类型参数非空
+     * 调用实现内部的强转失败会抛出 ClassCastException，因此在调用前校验，保证参数问题统一表现为 IllegalArgumentException
+     * @param args 方法参数
+     * @throws IllegalArgumentException 校验失败
+     */
+    public void checkArguments(Object[] args) {
+        Class<?>[] types = boxedParameterTypes;
+        if (args.length != types.length) {
+            throw new IllegalArgumentException("参数个数不匹配: 期望 " + types.length
+                    + "，实际 " + args.length);
+        }
+        for (int i = 0; i < types.length; i++) {
+            Object arg = args[i];
+            if (arg == null) {
+                if (parameterTypes[i].isPrimitive()) {
+                    throw new IllegalArgumentException("基本类型参数不能为null: " + method.getName()
+                            + " 第 " + (i + 1) + " 个参数");
+                }
+            } else if (!types[i].isInstance(arg)) {
+                throw new IllegalArgumentException("参数类型不匹配: " + method.getName()
+                        + " 第 " + (i + 1) + " 个参数期望 " + parameterTypes[i].getName()
+                        + "，实际 " + arg.getClass().getName());
+            }
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 统一的调用形式
+     */
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Object target, Object[] args) throws Throwable;
+    }
+
+    // 以下函数接口由 LambdaMetafactory 生成的类实现，生成的类位于目标类所在的包中，因此需要 public
+
+    @FunctionalInterface
+    public interface Fn0 {
+        Object invoke(Object target);
+    }
+
+    @FunctionalInterface
+    public interface Fn1 {
+        Object invoke(Object target, Object arg0);
+    }
+
+    @FunctionalInterface
+    public interface Fn2 {
+        Object invoke(Object target, Object arg0, Object arg1);
+    }
+
+    @FunctionalInterface
+    public interface Fn3 {
+        Object invoke(Object target, Object arg0, Object arg1, Object arg2);
+    }
+
+    @FunctionalInterface
+    public interface VoidFn0 {
+        void invoke(Object target);
+    }
+
+    @FunctionalInterface
+    public interface VoidFn1 {
+        void invoke(Object target, Object arg0);
+    }
+
+    @FunctionalInterface
+    public interface VoidFn2 {
+        void invoke(Object target, Object arg0, Object arg1);
+    }
+
+    @FunctionalInterface
+    public interface VoidFn3 {
+        void invoke(Object target, Object arg0, Object arg1, Object arg2);
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.microwind.springwind.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Map;
+
+/**
+ * 方法参数解析器
+ * 每个 Controller 方法参数在启动时对应一个解析器实例，请求时直接调用，无需再读取注解
+ */
+@FunctionalInterface
+public interface ArgumentResolver {
+
+    /**
+     * 解析参数值
+     * @param req           HTTP 请求
+     * @param resp          HTTP 响应
+     * @param pathVariables 路径变量（可能为 null）
+     * @return 参数值
+     */
+    Object resolve(HttpServletRequest req, HttpServletResponse resp, Map<String, String> pathVariables);
+}
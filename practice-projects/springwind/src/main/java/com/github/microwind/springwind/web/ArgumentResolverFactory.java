@@ -0,0 +1,183 @@
+package com.github.microwind.springwind.web;
+
+import com.github.microwind.springwind.annotation.PathVariable;
+import com.github.microwind.springwind.annotation.RequestBody;
+import com.github.microwind.springwind.annotation.RequestParam;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 参数解析器工厂
+ * 在 HandlerMapping 创建时一次性读取方法参数及注解，生成不可变的解析器数组，
+ * 类型转换器也在此阶段选定，请求时只需按顺序调用解析器
+ */
+public final class ArgumentResolverFactory {
+
+    private static final Logger log = Logger.getLogger(ArgumentResolverFactory.class.getName());
+
+    private static final ArgumentResolver REQUEST_RESOLVER = (req, resp, vars) -> req;
+    private static final ArgumentResolver RESPONSE_RESOLVER = (req, resp, vars) -> resp;
+    private static final ArgumentResolver SESSION_RESOLVER = (req, resp, vars) -> req.getSession();
+    private static final ArgumentResolver NULL_RESOLVER = (req, resp, vars) -> null;
+
+    private ArgumentResolverFactory() {
+    }
+
+    /**
+     * 为方法的每个参数创建解析器
+     * @param method Controller 方法
+     * @return 与参数一一对应的解析器数组
+     */
+    public static ArgumentResolver[] createResolvers(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = createResolver(parameters[i]);
+        }
+        return resolvers;
+    }
+
+    private static ArgumentResolver createResolver(Parameter parameter) {
+        Class<?> paramType = parameter.getType();
+
+        // 支持 Servlet 原生对象
+        if (HttpServletRequest.class.isAssignableFrom(paramType)) {
+            return REQUEST_RESOLVER;
+        }
+        if (HttpServletResponse.class.isAssignableFrom(paramType)) {
+            return RESPONSE_RESOLVER;
+        }
+        if (HttpSession.class.isAssignableFrom(paramType)) {
+            return SESSION_RESOLVER;
+        }
+
+        // @RequestBody
+        RequestBody requestBody = parameter.getAnnotation(RequestBody.class);
+        if (requestBody != null) {
+            return createRequestBodyResolver(paramType, requestBody.required());
+        }
+
+        // @PathVariable
+        PathVariable pathVar = parameter.getAnnotation(PathVariable.class);
+        if (pathVar != null) {
+            String varName = pathVar.value();
+            if (varName == null || varName.isEmpty()) {
+                varName = parameter.getName();
+            }
+            return createPathVariableResolver(varName, pathVar.required(), converterFor(paramType));
+        }
+
+        // @RequestParam
+        RequestParam reqParam = parameter.getAnnotation(RequestParam.class);
+        if (reqParam != null) {
+            return createRequestParamResolver(reqParam.value(), reqParam.defaultValue(),
+                    reqParam.required(), converterFor(paramType));
+        }
+
+        // 不支持的复杂类型，传 null
+        log.fine("[ArgumentResolverFactory] 不支持的参数类型：" + paramType.getName() + "，暂传null");
+        return NULL_RESOLVER;
+    }
+
+    private static ArgumentResolver createRequestBodyResolver(Class<?> paramType, boolean required) {
+        return (req, resp, vars) -> {
+            byte[] body = readRequestBody(req);
+            if (HttpRequestUtil.isBlank(body)) {
+                if (required) {
+                    throw new IllegalArgumentException("请求体不能为空");
+                }
+                return null;
+            }
+            // 根据参数类型进行转换，JSON 直接从字节解析（非 UTF-8 请求先转码）
+            Charset charset = HttpRequestUtil.getCharset(req);
+            if (paramType == String.class) {
+                return new String(body, charset);
+            }
+            if (!StandardCharsets.UTF_8.equals(charset)) {
+                body = new String(body, charset).getBytes(StandardCharsets.UTF_8);
+            }
+            if (Map.class.isAssignableFrom(paramType)) {
+                return JsonUtil.parseToMap(body);
+            }
+            return JsonUtil.parseToObject(body, paramType);
+        };
+    }
+
+    /**
+     * 读取请求体字节（流只能读取一次，由 HttpRequestUtil 缓存在 request 属性中）
+     */
+    private static byte[] readRequestBody(HttpServletRequest req) {
+        try {
+            return HttpRequestUtil.getCachedBody(req);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "读取请求体失败", e);
+            throw new IllegalStateException("读取请求体失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static ArgumentResolver createPathVariableResolver(String varName, boolean required,
+                                                               Function<String, Object> converter) {
+        return (req, resp, vars) -> {
+            String value = vars != null ? vars.get(varName) : null;
+            if (value == null && required) {
+                throw new IllegalArgumentException("缺少必须的路径参数：" + varName);
+            }
+            return convert(value, converter);
+        };
+    }
+
+    private static ArgumentResolver createRequestParamResolver(String paramName, String defaultValue,
+                                                               boolean required,
+                                                               Function<String, Object> converter) {
+        boolean hasDefault = defaultValue != null && !defaultValue.isEmpty();
+        return (req, resp, vars) -> {
+            String paramValue = req.getParameter(paramName);
+            if (paramValue == null || paramValue.isEmpty()) {
+                if (required && !hasDefault) {
+                    throw new IllegalArgumentException("缺少必须的请求参数：" + paramName);
+                }
+                paramValue = defaultValue;
+            }
+            return convert(paramValue, converter);
+        };
+    }
+
+    /** 简单类型转换：空值返回 null，转换失败记录日志并返回 null */
+    private static Object convert(String value, Function<String, Object> converter) {
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return converter.apply(value);
+        } catch (Exception e) {
+            log.log(Level.WARNING, "参数转换失败: value=" + value, e);
+            return null;
+        }
+    }
+
+    /** 按目标类型选定转换器 */
+    static Function<String, Object> converterFor(Class<?> targetType) {
+        if (targetType == String.class) return value -> value;
+        if (targetType == int.class || targetType == Integer.class) return Integer::valueOf;
+        if (targetType == long.class || targetType == Long.class) return Long::valueOf;
+        if (targetType == boolean.class || targetType == Boolean.class) return Boolean::valueOf;
+        if (targetType == double.class || targetType == Double.class) return Double::valueOf;
+        return value -> null;
+    }
+}
@@ -8,13 +8,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -26,7 +23,7 @@ import java.util.logging.Logger;
  * 兼容特性：
  * - 支持类级与方法级 @RequestMapping
  * - 支持方法参数注入：HttpServletRequest/HttpServletResponse/HttpSession、@RequestParam 简单类型
- * - 支持返回值类型：ViewResult / String / Map -> JSON / 其他 -> 文本
+ * - 支持返回值类型：ViewResult / String / Map、Collection、@ResponseBody -> JSON（流式输出） / 其他 -> 文本
  * - 支持 redirect:, forward:, html: 等字符串约定
  * - 对路径做归一化处理，避免尾斜杠问题
  */
@@ -40,8 +37,18 @@ public class DispatcherServlet extends HttpServlet {
      */
     private final Map<String, List<HandlerMapping>> handlerMappings = new HashMap<>();
 
+    /**
+     * 路由索引：按路径段构建的 Trie，请求时用于快速查找 Handler
+     */
+    private final RouteIndex routeIndex = new RouteIndex();
+
     private SpringWindApplicationContext applicationContext;
 
+    /**
+     * 请求体最大字节数，只作用于本 Servlet 分发的请求
+     */
+    private long maxRequestBodySize = HttpRequestUtil.DEFAULT_MAX_BODY_SIZE;
+
     /**
      * 默认构造函数（用于Web容器）
      */
@@ -76,7 +83,14 @@ public class DispatcherServlet extends HttpServlet {
                 log.info("[DispatcherServlet] init with pre-configured context");
             }
 
-            // 3. 初始化 handler 映射
+            // 3. 请求体大小上限（可选 init-param：maxRequestBodySize，单位字节）
+            String maxBodySize = getInitParameter("maxRequestBodySize");
+            if (maxBodySize != null && !maxBodySize.trim().isEmpty()) {
+                setMaxRequestBodySize(Long.parseLong(maxBodySize.trim()));
+                log.info("[DispatcherServlet] 请求体大小上限: " + this.maxRequestBodySize + " bytes");
+            }
+
+            // 4. 初始化 handler 映射
             initHandlerMappings();
 
             int totalMappings = handlerMappings.values().stream()
@@ -90,6 +104,21 @@ public class DispatcherServlet extends HttpServlet {
         }
     }
 
+    /**
+     * 设置请求体最大字节数，超过 {@link HttpRequestUtil#MAX_BODY_ARRAY_SIZE} 时按该值处理
+     * @param maxBytes 最大字节数，必须大于0
+     */
+    public void setMaxRequestBodySize(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("请求体最大字节数必须大于0: " + maxBytes);
+        }
+        this.maxRequestBodySize = Math.min(maxBytes, HttpRequestUtil.MAX_BODY_ARRAY_SIZE);
+    }
+
+    public long getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+
     /**
      * 扫描所有 @Controller Bean 并根据映射注解构建映射表
      * 支持 @RequestMapping, @GetMapping, @PostMapping, @PutMapping, @DeleteMapping
@@ -125,8 +154,13 @@ public class DispatcherServlet extends HttpServlet {
                 String fullPath = combinePaths(basePath, methodPath);
                 String httpMethod = mappingInfo.httpMethod.toUpperCase(Locale.ROOT);
 
-                // 创建 HandlerMapping 并添加到列表
+                // 先登记到路由索引，重复映射不进入映射表
                 HandlerMapping handlerMapping = new HandlerMapping(controller, method, fullPath);
+                if (!routeIndex.register(httpMethod, handlerMapping)) {
+                    log.warning("[DispatcherServlet] 重复映射，已忽略: " + httpMethod + ":" + fullPath +
+                            " -> " + clazz.getSimpleName() + "#" + method.getName());
+                    continue;
+                }
                 handlerMappings.computeIfAbsent(httpMethod, k -> new ArrayList<>())
                         .add(handlerMapping);
 
@@ -212,48 +246,42 @@ public class DispatcherServlet extends HttpServlet {
 
         log.fine("[DispatcherServlet] 请求: " + httpMethod + " " + path);
 
-        // 查找匹配的 Handler
-        List<HandlerMapping> handlers = handlerMappings.get(httpMethod);
+        // 通过路由索引查找匹配的 Handler
+        RouteIndex.RouteMatch routeMatch = routeIndex.lookup(httpMethod, path);
         HandlerMapping matchedHandler = null;
         Map<String, String> pathVariables = null;
 
-        if (handlers != null) {
-            for (HandlerMapping handler : handlers) {
-                if (handler.getPathMatcher().matches(path)) {
-                    matchedHandler = handler;
-                    pathVariables = handler.getPathMatcher().extractPathVariables(path);
-                    break;
-                }
-            }
+        if (routeMatch != null) {
+            matchedHandler = routeMatch.getHandler();
+            pathVariables = routeMatch.getPathVariables();
         }
 
         if (matchedHandler != null) {
+            // 参数绑定与 Controller 读取请求体时使用本 Servlet 的大小上限
+            req.setAttribute(HttpRequestUtil.MAX_BODY_SIZE_ATTRIBUTE, maxRequestBodySize);
             try {
                 // 1. 解析方法参数（支持路径参数、请求参数、Servlet对象）
-                Object[] methodArgs = resolveMethodParameters(
-                        matchedHandler.getMethod(), req, resp, pathVariables);
+                Object[] methodArgs = matchedHandler.resolveArguments(req, resp, pathVariables);
                 log.fine("[DispatcherServlet] 解析到的参数数量：" + methodArgs.length);
 
-                // 2. 反射调用 Controller 方法
-                Object result = matchedHandler.getMethod().invoke(
-                        matchedHandler.getController(), methodArgs);
+                // 2. 通过 MethodInvoker 调用 Controller 方法
+                Object result;
+                try {
+                    result = matchedHandler.invoke(methodArgs);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable target) {
+                    log.log(Level.SEVERE, "Controller 方法执行异常", target);
+                    writeError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                            "Controller方法执行异常：" + target.getMessage());
+                    return;
+                }
                 log.fine("[DispatcherServlet] Controller 返回类型：" +
                         (result == null ? "null" : result.getClass().getName()));
 
                 // 3. 处理返回结果
-                handleResult(result, req, resp);
+                handleResult(result, matchedHandler, req, resp);
 
-            } catch (InvocationTargetException e) {
-                Throwable target = e.getTargetException();
-                log.log(Level.SEVERE, "Controller 方法执行异常", target);
-                writeError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
-                        "Controller方法执行异常：" + (target == null ? e.getMessage() : target.getMessage()));
-                return;
-            } catch (IllegalAccessException e) {
-                log.log(Level.WARNING, "无法访问Controller方法", e);
-                writeError(resp, HttpServletResponse.SC_FORBIDDEN,
-                        "无法访问Controller方法（请确保方法为public）：" + e.getMessage());
-                return;
             } catch (IllegalArgumentException e) {
                 log.log(Level.WARNING, "方法参数不匹配", e);
                 writeError(resp, HttpServletResponse.SC_BAD_REQUEST,
@@ -275,144 +303,17 @@ public class DispatcherServlet extends HttpServlet {
         }
     }
 
-    /**
-     * 解析方法参数：支持 HttpServletRequest, HttpServletResponse, HttpSession, @RequestParam, @PathVariable, @RequestBody
-     */
-    private Object[] resolveMethodParameters(Method method, HttpServletRequest req,
-                                            HttpServletResponse resp, Map<String, String> pathVariables) {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-
-        // 缓存请求体内容（因为流只能读取一次）
-        String requestBody = null;
-
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
-            Class<?> paramType = parameter.getType();
-
-            // 支持 Servlet 原生对象
-            if (HttpServletRequest.class.isAssignableFrom(paramType)) {
-                args[i] = req;
-                continue;
-            }
-            if (HttpServletResponse.class.isAssignableFrom(paramType)) {
-                args[i] = resp;
-                continue;
-            }
-            if (HttpSession.class.isAssignableFrom(paramType)) {
-                args[i] = req.getSession();
-                continue;
-            }
-
-            // 检查 @RequestBody 注解
-            RequestBody requestBodyAnnotation = parameter.getAnnotation(RequestBody.class);
-            if (requestBodyAnnotation != null) {
-                try {
-                    // 懒加载：只在第一次遇到 @RequestBody 时读取请求体
-                    if (requestBody == null) {
-                        requestBody = HttpRequestUtil.getRequestBody(req);
-                    }
-
-                    if (requestBody == null || requestBody.trim().isEmpty()) {
-                        if (requestBodyAnnotation.required()) {
-                            throw new IllegalArgumentException("请求体不能为空");
-                        }
-                        args[i] = null;
-                        continue;
-                    }
-
-                    // 根据参数类型进行转换
-                    if (paramType == String.class) {
-                        // 直接返回原始字符串
-                        args[i] = requestBody;
-                    } else if (Map.class.isAssignableFrom(paramType)) {
-                        // 解析为 Map
-                        args[i] = JsonUtil.parseToMap(requestBody);
-                    } else {
-                        // 解析为自定义对象
-                        args[i] = JsonUtil.parseToObject(requestBody, paramType);
-                    }
-                    continue;
-                } catch (IOException e) {
-                    log.log(Level.WARNING, "读取请求体失败", e);
-                    throw new IllegalStateException("读取请求体失败: " + e.getMessage(), e);
-                }
-            }
-
-            // 检查 @PathVariable 注解
-            PathVariable pathVar = parameter.getAnnotation(PathVariable.class);
-            if (pathVar != null) {
-                String varName = pathVar.value();
-                if (varName == null || varName.isEmpty()) {
-                    varName = parameter.getName();
-                }
-                String value = pathVariables != null ? pathVariables.get(varName) : null;
-                if (value == null && pathVar.required()) {
-                    throw new IllegalArgumentException("缺少必须的路径参数：" + varName);
-                }
-                args[i] = convertType(value, paramType);
-                continue;
-            }
-
-            // 检查 @RequestParam 注解
-            RequestParam reqParam = parameter.getAnnotation(RequestParam.class);
-            if (reqParam != null) {
-                String paramName = reqParam.value();
-                String defaultValue = reqParam.defaultValue();
-                boolean required = reqParam.required();
-
-                String paramValue = req.getParameter(paramName);
-                if (paramValue == null || paramValue.isEmpty()) {
-                    if (required && (defaultValue == null || defaultValue.isEmpty())) {
-                        throw new IllegalArgumentException("缺少必须的请求参数：" + paramName);
-                    }
-                    paramValue = defaultValue;
-                }
-
-                args[i] = convertType(paramValue, paramType);
-                continue;
-            }
-
-            // 不支持的复杂类型，传 null
-            args[i] = null;
-            log.fine("[DispatcherServlet] 不支持的参数类型：" + paramType.getName() + "，暂传null");
-        }
-        return args;
-    }
-
-    /** 简单类型转换 */
-    private Object convertType(String value, Class<?> targetType) {
-        if (value == null) {
-            return null;
-        }
-
-        value = value.trim();
-        if (value.isEmpty()) {
-            return null;
-        }
-        try {
-            if (targetType == String.class) return value;
-            if (targetType == int.class || targetType == Integer.class) return Integer.parseInt(value);
-            if (targetType == long.class || targetType == Long.class) return Long.parseLong(value);
-            if (targetType == boolean.class || targetType == Boolean.class) return Boolean.parseBoolean(value);
-            if (targetType == double.class || targetType == Double.class) return Double.parseDouble(value);
-        } catch (Exception e) {
-            log.log(Level.WARNING, "参数转换失败: value=" + value + ", target=" + targetType.getName(), e);
-        }
-        return null;
-    }
-
     /**
      * 统一处理返回结果：根据结果类型分发到不同处理器
      *
      * 优先级顺序：
      * 1. ViewResult - 允许应用完全控制响应
      * 2. String - 兼容现有字符串返回方式（包括 redirect:/ forward:/ html:）
-     * 3. Map - 返回 JSON
+     * 3. Map / Collection / 数组 / @ResponseBody 方法返回的对象 - 返回 JSON
      * 4. 其他类型 - 返回文本
      */
-    private void handleResult(Object result, HttpServletRequest req, HttpServletResponse resp)
-            throws IOException, ServletException {
+    private void handleResult(Object result, HandlerMapping handler, HttpServletRequest req,
+                              HttpServletResponse resp) throws IOException, ServletException {
 
         resp.setCharacterEncoding("UTF-8");
 
@@ -447,9 +348,16 @@ public class DispatcherServlet extends HttpServlet {
             return;
         }
 
-        // 3. Map -> JSON
-        if (result instanceof Map) {
-            handleJsonResult((Map<?, ?>) result, resp);
+        // 3. Map / Collection / 数组 / @ResponseBody -> JSON
+        if (result instanceof Map || result instanceof Collection || result.getClass().isArray()
+                || (handler != null && handler.isResponseBody())) {
+            try {
+                handleJsonResult(result, req, resp);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ServletException("JSON 序列化失败: " + e.getMessage(), e);
+            }
             return;
         }
 
@@ -572,45 +480,13 @@ public class DispatcherServlet extends HttpServlet {
     }
 
     /**
-     * 处理 JSON 返回（Map -> JSON）
+     * 处理 JSON 返回（Map / Collection / 数组 / @ResponseBody 对象）
+     * 通过 JsonResult 流式写入响应，不生成完整的 JSON 字符串
      */
-    private void handleJsonResult(Map<?, ?> dataMap, HttpServletResponse resp) throws IOException {
-        resp.setContentType("application/json;charset=UTF-8");
-        resp.setCharacterEncoding("UTF-8");
-
-        if (dataMap == null || dataMap.isEmpty()) {
-            resp.getWriter().write("{}");
-            resp.flushBuffer();
-            log.fine("[DispatcherServlet] JSON 响应：{}");
-            return;
-        }
-
-        StringBuilder json = new StringBuilder("{");
-        for (Map.Entry<?, ?> entry : dataMap.entrySet()) {
-            String key = escapeJsonString(String.valueOf(entry.getKey()));
-            json.append("\"").append(key).append("\":");
-            Object value = entry.getValue();
-            if (value == null) {
-                json.append("null");
-            } else if (value instanceof String) {
-                json.append("\"").append(escapeJsonString(String.valueOf(value))).append("\"");
-            } else if (value instanceof Number || value instanceof Boolean) {
-                json.append(value);
-            } else {
-                json.append("\"").append(escapeJsonString(String.valueOf(value))).append("\"");
-            }
-            json.append(",");
-        }
-
-        if (json.length() > 1 && json.charAt(json.length() - 1) == ',') {
-            json.deleteCharAt(json.length() - 1);
-        }
-        json.append("}");
-
-        String jsonStr = json.toString();
-        resp.getWriter().write(jsonStr);
-        resp.flushBuffer();
-        log.fine("[DispatcherServlet] 生成的JSON响应：" + jsonStr);
+    private void handleJsonResult(Object data, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        new JsonResult(data).render(req, resp);
+        log.fine("[DispatcherServlet] JSON 响应：" + data.getClass().getSimpleName());
     }
 
     private String escapeJsonString(String str) {
@@ -1,6 +1,13 @@
 package com.github.microwind.springwind.web;
 
+import com.github.microwind.springwind.annotation.ResponseBody;
+import com.github.microwind.springwind.util.MethodInvoker;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.lang.reflect.Method;
+import java.util.Map;
 
 /**
  * Handler映射信息类
@@ -9,6 +16,10 @@ public class HandlerMapping {
     private final Object controller;
     private final Method method;
     private final PathMatcher pathMatcher;
+    private final ArgumentResolver[] argumentResolvers;
+    private final MethodInvoker invoker;
+    // 方法或类标注了 @ResponseBody(json = true)，返回对象按 JSON 输出
+    private final boolean responseBody;
 
     /**
      * 构造函数，初始化Handler映射信息
@@ -20,9 +31,46 @@ public class HandlerMapping {
         this.controller = controller;
         this.method = method;
         this.pathMatcher = new PathMatcher(pathPattern);
+        this.argumentResolvers = ArgumentResolverFactory.createResolvers(method);
+        this.invoker = MethodInvoker.of(method);
+        ResponseBody annotation = method.getAnnotation(ResponseBody.class);
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(ResponseBody.class);
+        }
+        this.responseBody = annotation != null && annotation.json();
+    }
+
+    /**
+     * 调用 Controller 方法
+     * @param args 方法参数
+     * @return 方法返回值
+     * @throws Throwable Controller 方法抛出的原始异常
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return invoker.invoke(controller, args);
+    }
+
+    /**
+     * 按预先生成的解析器依次解析方法参数
+     * @param req           HTTP 请求
+     * @param resp          HTTP 响应
+     * @param pathVariables 路径变量
+     * @return 方法参数数组
+     */
+    public Object[] resolveArguments(HttpServletRequest req, HttpServletResponse resp,
+                                     Map<String, String> pathVariables) {
+        ArgumentResolver[] resolvers = argumentResolvers;
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(req, resp, pathVariables);
+        }
+        invoker.checkArguments(args);
+        return args;
     }
 
     public Object getController() { return controller; }
     public Method getMethod() { return method; }
     public PathMatcher getPathMatcher() { return pathMatcher; }
-}
\ No newline at end of file
+    public int getParameterCount() { return argumentResolvers.length; }
+    public boolean isResponseBody() { return responseBody; }
+}
@@ -1,52 +1,189 @@
 package com.github.microwind.springwind.web;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * HTTP 请求工具类
- * 提供请求体读取等常用功能
+ * 提供请求体读取（按字节读取、大小限制、可重复读取的缓存）等常用功能
  */
 public final class HttpRequestUtil {
 
+    /**
+     * 缓存请求体字节的 request 属性名（供过滤器与 @RequestBody 参数重复读取）
+     */
+    public static final String CACHED_BODY_ATTRIBUTE = HttpRequestUtil.class.getName() + ".CACHED_BODY";
+
+    /**
+     * 请求体大小上限的 request 属性名（值为 Long），由 DispatcherServlet 按自身配置在分发前设置
+     */
+    public static final String MAX_BODY_SIZE_ATTRIBUTE = HttpRequestUtil.class.getName() + ".MAX_BODY_SIZE";
+
+    /**
+     * 默认请求体最大字节数（10MB）
+     */
+    public static final long DEFAULT_MAX_BODY_SIZE = 10L * 1024 * 1024;
+
+    /**
+     * 请求体最大字节数的上界（数组长度上限）
+     */
+    public static final long MAX_BODY_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 读取缓冲区的初始大小上限，超过后按需扩容，不按声明的 Content-Length 一次性分配
+     */
+    private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private static final int DEFAULT_INITIAL_BUFFER_SIZE = 4096;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
     private HttpRequestUtil() {
     }
 
     /**
-     * 读取请求体内容
+     * 读取请求体内容，按请求声明的字符集解码（未声明时使用 UTF-8）
      * @param request HTTP 请求对象
      * @return 请求体字符串
      * @throws IOException 读取失败时抛出
      */
     public static String getRequestBody(HttpServletRequest request) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line);
-            }
+        return new String(getCachedBody(request), getCharset(request));
+    }
+
+    /**
+     * 获取请求声明的字符集，未声明或不支持时使用 UTF-8
+     * @param request HTTP 请求对象
+     * @return 字符集
+     */
+    public static Charset getCharset(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        if (encoding == null || encoding.isEmpty()) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
         }
-        return sb.toString();
     }
 
     /**
      * 读取请求体内容（使用字节缓冲区方式）
+     * 先完整读取字节再统一解码，避免多字节 UTF-8 字符在缓冲区边界被截断
      * @param request HTTP 请求对象
      * @return 请求体字符串
      * @throws IOException 读取失败时抛出
      */
     public static String getRequestBodyByBytes(HttpServletRequest request) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        byte[] buffer = new byte[1024];
-        int len;
-        while ((len = request.getInputStream().read(buffer)) != -1) {
-            sb.append(new String(buffer, 0, len, StandardCharsets.UTF_8));
+        return getRequestBody(request);
+    }
+
+    /**
+     * 获取缓存的请求体字节
+     * 首次调用时读取输入流并缓存在 request 属性中，之后重复调用直接返回缓存（过滤器与参数绑定可共享）
+     * 大小上限取 {@link #MAX_BODY_SIZE_ATTRIBUTE}，在 DispatcherServlet 之前读取时使用默认上限
+     * @param request HTTP 请求对象
+     * @return 请求体字节（无请求体时返回空数组）
+     * @throws IOException 读取失败时抛出
+     * @throws IllegalArgumentException 请求体超过最大限制
+     */
+    public static byte[] getCachedBody(HttpServletRequest request) throws IOException {
+        Object maxBytes = request.getAttribute(MAX_BODY_SIZE_ATTRIBUTE);
+        return getCachedBody(request, maxBytes instanceof Long ? (Long) maxBytes : DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * 获取缓存的请求体字节，使用指定的大小上限
+     * @param request  HTTP 请求对象
+     * @param maxBytes 最大字节数
+     * @return 请求体字节（无请求体时返回空数组）
+     * @throws IOException 读取失败时抛出
+     * @throws IllegalArgumentException 请求体超过最大限制
+     */
+    public static byte[] getCachedBody(HttpServletRequest request, long maxBytes) throws IOException {
+        Object cached = request.getAttribute(CACHED_BODY_ATTRIBUTE);
+        if (cached instanceof byte[]) {
+            return (byte[]) cached;
+        }
+        byte[] body = readBody(request, maxBytes);
+        request.setAttribute(CACHED_BODY_ATTRIBUTE, body);
+        return body;
+    }
+
+    /**
+     * 读取请求体字节
+     * 缓冲区初始大小取 Content-Length 与 64KB 中的较小值，之后按需倍增，边读边检查上限；
+     * 上限不超过 {@link #MAX_BODY_ARRAY_SIZE}
+     * @param request  HTTP 请求对象
+     * @param maxBytes 最大字节数
+     * @return 请求体字节
+     * @throws IOException 读取失败时抛出
+     * @throws IllegalArgumentException 请求体超过最大限制
+     */
+    public static byte[] readBody(HttpServletRequest request, long maxBytes) throws IOException {
+        int limit = (int) Math.min(maxBytes, MAX_BODY_ARRAY_SIZE);
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > limit) {
+            throw new IllegalArgumentException("请求体超过最大限制: " + contentLength + " > " + limit);
+        }
+        InputStream in = request.getInputStream();
+        if (in == null || contentLength == 0) {
+            return EMPTY_BODY;
+        }
+
+        int initialSize = contentLength > 0
+                ? (int) Math.min(contentLength, MAX_INITIAL_BUFFER_SIZE)
+                : Math.min(DEFAULT_INITIAL_BUFFER_SIZE, limit);
+        // 已知长度时最多扩容到声明的长度
+        long capacity = contentLength > 0 ? contentLength : limit;
+        byte[] buffer = new byte[initialSize];
+        int count = 0;
+        while (true) {
+            if (count == buffer.length) {
+                // 已读满声明的长度，不再继续读取
+                if (count == contentLength) {
+                    break;
+                }
+                if (count >= limit) {
+                    if (in.read() < 0) {
+                        break;
+                    }
+                    throw new IllegalArgumentException("请求体超过最大限制: " + limit);
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, capacity));
+            }
+            int len = in.read(buffer, count, buffer.length - count);
+            if (len < 0) {
+                break;
+            }
+            count += len;
+        }
+        if (count == 0) {
+            return EMPTY_BODY;
+        }
+        return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * 判断请求体是否为空或只包含空白字符
+     * @param body 请求体字节
+     * @return 是否为空白
+     */
+    public static boolean isBlank(byte[] body) {
+        if (body == null) {
+            return true;
+        }
+        for (byte b : body) {
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return false;
+            }
         }
-        return sb.toString();
+        return true;
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.github.microwind.springwind.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Map;
 
 /**
@@ -23,6 +26,8 @@ public final class JsonUtil {
         ObjectMapper mapper = new ObjectMapper();
         // 忽略未知字段
         mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // 流式输出时不关闭目标流（由 Servlet 容器管理）
+        mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
         return mapper;
     }
 
@@ -59,6 +64,39 @@ public final class JsonUtil {
         }
     }
 
+    /**
+     * 将 JSON 字节解析为 Map（直接由 Jackson 解析字节，不经过字符串）
+     * @param json JSON 字节（UTF-8）
+     * @return Map 对象
+     */
+    public static Map<String, Object> parseToMap(byte[] json) {
+        if (HttpRequestUtil.isBlank(json)) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON parse failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将 JSON 字节解析为指定类型的对象（直接由 Jackson 解析字节，不经过字符串）
+     * @param json JSON 字节（UTF-8）
+     * @param clazz 目标类型
+     * @return 解析后的对象
+     */
+    public static <T> T parseToObject(byte[] json, Class<T> clazz) {
+        if (HttpRequestUtil.isBlank(json)) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, clazz);
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON deserialize failed: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 将对象转换为 JSON 字符串
      * @param object 要序列化的对象
@@ -75,6 +113,26 @@ public final class JsonUtil {
         }
     }
 
+    /**
+     * 将对象以 UTF-8 流式写入输出流（不生成中间字符串）
+     * @param out    输出流
+     * @param object 要序列化的对象
+     * @throws IOException 写入失败时抛出
+     */
+    public static void writeJson(OutputStream out, Object object) throws IOException {
+        OBJECT_MAPPER.writeValue(out, object);
+    }
+
+    /**
+     * 将对象流式写入字符输出流（不生成中间字符串）
+     * @param writer 字符输出流
+     * @param object 要序列化的对象
+     * @throws IOException 写入失败时抛出
+     */
+    public static void writeJson(Writer writer, Object object) throws IOException {
+        OBJECT_MAPPER.writeValue(writer, object);
+    }
+
     /**
      * 获取 ObjectMapper 实例
      * @return ObjectMapper
@@ -0,0 +1,218 @@
+package com.github.microwind.springwind.web;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 路由索引 - 基于路径段的前缀树（Trie）
+ * 在 DispatcherServlet 初始化时构建，请求时按路径段逐级查找，避免对所有映射逐个执行正则匹配
+ *
+ * 匹配规则：
+ * - 静态段（如 "user"）通过 HashMap 直接查找
+ * - 整段变量（如 "{id}"）单次遍历捕获，不使用正则
+ * - 段内混合变量（如 "file-{name}.txt"）无法用 Trie 表示，回退到 PathMatcher 正则匹配
+ * - 静态段优先于变量段，找不到时回溯
+ * - 与 PathMatcher 的正则语义一致，按路径段精确匹配：空段（如 "/user//1"）与末尾斜杠（如 "/user/1/"）不会被忽略，
+ *   变量段不匹配空段；多余斜杠的归一化由调用方（DispatcherServlet）负责
+ */
+public class RouteIndex {
+
+    /**
+     * 每个 HTTP 方法一棵 Trie
+     */
+    private final Map<String, Node> roots = new HashMap<>();
+
+    /**
+     * 需要正则回退匹配的映射（按注册顺序）
+     */
+    private final Map<String, List<HandlerMapping>> fallbackMappings = new HashMap<>();
+
+    /**
+     * Trie 节点
+     */
+    private static final class Node {
+        private final Map<String, Node> staticChildren = new HashMap<>();
+        private Node variableChild;
+        private HandlerMapping handler;
+        private String[] variableNames;
+    }
+
+    /**
+     * 匹配结果：命中的 Handler 与提取出的路径变量
+     */
+    public static final class RouteMatch {
+        private final HandlerMapping handler;
+        private final Map<String, String> pathVariables;
+
+        RouteMatch(HandlerMapping handler, Map<String, String> pathVariables) {
+            this.handler = handler;
+            this.pathVariables = pathVariables;
+        }
+
+        public HandlerMapping getHandler() { return handler; }
+        public Map<String, String> getPathVariables() { return pathVariables; }
+    }
+
+    /**
+     * 注册映射
+     * @param httpMethod HTTP 方法
+     * @param handler    Handler 映射，路径模式取自其 PathMatcher
+     * @return 若相同方法+路径已注册则返回 false（保留先注册者）
+     */
+    public boolean register(String httpMethod, HandlerMapping handler) {
+        String method = httpMethod.toUpperCase(Locale.ROOT);
+        String pattern = handler.getPathMatcher().getPattern();
+        List<String> segments = splitPath(pattern);
+
+        for (String segment : segments) {
+            if (segment.indexOf('{') >= 0 && !isVariableSegment(segment)) {
+                fallbackMappings.computeIfAbsent(method, k -> new ArrayList<>()).add(handler);
+                return true;
+            }
+        }
+
+        Node node = roots.computeIfAbsent(method, k -> new Node());
+        List<String> variableNames = new ArrayList<>();
+        for (String segment : segments) {
+            if (isVariableSegment(segment)) {
+                variableNames.add(segment.substring(1, segment.length() - 1));
+                if (node.variableChild == null) {
+                    node.variableChild = new Node();
+                }
+                node = node.variableChild;
+            } else {
+                node = node.staticChildren.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+
+        if (node.handler != null) {
+            return false;
+        }
+        node.handler = handler;
+        node.variableNames = variableNames.toArray(new String[0]);
+        return true;
+    }
+
+    /**
+     * 查找匹配的 Handler
+     * @param httpMethod HTTP 方法（大写）
+     * @param path       已归一化的请求路径
+     * @return 匹配结果，未找到返回 null
+     */
+    public RouteMatch lookup(String httpMethod, String path) {
+        Node root = roots.get(httpMethod);
+        if (root != null) {
+            List<String> segments = splitPath(path);
+            String[] captured = new String[segments.size()];
+            Node matched = match(root, segments, 0, captured, 0);
+            if (matched != null) {
+                return new RouteMatch(matched.handler, toVariableMap(matched.variableNames, captured));
+            }
+        }
+
+        List<HandlerMapping> fallbacks = fallbackMappings.get(httpMethod);
+        if (fallbacks != null) {
+            for (HandlerMapping handler : fallbacks) {
+                PathMatcher matcher = handler.getPathMatcher();
+                if (matcher.matches(path)) {
+                    return new RouteMatch(handler, matcher.extractPathVariables(path));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 深度优先匹配：静态段优先，失败后尝试变量段
+     */
+    private Node match(Node node, List<String> segments, int index, String[] captured, int captureCount) {
+        if (index == segments.size()) {
+            return node.handler != null ? node : null;
+        }
+
+        String segment = segments.get(index);
+        Node child = node.staticChildren.get(segment);
+        if (child != null) {
+            Node result = match(child, segments, index + 1, captured, captureCount);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        // 与正则 ([^/]+) 一致，变量段不匹配空段
+        if (node.variableChild != null && !segment.isEmpty()) {
+            captured[captureCount] = segment;
+            return match(node.variableChild, segments, index + 1, captured, captureCount + 1);
+        }
+        return null;
+    }
+
+    private Map<String, String> toVariableMap(String[] names, String[] values) {
+        if (names.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> variables = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            variables.put(names[i], values[i]);
+        }
+        return variables;
+    }
+
+    private static boolean isVariableSegment(String segment) {
+        return segment.length() > 2
+                && segment.charAt(0) == '{'
+                && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) < 0
+                && segment.indexOf('}') == segment.length() - 1;
+    }
+
+    /**
+     * 按 '/' 切分路径（不使用正则），只去掉开头的一个 '/'，中间和末尾的空段保留
+     * 例如 "/user/1" -> [user, 1]，"/user//1" -> [user, "", 1]，"/user/1/" -> [user, 1, ""]，"/" -> []
+     */
+    static List<String> splitPath(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = path.startsWith("/") ? 1 : 0;
+        if (start >= path.length()) {
+            return segments;
+        }
+        while (true) {
+            int slash = path.indexOf('/', start);
+            if (slash < 0) {
+                segments.add(path.substring(start));
+                return segments;
+            }
+            segments.add(path.substring(start, slash));
+            start = slash + 1;
+        }
+    }
+
+    /**
+     * 已注册的映射总数（Trie + 正则回退）
+     */
+    public int size() {
+        int count = 0;
+        for (Node root : roots.values()) {
+            count += countHandlers(root);
+        }
+        for (List<HandlerMapping> list : fallbackMappings.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    private int countHandlers(Node node) {
+        int count = node.handler != null ? 1 : 0;
+        for (Node child : node.staticChildren.values()) {
+            count += countHandlers(child);
+        }
+        if (node.variableChild != null) {
+            count += countHandlers(node.variableChild);
+        }
+        return count;
+    }
+}
@@ -2,12 +2,12 @@ package com.github.microwind.springwind;
 
 import com.github.microwind.springwind.annotation.*;
 import com.github.microwind.springwind.aop.AspectProcessor;
+import com.github.microwind.springwind.aop.JoinPoint;
+import com.github.microwind.springwind.aop.ProceedingJoinPoint;
 import com.github.microwind.springwind.core.SpringWindApplicationContext;
 
 import org.junit.Test;
 
-import java.lang.reflect.Method;
-
 /**
  * AOP功能测试
  */
@@ -72,16 +72,121 @@ public class AopTest {
     private long startTime;
 
     @Around("com.github.microwind.springwind.AopTest.PaymentService.processPayment")
-    public Object monitorPerformance(Method method, Object[] args) throws Throwable {
+    public Object monitorPerformance(ProceedingJoinPoint joinPoint) throws Throwable {
       startTime = System.currentTimeMillis();
-      System.out.println("[性能监控] 方法开始执行: " + method.getName());
+      System.out.println("[性能监控] 方法开始执行: " + joinPoint.getMethod().getName());
 
-      // 这里应该调用目标方法，简化实现
-      System.out.println("[性能监控] 模拟执行目标方法");
+      Object result = joinPoint.proceed();
 
       long endTime = System.currentTimeMillis();
       System.out.println("[性能监控] 方法执行耗时: " + (endTime - startTime) + "ms");
-      return true;
+      return result;
+    }
+  }
+
+  // 库存接口
+  public interface InventoryService {
+    int reserve(int count);
+
+    int getStock();
+  }
+
+  public static class InventoryServiceImpl implements InventoryService {
+    private int stock = 10;
+
+    @Override
+    public int reserve(int count) {
+      stock -= count;
+      return stock;
+    }
+
+    @Override
+    public int getStock() {
+      return stock;
+    }
+  }
+
+  // 按方法匹配的切面，记录通知调用次数
+  @Aspect
+  public static class CountingAspect {
+    private int beforeCount = 0;
+    private int aroundCount = 0;
+
+    @Before("com.github.microwind.springwind.AopTest.InventoryService.reserve")
+    public void beforeReserve(JoinPoint joinPoint) {
+      beforeCount++;
+      assert "reserve".equals(joinPoint.getMethod().getName()) : "连接点方法错误";
+    }
+
+    @Around("com.github.microwind.springwind.AopTest.InventoryService.reserve")
+    public Object doubleReserve(ProceedingJoinPoint joinPoint) throws Throwable {
+      aroundCount++;
+      Object[] args = joinPoint.getArgs();
+      return joinPoint.proceed(new Object[]{(Integer) args[0] * 2});
+    }
+  }
+
+  // 重试切面：外层环绕通知，失败后再次调用 proceed()
+  @Aspect
+  public static class RetryAspect {
+    @Around("com.github.microwind.springwind.AopTest.InventoryService.reserve")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+      try {
+        return joinPoint.proceed();
+      } catch (IllegalStateException e) {
+        return joinPoint.proceed();
+      }
+    }
+  }
+
+  // 内层环绕通知：第一次调用时失败
+  @Aspect
+  public static class FailOnceAspect {
+    private int aroundCount = 0;
+    private int beforeCount = 0;
+
+    @Around("com.github.microwind.springwind.AopTest.InventoryService.reserve")
+    public Object failOnce(ProceedingJoinPoint joinPoint) throws Throwable {
+      if (++aroundCount == 1) {
+        throw new IllegalStateException("第一次调用失败");
+      }
+      return joinPoint.proceed();
+    }
+
+    @Before("com.github.microwind.springwind.AopTest.InventoryService.reserve")
+    public void beforeReserve() {
+      beforeCount++;
+    }
+  }
+
+  // 按类名匹配：通知目标类的全部方法
+  @Aspect
+  public static class ClassNamePointcutAspect {
+    private int count = 0;
+
+    @Before("com.github.microwind.springwind.AopTest.InventoryServiceImpl")
+    public void beforeAny() {
+      count++;
+    }
+  }
+
+  // 按 "接口名.方法名" 匹配：只通知接口声明的该方法
+  @Aspect
+  public static class InterfaceMethodPointcutAspect {
+    private int count = 0;
+
+    @Before("com.github.microwind.springwind.AopTest.InventoryService.getStock")
+    public void beforeGetStock() {
+      count++;
+    }
+  }
+
+  // 只写接口名：不匹配实现类（与原有按类名匹配的语义一致）
+  @Aspect
+  public static class InterfaceNamePointcutAspect {
+    @Before("com.github.microwind.springwind.AopTest.InventoryService")
+    public void beforeAny() {
+      throw new AssertionError("只写接口名的切点不应匹配实现类");
     }
   }
 
@@ -107,6 +212,7 @@ public class AopTest {
     boolean result = proxy.processPayment(100.0);
 
     assert result : "AOP代理调用失败";
+    assert "PROCESSED".equals(proxy.getStatus()) : "@Around 未执行目标方法";
     System.out.println("AOP代理调用成功，结果: " + result);
 
     context.close();
@@ -136,4 +242,66 @@ public class AopTest {
     context.close();
     System.out.println("=== 多切面测试完成 ===\n");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testMethodLevelPointcutAndAround() {
+    System.out.println("=== 测试方法级切点与环绕通知 ===");
+
+    CountingAspect aspect = new CountingAspect();
+    AspectProcessor processor = new AspectProcessor();
+    processor.registerAspect(aspect);
+
+    InventoryService proxy = (InventoryService) processor.createProxy(new InventoryServiceImpl());
+    assert !(proxy instanceof InventoryServiceImpl) : "未创建代理";
+
+    // 环绕通知修改参数：预留 2 件实际预留 4 件
+    int remaining = proxy.reserve(2);
+    assert remaining == 6 : "环绕通知未修改参数，剩余: " + remaining;
+    assert aspect.beforeCount == 1 && aspect.aroundCount == 1 : "通知执行次数错误";
+
+    // 未匹配切点的方法不经过通知
+    assert proxy.getStock() == 6;
+    assert aspect.beforeCount == 1 && aspect.aroundCount == 1 : "未匹配的方法被通知";
+
+    System.out.println("=== 方法级切点测试完成 ===\n");
+  }
+
+  @Test
+  public void testAroundProceedTwice() {
+    FailOnceAspect inner = new FailOnceAspect();
+    AspectProcessor processor = new AspectProcessor();
+    processor.registerAspect(new RetryAspect());
+    processor.registerAspect(inner);
+
+    InventoryService proxy = (InventoryService) processor.createProxy(new InventoryServiceImpl());
+    int remaining = proxy.reserve(3);
+
+    // 外层重试时内层环绕通知与前置通知都重新执行
+    assert remaining == 7 : "重试后剩余库存错误: " + remaining;
+    assert inner.aroundCount == 2 : "重试时内层环绕通知被跳过，执行次数: " + inner.aroundCount;
+    assert inner.beforeCount == 1 : "前置通知执行次数错误: " + inner.beforeCount;
+  }
+
+  @Test
+  public void testPointcutForms() {
+    ClassNamePointcutAspect classAspect = new ClassNamePointcutAspect();
+    InterfaceMethodPointcutAspect methodAspect = new InterfaceMethodPointcutAspect();
+    AspectProcessor processor = new AspectProcessor();
+    processor.registerAspect(classAspect);
+    processor.registerAspect(methodAspect);
+    processor.registerAspect(new InterfaceNamePointcutAspect());
+
+    InventoryService proxy = (InventoryService) processor.createProxy(new InventoryServiceImpl());
+    proxy.reserve(1);
+    proxy.getStock();
+
+    assert classAspect.count == 2 : "类名切点应通知全部方法，执行次数: " + classAspect.count;
+    assert methodAspect.count == 1 : "方法切点只应通知 getStock，执行次数: " + methodAspect.count;
+
+    // 只有接口名切点时不创建代理
+    AspectProcessor interfaceOnly = new AspectProcessor();
+    interfaceOnly.registerAspect(new InterfaceNamePointcutAspect());
+    InventoryServiceImpl target = new InventoryServiceImpl();
+    assert interfaceOnly.createProxy(target) == target : "只写接口名的切点不应匹配实现类";
+  }
+}
@@ -3,11 +3,20 @@ package com.github.microwind.springwind;
 import com.github.microwind.springwind.annotation.Autowired;
 import com.github.microwind.springwind.annotation.Component;
 import com.github.microwind.springwind.annotation.Service;
+import com.github.microwind.springwind.core.ComponentIndexProcessor;
+import com.github.microwind.springwind.core.InheritedPostProcessor;
 import com.github.microwind.springwind.core.SpringWindApplicationContext;
 import org.junit.Test;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -88,6 +97,73 @@ public class IoCTest {
     }
   }
 
+  // 按接口、抽象父类查找的Bean
+  public interface Greeter {
+    String greet(String name);
+  }
+
+  public abstract static class AbstractGreeter implements Greeter {
+  }
+
+  @Service
+  public static class ChineseGreeter extends AbstractGreeter {
+    @Override
+    public String greet(String name) {
+      return "你好, " + name;
+    }
+  }
+
+  // 覆盖各类注入字段：私有字段、接口类型、final 字段、缺失的可选依赖
+  @Component
+  public static class InjectionTarget {
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    protected Greeter greeter;
+
+    // final 字段无法使用 VarHandle 写入，回退到 Field.set
+    @Autowired
+    private final UserService userService = null;
+
+    @Autowired(required = false)
+    private java.util.concurrent.ScheduledExecutorService executor;
+
+    private UserRepository notAutowired;
+
+    public UserRepository getRepository() {
+      return repository;
+    }
+
+    public Greeter getGreeter() {
+      return greeter;
+    }
+
+    public UserService getUserService() {
+      return userService;
+    }
+
+    public java.util.concurrent.ScheduledExecutorService getExecutor() {
+      return executor;
+    }
+
+    public UserRepository getNotAutowired() {
+      return notAutowired;
+    }
+  }
+
+  @Test
+  public void testInheritedBeanPostProcessor() {
+    InheritedPostProcessor.PROCESSED_BEANS.clear();
+    SpringWindApplicationContext context = new SpringWindApplicationContext(IoCTest.class);
+    try {
+      // 后处理器经父类、子接口间接实现 BeanPostProcessor，且未标注注解，也应被扫描注册
+      assert InheritedPostProcessor.PROCESSED_BEANS.contains("orderService") : "未识别间接实现的 BeanPostProcessor";
+    } finally {
+      context.close();
+    }
+  }
+
   @Test
   public void testBasicIoC() {
     System.out.println("=== 测试基础IoC功能 ===");
@@ -162,4 +238,134 @@ public class IoCTest {
     context.close();
     System.out.println("=== 注解扫描测试完成 ===\n");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBeanTypeIndex() {
+    SpringWindApplicationContext context = new SpringWindApplicationContext(IoCTest.class);
+    try {
+      // 按接口、抽象父类、具体类型查找到同一个Bean
+      Greeter greeter = context.getBean(Greeter.class);
+      assert greeter instanceof ChineseGreeter : "按接口查找Bean失败";
+      assert context.getBean(AbstractGreeter.class) == greeter : "按父类查找Bean失败";
+      assert context.getBean(ChineseGreeter.class) == greeter : "按具体类型查找Bean失败";
+      assert "你好, 张三".equals(greeter.greet("张三"));
+
+      Map<String, Greeter> greeters = context.getBeansOfType(Greeter.class);
+      assert greeters.size() == 1 && greeters.get("chineseGreeter") == greeter : "按类型获取Bean失败: " + greeters;
+
+      // 没有可赋值的Bean时返回 null / 空表
+      assert context.getBean(java.util.concurrent.ScheduledExecutorService.class) == null : "不应找到未注册类型的Bean";
+      assert context.getBeansOfType(java.util.concurrent.ScheduledExecutorService.class).isEmpty();
+
+      // 注解索引只包含类上直接标注该注解的Bean
+      Map<String, Object> services = context.getBeansWithAnnotation(Service.class);
+      assert services.containsKey("chineseGreeter") && services.containsKey("userService") : "注解索引缺少Bean: " + services.keySet();
+      assert !services.containsKey("userRepository") && !services.containsKey("orderService") : "注解索引包含多余的Bean: " + services.keySet();
+      Map<String, Object> components = context.getBeansWithAnnotation(Component.class);
+      assert components.containsKey("userRepository") && components.containsKey("orderService");
+      assert !components.containsKey("chineseGreeter") : "注解索引包含多余的Bean: " + components.keySet();
+    } finally {
+      context.close();
+    }
+  }
+
+  @Test
+  public void testInjectionMetadata() {
+    SpringWindApplicationContext context = new SpringWindApplicationContext(IoCTest.class);
+    SpringWindApplicationContext another = new SpringWindApplicationContext(IoCTest.class);
+    try {
+      InjectionTarget target = context.getBean(InjectionTarget.class);
+      assert target.getRepository() == context.getBean(UserRepository.class) : "私有字段注入失败";
+      assert target.getGreeter() == context.getBean(Greeter.class) : "接口类型字段注入失败";
+      assert target.getUserService() == context.getBean(UserService.class) : "final 字段注入失败";
+      assert target.getExecutor() == null : "缺失的可选依赖应保持为 null";
+      assert target.getNotAutowired() == null : "未标注 @Autowired 的字段不应注入";
+
+      // 每个容器按自己的类型索引解析依赖，注入本容器的Bean
+      InjectionTarget anotherTarget = another.getBean(InjectionTarget.class);
+      assert anotherTarget != target;
+      assert anotherTarget.getRepository() == another.getBean(UserRepository.class) : "依赖解析串到了其他容器";
+      assert anotherTarget.getRepository() != target.getRepository();
+    } finally {
+      context.close();
+      another.close();
+    }
+  }
+
+  @Test
+  public void testComponentIndex() throws Exception {
+    // 在额外的类路径根下放置组件索引，通过线程上下文类加载器对容器可见
+    Path root = Files.createTempDirectory("springwind-index");
+    Path index = root.resolve(ComponentIndexProcessor.INDEX_LOCATION);
+    Files.createDirectories(index.getParent());
+    Files.write(index, Arrays.asList("# test index", UserRepository.class.getName(), UserService.class.getName(),
+        "com.example.other.OtherService"), StandardCharsets.UTF_8);
+
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, original)) {
+      thread.setContextClassLoader(classLoader);
+
+      // 1. 存在索引时只注册索引中本包的类，未列入索引的组件不会被扫描到
+      SpringWindApplicationContext context = new SpringWindApplicationContext(IoCTest.class);
+      try {
+        List<String> names = Arrays.asList(context.getBeanDefinitionNames());
+        assert names.size() == 2 && names.containsAll(Arrays.asList("userRepository", "userService"))
+            : "应只注册索引中的类: " + names;
+        assert context.getBean(UserService.class).getUserRepository() != null : "索引模式下依赖注入失败";
+      } finally {
+        context.close();
+      }
+
+      // 2. 设置 springwind.index.ignore=true 时忽略索引，回退到包扫描
+      System.setProperty(SpringWindApplicationContext.IGNORE_INDEX_PROPERTY, "true");
+      try {
+        context = new SpringWindApplicationContext(IoCTest.class);
+        try {
+          assert Arrays.asList(context.getBeanDefinitionNames()).contains("orderService") : "忽略索引后应扫描全部组件";
+        } finally {
+          context.close();
+        }
+      } finally {
+        System.clearProperty(SpringWindApplicationContext.IGNORE_INDEX_PROPERTY);
+      }
+
+      // 3. 索引中没有本包的类时回退到包扫描
+      Files.write(index, Arrays.asList("com.example.other.OtherService"), StandardCharsets.UTF_8);
+      context = new SpringWindApplicationContext(IoCTest.class);
+      try {
+        assert Arrays.asList(context.getBeanDefinitionNames()).contains("orderService") : "索引不含本包的类时应回退扫描";
+      } finally {
+        context.close();
+      }
+    } finally {
+      thread.setContextClassLoader(original);
+      Files.delete(index);
+      Files.delete(index.getParent());
+      Files.delete(root);
+    }
+  }
+
+  @Test
+  public void testParallelSingletonCreation() {
+    System.out.println("=== 测试单例Bean并行创建 ===");
+
+    SpringWindApplicationContext context = new SpringWindApplicationContext(IoCTest.class, false);
+    context.setParallelSingletonCreation(true);
+    context.setSingletonCreationThreads(4);
+    context.refresh();
+
+    // 依赖注入结果与串行创建一致
+    UserService userService = context.getBean(UserService.class);
+    assert userService.getUserRepository() == context.getBean(UserRepository.class) : "并行创建依赖注入失败";
+    assert context.getBean(UserRepository.class).getInitializationCount() == 1 : "单例被重复创建";
+
+    // 启动报告包含每个单例Bean的耗时
+    Map<String, Double> report = context.getStartupReport();
+    assert report.containsKey("userService") : "启动报告缺少Bean";
+    System.out.println("启动报告: " + report);
+
+    context.close();
+    System.out.println("=== 并行创建测试完成 ===\n");
+  }
+}
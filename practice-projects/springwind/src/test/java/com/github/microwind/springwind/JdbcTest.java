@@ -1,6 +1,17 @@
 package com.github.microwind.springwind;
 
+import com.github.microwind.springwind.annotation.Propagation;
+import com.github.microwind.springwind.annotation.Transactional;
+import com.github.microwind.springwind.aop.AspectProcessor;
+import com.github.microwind.springwind.exception.TransactionException;
+import com.github.microwind.springwind.jdbc.BatchUpdateResult;
+import com.github.microwind.springwind.jdbc.BeanPropertyRowMapper;
+import com.github.microwind.springwind.jdbc.DataSourceTransactionManager;
+import com.github.microwind.springwind.jdbc.DataSourceUtils;
 import com.github.microwind.springwind.jdbc.JdbcTemplate;
+import com.github.microwind.springwind.jdbc.KeysetPage;
+import com.github.microwind.springwind.jdbc.KeysetPagination;
+import com.github.microwind.springwind.jdbc.TransactionInterceptor;
 import com.github.microwind.springwind.jdbc.RowMapper;
 import org.junit.After;
 import org.junit.Before;
@@ -8,13 +19,20 @@ import org.junit.Test;
 
 import javax.sql.DataSource;
 import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -55,6 +73,129 @@ public class JdbcTest {
         }
     }
 
+    // 事务测试服务
+    public interface AccountService {
+        void createAccounts(boolean fail);
+
+        boolean sameSession();
+    }
+
+    public static class AccountServiceImpl implements AccountService {
+        private final JdbcTemplate jdbcTemplate;
+
+        AccountServiceImpl(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        @Transactional
+        public void createAccounts(boolean fail) {
+            jdbcTemplate.update("INSERT INTO `user` (id, name) VALUES (?, ?)", 10L, "account-1");
+            jdbcTemplate.update("INSERT INTO `user` (id, name) VALUES (?, ?)", 11L, "account-2");
+            if (fail) {
+                throw new IllegalStateException("模拟业务失败");
+            }
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public boolean sameSession() {
+            Integer first = jdbcTemplate.queryForScalar("SELECT SESSION_ID()", Integer.class);
+            Integer second = jdbcTemplate.queryForScalar("SELECT SESSION_ID()", Integer.class);
+            return first.equals(second);
+        }
+    }
+
+    // 传播行为测试服务：内层服务通过代理被外层服务调用
+    public interface LedgerService {
+        void append(long id);
+
+        void appendInNewTransaction(long id);
+
+        void appendMandatory(long id);
+
+        void appendAndFail(long id);
+
+        void appendAndReject(long id) throws Exception;
+    }
+
+    public static class LedgerServiceImpl implements LedgerService {
+        private final JdbcTemplate jdbcTemplate;
+
+        LedgerServiceImpl(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        @Transactional
+        public void append(long id) {
+            jdbcTemplate.update("INSERT INTO `user` (id, name) VALUES (?, ?)", id, "ledger-" + id);
+        }
+
+        @Override
+        @Transactional(propagation = Propagation.REQUIRES_NEW)
+        public void appendInNewTransaction(long id) {
+            append(id);
+        }
+
+        @Override
+        @Transactional(propagation = Propagation.MANDATORY)
+        public void appendMandatory(long id) {
+            append(id);
+        }
+
+        @Override
+        @Transactional
+        public void appendAndFail(long id) {
+            append(id);
+            throw new IllegalStateException("模拟内层失败");
+        }
+
+        @Override
+        @Transactional
+        public void appendAndReject(long id) throws Exception {
+            append(id);
+            // 受检异常默认不回滚
+            throw new Exception("模拟受检异常");
+        }
+    }
+
+    public interface TransferService {
+        void transfer(boolean fail);
+
+        void transferIgnoringInnerFailure();
+    }
+
+    public static class TransferServiceImpl implements TransferService {
+        private final LedgerService ledgerService;
+
+        TransferServiceImpl(LedgerService ledgerService) {
+            this.ledgerService = ledgerService;
+        }
+
+        @Override
+        @Transactional
+        public void transfer(boolean fail) {
+            ledgerService.append(20L);
+            ledgerService.appendInNewTransaction(21L);
+            ledgerService.appendMandatory(22L);
+            if (fail) {
+                throw new IllegalStateException("模拟外层失败");
+            }
+        }
+
+        @Override
+        @Transactional
+        public void transferIgnoringInnerFailure() {
+            ledgerService.append(20L);
+            try {
+                ledgerService.appendAndFail(23L);
+            } catch (IllegalStateException ignored) {
+                // 内层已将事务标记为仅回滚
+            }
+        }
+    }
+
     private DataSource dataSource;
     private Connection connection;
 
@@ -150,6 +291,595 @@ public class JdbcTest {
         assertTrue(userList.stream().anyMatch(u -> u.getName().equals("Jarry")));  // 断言存在name=Jarry的用户
     }
 
+    @Test
+    public void testStreamingQuery() throws SQLException {
+        int total = 100_000;
+        connection.prepareStatement("CREATE TABLE big_table (id BIGINT, name VARCHAR(20))").execute();
+        try {
+            connection.prepareStatement(
+                    "INSERT INTO big_table SELECT X, CONCAT('name-', X) FROM SYSTEM_RANGE(1, " + total + ")").execute();
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setFetchSize(1000);
+
+            // 1. 行回调：逐行处理，不保留结果
+            long[] sum = new long[1];
+            jdbcTemplate.query("SELECT id FROM big_table", rs -> sum[0] += rs.getLong(1));
+            assertEquals((long) total * (total + 1) / 2, sum[0]);
+
+            // 2. 流式查询：关闭流时释放连接
+            try (Stream<User> users = jdbcTemplate.queryForStream(
+                    "SELECT id, name FROM big_table WHERE id > ?", new UserRowMapper(), 10L)) {
+                assertEquals(total - 10, users.filter(u -> u.getName().startsWith("name-")).count());
+            }
+
+            // 3. 提前结束的流，同样通过 close 释放
+            try (Stream<User> users = jdbcTemplate.queryForStream("SELECT id, name FROM big_table ORDER BY id", new UserRowMapper())) {
+                assertEquals(Long.valueOf(1L), users.findFirst().map(User::getId).orElse(null));
+            }
+
+            // 4. maxRows 限制返回行数
+            jdbcTemplate.setMaxRows(5);
+            assertEquals(5, jdbcTemplate.query("SELECT id, name FROM big_table", new UserRowMapper()).size());
+        } finally {
+            connection.prepareStatement("DROP TABLE big_table").execute();
+        }
+    }
+
+    @Test
+    public void testChunkedBatchUpdate() throws SQLException {
+        connection.prepareStatement(
+                "CREATE TABLE batch_user (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(20))").execute();
+        try {
+            int total = 10_000;
+            List<Object[]> batchArgs = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                batchArgs.add(new Object[]{"user-" + i});
+            }
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setBatchSize(1000);
+            jdbcTemplate.setBatchParallelism(4);
+
+            BatchUpdateResult result = jdbcTemplate.chunkedBatchUpdate(
+                    "INSERT INTO batch_user (name) VALUES (?)", batchArgs, true);
+            System.out.println("批量插入: " + result);
+
+            assertEquals(total, result.getRowCount());
+            assertEquals(total, result.getGeneratedKeys().size());
+            assertEquals(total, new HashSet<>(result.getGeneratedKeys()).size());
+            assertEquals(Long.valueOf(total), jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM batch_user", Long.class));
+
+            // 主键与参数顺序对应
+            Object firstKey = result.getGeneratedKeys().get(0);
+            assertEquals("user-0", jdbcTemplate.queryForScalar("SELECT name FROM batch_user WHERE id = ?", String.class, firstKey));
+
+            // 原有接口：返回每条的影响行数
+            int[] counts = jdbcTemplate.batchUpdate("UPDATE batch_user SET name = ? WHERE id = ?",
+                    Arrays.asList(new Object[]{"a", firstKey}, new Object[]{"b", -1L}));
+            assertArrayEquals(new int[]{1, 0}, counts);
+        } finally {
+            connection.prepareStatement("DROP TABLE batch_user").execute();
+        }
+    }
+
+    @Test
+    public void testBatchUpdateAtomicity() throws SQLException {
+        connection.prepareStatement("CREATE TABLE batch_atomic (id BIGINT PRIMARY KEY, name VARCHAR(20))").execute();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setBatchSize(2);
+            String sql = "INSERT INTO batch_atomic (id, name) VALUES (?, ?)";
+            // 第二块中主键重复
+            List<Object[]> batchArgs = Arrays.asList(
+                    new Object[]{1L, "a"}, new Object[]{2L, "b"}, new Object[]{3L, "c"}, new Object[]{3L, "d"});
+
+            // 1. batchUpdate 全部成功或全部回滚
+            try {
+                jdbcTemplate.batchUpdate(sql, batchArgs);
+                fail("主键重复应抛出异常");
+            } catch (RuntimeException expected) {
+                // 预期异常
+            }
+            assertEquals(Long.valueOf(0), jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM batch_atomic", Long.class));
+
+            // 2. chunkedBatchUpdate 逐块提交，失败前的块保留
+            try {
+                jdbcTemplate.chunkedBatchUpdate(sql, batchArgs, false);
+                fail("主键重复应抛出异常");
+            } catch (RuntimeException expected) {
+                // 预期异常
+            }
+            assertEquals(Long.valueOf(2), jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM batch_atomic", Long.class));
+        } finally {
+            connection.prepareStatement("DROP TABLE batch_atomic").execute();
+        }
+    }
+
+    @Test
+    public void testTransactional() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setStatementCacheSize(16);
+
+        AspectProcessor processor = new AspectProcessor();
+        new TransactionInterceptor(new DataSourceTransactionManager(dataSource)).registerTo(processor);
+        AccountService service = (AccountService) processor.createProxy(new AccountServiceImpl(jdbcTemplate));
+
+        // 1. 异常时回滚全部语句
+        try {
+            service.createAccounts(true);
+            fail("应抛出业务异常");
+        } catch (IllegalStateException expected) {
+            // 预期异常
+        }
+        assertEquals(Long.valueOf(0), jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM `user` WHERE id >= 10", Long.class));
+
+        // 2. 正常返回时提交
+        service.createAccounts(false);
+        assertEquals(Long.valueOf(2), jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM `user` WHERE id >= 10", Long.class));
+
+        // 3. 事务内的多条语句共用同一连接；事务外每次获取新连接
+        assertTrue(service.sameSession());
+        assertFalse(DataSourceUtils.isTransactionActive(dataSource));
+    }
+
+    @Test
+    public void testTransactionPropagation() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        AspectProcessor processor = new AspectProcessor();
+        new TransactionInterceptor(new DataSourceTransactionManager(dataSource)).registerTo(processor);
+        LedgerService ledger = (LedgerService) processor.createProxy(new LedgerServiceImpl(jdbcTemplate));
+        TransferService transfer = (TransferService) processor.createProxy(new TransferServiceImpl(ledger));
+        String idSql = "SELECT id FROM `user` ORDER BY id";
+        RowMapper<Long> idMapper = (rs, rowNum) -> rs.getLong(1);
+
+        // 1. 外层回滚：REQUIRED、MANDATORY 加入外层事务一起回滚，REQUIRES_NEW 独立提交
+        try {
+            transfer.transfer(true);
+            fail("应抛出业务异常");
+        } catch (IllegalStateException expected) {
+            // 预期异常
+        }
+        assertEquals(List.of(21L), jdbcTemplate.query(idSql, idMapper));
+
+        // 2. 外层提交：三条记录都写入
+        jdbcTemplate.update("DELETE FROM `user`");
+        transfer.transfer(false);
+        assertEquals(List.of(20L, 21L, 22L), jdbcTemplate.query(idSql, idMapper));
+
+        // 3. MANDATORY 不在事务中调用时拒绝执行
+        jdbcTemplate.update("DELETE FROM `user`");
+        try {
+            ledger.appendMandatory(22L);
+            fail("应抛出 TransactionException");
+        } catch (TransactionException expected) {
+            // 预期异常
+        }
+        assertTrue(jdbcTemplate.query(idSql, idMapper).isEmpty());
+
+        // 4. 内层异常被外层吞掉：事务已标记为仅回滚，外层结束时整体回滚
+        try {
+            transfer.transferIgnoringInnerFailure();
+            fail("应抛出 TransactionException");
+        } catch (TransactionException expected) {
+            // 预期异常
+        }
+        assertTrue(jdbcTemplate.query(idSql, idMapper).isEmpty());
+
+        // 5. 受检异常默认提交，原始异常抛给调用方
+        try {
+            ledger.appendAndReject(24L);
+            fail("应抛出受检异常");
+        } catch (Exception expected) {
+            assertEquals("模拟受检异常", expected.getMessage());
+        }
+        assertEquals(List.of(24L), jdbcTemplate.query(idSql, idMapper));
+        assertFalse(DataSourceUtils.isTransactionActive(dataSource));
+    }
+
+    @Test
+    public void testCommitFailureKeepsOriginalException() {
+        DataSource failingDataSource = interceptConnections(dataSource, methodName -> {
+            if ("commit".equals(methodName)) {
+                throw new SQLException("模拟提交失败");
+            }
+        });
+        AspectProcessor processor = new AspectProcessor();
+        new TransactionInterceptor(new DataSourceTransactionManager(failingDataSource)).registerTo(processor);
+        LedgerService ledger = (LedgerService) processor.createProxy(
+                new LedgerServiceImpl(new JdbcTemplate(failingDataSource)));
+
+        // 受检异常后提交失败：抛出原始异常，提交失败作为 suppressed 附带
+        try {
+            ledger.appendAndReject(25L);
+            fail("应抛出受检异常");
+        } catch (Exception expected) {
+            assertEquals("模拟受检异常", expected.getMessage());
+            assertEquals(1, expected.getSuppressed().length);
+            assertTrue(expected.getSuppressed()[0] instanceof TransactionException);
+        }
+        assertFalse(DataSourceUtils.isTransactionActive(failingDataSource));
+    }
+
+    @Test
+    public void testStatementCacheInTransaction() throws Throwable {
+        AtomicInteger prepared = new AtomicInteger();
+        DataSource countingDataSource = interceptConnections(dataSource, methodName -> {
+            if ("prepareStatement".equals(methodName)) {
+                prepared.incrementAndGet();
+            }
+        });
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(countingDataSource);
+        jdbcTemplate.setStatementCacheSize(16);
+        String sql = "SELECT COUNT(*) FROM `user` WHERE id >= ?";
+
+        // 1. 事务中两次 query 命中缓存，只预编译一次
+        new DataSourceTransactionManager(countingDataSource).execute(() -> {
+            jdbcTemplate.queryForScalar(sql, Long.class, 0L);
+            jdbcTemplate.queryForScalar(sql, Long.class, 1L);
+            return null;
+        });
+        assertEquals(1, prepared.get());
+
+        // 2. 事务外连接每次归还，不缓存语句
+        prepared.set(0);
+        jdbcTemplate.queryForScalar(sql, Long.class, 0L);
+        jdbcTemplate.queryForScalar(sql, Long.class, 1L);
+        assertEquals(2, prepared.get());
+    }
+
+    @Test
+    public void testStatementCacheNestedReuse() throws Throwable {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setStatementCacheSize(16);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO `user` (id, name) VALUES (?, ?)", id, "user-" + id);
+        }
+        String sql = "SELECT id, name FROM `user` WHERE id >= ? ORDER BY id";
+
+        // 行映射器中再次执行相同SQL：缓存语句使用中，内层使用新语句，不关闭外层的 ResultSet
+        List<Integer> innerCounts = new DataSourceTransactionManager(dataSource).execute(() ->
+                jdbcTemplate.query(sql, (rs, rowNum) -> jdbcTemplate.query(sql, new UserRowMapper(), rs.getLong("id")).size(), 1L));
+        assertEquals(Arrays.asList(3, 2, 1), innerCounts);
+    }
+
+    @Test
+    public void testStatementCacheEvictionKeepsStatementInUse() throws Throwable {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setStatementCacheSize(1);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO `user` (id, name) VALUES (?, ?)", id, "user-" + id);
+        }
+
+        // 容量为 1：行映射器中执行另一条SQL 会淘汰外层正在使用的语句，外层仍可继续读取
+        List<String> names = new DataSourceTransactionManager(dataSource).execute(() ->
+                jdbcTemplate.query("SELECT id, name FROM `user` ORDER BY id", (rs, rowNum) -> {
+                    Long count = jdbcTemplate.queryForScalar("SELECT COUNT(*) FROM `user` WHERE id <= ?", Long.class, rs.getLong("id"));
+                    return rs.getString("name") + ":" + count;
+                }));
+        assertEquals(Arrays.asList("user-1:1", "user-2:2", "user-3:3"), names);
+    }
+
+    @Test
+    public void testQueryForStreamReleasesOnMapperFailure() {
+        AtomicInteger closed = new AtomicInteger();
+        new JdbcTemplate(dataSource).update("INSERT INTO `user` (id, name) VALUES (?, ?)", 1L, "user-1");
+
+        // 映射器抛出运行时异常：未关闭的流同样释放连接
+        DataSource countingDataSource = interceptConnections(dataSource, methodName -> {
+            if ("close".equals(methodName)) {
+                closed.incrementAndGet();
+            }
+        });
+        JdbcTemplate streamTemplate = new JdbcTemplate(countingDataSource);
+        Stream<User> users = streamTemplate.queryForStream("SELECT id, name FROM `user` ORDER BY id", (rs, rowNum) -> {
+            throw new IllegalStateException("映射失败");
+        });
+        try {
+            users.findFirst();
+            fail("映射器异常应抛出");
+        } catch (IllegalStateException expected) {
+            // 预期异常
+        }
+        assertEquals(1, closed.get());
+    }
+
+    // 连接方法调用监听：在转发给真实连接之前回调，可抛出 SQLException 模拟失败
+    private interface ConnectionListener {
+        void beforeCall(String methodName) throws SQLException;
+    }
+
+    /**
+     * 包装数据源，连接上的每次方法调用先通知监听器
+     */
+    private static DataSource interceptConnections(DataSource target, ConnectionListener listener) {
+        return (DataSource) Proxy.newProxyInstance(JdbcTest.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invokeTarget(target, method, args);
+                    if (!"getConnection".equals(method.getName())) {
+                        return result;
+                    }
+                    Connection conn = (Connection) result;
+                    return Proxy.newProxyInstance(JdbcTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+                            (connProxy, connMethod, connArgs) -> {
+                                if ("equals".equals(connMethod.getName())) {
+                                    return connProxy == connArgs[0];
+                                }
+                                listener.beforeCall(connMethod.getName());
+                                return invokeTarget(conn, connMethod, connArgs);
+                            });
+                });
+    }
+
+    private static Object invokeTarget(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // 属性映射测试用 JavaBean（属性名与列名按驼峰/下划线匹配）
+    public static class Member {
+        private Long id;
+        private String memberName;
+        private int level;
+        private Long createdTime;
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public String getMemberName() { return memberName; }
+        public void setMemberName(String memberName) { this.memberName = memberName; }
+        public int getLevel() { return level; }
+        public void setLevel(int level) { this.level = level; }
+        public Long getCreatedTime() { return createdTime; }
+        public void setCreatedTime(Long createdTime) { this.createdTime = createdTime; }
+    }
+
+    public record MemberRecord(Long id, String memberName, int level) {
+    }
+
+    // setter 抛出 Error 的 JavaBean
+    public static class BrokenMember {
+        public void setMemberName(String memberName) {
+            throw new AssertionError("setter 失败");
+        }
+    }
+
+    @Test
+    public void testBeanPropertyRowMapper() throws SQLException {
+        connection.prepareStatement("CREATE TABLE member (id BIGINT, member_name VARCHAR(20), level INT, "
+                + "created_time TIMESTAMP)").execute();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("INSERT INTO member VALUES (?, ?, ?, ?)", 1L, "Tom", 3,
+                    new java.sql.Timestamp(1_700_000_000_000L));
+            jdbcTemplate.update("INSERT INTO member VALUES (?, ?, ?, ?)", 2L, "Jerry", null, null);
+
+            // 1. JavaBean：时间列转换为毫秒时间戳，基本类型遇到 NULL 保持默认值
+            BeanPropertyRowMapper<Member> mapper = new BeanPropertyRowMapper<>(Member.class);
+            List<Member> members = jdbcTemplate.query("SELECT * FROM member ORDER BY id", mapper);
+            assertEquals(2, members.size());
+            assertEquals("Tom", members.get(0).getMemberName());
+            assertEquals(3, members.get(0).getLevel());
+            assertEquals(Long.valueOf(1_700_000_000_000L), members.get(0).getCreatedTime());
+            assertEquals(0, members.get(1).getLevel());
+            assertNull(members.get(1).getCreatedTime());
+
+            // 2. 同一映射器用于不同的列组合
+            Member partial = jdbcTemplate.queryForObject("SELECT member_name FROM member WHERE id = ?", mapper, 2L);
+            assertEquals("Jerry", partial.getMemberName());
+            assertNull(partial.getId());
+
+            // 3. record：未查询的组件使用默认值
+            List<MemberRecord> records = jdbcTemplate.query("SELECT id, member_name FROM member ORDER BY id",
+                    new BeanPropertyRowMapper<>(MemberRecord.class));
+            assertEquals(new MemberRecord(1L, "Tom", 0), records.get(0));
+
+            // 4. 同一映射器同时用于两个不同列组合的结果集，交替读取互不影响
+            try (Stream<Member> full = jdbcTemplate.queryForStream("SELECT * FROM member ORDER BY id", mapper);
+                 Stream<Member> names = jdbcTemplate.queryForStream(
+                         "SELECT member_name FROM member ORDER BY id", mapper)) {
+                java.util.Iterator<Member> fullIterator = full.iterator();
+                java.util.Iterator<Member> nameIterator = names.iterator();
+                for (long id = 1; id <= 2; id++) {
+                    Member withId = fullIterator.next();
+                    Member withoutId = nameIterator.next();
+                    assertEquals(Long.valueOf(id), withId.getId());
+                    assertNull(withoutId.getId());
+                    assertEquals(withId.getMemberName(), withoutId.getMemberName());
+                }
+            }
+
+            // 5. 映射时的 Error 原样抛出，不包装为 SQLException
+            try {
+                jdbcTemplate.query("SELECT member_name FROM member", new BeanPropertyRowMapper<>(BrokenMember.class));
+                fail("应抛出 AssertionError");
+            } catch (AssertionError expected) {
+                assertEquals("setter 失败", expected.getMessage());
+            }
+        } finally {
+            connection.prepareStatement("DROP TABLE member").execute();
+        }
+    }
+
+    @Test
+    public void testKeysetPagination() throws SQLException {
+        int total = 100_000;
+        connection.prepareStatement("CREATE TABLE seek_user (id BIGINT PRIMARY KEY, name VARCHAR(20), grp INT)").execute();
+        try {
+            connection.prepareStatement("INSERT INTO seek_user SELECT X, CONCAT('name-', X), MOD(X, 3) "
+                    + "FROM SYSTEM_RANGE(1, " + total + ")").execute();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            // 1. 按令牌逐页前进，页之间不重复、不遗漏
+            KeysetPagination pagination = new KeysetPagination(jdbcTemplate, "SELECT id, name FROM seek_user", "id");
+            KeysetPage<User> first = pagination.fetch(new UserRowMapper(), null, 10, true);
+            assertEquals(10, first.getItems().size());
+            assertEquals(Long.valueOf(total), first.getTotal());
+            assertTrue(first.hasNext());
+            KeysetPage<User> second = pagination.fetch(new UserRowMapper(), first.getNextToken(), 10, false);
+            assertEquals(Long.valueOf(11L), second.getItems().get(0).getId());
+            assertNull(second.getTotal());
+
+            // 2. 深分页：续页令牌直接定位，与 OFFSET 结果一致
+            KeysetPage<User> deep = pagination.fetch(new UserRowMapper(), null, 10, false);
+            for (int page = 1; page < 5_000; page++) {
+                deep = pagination.fetch(new UserRowMapper(), deep.getNextToken(), 10, false);
+            }
+            List<User> byOffset = jdbcTemplate.query("SELECT id, name FROM seek_user ORDER BY id LIMIT 10 OFFSET 49990",
+                    new UserRowMapper());
+            assertEquals(byOffset.get(0).getId(), deep.getItems().get(0).getId());
+
+            // 3. 多列降序 + 过滤条件，最后一页没有令牌
+            KeysetPagination filtered = new KeysetPagination(jdbcTemplate, "SELECT id, name, grp FROM seek_user",
+                    "grp = ? AND id <= ?", "grp DESC, id DESC");
+            KeysetPage<User> page = filtered.fetch(new UserRowMapper(), null, 4, true, 1, 20L);
+            assertEquals(Arrays.asList(19L, 16L, 13L, 10L),
+                    page.getItems().stream().map(User::getId).collect(java.util.stream.Collectors.toList()));
+            page = filtered.fetch(new UserRowMapper(), page.getNextToken(), 4, true, 1, 20L);
+            assertEquals(Arrays.asList(7L, 4L, 1L),
+                    page.getItems().stream().map(User::getId).collect(java.util.stream.Collectors.toList()));
+            assertFalse(page.hasNext());
+            assertEquals(Long.valueOf(7L), page.getTotal());
+
+            // 4. 总数按参数缓存，失效后重新统计
+            jdbcTemplate.update("DELETE FROM seek_user WHERE id = 1");
+            assertEquals(7L, filtered.count(1, 20L));
+            filtered.invalidateCount();
+            assertEquals(6L, filtered.count(1, 20L));
+
+            // 5. 总数缓存超过上限时按 LRU 淘汰最久未访问的参数，最近访问的参数仍命中缓存
+            jdbcTemplate.update("DELETE FROM seek_user WHERE id = 4");
+            for (long maxId = 100; maxId < 1200; maxId++) {
+                filtered.count(2, maxId);
+                if (maxId % 100 == 0) {
+                    assertEquals(6L, filtered.count(1, 20L));
+                }
+            }
+            assertEquals(6L, filtered.count(1, 20L));
+            jdbcTemplate.update("DELETE FROM seek_user WHERE id = 5");
+            assertEquals(32L, filtered.count(2, 100L));
+            assertEquals(400L, filtered.count(2, 1199L));
+
+            // 6. 令牌与排序键绑定
+            try {
+                filtered.fetch(new UserRowMapper(), first.getNextToken(), 4, false, 1, 20L);
+                fail("应拒绝其他排序键的令牌");
+            } catch (IllegalArgumentException expected) {
+                // 预期异常
+            }
+
+            // 7. 排序键相同但查询语句或过滤条件不同，令牌同样不能通用
+            KeysetPagination otherFilter = new KeysetPagination(jdbcTemplate, "SELECT id, name FROM seek_user",
+                    "grp = 1", "id");
+            KeysetPagination otherSelect = new KeysetPagination(jdbcTemplate, "SELECT id, name, grp FROM seek_user", "id");
+            for (KeysetPagination other : Arrays.asList(otherFilter, otherSelect)) {
+                try {
+                    other.fetch(new UserRowMapper(), first.getNextToken(), 4, false);
+                    fail("应拒绝其他查询的令牌");
+                } catch (IllegalArgumentException expected) {
+                    // 预期异常
+                }
+            }
+            assertEquals(Long.valueOf(11L), new KeysetPagination(jdbcTemplate, "SELECT id, name FROM seek_user", "id")
+                    .fetch(new UserRowMapper(), first.getNextToken(), 4, false).getItems().get(0).getId());
+        } finally {
+            connection.prepareStatement("DROP TABLE seek_user").execute();
+        }
+    }
+
+    @Test
+    public void testKeysetPaginationTemporalKeys() throws SQLException {
+        connection.prepareStatement("CREATE TABLE seek_event (id BIGINT PRIMARY KEY, name VARCHAR(20), "
+                + "created TIMESTAMP, event_day DATE, zoned TIMESTAMP WITH TIME ZONE)").execute();
+        try {
+            // 每两行共用一个时间值，排序键需追加 id 保证唯一
+            connection.prepareStatement("INSERT INTO seek_event SELECT X, CONCAT('event-', X), "
+                    + "DATEADD('MINUTE', X / 2, TIMESTAMP '2024-01-01 08:00:00.123456'), "
+                    + "DATEADD('DAY', X / 2, DATE '2024-01-01'), "
+                    + "DATEADD('HOUR', X / 2, TIMESTAMP WITH TIME ZONE '2024-01-01 08:00:00+08:00') "
+                    + "FROM SYSTEM_RANGE(1, 25)").execute();
+            List<Long> ascending = new ArrayList<>();
+            for (long id = 1; id <= 25; id++) {
+                ascending.add(id);
+            }
+            List<Long> descending = new ArrayList<>(ascending);
+            java.util.Collections.reverse(descending);
+
+            // 1. 驱动原生类型：Timestamp、java.sql.Date、OffsetDateTime
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            assertEquals(ascending, seekAll(jdbcTemplate, "created, id"));
+            assertEquals(descending, seekAll(jdbcTemplate, "event_day DESC, id DESC"));
+            assertEquals(ascending, seekAll(jdbcTemplate, "zoned, id"));
+
+            // 2. 返回 LocalDateTime / LocalDate / BigInteger 的驱动（如 MySQL 的 DATETIME、DATE、BIGINT UNSIGNED）
+            JdbcTemplate convertingTemplate = new JdbcTemplate(convertGetObject(dataSource, value -> {
+                if (value instanceof java.sql.Timestamp ts) {
+                    return ts.toLocalDateTime();
+                }
+                if (value instanceof java.sql.Date date) {
+                    return date.toLocalDate();
+                }
+                if (value instanceof Long id) {
+                    return java.math.BigInteger.valueOf(id);
+                }
+                return value;
+            }));
+            assertEquals(ascending, seekAll(convertingTemplate, "created, id"));
+            assertEquals(descending, seekAll(convertingTemplate, "event_day DESC, id DESC"));
+            assertEquals(descending, seekAll(convertingTemplate, "id DESC"));
+        } finally {
+            connection.prepareStatement("DROP TABLE seek_event").execute();
+        }
+    }
+
+    /**
+     * 按排序键每页 4 行翻到最后一页，返回依次读到的 id
+     */
+    private static List<Long> seekAll(JdbcTemplate jdbcTemplate, String sortKey) {
+        KeysetPagination pagination = new KeysetPagination(jdbcTemplate,
+                "SELECT id, name, created, event_day, zoned FROM seek_event", sortKey);
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        do {
+            KeysetPage<User> page = pagination.fetch(new UserRowMapper(), token, 4, false);
+            page.getItems().forEach(user -> ids.add(user.getId()));
+            token = page.getNextToken();
+        } while (token != null);
+        return ids;
+    }
+
+    /**
+     * 包装数据源，结果集上按列标签调用 getObject 的返回值经 converter 转换
+     */
+    private static DataSource convertGetObject(DataSource target, java.util.function.UnaryOperator<Object> converter) {
+        return decorate(DataSource.class, target, (method, result) -> !(result instanceof Connection conn) ? result
+                : decorate(Connection.class, conn, (connMethod, statement) ->
+                        !(statement instanceof java.sql.PreparedStatement ps) ? statement
+                        : decorate(java.sql.PreparedStatement.class, ps, (psMethod, rs) ->
+                                !(rs instanceof ResultSet resultSet) ? rs
+                                : decorate(ResultSet.class, resultSet, (rsMethod, value) ->
+                                        "getObject".equals(rsMethod.getName())
+                                                && Arrays.equals(rsMethod.getParameterTypes(), new Class<?>[]{String.class})
+                                                ? converter.apply(value) : value))));
+    }
+
+    // 对目标对象每次方法调用的返回值进行加工
+    private interface ResultDecorator {
+        Object decorate(java.lang.reflect.Method method, Object result);
+    }
+
+    private static <T> T decorate(Class<T> type, T target, ResultDecorator decorator) {
+        return type.cast(Proxy.newProxyInstance(JdbcTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    return decorator.decorate(method, invokeTarget(target, method, args));
+                }));
+    }
+
     @After
     public void clean() throws SQLException {
         // 清理测试表
@@ -0,0 +1,140 @@
+package com.github.microwind.springwind;
+
+import com.github.microwind.springwind.util.MethodInvoker;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+/**
+ * MethodInvoker 测试
+ * 覆盖基本类型参数与返回值、void 方法、静态方法、超过生成函数接口参数个数的方法，
+ * 以及参数个数/类型不匹配时统一抛出 IllegalArgumentException
+ */
+public class MethodInvokerTest {
+
+    public static class Target {
+        int calls;
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public long scale(long value, double factor) {
+            return (long) (value * factor);
+        }
+
+        public boolean isPositive(Integer value) {
+            return value > 0;
+        }
+
+        public String join(String a, String b, String c, String d) {
+            return a + b + c + d;
+        }
+
+        public void touch() {
+            calls++;
+        }
+
+        public void touch(int times, String ignored) {
+            calls += times;
+        }
+
+        private String secret(String value) {
+            return "secret:" + value;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public static String upper(String value) {
+            return value.toUpperCase();
+        }
+
+        public static int sum(int a, int b, int c) {
+            return a + b + c;
+        }
+
+        static int staticCalls;
+
+        public static void staticTouch() {
+            staticCalls++;
+        }
+    }
+
+    private static MethodInvoker invoker(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = Target.class.getDeclaredMethod(name, parameterTypes);
+        return MethodInvoker.of(method);
+    }
+
+    @Test
+    public void testPrimitiveArgumentsAndReturnValues() throws Throwable {
+        Target target = new Target();
+        assertEquals(5, invoker("add", int.class, int.class).invoke(target, 2, 3));
+        assertEquals(15L, invoker("scale", long.class, double.class).invoke(target, 10L, 1.5d));
+        assertEquals(Boolean.TRUE, invoker("isPositive", Integer.class).invoke(target, 7));
+        assertEquals("abcd", invoker("join", String.class, String.class, String.class, String.class)
+                .invoke(target, "a", "b", "c", "d"));
+    }
+
+    @Test
+    public void testVoidMethods() throws Throwable {
+        Target target = new Target();
+        assertNull(invoker("touch").invoke(target));
+        assertNull(invoker("touch", int.class, String.class).invoke(target, 4, null));
+        assertEquals(5, target.calls);
+    }
+
+    @Test
+    public void testStaticMethods() throws Throwable {
+        assertEquals("ABC", invoker("upper", String.class).invoke(null, "abc"));
+        assertEquals(6, invoker("sum", int.class, int.class, int.class).invoke(null, 1, 2, 3));
+        int before = Target.staticCalls;
+        assertNull(invoker("staticTouch").invoke(null));
+        assertEquals(before + 1, Target.staticCalls);
+    }
+
+    @Test
+    public void testPrivateMethod() throws Throwable {
+        assertEquals("secret:x", invoker("secret", String.class).invoke(new Target(), "x"));
+    }
+
+    @Test
+    public void testTargetExceptionIsNotWrapped() throws Throwable {
+        MethodInvoker invoker = invoker("fail", String.class);
+        try {
+            invoker.invoke(new Target(), "boom");
+            fail("应抛出目标方法的异常");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testArgumentMismatch() throws Throwable {
+        Target target = new Target();
+        MethodInvoker add = invoker("add", int.class, int.class);
+        // 参数个数不匹配
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(target, 1));
+        // 基本类型参数为 null
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(target, 1, null));
+        // 参数类型不匹配，不应表现为 ClassCastException
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(target, 1, "2"));
+        // 不做拓宽转换：long 参数不接受 Integer
+        MethodInvoker scale = invoker("scale", long.class, double.class);
+        assertThrows(IllegalArgumentException.class, () -> scale.invoke(target, 1, 2.0d));
+        // MethodHandle 实现（静态方法、超过 3 个参数）同样校验
+        assertThrows(IllegalArgumentException.class,
+                () -> invoker("upper", String.class).invoke(null, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> invoker("join", String.class, String.class, String.class, String.class)
+                        .invoke(target, "a", "b", "c", 4));
+        // checkArguments 单独调用时同样校验类型
+        assertThrows(IllegalArgumentException.class,
+                () -> invoker("isPositive", Integer.class).checkArguments(new Object[]{7L}));
+        // 未校验失败时正常调用
+        assertEquals(3, add.invoke(target, 1, 2));
+    }
+}
@@ -1,11 +1,16 @@
 package com.github.microwind.springwind;
 
 import com.github.microwind.springwind.annotation.Controller;
+import com.github.microwind.springwind.annotation.PathVariable;
+import com.github.microwind.springwind.annotation.RequestBody;
 import com.github.microwind.springwind.annotation.RequestMapping;
 import com.github.microwind.springwind.annotation.RequestParam;
 import com.github.microwind.springwind.core.SpringWindApplicationContext;
 import com.github.microwind.springwind.web.DispatcherServlet;
 import com.github.microwind.springwind.web.HandlerMapping;
+import com.github.microwind.springwind.web.HttpRequestUtil;
+import com.github.microwind.springwind.web.JsonUtil;
+import com.github.microwind.springwind.web.RouteIndex;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,7 +21,9 @@ import com.github.microwind.springwind.mock.MockHttpServletRequest;
 import com.github.microwind.springwind.mock.MockHttpServletResponse;
 
 import jakarta.servlet.ServletConfig;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
@@ -50,6 +57,26 @@ public class MvcTest {
             return data;
         }
 
+        // 测试嵌套结构的JSON流式输出
+        @RequestMapping(value = "/nested", method = "GET")
+        public Map<String, Object> getNested() {
+            Map<String, Object> inner = new HashMap<>();
+            inner.put("text", "line1\n\"quoted\"");
+            Map<String, Object> data = new HashMap<>();
+            data.put("items", java.util.Arrays.asList(1, 2, 3));
+            data.put("inner", inner);
+            return data;
+        }
+
+        // 测试@RequestBody按字节直接绑定
+        @RequestMapping(value = "/echo", method = "POST")
+        public Map<String, Object> echo(@RequestBody Map<String, Object> body, HttpServletRequest req) throws Exception {
+            Map<String, Object> data = new HashMap<>(body);
+            // 请求体已缓存，可重复读取
+            data.put("raw", HttpRequestUtil.getRequestBody(req));
+            return data;
+        }
+
         // 测试重定向
         @RequestMapping(value = "/redirect", method = "GET")
         public String redirect() {
@@ -62,6 +89,38 @@ public class MvcTest {
             return "forward:/home";
         }
 
+        // 测试路径变量
+        @RequestMapping(value = "/items/{id}", method = "GET")
+        public String getItem(@PathVariable("id") Long id) {
+            return "item:" + id;
+        }
+
+        // 测试静态路径优先于路径变量
+        @RequestMapping(value = "/items/latest", method = "GET")
+        public String getLatestItem() {
+            return "item:latest";
+        }
+
+        // 测试段内路径变量（正则回退匹配）
+        @RequestMapping(value = "/files/{name}.txt", method = "GET")
+        public String getFile(@PathVariable("name") String name) {
+            return "file:" + name;
+        }
+
+        // 测试各类参数解析器：Servlet 对象、路径变量、请求参数（默认值、可选、类型转换）、请求体及不支持的类型
+        @RequestMapping(value = "/resolve/{id}", method = "POST")
+        public String resolveArguments(HttpServletRequest req, HttpServletResponse resp, HttpSession session,
+                                       @PathVariable("id") long id,
+                                       @RequestParam(value = "page", defaultValue = "1") int page,
+                                       @RequestParam(value = "ratio", required = false) Double ratio,
+                                       @RequestParam(value = "flag", required = false) Boolean flag,
+                                       @RequestBody(required = false) String body,
+                                       Object unsupported) {
+            return req.getMethod() + "|" + (resp != null) + "|" + (session != null)
+                    + "|id=" + id + "|page=" + page + "|ratio=" + ratio + "|flag=" + flag
+                    + "|body=" + body + "|unsupported=" + unsupported;
+        }
+
         // 测试异常处理
         @RequestMapping(value = "/error", method = "GET")
         public String error() {
@@ -202,6 +261,216 @@ public class MvcTest {
         assertTrue(response.getContentType().contains("application/json"));
     }
 
+    // 测试8：路由索引 - 路径变量、静态优先与正则回退
+    @Test
+    public void testRouteIndexMatching() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/42");
+        request.setServletPath("/api/items/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals("item:42", response.getContentAsString());
+
+        request = new MockHttpServletRequest("GET", "/api/items/latest");
+        request.setServletPath("/api/items/latest");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals("item:latest", response.getContentAsString());
+
+        request = new MockHttpServletRequest("GET", "/api/files/readme.txt");
+        request.setServletPath("/api/files/readme.txt");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals("file:readme", response.getContentAsString());
+
+        request = new MockHttpServletRequest("GET", "/api/items/42/extra");
+        request.setServletPath("/api/items/42/extra");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(404, response.getStatus());
+    }
+
+    // 测试8.1：路由索引按路径段精确匹配，与 PathMatcher 正则语义一致
+    @Test
+    public void testRouteIndexExactSegments() throws Exception {
+        ApiController controller = new ApiController();
+        java.lang.reflect.Method getItem = ApiController.class.getMethod("getItem", Long.class);
+        java.lang.reflect.Method getLatestItem = ApiController.class.getMethod("getLatestItem");
+        java.lang.reflect.Method getFile = ApiController.class.getMethod("getFile", String.class);
+        java.lang.reflect.Method getData = ApiController.class.getMethod("getData");
+
+        RouteIndex index = new RouteIndex();
+        assertTrue(index.register("GET", new HandlerMapping(controller, getItem, "/api/items/{id}")));
+        assertTrue(index.register("get", new HandlerMapping(controller, getLatestItem, "/api/items/latest")));
+        assertTrue(index.register("GET", new HandlerMapping(controller, getFile, "/api/files/{name}.txt")));
+        assertTrue(index.register("GET", new HandlerMapping(controller, getData, "/")));
+        // 相同方法+路径保留先注册者
+        assertFalse(index.register("GET", new HandlerMapping(controller, getData, "/api/items/{id}")));
+        assertEquals(4, index.size());
+
+        RouteIndex.RouteMatch match = index.lookup("GET", "/api/items/42");
+        assertEquals(getItem, match.getHandler().getMethod());
+        assertEquals("42", match.getPathVariables().get("id"));
+        assertEquals(getLatestItem, index.lookup("GET", "/api/items/latest").getHandler().getMethod());
+        assertEquals("readme", index.lookup("GET", "/api/files/readme.txt").getPathVariables().get("name"));
+        assertEquals(getData, index.lookup("GET", "/").getHandler().getMethod());
+        assertNull(index.lookup("POST", "/api/items/42"));
+
+        // 空段、末尾斜杠不被忽略，变量段不匹配空段
+        assertNull(index.lookup("GET", "/api/items//42"));
+        assertNull(index.lookup("GET", "//api/items/42"));
+        assertNull(index.lookup("GET", "/api/items/42/"));
+        assertNull(index.lookup("GET", "/api/items/latest/"));
+        assertNull(index.lookup("GET", "/api/items/"));
+        assertNull(index.lookup("GET", "/api/files//readme.txt"));
+        for (String path : new String[]{"/api/items//42", "/api/items/42/", "/api/items/"}) {
+            assertFalse(new HandlerMapping(controller, getItem, "/api/items/{id}").getPathMatcher().matches(path));
+        }
+
+        // 经 DispatcherServlet 的请求路径先归一化（合并重复斜杠、去掉末尾斜杠），仍可匹配
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items//42/");
+        request.setServletPath("/api/items//42/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals("item:42", response.getContentAsString());
+    }
+
+    // 测试9：嵌套 Map/List 以合法 JSON 流式输出
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNestedJsonResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/nested");
+        request.setServletPath("/api/nested");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        dispatcherServlet.service(request, response);
+
+        assertEquals(200, response.getStatus());
+        Map<String, Object> json = JsonUtil.parseToMap(response.getContentAsString());
+        assertEquals(java.util.Arrays.asList(1, 2, 3), json.get("items"));
+        assertEquals("line1\n\"quoted\"", ((Map<String, Object>) json.get("inner")).get("text"));
+    }
+
+    // 测试10：@RequestBody 字节绑定、请求体缓存与大小限制
+    @Test
+    public void testRequestBodyBinding() throws Exception {
+        byte[] body = "{\"name\":\"张三\"}".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setServletPath("/api/echo");
+        request.setContent(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        dispatcherServlet.service(request, response);
+
+        assertEquals(200, response.getStatus());
+        Map<String, Object> json = JsonUtil.parseToMap(response.getContentAsString());
+        assertEquals("张三", json.get("name"));
+        assertEquals("{\"name\":\"张三\"}", json.get("raw"));
+
+        // 按请求声明的字符集解码
+        request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setServletPath("/api/echo");
+        request.setCharacterEncoding("GBK");
+        request.setContent("{\"name\":\"张三\"}".getBytes("GBK"));
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"name\":\"张三\"}", JsonUtil.parseToMap(response.getContentAsString()).get("raw"));
+
+        // 大小上限是 Servlet 实例配置，不影响其他 DispatcherServlet
+        dispatcherServlet.setMaxRequestBodySize(4);
+        request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setServletPath("/api/echo");
+        request.setContent(body);
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(400, response.getStatus());
+        assertEquals(HttpRequestUtil.DEFAULT_MAX_BODY_SIZE, new DispatcherServlet(applicationContext).getMaxRequestBodySize());
+
+        dispatcherServlet.setMaxRequestBodySize(Long.MAX_VALUE);
+        assertEquals(HttpRequestUtil.MAX_BODY_ARRAY_SIZE, dispatcherServlet.getMaxRequestBodySize());
+    }
+
+    // 测试11：参数解析器 - 每种解析器各自生效，不支持的类型回退为 null
+    @Test
+    public void testArgumentResolvers() throws Exception {
+        // 全部参数齐全
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resolve/7");
+        request.setServletPath("/api/resolve/7");
+        request.addParameter("page", "3");
+        request.addParameter("ratio", "0.5");
+        request.addParameter("flag", "true");
+        request.setContent("hello".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals("POST|true|true|id=7|page=3|ratio=0.5|flag=true|body=hello|unsupported=null",
+                response.getContentAsString());
+
+        // 缺省：请求参数取默认值，可选参数和可选请求体为 null；转换失败的可选参数为 null
+        request = new MockHttpServletRequest("POST", "/api/resolve/8");
+        request.setServletPath("/api/resolve/8");
+        request.addParameter("ratio", "abc");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals("POST|true|true|id=8|page=1|ratio=null|flag=null|body=null|unsupported=null",
+                response.getContentAsString());
+
+        // 基本类型参数转换失败：参数校验失败返回 400
+        request = new MockHttpServletRequest("POST", "/api/resolve/9");
+        request.setServletPath("/api/resolve/9");
+        request.addParameter("page", "abc");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(400, response.getStatus());
+
+        // 缺少必须的请求参数返回 400
+        request = new MockHttpServletRequest("GET", "/api/user");
+        request.setServletPath("/api/user");
+        request.addParameter("id", "123");
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("name"));
+
+        // 必须的请求体为空返回 400
+        request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setServletPath("/api/echo");
+        request.setContent("  ".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        response = new MockHttpServletResponse();
+        dispatcherServlet.service(request, response);
+        assertEquals(400, response.getStatus());
+    }
+
+    /**
+     * 读取请求体：缓冲区按需扩容，未知长度时边读边检查上限
+     */
+    @Test
+    public void testReadBody() throws Exception {
+        byte[] large = new byte[200 * 1024 + 7];
+        java.util.Arrays.fill(large, (byte) 'a');
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setContent(large);
+        assertArrayEquals(large, HttpRequestUtil.readBody(request, large.length));
+
+        // 未声明长度（chunked）
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/echo") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setContent(large);
+        assertArrayEquals(large, HttpRequestUtil.readBody(chunked, large.length));
+        try {
+            HttpRequestUtil.readBody(chunked, large.length - 1);
+            fail("超过上限应抛出异常");
+        } catch (IllegalArgumentException expected) {
+            // 超过上限
+        }
+    }
+
     @After
     public void clean() {
         if (applicationContext != null) {
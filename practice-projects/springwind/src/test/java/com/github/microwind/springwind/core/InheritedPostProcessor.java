@@ -0,0 +1,28 @@
+package com.github.microwind.springwind.core;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测试用后处理器：未标注组件注解，经抽象父类 -> 子接口间接实现 BeanPostProcessor
+ * 用于验证包扫描能按完整的继承层级识别后处理器
+ */
+public class InheritedPostProcessor extends AbstractRecordingPostProcessor {
+
+    /**
+     * 经过本后处理器的 Bean 名称
+     */
+    public static final Set<String> PROCESSED_BEANS = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        PROCESSED_BEANS.add(beanName);
+        return bean;
+    }
+}
+
+interface RecordingPostProcessor extends BeanPostProcessor {
+}
+
+abstract class AbstractRecordingPostProcessor implements RecordingPostProcessor {
+}
@@ -23,6 +23,7 @@ public class MockHttpServletRequest implements HttpServletRequest {
     private String characterEncoding = "UTF-8";
     private String contentType;
     private String contextPath = "";
+    private byte[] content;
 
     public MockHttpServletRequest(String method, String requestURI) {
         this.method = method;
@@ -50,6 +51,10 @@ public class MockHttpServletRequest implements HttpServletRequest {
         headers.put(name, value);
     }
 
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
     @Override
     public String getServletPath() {
         return servletPath;
@@ -421,12 +426,12 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public int getContentLength() {
-        return 0;
+        return content == null ? 0 : content.length;
     }
 
     @Override
     public long getContentLengthLong() {
-        return 0;
+        return getContentLength();
     }
 
     @Override
@@ -440,16 +445,22 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        // 返回一个空的ServletInputStream
+        // 返回基于content的ServletInputStream（未设置content时为空流）
+        final ByteArrayInputStream in = new ByteArrayInputStream(content == null ? new byte[0] : content);
         return new ServletInputStream() {
             @Override
             public int read() throws IOException {
-                return -1; // EOF
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return in.read(b, off, len);
             }
 
             @Override
             public boolean isFinished() {
-                return true;
+                return in.available() == 0;
             }
 
             @Override
@@ -1,11 +1,14 @@
 package com.github.microwind.springwind.mock;
 
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
 import java.util.*;
 
 /**
@@ -22,6 +25,8 @@ public class MockHttpServletResponse implements HttpServletResponse {
     // 响应体存储（用于获取输出内容）
     private final StringWriter bodyWriter = new StringWriter();
     private final PrintWriter writer = new PrintWriter(bodyWriter);
+    // 字节响应体存储（getOutputStream写入）
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
 
     // 响应头存储（支持setHeader/getHeader，解决Content-Type问题）
     private final Map<String, String> headers = new HashMap<>(); // 单值头（常用场景）
@@ -40,7 +45,7 @@ public class MockHttpServletResponse implements HttpServletResponse {
      */
     public String getContentAsString() {
         writer.flush(); // 确保缓冲区内容已写入
-        return bodyWriter.toString();
+        return bodyWriter.toString() + new String(bodyBytes.toByteArray(), Charset.forName(characterEncoding));
     }
 
     @Override
@@ -249,7 +254,26 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
-        throw new UnsupportedOperationException("Mock不支持ServletOutputStream，建议用getWriter()");
+        return new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                bodyBytes.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bodyBytes.write(b, off, len);
+            }
+        };
     }
 
     @Override